@@ -0,0 +1,98 @@
+package me.callsen.taylor.scenicrouting.javasdk.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import me.callsen.taylor.scenicrouting.javasdk.data.AssociatedDataBatchWriter;
+import me.callsen.taylor.scenicrouting.javasdk.data.AssociatedDataRecords;
+import me.callsen.taylor.scenicrouting.javasdk.data.GraphDb;
+
+/**
+ * associatedData writes (one transaction per relationship, and batched through AssociatedDataBatchWriter)
+ *  and reads (property fetch + decode) across every relationship in the fixture.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class AssociatedDataBenchmark {
+
+  @Param({ "false", "true" })
+  public boolean cached;
+
+  private GraphDb graphDb;
+  private List<Long> relationshipIds;
+  private long seed = 0;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    graphDb = BenchmarkFixture.loadGraphDb();
+    relationshipIds = BenchmarkFixture.getRelationshipIds(graphDb);
+    BenchmarkFixture.populateAssociatedData(graphDb, relationshipIds);
+    if (cached) {
+      graphDb.enableAssociatedDataCache();
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    graphDb.shutdown();
+  }
+
+  @Benchmark
+  public void readAndParse(Blackhole blackhole) {
+    try ( Transaction tx = graphDb.getTransaction() ) {
+      for (long relationshipId : relationshipIds) {
+        Relationship relationship = tx.getRelationshipById(relationshipId);
+        AssociatedDataRecords records = graphDb.getAssociatedData(relationship, BenchmarkFixture.ASSOCIATED_DATA_PROPERTY);
+        blackhole.consume(records.getDouble(0, "gain"));
+      }
+    }
+  }
+
+  // single - one transaction per relationship write, the pattern used by ad hoc scorer updates
+  @Benchmark
+  public void writeSingle() {
+    seed++;
+    for (long relationshipId : relationshipIds) {
+      try ( Transaction tx = graphDb.getTransaction() ) {
+        Relationship relationship = tx.getRelationshipById(relationshipId);
+        graphDb.setAssociatedData(relationship, BenchmarkFixture.ASSOCIATED_DATA_PROPERTY, BenchmarkFixture.associatedData(relationshipId + seed));
+        tx.commit();
+      }
+    }
+  }
+
+  // bulk - every relationship written through AssociatedDataBatchWriter with default batch limits
+  @Benchmark
+  public long writeBulk() {
+    seed++;
+    try ( AssociatedDataBatchWriter writer = new AssociatedDataBatchWriter(graphDb) ) {
+      for (long relationshipId : relationshipIds) {
+        writer.setAssociatedData(relationshipId, BenchmarkFixture.ASSOCIATED_DATA_PROPERTY, BenchmarkFixture.associatedData(relationshipId + seed));
+      }
+      writer.flush();
+      return writer.getEdgesWritten();
+    }
+  }
+
+}
@@ -0,0 +1,63 @@
+package me.callsen.taylor.scenicrouting.javasdk.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.json.JSONObject;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.Result;
+import org.neo4j.graphdb.Transaction;
+
+import me.callsen.taylor.scenicrouting.javasdk.TestUtils;
+import me.callsen.taylor.scenicrouting.javasdk.data.GraphDb;
+
+/**
+ * Shared setup for benchmarks - every trial works on its own copy of the neo4j/graph.db fixture.
+ */
+final class BenchmarkFixture {
+
+  static final String ASSOCIATED_DATA_PROPERTY = "ad_benchmark";
+
+  private BenchmarkFixture() {}
+
+  static GraphDb loadGraphDb() throws Exception {
+    GraphDb graphDb = TestUtils.getLoadedGraphDb();
+    if (graphDb.getRelationshipCount() == 0) {
+      graphDb.shutdown();
+      throw new IllegalStateException("neo4j/graph.db fixture is empty - check the scenicrouting.javasdk test-jar dependency");
+    }
+    return graphDb;
+  }
+
+  static List<Long> getRelationshipIds(GraphDb graphDb) {
+    List<Long> relationshipIds = new ArrayList<Long>();
+    try ( Transaction tx = graphDb.getTransaction(); Result result = tx.execute("MATCH ()-[r:CONNECTS]->() RETURN id(r) AS id ORDER BY id") ) {
+      while (result.hasNext()) {
+        relationshipIds.add((Long) result.next().get("id"));
+      }
+    }
+    return relationshipIds;
+  }
+
+  // representative scorer payload - a handful of numeric fields and a string
+  static JSONObject associatedData(long seed) {
+    JSONObject associatedData = new JSONObject();
+    associatedData.put("start", 40d + (seed % 97) / 10d);
+    associatedData.put("end", 42d + (seed % 89) / 10d);
+    associatedData.put("gain", seed % 13);
+    associatedData.put("source", "benchmark");
+    return associatedData;
+  }
+
+  // write associatedData to every relationship so read benchmarks have data to parse
+  static void populateAssociatedData(GraphDb graphDb, List<Long> relationshipIds) {
+    try ( Transaction tx = graphDb.getTransaction() ) {
+      for (long relationshipId : relationshipIds) {
+        Relationship relationship = tx.getRelationshipById(relationshipId);
+        graphDb.setAssociatedData(relationship, ASSOCIATED_DATA_PROPERTY, associatedData(relationshipId));
+      }
+      tx.commit();
+    }
+  }
+
+}
@@ -0,0 +1,69 @@
+package me.callsen.taylor.scenicrouting.javasdk.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.graphdb.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import me.callsen.taylor.scenicrouting.javasdk.data.GraphDb;
+
+/**
+ * Node and relationship index creation, measured until the indexes are online. Indexes are dropped
+ *  before every invocation, so each measurement is a single cold build.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(2)
+public class IndexBenchmark {
+
+  private GraphDb graphDb;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    graphDb = BenchmarkFixture.loadGraphDb();
+  }
+
+  @Setup(Level.Invocation)
+  public void dropIndexes() {
+    graphDb.dropNodeIndexes();
+    graphDb.dropRelationshipIndexes();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    graphDb.shutdown();
+  }
+
+  @Benchmark
+  public void createNodeIndexes() {
+    graphDb.createNodeIndexes();
+    awaitIndexesOnline();
+  }
+
+  @Benchmark
+  public void createRelationshipIndexes() {
+    graphDb.createRelationshipIndexes();
+    awaitIndexesOnline();
+  }
+
+  private void awaitIndexesOnline() {
+    try ( Transaction tx = graphDb.getTransaction() ) {
+      tx.schema().awaitIndexesOnline(10, TimeUnit.MINUTES);
+    }
+  }
+
+}
@@ -0,0 +1,92 @@
+package me.callsen.taylor.scenicrouting.javasdk.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.Result;
+import org.neo4j.graphdb.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import me.callsen.taylor.scenicrouting.javasdk.data.GraphDb;
+import me.callsen.taylor.scenicrouting.javasdk.data.RelationshipCursor;
+import me.callsen.taylor.scenicrouting.javasdk.data.RelationshipPage;
+
+/**
+ * Full associatedData relationship scans through the offset (SKIP / LIMIT) and keyset paging APIs,
+ *  and relationship counts. Every fixture relationship is given associatedData during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class RelationshipScanBenchmark {
+
+  @Param({ "100", "5000" })
+  public int pageSize;
+
+  private GraphDb graphDb;
+  private long associatedDataRelationshipCount;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    graphDb = BenchmarkFixture.loadGraphDb();
+    BenchmarkFixture.populateAssociatedData(graphDb, BenchmarkFixture.getRelationshipIds(graphDb));
+    associatedDataRelationshipCount = graphDb.getAssociatedDataRelationshipCount();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    graphDb.shutdown();
+  }
+
+  @Benchmark
+  public long relationshipCount() {
+    return graphDb.getRelationshipCount();
+  }
+
+  // legacy SKIP / LIMIT page numbers
+  @Benchmark
+  public void pageScanOffset(Blackhole blackhole) {
+    try ( Transaction tx = graphDb.getTransaction() ) {
+      long pageCount = (associatedDataRelationshipCount + pageSize - 1) / pageSize;
+      for (int pageNumber = 0; pageNumber < pageCount; pageNumber++) {
+        try ( Result page = graphDb.getAssociatedDataRelationshipPage(tx, pageNumber, pageSize) ) {
+          while (page.hasNext()) {
+            blackhole.consume(((Relationship) page.next().get("way")).getId());
+          }
+        }
+      }
+    }
+  }
+
+  // keyset (cursor) pages
+  @Benchmark
+  public void pageScanCursor(Blackhole blackhole) {
+    try ( Transaction tx = graphDb.getTransaction() ) {
+      RelationshipCursor cursor = RelationshipCursor.start();
+      while (cursor != null) {
+        RelationshipPage page = graphDb.getAssociatedDataRelationshipPage(tx, cursor, pageSize);
+        for (Relationship relationship : page.getRelationships()) {
+          blackhole.consume(relationship.getId());
+        }
+        cursor = page.getNextCursor();
+      }
+    }
+  }
+
+}
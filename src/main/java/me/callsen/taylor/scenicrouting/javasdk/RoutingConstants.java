@@ -10,13 +10,45 @@ public class RoutingConstants {
   public enum RelationshipTypes implements RelationshipType { CONNECTS; }
 
   public static final String GRAPH_INDEX_NAME_WAY_GEOM_POINT = "way_geom_point_idx";
+  public static final String GRAPH_INDEX_NAME_WAY_OSM_ID = "way_osm_id_idx";
   public static final String GRAPH_INDEX_NAME_INTERSECTION_GEOM_POINT = "intersection_geom_point_idx";
   public static final String GRAPH_INDEX_NAME_INTERSECTION_OSM_ID = "INTERSECTION(osm_id)";
 
   public static final int GRAPH_RELATIONSHIP_PAGINATION_AMOUNT = 5000;
+  public static final int GRAPH_RELATIONSHIP_STREAM_PAGE_SIZE = 1000;
+
+  public static final int GRAPH_ASSOCIATED_DATA_BATCH_EDGES = 10000;
+  public static final long GRAPH_ASSOCIATED_DATA_BATCH_BYTES = 32L * 1024 * 1024;
+  public static final int GRAPH_ASSOCIATED_DATA_BATCH_MAX_RETRIES = 5;
+
+  public static final int GRAPH_ENRICHMENT_STRIPE_QUEUE_SIZE = 1000;
+
+  public static final int GRAPH_ASSOCIATED_DATA_CACHE_MAX_ENTRIES = 100000;
+  public static final long GRAPH_ASSOCIATED_DATA_CACHE_MAX_BYTES = 64L * 1024 * 1024;
+
+  public static final int GRAPH_ASSOCIATED_DATA_CHANGE_LOG_CAPACITY = 1000000;
+
+  public static final int GRAPH_DELETE_CHUNK_SIZE = 10000;
+  public static final int GRAPH_DELETE_MAX_RETRIES = 5;
+
+  public static final int GRAPH_WARMUP_PROGRESS_INTERVAL = 100000;
+
+  public static final int GRAPH_IMPORT_BATCH_SIZE = 50000;
+  public static final long GRAPH_IMPORT_INDEX_ONLINE_TIMEOUT_MINUTES = 60;
+
+  // nearest lookups without an in-memory spatial index only match within this radius
+  public static final double GRAPH_SPATIAL_FALLBACK_MAX_RADIUS_METERS = 50000d;
 
   public static final String GRAPH_PROPERTY_NAME_ASSOCIATED_DATA = "associatedData";
+  public static final String GRAPH_PROPERTY_PREFIX_ASSOCIATED_DATA = "ad_";
   public static final String GRAPH_PROPERTY_NAME_GEOM = "geom";
+  public static final String GRAPH_PROPERTY_NAME_GEOM_WKT = "geom_wkt";
+  public static final String GRAPH_PROPERTY_NAME_LATITUDE = "lat";
+  public static final String GRAPH_PROPERTY_NAME_LONGITUDE = "lon";
+  public static final String GRAPH_PROPERTY_NAME_START_OSM_ID = "start_osm_id";
+  public static final String GRAPH_PROPERTY_NAME_END_OSM_ID = "end_osm_id";
   public static final String GRAPH_PROPERTY_NAME_OSM_ID = "osm_id";
+  public static final String GRAPH_PROPERTY_NAME_LENGTH = "length";
+  public static final String GRAPH_PROPERTY_NAME_ONEWAY = "oneway";
 
 }
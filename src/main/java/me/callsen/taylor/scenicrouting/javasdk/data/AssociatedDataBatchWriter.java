@@ -0,0 +1,221 @@
+package me.callsen.taylor.scenicrouting.javasdk.data;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.neo4j.graphdb.NotFoundException;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.TransientFailureException;
+
+import me.callsen.taylor.scenicrouting.javasdk.RoutingConstants;
+import me.callsen.taylor.scenicrouting.javasdk.metrics.MetricsListener;
+import me.callsen.taylor.scenicrouting.javasdk.util.StructuredLogger;
+
+/**
+ * Buffers associatedData writes keyed by relationship id and commits them in batches of a bounded
+ *  number of edges / bytes, each batch in its own transaction. Transient failures (e.g. deadlocks)
+ *  are retried by replaying the whole batch. Not thread safe - use one writer per thread.
+ */
+public class AssociatedDataBatchWriter implements AutoCloseable {
+
+  private static final StructuredLogger LOGGER = StructuredLogger.getLogger(AssociatedDataBatchWriter.class);
+
+  private static final long RETRY_BACKOFF_MILLIS = 50;
+
+  private final GraphDb graphDb;
+  private final int maxBatchEdges;
+  private final long maxBatchBytes;
+  private final int maxRetries;
+
+  // pending updates - relationship id -> (property name -> serialized JSON array)
+  private final Map<Long, Map<String, String>> pendingUpdates = new LinkedHashMap<Long, Map<String, String>>();
+  private long pendingBytes = 0;
+
+  private long edgesWritten = 0;
+  private long propertiesWritten = 0;
+  private long edgesMissing = 0;
+  private long batchesCommitted = 0;
+  private long retries = 0;
+  private final long startNanos = System.nanoTime();
+
+  public AssociatedDataBatchWriter(GraphDb graphDb) {
+    this(graphDb, RoutingConstants.GRAPH_ASSOCIATED_DATA_BATCH_EDGES, RoutingConstants.GRAPH_ASSOCIATED_DATA_BATCH_BYTES);
+  }
+
+  public AssociatedDataBatchWriter(GraphDb graphDb, int maxBatchEdges, long maxBatchBytes) {
+    this(graphDb, maxBatchEdges, maxBatchBytes, RoutingConstants.GRAPH_ASSOCIATED_DATA_BATCH_MAX_RETRIES);
+  }
+
+  public AssociatedDataBatchWriter(GraphDb graphDb, int maxBatchEdges, long maxBatchBytes, int maxRetries) {
+    if (maxBatchEdges < 1 || maxBatchBytes < 1) {
+      throw new IllegalArgumentException("batch limits must be positive");
+    }
+    graphDb.checkWritable("write associated data batches");
+    this.graphDb = graphDb;
+    this.maxBatchEdges = maxBatchEdges;
+    this.maxBatchBytes = maxBatchBytes;
+    this.maxRetries = maxRetries;
+  }
+
+  public void setAssociatedData(Relationship relationship, String propertyName, JSONObject associatedData) {
+    setAssociatedData(relationship.getId(), propertyName, associatedData);
+  }
+
+  public void setAssociatedData(Relationship relationship, String propertyName, JSONArray associatedData) {
+    setAssociatedData(relationship.getId(), propertyName, associatedData);
+  }
+
+  public void setAssociatedData(long relationshipId, String propertyName, JSONObject associatedData) {
+    JSONArray associatedDataArray = new JSONArray();
+    associatedDataArray.put(associatedData);
+    buffer(relationshipId, propertyName, associatedDataArray.toString());
+  }
+
+  public void setAssociatedData(long relationshipId, String propertyName, JSONArray associatedData) {
+    buffer(relationshipId, propertyName, associatedData.toString());
+  }
+
+  // every property of one edge (property name -> serialized JSON array) - the batch limits are only
+  //  checked once the whole edge is buffered, so its properties always commit in the same batch
+  void buffer(long relationshipId, Map<String, String> associatedDataJson) {
+    for (Map.Entry<String, String> property : associatedDataJson.entrySet()) {
+      bufferProperty(relationshipId, property.getKey(), property.getValue());
+    }
+    flushIfFull();
+  }
+
+  private void buffer(long relationshipId, String propertyName, String associatedDataJson) {
+    bufferProperty(relationshipId, propertyName, associatedDataJson);
+    flushIfFull();
+  }
+
+  private void bufferProperty(long relationshipId, String propertyName, String associatedDataJson) {
+    Map<String, String> relationshipUpdates = pendingUpdates.computeIfAbsent(relationshipId, id -> new LinkedHashMap<String, String>());
+
+    // later writes to the same property replace earlier ones within the batch
+    String previousJson = relationshipUpdates.put(propertyName, associatedDataJson);
+    if (previousJson != null) {
+      pendingBytes -= estimateBytes(propertyName, previousJson);
+    }
+    pendingBytes += estimateBytes(propertyName, associatedDataJson);
+  }
+
+  private void flushIfFull() {
+    if (pendingUpdates.size() >= maxBatchEdges || pendingBytes >= maxBatchBytes) {
+      flush();
+    }
+  }
+
+  public void flush() {
+    if (pendingUpdates.isEmpty()) {
+      return;
+    }
+
+    long batchStartNanos = System.nanoTime();
+    int attempt = 0;
+    long batchProperties;
+    long batchMissing;
+    while (true) {
+      batchProperties = 0;
+      batchMissing = 0;
+      try ( Transaction tx = graphDb.getTransaction() ) {
+        for (Map.Entry<Long, Map<String, String>> relationshipEntry : pendingUpdates.entrySet()) {
+          Relationship relationship;
+          try {
+            relationship = tx.getRelationshipById(relationshipEntry.getKey());
+          } catch (NotFoundException e) {
+            batchMissing++;
+            continue;
+          }
+          // all properties of the edge at once - the associatedData array is merged a single time
+          graphDb.setAssociatedDataJson(relationship, relationshipEntry.getValue());
+          batchProperties += relationshipEntry.getValue().size();
+        }
+        tx.commit();
+        break;
+      } catch (TransientFailureException e) {
+        // whole batch was rolled back - replay it after a short backoff
+        if (++attempt > maxRetries) {
+          throw e;
+        }
+        retries++;
+        graphDb.getMetricsListener().incrementCounter(MetricsListener.ASSOCIATED_DATA_BATCH_RETRY, 1);
+        LOGGER.warn("associated_data.batch.retry", "attempt", attempt, "maxRetries", maxRetries, "reason", e.getMessage());
+        backoff(attempt);
+      }
+    }
+
+    int batchEdges = pendingUpdates.size();
+    edgesWritten += batchEdges - batchMissing;
+    edgesMissing += batchMissing;
+    propertiesWritten += batchProperties;
+    batchesCommitted++;
+    pendingUpdates.clear();
+    pendingBytes = 0;
+
+    long batchNanos = System.nanoTime() - batchStartNanos;
+    graphDb.getMetricsListener().recordTimer(MetricsListener.ASSOCIATED_DATA_BATCH_COMMIT, batchNanos);
+    graphDb.getMetricsListener().incrementCounter(MetricsListener.ASSOCIATED_DATA_BATCH_EDGES, batchEdges - batchMissing);
+    LOGGER.info("associated_data.batch.committed", "batch", batchesCommitted, "edges", batchEdges, 
+        "millis", batchNanos / 1000000, "edgesPerSecond", String.format("%.0f", getEdgesPerSecond()));
+    if (batchMissing > 0) {
+      LOGGER.warn("associated_data.batch.missing_relationships", "batch", batchesCommitted, "skipped", batchMissing);
+    }
+  }
+
+  @Override
+  public void close() {
+    flush();
+  }
+
+  public int getPendingEdges() {
+    return pendingUpdates.size();
+  }
+
+  public long getPendingBytes() {
+    return pendingBytes;
+  }
+
+  public long getEdgesWritten() {
+    return edgesWritten;
+  }
+
+  public long getPropertiesWritten() {
+    return propertiesWritten;
+  }
+
+  public long getEdgesMissing() {
+    return edgesMissing;
+  }
+
+  public long getBatchesCommitted() {
+    return batchesCommitted;
+  }
+
+  public long getRetries() {
+    return retries;
+  }
+
+  public double getEdgesPerSecond() {
+    double elapsedSeconds = (System.nanoTime() - startNanos) / 1e9d;
+    return elapsedSeconds > 0 ? edgesWritten / elapsedSeconds : 0;
+  }
+
+  // rough heap footprint of a buffered update - strings are UTF-16 on heap
+  private static long estimateBytes(String propertyName, String associatedDataJson) {
+    return 2L * (propertyName.length() + associatedDataJson.length());
+  }
+
+  private static void backoff(int attempt) {
+    try {
+      Thread.sleep(RETRY_BACKOFF_MILLIS * (1L << Math.min(attempt, 6)));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("interrupted while retrying associated data batch", e);
+    }
+  }
+
+}
@@ -0,0 +1,197 @@
+package me.callsen.taylor.scenicrouting.javasdk.data;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Bounded LRU cache of decoded associatedData, keyed by relationship id and property name. Limited
+ *  both by entry count and by total weight (approximate bytes of the stored property values), 
+ *  evicting least recently used entries first. Thread safe - all access is synchronized on the cache.
+ *
+ *  Read-through callers take getGeneration() before reading the store and pass it to put(), which
+ *  drops the value if the key was invalidated in between - so a reader racing a committing writer
+ *  cannot put back the value the writer just replaced.
+ */
+public class AssociatedDataCache {
+
+  private static final int GENERATION_STRIPES = 64;
+
+  private final int maxEntries;
+  private final long maxWeight;
+
+  // access ordered - iteration starts at the least recently used entry
+  private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<Key, Entry>(1024, 0.75f, true);
+  private long weight = 0;
+
+  // invalidation counters, striped by key hash - bumped on every invalidate, whether or not the key was cached
+  private final long[] generations = new long[GENERATION_STRIPES];
+
+  private long hits = 0;
+  private long misses = 0;
+  private long evictions = 0;
+  private long invalidations = 0;
+
+  public AssociatedDataCache(int maxEntries, long maxWeight) {
+    if (maxEntries < 1 || maxWeight < 1) {
+      throw new IllegalArgumentException("cache limits must be positive");
+    }
+    this.maxEntries = maxEntries;
+    this.maxWeight = maxWeight;
+  }
+
+  // cached records - null on a miss
+  public synchronized AssociatedDataRecords get(long relationshipId, String propertyName) {
+    Entry entry = entries.get(new Key(relationshipId, propertyName));
+    if (entry == null) {
+      misses++;
+      return null;
+    }
+    hits++;
+    return entry.records;
+  }
+
+  // take before reading the store for a later put(..., generation)
+  public synchronized long getGeneration(long relationshipId, String propertyName) {
+    return generations[stripe(relationshipId, propertyName)];
+  }
+
+  // values heavier than the weight limit are not cached
+  public synchronized void put(long relationshipId, String propertyName, AssociatedDataRecords records, long recordsWeight) {
+    put(relationshipId, propertyName, records, recordsWeight, generations[stripe(relationshipId, propertyName)]);
+  }
+
+  // put unless the key may have been invalidated since generation was taken
+  public synchronized void put(long relationshipId, String propertyName, AssociatedDataRecords records, long recordsWeight, long generation) {
+    if (recordsWeight > maxWeight || generations[stripe(relationshipId, propertyName)] != generation) {
+      return;
+    }
+    Entry previous = entries.put(new Key(relationshipId, propertyName), new Entry(records, recordsWeight));
+    if (previous != null) {
+      weight -= previous.weight;
+    }
+    weight += recordsWeight;
+
+    Iterator<Entry> leastRecentlyUsed = entries.values().iterator();
+    while ((entries.size() > maxEntries || weight > maxWeight) && leastRecentlyUsed.hasNext()) {
+      weight -= leastRecentlyUsed.next().weight;
+      leastRecentlyUsed.remove();
+      evictions++;
+    }
+  }
+
+  public synchronized void invalidate(long relationshipId, String propertyName) {
+    generations[stripe(relationshipId, propertyName)]++;
+    Entry removed = entries.remove(new Key(relationshipId, propertyName));
+    if (removed != null) {
+      weight -= removed.weight;
+      invalidations++;
+    }
+  }
+
+  public synchronized void clear() {
+    for (int stripe = 0; stripe < GENERATION_STRIPES; stripe++) {
+      generations[stripe]++;
+    }
+    invalidations += entries.size();
+    entries.clear();
+    weight = 0;
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  public synchronized long getWeight() {
+    return weight;
+  }
+
+  public int getMaxEntries() {
+    return maxEntries;
+  }
+
+  public long getMaxWeight() {
+    return maxWeight;
+  }
+
+  public synchronized long getHits() {
+    return hits;
+  }
+
+  public synchronized long getMisses() {
+    return misses;
+  }
+
+  public synchronized long getEvictions() {
+    return evictions;
+  }
+
+  public synchronized long getInvalidations() {
+    return invalidations;
+  }
+
+  public synchronized double getHitRate() {
+    long requests = hits + misses;
+    return requests > 0 ? (double) hits / requests : 0d;
+  }
+
+  @Override
+  public synchronized String toString() {
+    return String.format("AssociatedDataCache[entries=%s/%s, weight=%s/%s, hits=%s, misses=%s, evictions=%s, invalidations=%s]",
+        entries.size(), maxEntries, weight, maxWeight, hits, misses, evictions, invalidations);
+  }
+
+  private static int stripe(long relationshipId, String propertyName) {
+    return Math.floorMod(Long.hashCode(relationshipId) * 31 + propertyName.hashCode(), GENERATION_STRIPES);
+  }
+
+  // approximate heap weight of a stored property value - strings are UTF-16 on heap
+  static long estimateWeight(Object propertyValue) {
+    if (propertyValue instanceof byte[]) {
+      return ((byte[]) propertyValue).length;
+    } else if (propertyValue instanceof String) {
+      return 2L * ((String) propertyValue).length();
+    }
+    return 0;
+  }
+
+  private static final class Key {
+
+    private final long relationshipId;
+    private final String propertyName;
+
+    Key(long relationshipId, String propertyName) {
+      this.relationshipId = relationshipId;
+      this.propertyName = propertyName;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (!(other instanceof Key)) {
+        return false;
+      }
+      Key key = (Key) other;
+      return relationshipId == key.relationshipId && propertyName.equals(key.propertyName);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(relationshipId, propertyName);
+    }
+
+  }
+
+  private static final class Entry {
+
+    private final AssociatedDataRecords records;
+    private final long weight;
+
+    Entry(AssociatedDataRecords records, long weight) {
+      this.records = records;
+      this.weight = weight;
+    }
+
+  }
+
+}
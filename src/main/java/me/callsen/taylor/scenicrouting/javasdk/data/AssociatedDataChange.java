@@ -0,0 +1,45 @@
+package me.callsen.taylor.scenicrouting.javasdk.data;
+
+/**
+ * Single associatedData property write or removal recorded by the AssociatedDataChangeLog. All 
+ *  changes committed by one transaction share a version.
+ */
+public class AssociatedDataChange {
+
+  public enum Type { SET, REMOVED }
+
+  private final long version;
+  private final long relationshipId;
+  private final String propertyName;
+  private final Type type;
+
+  public AssociatedDataChange(long version, long relationshipId, String propertyName, Type type) {
+    this.version = version;
+    this.relationshipId = relationshipId;
+    this.propertyName = propertyName;
+    this.type = type;
+  }
+
+  public long getVersion() {
+    return version;
+  }
+
+  public long getRelationshipId() {
+    return relationshipId;
+  }
+
+  public String getPropertyName() {
+    return propertyName;
+  }
+
+  // REMOVED covers both property removal and deletion of the relationship
+  public Type getType() {
+    return type;
+  }
+
+  @Override
+  public String toString() {
+    return "AssociatedDataChange[version=" + version + ", relationship=" + relationshipId + ", property=" + propertyName + ", type=" + type + "]";
+  }
+
+}
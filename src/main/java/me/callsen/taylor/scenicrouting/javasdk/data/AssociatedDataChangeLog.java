@@ -0,0 +1,183 @@
+package me.callsen.taylor.scenicrouting.javasdk.data;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.event.PropertyEntry;
+import org.neo4j.graphdb.event.TransactionData;
+import org.neo4j.graphdb.event.TransactionEventListenerAdapter;
+
+import me.callsen.taylor.scenicrouting.javasdk.RoutingConstants;
+
+/**
+ * Bounded, append-only log of committed associatedData changes (relationship id, property name, 
+ *  version), fed by a transaction event listener so every write is captured - through GraphDb, 
+ *  AssociatedDataBatchWriter or plain Cypher. A property counts as associatedData when it is listed in 
+ *  the relationship's associatedData array before or after the transaction. Each committing transaction 
+ *  gets the next version; the oldest changes are dropped once capacity is exceeded. In memory only - a 
+ *  restarted process starts a new log, so consumers should rebuild after a restart. Thread safe.
+ */
+public class AssociatedDataChangeLog {
+
+  private final int capacity;
+  private final ArrayDeque<AssociatedDataChange> changes = new ArrayDeque<AssociatedDataChange>();
+  private final Listener listener = new Listener();
+
+  private long currentVersion = 0;
+  // changes after this version are all retained
+  private long retainedAfterVersion = 0;
+
+  public AssociatedDataChangeLog(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("change log capacity must be positive");
+    }
+    this.capacity = capacity;
+  }
+
+  public synchronized long getCurrentVersion() {
+    return currentVersion;
+  }
+
+  // the earliest version changesSince() can answer completely
+  public synchronized long getOldestVersion() {
+    return retainedAfterVersion;
+  }
+
+  public synchronized int size() {
+    return changes.size();
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  // changes committed after version, oldest first - cost is proportional to the number returned
+  public synchronized AssociatedDataChangeSet changesSince(long version) {
+    if (version > currentVersion) {
+      throw new IllegalArgumentException("version " + version + " is ahead of the change log (" + currentVersion + ")");
+    }
+    List<AssociatedDataChange> since = new ArrayList<AssociatedDataChange>();
+    Iterator<AssociatedDataChange> newestFirst = changes.descendingIterator();
+    while (newestFirst.hasNext()) {
+      AssociatedDataChange change = newestFirst.next();
+      if (change.getVersion() <= version) {
+        break;
+      }
+      since.add(change);
+    }
+    Collections.reverse(since);
+    return new AssociatedDataChangeSet(version, currentVersion, version >= retainedAfterVersion, since);
+  }
+
+  // the store was emptied outside of transactions - every earlier version becomes incomplete
+  synchronized void reset() {
+    changes.clear();
+    currentVersion++;
+    retainedAfterVersion = currentVersion;
+  }
+
+  Listener listener() {
+    return listener;
+  }
+
+  private synchronized void append(List<PendingChange> pending) {
+    long version = ++currentVersion;
+    for (PendingChange change : pending) {
+      changes.addLast(new AssociatedDataChange(version, change.relationshipId, change.propertyName, change.type));
+    }
+    // dropping any change of a version makes that version (and earlier ones) incomplete
+    while (changes.size() > capacity) {
+      retainedAfterVersion = changes.pollFirst().getVersion();
+    }
+  }
+
+  private static class PendingChange {
+
+    final long relationshipId;
+    final String propertyName;
+    final AssociatedDataChange.Type type;
+
+    PendingChange(long relationshipId, String propertyName, AssociatedDataChange.Type type) {
+      this.relationshipId = relationshipId;
+      this.propertyName = propertyName;
+      this.type = type;
+    }
+
+  }
+
+  // collects changes before commit (while relationships can still be read), appends them after commit
+  class Listener extends TransactionEventListenerAdapter<List<PendingChange>> {
+
+    @Override
+    public List<PendingChange> beforeCommit(TransactionData data, Transaction transaction, GraphDatabaseService databaseService) {
+      Map<Long, Set<String>> associatedDataNames = new HashMap<Long, Set<String>>();
+
+      // names listed in associatedData arrays written or removed by this transaction
+      for (PropertyEntry<Relationship> entry : data.assignedRelationshipProperties()) {
+        if (RoutingConstants.GRAPH_PROPERTY_NAME_ASSOCIATED_DATA.equals(entry.key())) {
+          addNames(associatedDataNames, entry.entity().getId(), entry.previouslyCommittedValue());
+          addNames(associatedDataNames, entry.entity().getId(), entry.value());
+        }
+      }
+      for (PropertyEntry<Relationship> entry : data.removedRelationshipProperties()) {
+        if (RoutingConstants.GRAPH_PROPERTY_NAME_ASSOCIATED_DATA.equals(entry.key())) {
+          addNames(associatedDataNames, entry.entity().getId(), entry.previouslyCommittedValue());
+        }
+      }
+
+      List<PendingChange> pending = new ArrayList<PendingChange>();
+      for (PropertyEntry<Relationship> entry : data.assignedRelationshipProperties()) {
+        if (isAssociatedData(data, associatedDataNames, entry)) {
+          pending.add(new PendingChange(entry.entity().getId(), entry.key(), AssociatedDataChange.Type.SET));
+        }
+      }
+      for (PropertyEntry<Relationship> entry : data.removedRelationshipProperties()) {
+        if (isAssociatedData(data, associatedDataNames, entry)) {
+          pending.add(new PendingChange(entry.entity().getId(), entry.key(), AssociatedDataChange.Type.REMOVED));
+        }
+      }
+      return pending;
+    }
+
+    @Override
+    public void afterCommit(TransactionData data, List<PendingChange> pending, GraphDatabaseService databaseService) {
+      if (pending != null && !pending.isEmpty()) {
+        append(pending);
+      }
+    }
+
+    private boolean isAssociatedData(TransactionData data, Map<Long, Set<String>> associatedDataNames, PropertyEntry<Relationship> entry) {
+      if (RoutingConstants.GRAPH_PROPERTY_NAME_ASSOCIATED_DATA.equals(entry.key())) {
+        return false;
+      }
+      Relationship relationship = entry.entity();
+      Set<String> names = associatedDataNames.get(relationship.getId());
+      if (names == null && !data.isDeleted(relationship)) {
+        // associatedData array unchanged by this transaction - read the committed one
+        names = addNames(associatedDataNames, relationship.getId(), relationship.getProperty(RoutingConstants.GRAPH_PROPERTY_NAME_ASSOCIATED_DATA, null));
+      }
+      return names != null && names.contains(entry.key());
+    }
+
+    private Set<String> addNames(Map<Long, Set<String>> associatedDataNames, long relationshipId, Object associatedData) {
+      Set<String> names = associatedDataNames.computeIfAbsent(relationshipId, id -> new HashSet<String>());
+      if (associatedData instanceof String[]) {
+        names.addAll(Arrays.asList((String[]) associatedData));
+      }
+      return names;
+    }
+
+  }
+
+}
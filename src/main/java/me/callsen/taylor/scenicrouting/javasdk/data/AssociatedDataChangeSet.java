@@ -0,0 +1,68 @@
+package me.callsen.taylor.scenicrouting.javasdk.data;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Changes committed after a given version, oldest first. When the log no longer holds every change 
+ *  since that version (capacity exceeded or store reset) the set is incomplete and consumers must fall 
+ *  back to a full rebuild - then resume from getToVersion().
+ */
+public class AssociatedDataChangeSet {
+
+  private final long fromVersion;
+  private final long toVersion;
+  private final boolean complete;
+  private final List<AssociatedDataChange> changes;
+
+  AssociatedDataChangeSet(long fromVersion, long toVersion, boolean complete, List<AssociatedDataChange> changes) {
+    this.fromVersion = fromVersion;
+    this.toVersion = toVersion;
+    this.complete = complete;
+    this.changes = Collections.unmodifiableList(changes);
+  }
+
+  // the version changes were requested after (exclusive)
+  public long getFromVersion() {
+    return fromVersion;
+  }
+
+  // latest version covered - pass to changesSince() next time
+  public long getToVersion() {
+    return toVersion;
+  }
+
+  public boolean isComplete() {
+    return complete;
+  }
+
+  public List<AssociatedDataChange> getChanges() {
+    return changes;
+  }
+
+  public boolean isEmpty() {
+    return changes.isEmpty();
+  }
+
+  // distinct ids of changed relationships, ascending
+  public long[] getChangedRelationshipIds() {
+    return changes.stream().mapToLong(AssociatedDataChange::getRelationshipId).distinct().sorted().toArray();
+  }
+
+  // bring a cache up to date - invalidates changed entries, or clears the cache when incomplete
+  public void invalidate(AssociatedDataCache cache) {
+    if (!complete) {
+      cache.clear();
+      return;
+    }
+    for (AssociatedDataChange change : changes) {
+      cache.invalidate(change.getRelationshipId(), change.getPropertyName());
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "AssociatedDataChangeSet[from=" + fromVersion + ", to=" + toVersion + ", complete=" + complete + ", changes=" + changes.size() + "]";
+  }
+
+}
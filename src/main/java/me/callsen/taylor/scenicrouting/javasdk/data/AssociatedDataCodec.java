@@ -0,0 +1,60 @@
+package me.callsen.taylor.scenicrouting.javasdk.data;
+
+import org.json.JSONArray;
+
+/**
+ * Converts associatedData between the legacy JSON string encoding and the compact binary encoding.
+ */
+public class AssociatedDataCodec {
+
+  private AssociatedDataCodec() {}
+
+  // encode a JSON array of flat objects into the binary format - field types are inferred from the values
+  public static byte[] encode(JSONArray associatedData) {
+    JsonAssociatedDataRecords records = new JsonAssociatedDataRecords(associatedData);
+    return encode(records);
+  }
+
+  public static byte[] encode(AssociatedDataRecords records) {
+    AssociatedDataEncoder encoder = new AssociatedDataEncoder();
+    for (int f = 0; f < records.getFieldCount(); f++) {
+      encoder.addField(records.getFieldName(f), records.getFieldType(f));
+    }
+    for (int r = 0; r < records.size(); r++) {
+      Object[] recordValues = new Object[records.getFieldCount()];
+      for (int f = 0; f < records.getFieldCount(); f++) {
+        if (records.isNull(r, f)) {
+          continue;
+        }
+        switch (records.getFieldType(f)) {
+          case DOUBLE:
+            recordValues[f] = records.getDouble(r, f);
+            break;
+          case LONG:
+            recordValues[f] = records.getLong(r, f);
+            break;
+          default:
+            recordValues[f] = records.getString(r, f);
+            break;
+        }
+      }
+      encoder.addRecord(recordValues);
+    }
+    return encoder.encode();
+  }
+
+  // decode a stored associatedData property value - byte[] (binary) or String (legacy JSON)
+  public static AssociatedDataRecords decode(Object propertyValue) {
+    if (propertyValue instanceof byte[]) {
+      return new BinaryAssociatedDataRecords((byte[]) propertyValue);
+    } else if (propertyValue instanceof String) {
+      return new JsonAssociatedDataRecords((String) propertyValue);
+    }
+    throw new IllegalArgumentException("unsupported associated data value type: " + (propertyValue == null ? "null" : propertyValue.getClass().getName()));
+  }
+
+  public static boolean isBinary(Object propertyValue) {
+    return propertyValue instanceof byte[];
+  }
+
+}
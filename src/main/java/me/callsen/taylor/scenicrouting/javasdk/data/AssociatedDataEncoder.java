@@ -0,0 +1,136 @@
+package me.callsen.taylor.scenicrouting.javasdk.data;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the compact binary (columnar) encoding of associatedData. Fields are declared up front
+ *  with their type, then records are added with values in field order.
+ *
+ *  Layout (big endian): magic 'A' 'D', version byte, field count (int), per field [type byte, 
+ *  name length (short), UTF-8 name], record count (int), then one column per field. DOUBLE/LONG 
+ *  columns are a null bitmap (one bit per record, set when the value is missing) followed by 8 bytes 
+ *  per record (NaN / 0 for nulls); STRING columns are [length (int, -1 for null), UTF-8 bytes] per 
+ *  record. Version 1 values have no null bitmaps and are still readable.
+ */
+public class AssociatedDataEncoder {
+
+  static final byte MAGIC_0 = 'A';
+  static final byte MAGIC_1 = 'D';
+  static final byte VERSION = 2;
+  static final byte VERSION_WITHOUT_NULLS = 1;
+
+  private final List<String> fieldNames = new ArrayList<String>();
+  private final List<AssociatedDataFieldType> fieldTypes = new ArrayList<AssociatedDataFieldType>();
+  private final List<Object[]> records = new ArrayList<Object[]>();
+
+  public AssociatedDataEncoder addField(String fieldName, AssociatedDataFieldType fieldType) {
+    if (!records.isEmpty()) {
+      throw new IllegalStateException("fields must be declared before records are added");
+    }
+    if (fieldNames.contains(fieldName)) {
+      throw new IllegalArgumentException("duplicate associated data field: " + fieldName);
+    }
+    fieldNames.add(fieldName);
+    fieldTypes.add(fieldType);
+    return this;
+  }
+
+  // values in field declaration order - Numbers for DOUBLE/LONG fields, any object (toString) for STRING fields, null when missing
+  public AssociatedDataEncoder addRecord(Object... values) {
+    if (values.length != fieldNames.size()) {
+      throw new IllegalArgumentException("expected " + fieldNames.size() + " values but got " + values.length);
+    }
+    // LONG columns are written with longValue() - reject integers it would truncate
+    for (int f = 0; f < values.length; f++) {
+      if (fieldTypes.get(f) == AssociatedDataFieldType.LONG && values[f] instanceof BigInteger 
+          && ((BigInteger) values[f]).bitLength() >= Long.SIZE) {
+        throw new IllegalArgumentException("associated data field " + fieldNames.get(f) + " value out of long range: " + values[f]);
+      }
+    }
+    records.add(values.clone());
+    return this;
+  }
+
+  public byte[] encode() {
+    int recordCount = records.size();
+
+    // pre-encode names and strings so the buffer can be sized exactly
+    byte[][] encodedNames = new byte[fieldNames.size()][];
+    int size = 3 + 4 + 4;
+    for (int f = 0; f < fieldNames.size(); f++) {
+      encodedNames[f] = fieldNames.get(f).getBytes(StandardCharsets.UTF_8);
+      if (encodedNames[f].length > Short.MAX_VALUE) {
+        throw new IllegalArgumentException("associated data field name too long: " + fieldNames.get(f));
+      }
+      size += 1 + 2 + encodedNames[f].length;
+    }
+
+    byte[][][] encodedStrings = new byte[fieldNames.size()][][];
+    for (int f = 0; f < fieldNames.size(); f++) {
+      if (fieldTypes.get(f) == AssociatedDataFieldType.STRING) {
+        encodedStrings[f] = new byte[recordCount][];
+        for (int r = 0; r < recordCount; r++) {
+          Object value = records.get(r)[f];
+          encodedStrings[f][r] = value == null ? null : value.toString().getBytes(StandardCharsets.UTF_8);
+          size += 4 + (encodedStrings[f][r] == null ? 0 : encodedStrings[f][r].length);
+        }
+      } else {
+        size += nullBitmapBytes(recordCount) + 8 * recordCount;
+      }
+    }
+
+    ByteBuffer buffer = ByteBuffer.allocate(size);
+    buffer.put(MAGIC_0).put(MAGIC_1).put(VERSION);
+    buffer.putInt(fieldNames.size());
+    for (int f = 0; f < fieldNames.size(); f++) {
+      buffer.put(fieldTypes.get(f).getCode());
+      buffer.putShort((short) encodedNames[f].length);
+      buffer.put(encodedNames[f]);
+    }
+    buffer.putInt(recordCount);
+
+    for (int f = 0; f < fieldNames.size(); f++) {
+      if (fieldTypes.get(f) != AssociatedDataFieldType.STRING) {
+        byte[] nullBitmap = new byte[nullBitmapBytes(recordCount)];
+        for (int r = 0; r < recordCount; r++) {
+          if (records.get(r)[f] == null) {
+            nullBitmap[r >>> 3] |= 1 << (r & 7);
+          }
+        }
+        buffer.put(nullBitmap);
+      }
+      for (int r = 0; r < recordCount; r++) {
+        Object value = records.get(r)[f];
+        switch (fieldTypes.get(f)) {
+          case DOUBLE:
+            buffer.putDouble(value == null ? Double.NaN : ((Number) value).doubleValue());
+            break;
+          case LONG:
+            buffer.putLong(value == null ? 0L : ((Number) value).longValue());
+            break;
+          case STRING:
+            byte[] encoded = encodedStrings[f][r];
+            if (encoded == null) {
+              buffer.putInt(-1);
+            } else {
+              buffer.putInt(encoded.length);
+              buffer.put(encoded);
+            }
+            break;
+        }
+      }
+    }
+
+    return buffer.array();
+  }
+
+  // size of the null bitmap leading a DOUBLE/LONG column
+  static int nullBitmapBytes(int recordCount) {
+    return (recordCount + 7) >>> 3;
+  }
+
+}
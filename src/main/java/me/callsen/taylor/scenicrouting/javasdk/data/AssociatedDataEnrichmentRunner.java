@@ -0,0 +1,238 @@
+package me.callsen.taylor.scenicrouting.javasdk.data;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.json.JSONArray;
+
+import me.callsen.taylor.scenicrouting.javasdk.RoutingConstants;
+import me.callsen.taylor.scenicrouting.javasdk.util.StructuredLogger;
+
+/**
+ * Runs several AssociatedDataScorers in one parallel pass over all relationships. Relationships are 
+ *  streamed once and striped by id across worker threads; each worker scores its relationships with 
+ *  every scorer and writes through its own AssociatedDataBatchWriter, so all properties of an edge are 
+ *  written (and its associatedData array merged) in one go, and no two workers ever lock the same 
+ *  relationship. Bounded stripe queues hold the reader back when workers fall behind.
+ */
+public class AssociatedDataEnrichmentRunner {
+
+  private static final StructuredLogger LOGGER = StructuredLogger.getLogger(AssociatedDataEnrichmentRunner.class);
+
+  private static final long OFFER_TIMEOUT_MILLIS = 100;
+
+  static final String WORKER_THREAD_PREFIX = "enrichment-worker-";
+
+  // end of stream marker for stripe queues
+  private static final RelationshipView END = new RelationshipView(-1, "", -1, -1, Map.of());
+
+  private final GraphDb graphDb;
+  private final List<AssociatedDataScorer> scorers;
+  private final int parallelism;
+  private final int batchEdges;
+  private final int stripeQueueSize;
+
+  private final AtomicLong edgesScanned = new AtomicLong();
+  private final AtomicLong edgesScored = new AtomicLong();
+  private final Map<String, AtomicLong> scorerFailures = new LinkedHashMap<String, AtomicLong>();
+  private long edgesWritten = 0;
+  private long propertiesWritten = 0;
+  private long edgesMissing = 0;
+  private long retries = 0;
+
+  public AssociatedDataEnrichmentRunner(GraphDb graphDb, List<AssociatedDataScorer> scorers) {
+    this(graphDb, scorers, Runtime.getRuntime().availableProcessors(), RoutingConstants.GRAPH_ASSOCIATED_DATA_BATCH_EDGES);
+  }
+
+  public AssociatedDataEnrichmentRunner(GraphDb graphDb, List<AssociatedDataScorer> scorers, int parallelism, int batchEdges) {
+    this(graphDb, scorers, parallelism, batchEdges, RoutingConstants.GRAPH_ENRICHMENT_STRIPE_QUEUE_SIZE);
+  }
+
+  AssociatedDataEnrichmentRunner(GraphDb graphDb, List<AssociatedDataScorer> scorers, int parallelism, int batchEdges, int stripeQueueSize) {
+    if (scorers == null || scorers.isEmpty()) {
+      throw new IllegalArgumentException("at least one scorer is required");
+    }
+    if (parallelism < 1 || batchEdges < 1 || stripeQueueSize < 1) {
+      throw new IllegalArgumentException("parallelism, batch size and queue size must be positive");
+    }
+    Set<String> propertyNames = new HashSet<String>();
+    for (AssociatedDataScorer scorer : scorers) {
+      if (!propertyNames.add(scorer.getPropertyName())) {
+        throw new IllegalArgumentException("more than one scorer writes " + scorer.getPropertyName());
+      }
+      scorerFailures.put(scorer.getPropertyName(), new AtomicLong());
+    }
+    graphDb.checkWritable("run associated data enrichment");
+    this.graphDb = graphDb;
+    this.scorers = List.copyOf(scorers);
+    this.parallelism = parallelism;
+    this.batchEdges = batchEdges;
+    this.stripeQueueSize = stripeQueueSize;
+  }
+
+  // score every relationship and commit the results - returns the number of edges written by this run,
+  //  the getters accumulate across runs
+  public synchronized long run() {
+    long startMillis = System.currentTimeMillis();
+    long edgesWrittenBefore = edgesWritten;
+    LOGGER.info("enrichment.start", "scorers", propertyNames(), "parallelism", parallelism);
+
+    List<BlockingQueue<RelationshipView>> stripes = new ArrayList<BlockingQueue<RelationshipView>>(parallelism);
+    for (int stripe = 0; stripe < parallelism; stripe++) {
+      stripes.add(new ArrayBlockingQueue<RelationshipView>(stripeQueueSize));
+    }
+
+    AtomicInteger workerCount = new AtomicInteger();
+    ExecutorService executor = Executors.newFixedThreadPool(parallelism,
+        runnable -> new Thread(runnable, WORKER_THREAD_PREFIX + workerCount.incrementAndGet()));
+    List<Future<AssociatedDataBatchWriter>> futures = new ArrayList<Future<AssociatedDataBatchWriter>>(parallelism);
+    boolean completed = false;
+    try {
+      for (BlockingQueue<RelationshipView> stripe : stripes) {
+        futures.add(executor.submit(() -> scoreStripe(stripe)));
+      }
+
+      try ( Stream<RelationshipView> relationships = graphDb.streamRelationships(false, RoutingConstants.GRAPH_RELATIONSHIP_STREAM_PAGE_SIZE) ) {
+        relationships.forEach(relationship -> {
+          edgesScanned.incrementAndGet();
+          offer(stripes.get((int) Math.floorMod(relationship.getId(), (long) parallelism)), relationship, futures);
+        });
+      }
+      for (BlockingQueue<RelationshipView> stripe : stripes) {
+        offer(stripe, END, futures);
+      }
+
+      for (Future<AssociatedDataBatchWriter> future : futures) {
+        AssociatedDataBatchWriter writer = future.get();
+        edgesWritten += writer.getEdgesWritten();
+        propertiesWritten += writer.getPropertiesWritten();
+        edgesMissing += writer.getEdgesMissing();
+        retries += writer.getRetries();
+      }
+      completed = true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("associated data enrichment interrupted", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("associated data enrichment failed", e.getCause());
+    } finally {
+      if (completed) {
+        executor.shutdown();
+      } else {
+        // any failure (a dead worker, the relationship stream, an Error) - interrupt workers blocked in
+        //  take() so no pool thread outlives the run
+        futures.forEach(future -> future.cancel(true));
+        executor.shutdownNow();
+      }
+    }
+
+    LOGGER.info("enrichment.finished", "scanned", edgesScanned.get(), "written", edgesWritten, "properties", propertiesWritten, 
+        "failures", getScorerFailures(), "millis", System.currentTimeMillis() - startMillis);
+    return edgesWritten - edgesWrittenBefore;
+  }
+
+  private AssociatedDataBatchWriter scoreStripe(BlockingQueue<RelationshipView> stripe) throws InterruptedException {
+    AssociatedDataBatchWriter writer = new AssociatedDataBatchWriter(graphDb, batchEdges, RoutingConstants.GRAPH_ASSOCIATED_DATA_BATCH_BYTES);
+    while (true) {
+      RelationshipView relationship = stripe.take();
+      if (relationship == END) {
+        break;
+      }
+      // collect every score first - the edge is handed to the writer whole, so it is written in one batch
+      Map<String, String> scores = new LinkedHashMap<String, String>();
+      for (AssociatedDataScorer scorer : scorers) {
+        JSONArray score;
+        try {
+          score = scorer.score(relationship);
+        } catch (RuntimeException e) {
+          // a failing scorer skips this edge, other scorers still write theirs
+          scorerFailures.get(scorer.getPropertyName()).incrementAndGet();
+          LOGGER.debug("enrichment.score.failed", "property", scorer.getPropertyName(), "relationship", relationship.getId(), "reason", e.getMessage());
+          continue;
+        }
+        if (score != null) {
+          scores.put(scorer.getPropertyName(), score.toString());
+        }
+      }
+      if (!scores.isEmpty()) {
+        writer.buffer(relationship.getId(), scores);
+      }
+      edgesScored.incrementAndGet();
+    }
+    writer.flush();
+    return writer;
+  }
+
+  // blocks while the stripe is full - fails fast if a worker has died instead of waiting forever
+  private static void offer(BlockingQueue<RelationshipView> stripe, RelationshipView relationship, List<Future<AssociatedDataBatchWriter>> futures) {
+    try {
+      while (!stripe.offer(relationship, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+        for (Future<AssociatedDataBatchWriter> future : futures) {
+          if (future.isDone()) {
+            future.get();
+            throw new IllegalStateException("enrichment worker stopped before the end of the stream");
+          }
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("associated data enrichment interrupted", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("associated data enrichment failed", e.getCause());
+    }
+  }
+
+  private List<String> propertyNames() {
+    List<String> propertyNames = new ArrayList<String>(scorers.size());
+    for (AssociatedDataScorer scorer : scorers) {
+      propertyNames.add(scorer.getPropertyName());
+    }
+    return propertyNames;
+  }
+
+  public long getEdgesScanned() {
+    return edgesScanned.get();
+  }
+
+  public long getEdgesScored() {
+    return edgesScored.get();
+  }
+
+  public long getEdgesWritten() {
+    return edgesWritten;
+  }
+
+  public long getPropertiesWritten() {
+    return propertiesWritten;
+  }
+
+  public long getEdgesMissing() {
+    return edgesMissing;
+  }
+
+  public long getRetries() {
+    return retries;
+  }
+
+  // failed score() calls, by property name
+  public Map<String, Long> getScorerFailures() {
+    Map<String, Long> failures = new LinkedHashMap<String, Long>();
+    scorerFailures.forEach((propertyName, count) -> failures.put(propertyName, count.get()));
+    return failures;
+  }
+
+}
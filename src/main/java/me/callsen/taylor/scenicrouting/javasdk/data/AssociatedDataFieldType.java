@@ -0,0 +1,34 @@
+package me.callsen.taylor.scenicrouting.javasdk.data;
+
+/**
+ * Value types supported by the binary associatedData encoding.
+ */
+public enum AssociatedDataFieldType {
+
+  DOUBLE((byte) 1),
+  LONG((byte) 2),
+  STRING((byte) 3);
+
+  // cached - values() allocates a new array on every call
+  private static final AssociatedDataFieldType[] TYPES = values();
+
+  private final byte code;
+
+  AssociatedDataFieldType(byte code) {
+    this.code = code;
+  }
+
+  byte getCode() {
+    return code;
+  }
+
+  static AssociatedDataFieldType fromCode(byte code) {
+    for (AssociatedDataFieldType type : TYPES) {
+      if (type.code == code) {
+        return type;
+      }
+    }
+    throw new IllegalArgumentException("unknown associated data field type code: " + code);
+  }
+
+}
@@ -0,0 +1,65 @@
+package me.callsen.taylor.scenicrouting.javasdk.data;
+
+/**
+ * Read access to the records stored in a single associatedData property (e.g. ad_elevation), 
+ *  independent of whether the property is binary or legacy JSON encoded. Missing values read as 
+ *  NaN (double), 0 (long) or null (string) - isNull tells them apart from a stored NaN or 0.
+ */
+public abstract class AssociatedDataRecords {
+
+  // number of records (entries of the original JSON array)
+  public abstract int size();
+
+  public abstract int getFieldCount();
+
+  public abstract String getFieldName(int fieldIndex);
+
+  public abstract AssociatedDataFieldType getFieldType(int fieldIndex);
+
+  public abstract double getDouble(int recordIndex, int fieldIndex);
+
+  public abstract long getLong(int recordIndex, int fieldIndex);
+
+  public abstract String getString(int recordIndex, int fieldIndex);
+
+  // true when the record has no value for the field (absent or JSON null)
+  public abstract boolean isNull(int recordIndex, int fieldIndex);
+
+  // true when backed by the binary encoding, false for legacy JSON strings
+  public abstract boolean isBinary();
+
+  // resolve a field name to its index - -1 if the field does not exist
+  public int getFieldIndex(String fieldName) {
+    for (int i = 0; i < getFieldCount(); i++) {
+      if (getFieldName(i).equals(fieldName)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  public double getDouble(int recordIndex, String fieldName) {
+    return getDouble(recordIndex, requireFieldIndex(fieldName));
+  }
+
+  public long getLong(int recordIndex, String fieldName) {
+    return getLong(recordIndex, requireFieldIndex(fieldName));
+  }
+
+  public String getString(int recordIndex, String fieldName) {
+    return getString(recordIndex, requireFieldIndex(fieldName));
+  }
+
+  public boolean isNull(int recordIndex, String fieldName) {
+    return isNull(recordIndex, requireFieldIndex(fieldName));
+  }
+
+  private int requireFieldIndex(String fieldName) {
+    int fieldIndex = getFieldIndex(fieldName);
+    if (fieldIndex < 0) {
+      throw new IllegalArgumentException("associated data field not found: " + fieldName);
+    }
+    return fieldIndex;
+  }
+
+}
@@ -0,0 +1,72 @@
+package me.callsen.taylor.scenicrouting.javasdk.data;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Registry of the associatedData fields a consumer reads (e.g. ad_elevation.start). Each registered
+ *  field is assigned a slot index, which AssociatedDataView uses to read values without any string 
+ *  lookups. Register all fields before creating views - views capture the schema at creation time.
+ */
+public class AssociatedDataSchema {
+
+  private final List<String> propertyNames = new ArrayList<String>();
+
+  private final List<String> slotFieldNames = new ArrayList<String>();
+  private final List<Integer> slotPropertyIndexes = new ArrayList<Integer>();
+
+  // register a field and return its slot - registering the same field twice returns the existing slot
+  public synchronized int register(String propertyName, String fieldName) {
+    int propertyIndex = propertyNames.indexOf(propertyName);
+    if (propertyIndex < 0) {
+      propertyIndex = propertyNames.size();
+      propertyNames.add(propertyName);
+    }
+    for (int slot = 0; slot < slotFieldNames.size(); slot++) {
+      if (slotPropertyIndexes.get(slot) == propertyIndex && slotFieldNames.get(slot).equals(fieldName)) {
+        return slot;
+      }
+    }
+    slotFieldNames.add(fieldName);
+    slotPropertyIndexes.add(propertyIndex);
+    return slotFieldNames.size() - 1;
+  }
+
+  public synchronized int getSlotCount() {
+    return slotFieldNames.size();
+  }
+
+  public synchronized String getPropertyName(int slot) {
+    return propertyNames.get(slotPropertyIndexes.get(slot));
+  }
+
+  public synchronized String getFieldName(int slot) {
+    return slotFieldNames.get(slot);
+  }
+
+  synchronized String[] getPropertyNames() {
+    return propertyNames.toArray(new String[0]);
+  }
+
+  synchronized int[] getSlotPropertyIndexes() {
+    int[] indexes = new int[slotPropertyIndexes.size()];
+    for (int slot = 0; slot < indexes.length; slot++) {
+      indexes[slot] = slotPropertyIndexes.get(slot);
+    }
+    return indexes;
+  }
+
+  synchronized String[] getSlotFieldNames() {
+    return slotFieldNames.toArray(new String[0]);
+  }
+
+  synchronized byte[][] getEncodedSlotFieldNames() {
+    byte[][] encoded = new byte[slotFieldNames.size()][];
+    for (int slot = 0; slot < encoded.length; slot++) {
+      encoded[slot] = slotFieldNames.get(slot).getBytes(StandardCharsets.UTF_8);
+    }
+    return encoded;
+  }
+
+}
@@ -0,0 +1,18 @@
+package me.callsen.taylor.scenicrouting.javasdk.data;
+
+import org.json.JSONArray;
+
+/**
+ * Computes one associated data property (e.g. ad_elevation) for a relationship, run by the
+ *  AssociatedDataEnrichmentRunner. Called concurrently from several worker threads - implementations
+ *  must be thread safe.
+ */
+public interface AssociatedDataScorer {
+
+  // property written with the score, conventionally prefixed ad_
+  String getPropertyName();
+
+  // records to store for the relationship - null leaves the property unchanged
+  JSONArray score(RelationshipView relationship);
+
+}
@@ -0,0 +1,274 @@
+package me.callsen.taylor.scenicrouting.javasdk.data;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.neo4j.graphdb.Relationship;
+
+/**
+ * Reusable, typed view over the associatedData of one relationship at a time. load() resolves every
+ *  schema slot to a column offset once per relationship, after which numeric getters read primitives
+ *  straight from the stored bytes - no per-call allocation or hashing for binary encoded properties.
+ *  Legacy JSON properties are still readable, but are parsed on load. Not thread safe - use one view 
+ *  per thread.
+ */
+public class AssociatedDataView {
+
+  private final String[] propertyNames;
+  private final int[] slotPropertyIndexes;
+  private final String[] slotFieldNames;
+  private final byte[][] encodedSlotFieldNames;
+
+  // per property state for the currently loaded relationship
+  private final byte[][] binaryValues;
+  private final AssociatedDataRecords[] legacyValues;
+  private final int[] recordCounts;
+
+  // per slot state - column offset (binary), field index (legacy) and stored type; -1 / null when missing
+  private final int[] slotColumnOffsets;
+  private final int[] slotNullOffsets;
+  private final int[] slotFieldIndexes;
+  private final AssociatedDataFieldType[] slotFieldTypes;
+
+  private long relationshipId = -1;
+
+  public AssociatedDataView(AssociatedDataSchema schema) {
+    propertyNames = schema.getPropertyNames();
+    slotPropertyIndexes = schema.getSlotPropertyIndexes();
+    slotFieldNames = schema.getSlotFieldNames();
+    encodedSlotFieldNames = schema.getEncodedSlotFieldNames();
+
+    binaryValues = new byte[propertyNames.length][];
+    legacyValues = new AssociatedDataRecords[propertyNames.length];
+    recordCounts = new int[propertyNames.length];
+
+    slotColumnOffsets = new int[slotFieldNames.length];
+    slotNullOffsets = new int[slotFieldNames.length];
+    slotFieldIndexes = new int[slotFieldNames.length];
+    slotFieldTypes = new AssociatedDataFieldType[slotFieldNames.length];
+  }
+
+  // load the associated data of a relationship - returns true if any registered field was found
+  public boolean load(Relationship relationship) {
+    relationshipId = relationship.getId();
+    Arrays.fill(slotColumnOffsets, -1);
+    Arrays.fill(slotNullOffsets, -1);
+    Arrays.fill(slotFieldIndexes, -1);
+    Arrays.fill(slotFieldTypes, null);
+
+    boolean found = false;
+    for (int p = 0; p < propertyNames.length; p++) {
+      Object propertyValue = relationship.getProperty(propertyNames[p], null);
+      binaryValues[p] = null;
+      legacyValues[p] = null;
+      recordCounts[p] = 0;
+      if (propertyValue instanceof byte[]) {
+        binaryValues[p] = (byte[]) propertyValue;
+        found |= resolveBinarySlots(p, binaryValues[p]);
+      } else if (propertyValue instanceof String) {
+        legacyValues[p] = AssociatedDataCodec.decode(propertyValue);
+        found |= resolveLegacySlots(p, legacyValues[p]);
+      }
+    }
+    return found;
+  }
+
+  // walk the binary header (see AssociatedDataEncoder) and match field names byte-wise against the slots
+  private boolean resolveBinarySlots(int propertyIndex, byte[] value) {
+    if (value.length < 7 || value[0] != AssociatedDataEncoder.MAGIC_0 || value[1] != AssociatedDataEncoder.MAGIC_1 
+        || (value[2] != AssociatedDataEncoder.VERSION && value[2] != AssociatedDataEncoder.VERSION_WITHOUT_NULLS)) {
+      throw new IllegalArgumentException("property " + propertyNames[propertyIndex] + " is not a supported binary associated data value");
+    }
+
+    int fieldCount = readInt(value, 3);
+
+    // first pass - skip over the header to find the record count and the start of the columns
+    int position = 7;
+    for (int f = 0; f < fieldCount; f++) {
+      position += 3 + readShort(value, position + 1);
+    }
+    int recordCount = readInt(value, position);
+    int columnPosition = position + 4;
+    int nullBitmapBytes = value[2] == AssociatedDataEncoder.VERSION_WITHOUT_NULLS ? 0 : AssociatedDataEncoder.nullBitmapBytes(recordCount);
+    recordCounts[propertyIndex] = recordCount;
+
+    // second pass - walk header and columns together, matching field names byte-wise against the slots
+    boolean found = false;
+    position = 7;
+    for (int f = 0; f < fieldCount; f++) {
+      AssociatedDataFieldType fieldType = AssociatedDataFieldType.fromCode(value[position]);
+      int nameLength = readShort(value, position + 1);
+      int nullPosition = -1;
+      if (fieldType != AssociatedDataFieldType.STRING && nullBitmapBytes > 0) {
+        nullPosition = columnPosition;
+        columnPosition += nullBitmapBytes;
+      }
+      for (int slot = 0; slot < slotPropertyIndexes.length; slot++) {
+        if (slotPropertyIndexes[slot] == propertyIndex && nameEquals(value, position + 3, nameLength, encodedSlotFieldNames[slot])) {
+          slotColumnOffsets[slot] = columnPosition;
+          slotNullOffsets[slot] = nullPosition;
+          slotFieldTypes[slot] = fieldType;
+          found = true;
+        }
+      }
+      position += 3 + nameLength;
+
+      if (fieldType == AssociatedDataFieldType.STRING) {
+        for (int r = 0; r < recordCount; r++) {
+          columnPosition += 4 + Math.max(0, readInt(value, columnPosition));
+        }
+      } else {
+        columnPosition += 8 * recordCount;
+      }
+    }
+    return found;
+  }
+
+  private boolean resolveLegacySlots(int propertyIndex, AssociatedDataRecords records) {
+    recordCounts[propertyIndex] = records.size();
+    boolean found = false;
+    for (int slot = 0; slot < slotPropertyIndexes.length; slot++) {
+      if (slotPropertyIndexes[slot] == propertyIndex) {
+        int fieldIndex = records.getFieldIndex(slotFieldNames[slot]);
+        if (fieldIndex >= 0) {
+          slotFieldIndexes[slot] = fieldIndex;
+          slotFieldTypes[slot] = records.getFieldType(fieldIndex);
+          found = true;
+        }
+      }
+    }
+    return found;
+  }
+
+  public long getRelationshipId() {
+    return relationshipId;
+  }
+
+  public boolean has(int slot) {
+    return slotFieldTypes[slot] != null;
+  }
+
+  // number of records in the property backing the slot
+  public int getRecordCount(int slot) {
+    return recordCounts[slotPropertyIndexes[slot]];
+  }
+
+  public double getDouble(int slot) {
+    return getDouble(slot, 0);
+  }
+
+  public double getDouble(int slot, int recordIndex) {
+    AssociatedDataFieldType fieldType = slotFieldTypes[slot];
+    if (fieldType == null || recordIndex >= getRecordCount(slot)) {
+      return Double.NaN;
+    }
+    int propertyIndex = slotPropertyIndexes[slot];
+    if (legacyValues[propertyIndex] != null) {
+      return legacyValues[propertyIndex].getDouble(recordIndex, slotFieldIndexes[slot]);
+    }
+    if (isBinaryNull(slot, recordIndex)) {
+      return Double.NaN;
+    }
+    switch (fieldType) {
+      case DOUBLE:
+        return Double.longBitsToDouble(readLong(binaryValues[propertyIndex], slotColumnOffsets[slot] + 8 * recordIndex));
+      case LONG:
+        return readLong(binaryValues[propertyIndex], slotColumnOffsets[slot] + 8 * recordIndex);
+      default:
+        String stringValue = getString(slot, recordIndex);
+        return stringValue == null ? Double.NaN : Double.parseDouble(stringValue);
+    }
+  }
+
+  public long getLong(int slot) {
+    return getLong(slot, 0);
+  }
+
+  public long getLong(int slot, int recordIndex) {
+    AssociatedDataFieldType fieldType = slotFieldTypes[slot];
+    if (fieldType == null || recordIndex >= getRecordCount(slot)) {
+      return 0L;
+    }
+    int propertyIndex = slotPropertyIndexes[slot];
+    if (legacyValues[propertyIndex] != null) {
+      return legacyValues[propertyIndex].getLong(recordIndex, slotFieldIndexes[slot]);
+    }
+    if (isBinaryNull(slot, recordIndex)) {
+      return 0L;
+    }
+    switch (fieldType) {
+      case LONG:
+        return readLong(binaryValues[propertyIndex], slotColumnOffsets[slot] + 8 * recordIndex);
+      case DOUBLE:
+        return (long) Double.longBitsToDouble(readLong(binaryValues[propertyIndex], slotColumnOffsets[slot] + 8 * recordIndex));
+      default:
+        String stringValue = getString(slot, recordIndex);
+        return stringValue == null ? 0L : Long.parseLong(stringValue);
+    }
+  }
+
+  // string values allocate - keep them out of hot loops where possible
+  public String getString(int slot) {
+    return getString(slot, 0);
+  }
+
+  public String getString(int slot, int recordIndex) {
+    AssociatedDataFieldType fieldType = slotFieldTypes[slot];
+    if (fieldType == null || recordIndex >= getRecordCount(slot)) {
+      return null;
+    }
+    int propertyIndex = slotPropertyIndexes[slot];
+    if (legacyValues[propertyIndex] != null) {
+      return legacyValues[propertyIndex].getString(recordIndex, slotFieldIndexes[slot]);
+    }
+    if (isBinaryNull(slot, recordIndex)) {
+      return null;
+    }
+    switch (fieldType) {
+      case DOUBLE:
+        return String.valueOf(getDouble(slot, recordIndex));
+      case LONG:
+        return String.valueOf(getLong(slot, recordIndex));
+      default:
+        byte[] value = binaryValues[propertyIndex];
+        int position = slotColumnOffsets[slot];
+        for (int r = 0; r < recordIndex; r++) {
+          position += 4 + Math.max(0, readInt(value, position));
+        }
+        int length = readInt(value, position);
+        return length < 0 ? null : new String(value, position + 4, length, StandardCharsets.UTF_8);
+    }
+  }
+
+  // numeric columns only - string nulls are a -1 length prefix
+  private boolean isBinaryNull(int slot, int recordIndex) {
+    int nullPosition = slotNullOffsets[slot];
+    return nullPosition >= 0 && (binaryValues[slotPropertyIndexes[slot]][nullPosition + (recordIndex >>> 3)] & (1 << (recordIndex & 7))) != 0;
+  }
+
+  private static boolean nameEquals(byte[] value, int offset, int length, byte[] name) {
+    if (length != name.length) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      if (value[offset + i] != name[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int readShort(byte[] value, int position) {
+    return (short) (((value[position] & 0xff) << 8) | (value[position + 1] & 0xff));
+  }
+
+  private static int readInt(byte[] value, int position) {
+    return ((value[position] & 0xff) << 24) | ((value[position + 1] & 0xff) << 16) 
+        | ((value[position + 2] & 0xff) << 8) | (value[position + 3] & 0xff);
+  }
+
+  private static long readLong(byte[] value, int position) {
+    return ((long) readInt(value, position) << 32) | (readInt(value, position + 4) & 0xffffffffL);
+  }
+
+}
@@ -0,0 +1,157 @@
+package me.callsen.taylor.scenicrouting.javasdk.data;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads values directly out of the binary associatedData encoding (see AssociatedDataEncoder) - 
+ *  column offsets are resolved once when the header is parsed, values are read on demand.
+ */
+class BinaryAssociatedDataRecords extends AssociatedDataRecords {
+
+  private final ByteBuffer buffer;
+  private final String[] fieldNames;
+  private final AssociatedDataFieldType[] fieldTypes;
+  private final int recordCount;
+
+  // numeric columns: offset of the values and of the null bitmap (-1 for version 1 values); string 
+  //  columns: offset of each record's length prefix
+  private final int[] columnOffsets;
+  private final int[] nullOffsets;
+  private final int[][] stringOffsets;
+
+  BinaryAssociatedDataRecords(byte[] encoded) {
+    buffer = ByteBuffer.wrap(encoded);
+    if (encoded.length < 3 || buffer.get(0) != AssociatedDataEncoder.MAGIC_0 || buffer.get(1) != AssociatedDataEncoder.MAGIC_1) {
+      throw new IllegalArgumentException("not a binary associated data value");
+    }
+    byte version = buffer.get(2);
+    if (version != AssociatedDataEncoder.VERSION && version != AssociatedDataEncoder.VERSION_WITHOUT_NULLS) {
+      throw new IllegalArgumentException("unsupported binary associated data version: " + version);
+    }
+
+    int position = 3;
+    int fieldCount = buffer.getInt(position);
+    position += 4;
+    fieldNames = new String[fieldCount];
+    fieldTypes = new AssociatedDataFieldType[fieldCount];
+    for (int f = 0; f < fieldCount; f++) {
+      fieldTypes[f] = AssociatedDataFieldType.fromCode(buffer.get(position));
+      int nameLength = buffer.getShort(position + 1);
+      fieldNames[f] = new String(encoded, position + 3, nameLength, StandardCharsets.UTF_8);
+      position += 3 + nameLength;
+    }
+    recordCount = buffer.getInt(position);
+    position += 4;
+
+    columnOffsets = new int[fieldCount];
+    nullOffsets = new int[fieldCount];
+    stringOffsets = new int[fieldCount][];
+    for (int f = 0; f < fieldCount; f++) {
+      nullOffsets[f] = -1;
+      if (fieldTypes[f] != AssociatedDataFieldType.STRING && version != AssociatedDataEncoder.VERSION_WITHOUT_NULLS) {
+        nullOffsets[f] = position;
+        position += AssociatedDataEncoder.nullBitmapBytes(recordCount);
+      }
+      columnOffsets[f] = position;
+      if (fieldTypes[f] == AssociatedDataFieldType.STRING) {
+        stringOffsets[f] = new int[recordCount];
+        for (int r = 0; r < recordCount; r++) {
+          stringOffsets[f][r] = position;
+          int length = buffer.getInt(position);
+          position += 4 + Math.max(0, length);
+        }
+      } else {
+        position += 8 * recordCount;
+      }
+    }
+  }
+
+  @Override
+  public int size() {
+    return recordCount;
+  }
+
+  @Override
+  public int getFieldCount() {
+    return fieldNames.length;
+  }
+
+  @Override
+  public String getFieldName(int fieldIndex) {
+    return fieldNames[fieldIndex];
+  }
+
+  @Override
+  public AssociatedDataFieldType getFieldType(int fieldIndex) {
+    return fieldTypes[fieldIndex];
+  }
+
+  @Override
+  public double getDouble(int recordIndex, int fieldIndex) {
+    if (isNull(recordIndex, fieldIndex)) {
+      return Double.NaN;
+    }
+    switch (fieldTypes[fieldIndex]) {
+      case DOUBLE:
+        return buffer.getDouble(columnOffsets[fieldIndex] + 8 * recordIndex);
+      case LONG:
+        return buffer.getLong(columnOffsets[fieldIndex] + 8 * recordIndex);
+      default:
+        return Double.parseDouble(getString(recordIndex, fieldIndex));
+    }
+  }
+
+  @Override
+  public long getLong(int recordIndex, int fieldIndex) {
+    if (isNull(recordIndex, fieldIndex)) {
+      return 0L;
+    }
+    switch (fieldTypes[fieldIndex]) {
+      case LONG:
+        return buffer.getLong(columnOffsets[fieldIndex] + 8 * recordIndex);
+      case DOUBLE:
+        return (long) buffer.getDouble(columnOffsets[fieldIndex] + 8 * recordIndex);
+      default:
+        return Long.parseLong(getString(recordIndex, fieldIndex));
+    }
+  }
+
+  @Override
+  public String getString(int recordIndex, int fieldIndex) {
+    if (isNull(recordIndex, fieldIndex)) {
+      return null;
+    }
+    switch (fieldTypes[fieldIndex]) {
+      case DOUBLE:
+        return String.valueOf(getDouble(recordIndex, fieldIndex));
+      case LONG:
+        return String.valueOf(getLong(recordIndex, fieldIndex));
+      default:
+        int offset = stringOffsets[fieldIndex][recordIndex];
+        return new String(buffer.array(), offset + 4, buffer.getInt(offset), StandardCharsets.UTF_8);
+    }
+  }
+
+  @Override
+  public boolean isNull(int recordIndex, int fieldIndex) {
+    checkRecordIndex(recordIndex);
+    if (fieldTypes[fieldIndex] == AssociatedDataFieldType.STRING) {
+      return buffer.getInt(stringOffsets[fieldIndex][recordIndex]) < 0;
+    }
+    int nullOffset = nullOffsets[fieldIndex];
+    return nullOffset >= 0 && (buffer.get(nullOffset + (recordIndex >>> 3)) & (1 << (recordIndex & 7))) != 0;
+  }
+
+  @Override
+  public boolean isBinary() {
+    return true;
+  }
+
+  private void checkRecordIndex(int recordIndex) {
+    if (recordIndex < 0 || recordIndex >= recordCount) {
+      throw new IndexOutOfBoundsException("record " + recordIndex + " of " + recordCount);
+    }
+  }
+
+}
@@ -0,0 +1,173 @@
+package me.callsen.taylor.scenicrouting.javasdk.data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.NotFoundException;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.TransientFailureException;
+
+import me.callsen.taylor.scenicrouting.javasdk.util.StructuredLogger;
+
+/**
+ * Deletes all relationships or nodes by walking the id space in fixed size chunks, each chunk
+ *  committed in its own transaction so neither heap usage nor lock hold time grows with the store.
+ *  With parallelism > 1 the id space is split into contiguous ranges deleted concurrently; chunks that
+ *  fail transiently (e.g. deadlocks on shared end nodes) are rolled back and replayed.
+ */
+class ChunkedDeleter {
+
+  static final StructuredLogger LOGGER = StructuredLogger.getLogger(ChunkedDeleter.class);
+
+  static final String ENTITY_RELATIONSHIPS = "relationships";
+  static final String ENTITY_NODES = "nodes";
+
+  private static final long RETRY_BACKOFF_MILLIS = 50;
+
+  private final GraphDb graphDb;
+  private final int chunkSize;
+  private final int parallelism;
+  private final int maxRetries;
+  private final DeleteProgressListener listener;
+
+  ChunkedDeleter(GraphDb graphDb, int chunkSize, int parallelism, int maxRetries, DeleteProgressListener listener) {
+    if (chunkSize < 1 || parallelism < 1) {
+      throw new IllegalArgumentException("chunk size and parallelism must be positive");
+    }
+    this.graphDb = graphDb;
+    this.chunkSize = chunkSize;
+    this.parallelism = parallelism;
+    this.maxRetries = maxRetries;
+    this.listener = listener;
+  }
+
+  long deleteRelationships() {
+    return deleteRange(ENTITY_RELATIONSHIPS, graphDb.getMaxRelationshipId() + 1);
+  }
+
+  // relationships still attached to a node are deleted with it
+  long deleteNodes() {
+    return deleteRange(ENTITY_NODES, graphDb.getMaxNodeId() + 1);
+  }
+
+  private long deleteRange(String entityType, long idSpace) {
+    long startMillis = System.currentTimeMillis();
+    AtomicLong totalDeleted = new AtomicLong();
+    if (idSpace <= 0) {
+      return 0;
+    }
+
+    long rangeSize = Math.max(1, (idSpace + parallelism - 1) / parallelism);
+    if (parallelism == 1) {
+      deleteIdRange(entityType, 0, idSpace, totalDeleted);
+    } else {
+      ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+      try {
+        List<Future<?>> futures = new ArrayList<Future<?>>(parallelism);
+        for (long startId = 0; startId < idSpace; startId += rangeSize) {
+          final long rangeStartId = startId;
+          final long rangeEndId = Math.min(idSpace, startId + rangeSize);
+          futures.add(executor.submit(() -> deleteIdRange(entityType, rangeStartId, rangeEndId, totalDeleted)));
+        }
+        try {
+          for (Future<?> future : futures) {
+            future.get();
+          }
+        } catch (InterruptedException e) {
+          futures.forEach(future -> future.cancel(true));
+          Thread.currentThread().interrupt();
+          throw new IllegalStateException("chunked delete of " + entityType + " interrupted", e);
+        } catch (ExecutionException e) {
+          futures.forEach(future -> future.cancel(true));
+          throw new IllegalStateException("chunked delete of " + entityType + " failed", e.getCause());
+        }
+      } finally {
+        executor.shutdown();
+      }
+    }
+
+    LOGGER.info("graphdb.truncate.finished", "entities", entityType, "deleted", totalDeleted.get(), "millis", System.currentTimeMillis() - startMillis);
+    return totalDeleted.get();
+  }
+
+  private void deleteIdRange(String entityType, long startId, long endId, AtomicLong totalDeleted) {
+    long nextId = startId;
+    while (nextId < endId) {
+      int attempt = 0;
+      while (true) {
+        long chunkNextId = nextId;
+        int chunkDeleted = 0;
+        try ( Transaction tx = graphDb.getTransaction() ) {
+          while (chunkNextId < endId && chunkDeleted < chunkSize) {
+            if (deleteById(tx, entityType, chunkNextId++)) {
+              chunkDeleted++;
+            }
+          }
+          tx.commit();
+        } catch (TransientFailureException e) {
+          // chunk rolled back - replay it from the same id after a short backoff
+          if (++attempt > maxRetries) {
+            throw e;
+          }
+          backoff(attempt);
+          continue;
+        }
+        nextId = chunkNextId;
+        if (chunkDeleted > 0) {
+          long total = totalDeleted.addAndGet(chunkDeleted);
+          if (listener != null) {
+            listener.onChunkDeleted(entityType, chunkDeleted, total);
+          }
+        }
+        break;
+      }
+    }
+  }
+
+  private static boolean deleteById(Transaction tx, String entityType, long id) {
+    if (entityType.equals(ENTITY_RELATIONSHIPS)) {
+      try {
+        tx.getRelationshipById(id).delete();
+        return true;
+      } catch (NotFoundException e) {
+        // id not in use
+        return false;
+      }
+    }
+
+    Node node;
+    try {
+      node = tx.getNodeById(id);
+    } catch (NotFoundException e) {
+      return false;
+    }
+    List<Relationship> relationships = new ArrayList<Relationship>();
+    node.getRelationships().forEach(relationships::add);
+    for (Relationship relationship : relationships) {
+      try {
+        relationship.delete();
+      } catch (NotFoundException e) {
+        // already deleted with the node at its other end
+      }
+    }
+    node.delete();
+    return true;
+  }
+
+  private static void backoff(int attempt) {
+    try {
+      Thread.sleep(RETRY_BACKOFF_MILLIS * (1L << Math.min(attempt, 6)));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("interrupted while retrying chunked delete", e);
+    }
+  }
+
+}
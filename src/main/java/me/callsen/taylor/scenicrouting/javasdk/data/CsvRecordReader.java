@@ -0,0 +1,109 @@
+package me.callsen.taylor.scenicrouting.javasdk.data;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal streaming RFC 4180 CSV reader - comma separated, double quoted fields may contain commas,
+ *  newlines and escaped ("") quotes. The first record is the header.
+ */
+class CsvRecordReader implements Closeable {
+
+  private final BufferedReader reader;
+  private final String[] header;
+  private final List<String> fields = new ArrayList<String>();
+  private final StringBuilder field = new StringBuilder();
+  private long recordNumber = 0;
+
+  CsvRecordReader(Path csvFile) throws IOException {
+    this.reader = Files.newBufferedReader(csvFile, StandardCharsets.UTF_8);
+    String[] headerRecord = next();
+    if (headerRecord == null) {
+      throw new IOException("empty CSV file: " + csvFile);
+    }
+    this.header = headerRecord;
+    for (int i = 0; i < header.length; i++) {
+      header[i] = header[i].trim();
+    }
+  }
+
+  String[] getHeader() {
+    return header;
+  }
+
+  int getColumnIndex(String column) {
+    for (int i = 0; i < header.length; i++) {
+      if (header[i].equals(column)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  // number of the last record returned, the header is record 0
+  long getRecordNumber() {
+    return recordNumber - 1;
+  }
+
+  // next record, or null at end of file - blank lines are skipped
+  String[] next() throws IOException {
+    fields.clear();
+    field.setLength(0);
+    boolean quoted = false;
+    boolean recordStarted = false;
+    int c;
+    while ((c = reader.read()) != -1) {
+      if (quoted) {
+        if (c == '"') {
+          reader.mark(1);
+          if (reader.read() == '"') {
+            field.append('"');
+          } else {
+            reader.reset();
+            quoted = false;
+          }
+        } else {
+          field.append((char) c);
+        }
+      } else if (c == '"') {
+        quoted = true;
+        recordStarted = true;
+      } else if (c == ',') {
+        fields.add(field.toString());
+        field.setLength(0);
+        recordStarted = true;
+      } else if (c == '\n' || c == '\r') {
+        if (c == '\r') {
+          reader.mark(1);
+          if (reader.read() != '\n') {
+            reader.reset();
+          }
+        }
+        if (recordStarted) {
+          break;
+        }
+      } else {
+        field.append((char) c);
+        recordStarted = true;
+      }
+    }
+    if (!recordStarted) {
+      return null;
+    }
+    fields.add(field.toString());
+    recordNumber++;
+    return fields.toArray(new String[0]);
+  }
+
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+
+}
@@ -0,0 +1,17 @@
+package me.callsen.taylor.scenicrouting.javasdk.data;
+
+/**
+ * Progress of a chunked delete - called after every committed chunk, possibly from several worker
+ *  threads when the delete runs in parallel.
+ */
+@FunctionalInterface
+public interface DeleteProgressListener {
+
+  // entityType is "relationships" or "nodes"; totalDeleted covers all workers of the current phase
+  void onChunkDeleted(String entityType, long chunkDeleted, long totalDeleted);
+
+  // logs each chunk at debug level
+  DeleteProgressListener LOGGING = (entityType, chunkDeleted, totalDeleted) -> 
+      ChunkedDeleter.LOGGER.debug("graphdb.truncate.chunk", "entities", entityType, "deleted", chunkDeleted, "total", totalDeleted);
+
+}
@@ -2,10 +2,28 @@ package me.callsen.taylor.scenicrouting.javasdk.data;
 
 import static org.neo4j.configuration.GraphDatabaseSettings.DEFAULT_DATABASE_NAME;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BinaryOperator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
@@ -16,6 +34,9 @@ import org.neo4j.graphdb.Node;
 import org.neo4j.graphdb.Relationship;
 import org.neo4j.graphdb.Result;
 import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.event.PropertyEntry;
+import org.neo4j.graphdb.event.TransactionData;
+import org.neo4j.graphdb.event.TransactionEventListenerAdapter;
 import org.neo4j.values.storable.CoordinateReferenceSystem;
 import org.neo4j.values.storable.PointValue;
 import org.neo4j.values.storable.Values;
@@ -23,146 +44,849 @@ import org.neo4j.values.storable.Values;
 import me.callsen.taylor.scenicrouting.javasdk.RoutingConstants;
 import me.callsen.taylor.scenicrouting.javasdk.RoutingConstants.NodeLabels;
 import me.callsen.taylor.scenicrouting.javasdk.RoutingConstants.RelationshipTypes;
+import me.callsen.taylor.scenicrouting.javasdk.metrics.MetricsListener;
+import me.callsen.taylor.scenicrouting.javasdk.routing.RoutingGraph;
+import me.callsen.taylor.scenicrouting.javasdk.routing.RoutingGraphFile;
+import me.callsen.taylor.scenicrouting.javasdk.spatial.BoundingBox;
+import me.callsen.taylor.scenicrouting.javasdk.spatial.GeoHash;
+import me.callsen.taylor.scenicrouting.javasdk.spatial.NearestMatch;
+import me.callsen.taylor.scenicrouting.javasdk.spatial.SpatialIndex;
+import me.callsen.taylor.scenicrouting.javasdk.util.GeoUtils;
+import me.callsen.taylor.scenicrouting.javasdk.util.StructuredLogger;
 
 public class GraphDb {
-  
+
+  private static final StructuredLogger LOGGER = StructuredLogger.getLogger(GraphDb.class);
+
   private GraphDatabaseService db;
   private DatabaseManagementService managementService;
+  private String graphDbPath;
+  private final GraphDbConfig config;
+
+  private volatile SpatialIndex intersectionSpatialIndex;
+  private volatile SpatialIndex waySpatialIndex;
+
+  private volatile MetricsListener metricsListener = MetricsListener.NOOP;
+
+  // optional read-through cache of decoded associatedData - null when disabled
+  private volatile AssociatedDataCache associatedDataCache;
+  // associatedData properties (relationship id -> property names) written through this GraphDb by the
+  //  current thread's open transaction while the cache is enabled - never served from or put into the
+  //  cache. Cleared when a GraphDb transaction commits, rolls back or closes
+  private final ThreadLocal<Map<Long, Set<String>>> pendingAssociatedDataWrites = ThreadLocal.withInitial(HashMap::new);
+
+  // optional log of committed associatedData changes - null when disabled
+  private volatile AssociatedDataChangeLog associatedDataChangeLog;
 
   public GraphDb(String graphDbPath) {
+    this(graphDbPath, GraphDbConfig.defaults());
+  }
+
+  public GraphDb(String graphDbPath, GraphDbConfig config) {
+    this.graphDbPath = graphDbPath;
+    this.config = config == null ? GraphDbConfig.defaults() : config;
+    start();
+  }
+
+  private void start() {
     // initialize graph db connection
-    managementService = new DatabaseManagementServiceBuilder( Paths.get( graphDbPath ) ).build();
+    managementService = new DatabaseManagementServiceBuilder( Paths.get( graphDbPath ) )
+        .setConfigRaw( config.getSettings() )
+        .build();
     db = managementService.database( DEFAULT_DATABASE_NAME );
     // db = new GraphDatabaseFactory().newEmbeddedDatabase( new File( graphDbPath ) );
-    System.out.println("Graph DB @ " + graphDbPath + " initialized");    
+    if (!config.isReadOnly()) {
+      // nothing commits in read-only mode
+      managementService.registerTransactionEventListener( DEFAULT_DATABASE_NAME, new CommitMetricsListener() );
+      managementService.registerTransactionEventListener( DEFAULT_DATABASE_NAME, new AssociatedDataCacheListener() );
+    }
+    AssociatedDataChangeLog changeLog = associatedDataChangeLog;
+    if (changeLog != null) {
+      managementService.registerTransactionEventListener( DEFAULT_DATABASE_NAME, changeLog.listener() );
+    }
+    LOGGER.info("graphdb.initialized", "path", graphDbPath, "config", config.getSettings());
+
+    if (config.isWarmupOnStart()) {
+      warmup();
+    }
+  }
+
+  // times commits of transactions that changed data - beforeCommit state is the commit start time
+  private class CommitMetricsListener extends TransactionEventListenerAdapter<Long> {
+
+    @Override
+    public Long beforeCommit(TransactionData data, Transaction transaction, GraphDatabaseService databaseService) {
+      return System.nanoTime();
+    }
+
+    @Override
+    public void afterCommit(TransactionData data, Long startNanos, GraphDatabaseService databaseService) {
+      metricsListener.recordTimer(MetricsListener.TRANSACTION_COMMIT, System.nanoTime() - startNanos);
+    }
+
+    @Override
+    public void afterRollback(TransactionData data, Long startNanos, GraphDatabaseService databaseService) {
+      metricsListener.incrementCounter(MetricsListener.TRANSACTION_ROLLBACK, 1);
+    }
+
+  }
+
+  // invalidates cached associatedData once the writing transaction has committed - a reader that 
+  //  raced the commit may have put the previous value back after the write time invalidation
+  private class AssociatedDataCacheListener extends TransactionEventListenerAdapter<Object> {
+
+    @Override
+    public void afterCommit(TransactionData data, Object state, GraphDatabaseService databaseService) {
+      AssociatedDataCache cache = associatedDataCache;
+      if (cache == null) {
+        return;
+      }
+      for (PropertyEntry<Relationship> entry : data.assignedRelationshipProperties()) {
+        cache.invalidate(entry.entity().getId(), entry.key());
+      }
+      for (PropertyEntry<Relationship> entry : data.removedRelationshipProperties()) {
+        cache.invalidate(entry.entity().getId(), entry.key());
+      }
+    }
+
+  }
+
+  // no-op by default
+  public void setMetricsListener(MetricsListener metricsListener) {
+    this.metricsListener = metricsListener == null ? MetricsListener.NOOP : metricsListener;
+  }
+
+  public MetricsListener getMetricsListener() {
+    return metricsListener;
+  }
+
+  public String getGraphDbPath() {
+    return graphDbPath;
+  }
+
+  public GraphDbConfig getConfig() {
+    return config;
+  }
+
+  public boolean isReadOnly() {
+    return config.isReadOnly();
+  }
+
+  // fail fast before opening write transactions against a read-only store
+  void checkWritable(String operation) {
+    if (config.isReadOnly()) {
+      throw new IllegalStateException("graph database is read-only - cannot " + operation + ": " + graphDbPath);
+    }
+  }
+
+  public long warmup() {
+    return warmup(RoutingConstants.GRAPH_WARMUP_PROGRESS_INTERVAL, WarmupProgressListener.LOGGING);
+  }
+
+  // read every node, relationship and their properties, then scan the osm_id and geom point indexes, so
+  //  the page cache is hot before the first query - returns the number of nodes and relationships read
+  public long warmup(int progressInterval, WarmupProgressListener listener) {
+
+    LOGGER.info("graphdb.warmup.start", "path", graphDbPath);
+    long startNanos = System.nanoTime();
+
+    long touched = new StoreWarmer(this, progressInterval, listener).warmup();
+
+    long elapsedNanos = System.nanoTime() - startNanos;
+    metricsListener.recordTimer(MetricsListener.WARMUP, elapsedNanos);
+    LOGGER.info("graphdb.warmup.completed", "entities", touched, "millis", elapsedNanos / 1000000);
+    return touched;
+  }
+
+  public long warmup(BoundingBox boundingBox) {
+    return warmup(boundingBox, RoutingConstants.GRAPH_WARMUP_PROGRESS_INTERVAL, WarmupProgressListener.LOGGING);
+  }
+
+  // read only the INTERSECTION nodes in the box and the CONNECTS relationships touching them - keeps the
+  //  page cache working set of a process serving one region small
+  public long warmup(BoundingBox boundingBox, int progressInterval, WarmupProgressListener listener) {
+
+    LOGGER.info("graphdb.warmup.start", "path", graphDbPath, "boundingBox", boundingBox);
+    long startNanos = System.nanoTime();
+
+    long touched = new StoreWarmer(this, progressInterval, listener).warmup(boundingBox);
+
+    long elapsedNanos = System.nanoTime() - startNanos;
+    metricsListener.recordTimer(MetricsListener.WARMUP, elapsedNanos);
+    LOGGER.info("graphdb.warmup.completed", "entities", touched, "millis", elapsedNanos / 1000000);
+    return touched;
   }
 
   public Transaction getTransaction() {
-    return db.beginTx();
+    metricsListener.incrementCounter(MetricsListener.TRANSACTION_OPEN, 1);
+    return beginTransaction();
+  }
+
+  // the transaction clears this thread's pending associatedData writes when it ends
+  private Transaction beginTransaction() {
+    return new GraphDbTransaction(db.beginTx(), this::clearPendingAssociatedDataWrites);
   }
 
   public void shutdown(){
     this.managementService.shutdown();
-    System.out.println("Graph DB shutdown");
+    LOGGER.info("graphdb.shutdown", "path", graphDbPath);
   }
 
+  // constant time - read from the counts store
   public long getRelationshipCount() {
+    return count(GraphQueries.RELATIONSHIP_COUNT);
+  }
+
+  public Result getRelationshipPage(Transaction tx, int pageNumber) {
+    return getRelationshipPage(tx, pageNumber, RoutingConstants.GRAPH_RELATIONSHIP_PAGINATION_AMOUNT);
+  }
+
+  public Result getRelationshipPage(Transaction tx, int pageNumber, int pageSize) {
+    return getOffsetRelationshipPage(tx, GraphQueries.RELATIONSHIP_PAGE, pageNumber, pageSize);
+  }
 
-    long count = 0;
+  // visits each relationship once
+  public long getAssociatedDataRelationshipCount() {
+    return count(GraphQueries.ASSOCIATED_DATA_RELATIONSHIP_COUNT);
+  }
 
-    Transaction tx = this.db.beginTx();
-    try ( Result result = tx.execute( "MATCH ()-[r]-() RETURN COUNT(DISTINCT(r)) AS total" ) ) {
+  private long count(String query) {
+    try ( Transaction tx = this.db.beginTx(); Result result = tx.execute( query ) ) {
+      return result.hasNext() ? (Long) result.next().get("total") : 0;
+    }
+  }
+
+  public Result getAssociatedDataRelationshipPage(Transaction tx, int pageNumber) {
+    return getAssociatedDataRelationshipPage(tx, pageNumber, RoutingConstants.GRAPH_RELATIONSHIP_PAGINATION_AMOUNT);
+  }
+
+  public Result getAssociatedDataRelationshipPage(Transaction tx, int pageNumber, int pageSize) {
+    return getOffsetRelationshipPage(tx, GraphQueries.ASSOCIATED_DATA_RELATIONSHIP_PAGE, pageNumber, pageSize);
+  }
+
+  private Result getOffsetRelationshipPage(Transaction tx, String query, int pageNumber, int pageSize) {
+    long startNanos = System.nanoTime();
+    Map<String, Object> params = new HashMap<String, Object>();
+    params.put("skip", (long) pageNumber * pageSize);
+    params.put("limit", pageSize);
+    Result result = tx.execute( query, params );
+    metricsListener.recordTimer(MetricsListener.PAGE_FETCH, System.nanoTime() - startNanos);
+    return result;
+  }
+
+  public RelationshipPage getRelationshipPage(Transaction tx, RelationshipCursor cursor) {
+    return getRelationshipPage(tx, cursor, RoutingConstants.GRAPH_RELATIONSHIP_PAGINATION_AMOUNT);
+  }
+
+  public RelationshipPage getRelationshipPage(Transaction tx, RelationshipCursor cursor, int pageSize) {
+    return getKeysetRelationshipPage(tx, GraphQueries.RELATIONSHIP_KEYSET_FIRST_PAGE, GraphQueries.RELATIONSHIP_KEYSET_NEXT_PAGE, cursor, pageSize);
+  }
+
+  public RelationshipPage getAssociatedDataRelationshipPage(Transaction tx, RelationshipCursor cursor) {
+    return getAssociatedDataRelationshipPage(tx, cursor, RoutingConstants.GRAPH_RELATIONSHIP_PAGINATION_AMOUNT);
+  }
+
+  public RelationshipPage getAssociatedDataRelationshipPage(Transaction tx, RelationshipCursor cursor, int pageSize) {
+    return getKeysetRelationshipPage(tx, GraphQueries.ASSOCIATED_DATA_RELATIONSHIP_KEYSET_FIRST_PAGE, GraphQueries.ASSOCIATED_DATA_RELATIONSHIP_KEYSET_NEXT_PAGE, cursor, pageSize);
+  }
+
+  private RelationshipPage getKeysetRelationshipPage(Transaction tx, String firstPageQuery, String nextPageQuery, RelationshipCursor cursor, int pageSize) {
+    long startNanos = System.nanoTime();
+    Map<String, Object> params = new HashMap<String, Object>();
+    params.put("limit", pageSize);
+
+    String query;
+    if (cursor == null || cursor.isStart()) {
+      query = firstPageQuery;
+      params.put("lastOsmId", Long.MAX_VALUE);
+    } else {
+      query = nextPageQuery;
+      params.put("lastOsmId", cursor.getLastOsmId());
+      params.put("lastRelationshipId", cursor.getLastRelationshipId());
+    }
+
+    List<Relationship> relationships = new ArrayList<Relationship>(pageSize);
+    try ( Result result = tx.execute( query, params ) ) {
       while ( result.hasNext() ) {
-        Map<String, Object> row = result.next();
-        count = (Long) row.get("total");
+        relationships.add((Relationship) result.next().get("way"));
       }
+    }
+
+    // a short page means there is nothing left to read
+    RelationshipCursor nextCursor = null;
+    if (relationships.size() == pageSize && pageSize > 0) {
+      Relationship last = relationships.get(relationships.size() - 1);
+      long lastOsmId = ((Number) last.getProperty(RoutingConstants.GRAPH_PROPERTY_NAME_OSM_ID)).longValue();
+      nextCursor = RelationshipCursor.after(lastOsmId, last.getId());
+    }
+
+    metricsListener.recordTimer(MetricsListener.PAGE_FETCH, System.nanoTime() - startNanos);
+    metricsListener.incrementCounter(MetricsListener.PAGE_RELATIONSHIPS, relationships.size());
+    return new RelationshipPage(relationships, nextCursor);
+  }
+
+  public Stream<RelationshipView> streamRelationships() {
+    return streamRelationships(false, RoutingConstants.GRAPH_RELATIONSHIP_STREAM_PAGE_SIZE);
+  }
+
+  public Stream<RelationshipView> streamAssociatedDataRelationships() {
+    return streamRelationships(true, RoutingConstants.GRAPH_RELATIONSHIP_STREAM_PAGE_SIZE);
+  }
+
+  // lazily stream detached copies of every relationship in id order - pages of pageSize are read on 
+  //  demand, each in its own transaction, so memory is bounded by one page and a slow consumer never 
+  //  holds a transaction open. The stream is sequential; hand views to other threads to process in parallel
+  public Stream<RelationshipView> streamRelationships(boolean associatedDataOnly, int pageSize) {
+    RelationshipStreamIterator iterator = new RelationshipStreamIterator(this, associatedDataOnly, pageSize);
+    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, 
+        Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+  }
+
+  // INTERSECTION node with the osm_id - null if there is none
+  public Node getIntersectionByOsmId(Transaction tx, long osmId) {
+    long startNanos = System.nanoTime();
+    try ( Result result = tx.execute( GraphQueries.INTERSECTION_BY_OSM_ID, Map.of("osmId", osmId) ) ) {
+      return result.hasNext() ? (Node) result.next().get("intersection") : null;
     } finally {
-      tx.close();  
+      metricsListener.recordTimer(MetricsListener.LOOKUP, System.nanoTime() - startNanos);
     }
+  }
 
-    return count;
+  // CONNECTS relationships of a way - a single OSM way may be split into several relationships
+  public List<Relationship> getWaysByOsmId(Transaction tx, long osmId) {
+    return getWays(tx, GraphQueries.WAYS_BY_OSM_ID, Map.of("osmId", osmId));
   }
 
-  public Result getRelationshipPage(Transaction tx, int pageNumber) {
-    long startIndex = pageNumber * RoutingConstants.GRAPH_RELATIONSHIP_PAGINATION_AMOUNT;
-    Result result = tx.execute( String.format("MATCH ()-[r]-() RETURN DISTINCT(r) as way ORDER BY r.osm_id DESC SKIP %s LIMIT %s", startIndex, RoutingConstants.GRAPH_RELATIONSHIP_PAGINATION_AMOUNT ) );
-    return result;
+  // CONNECTS relationships whose start_osm_id is the intersection osm_id
+  public List<Relationship> getWaysByStartOsmId(Transaction tx, long startOsmId) {
+    return getWays(tx, GraphQueries.WAYS_BY_START_OSM_ID, Map.of("osmId", startOsmId));
   }
 
-  public long getAssociatedDataRelationshipCount() {
+  // CONNECTS relationships whose end_osm_id is the intersection osm_id
+  public List<Relationship> getWaysByEndOsmId(Transaction tx, long endOsmId) {
+    return getWays(tx, GraphQueries.WAYS_BY_END_OSM_ID, Map.of("osmId", endOsmId));
+  }
 
-    long count = 0;
+  // CONNECTS relationships from start_osm_id to end_osm_id
+  public List<Relationship> getWaysBetween(Transaction tx, long startOsmId, long endOsmId) {
+    return getWays(tx, GraphQueries.WAYS_BETWEEN, Map.of("startOsmId", startOsmId, "endOsmId", endOsmId));
+  }
 
-    Transaction tx = this.db.beginTx();
-    try ( Result result = tx.execute( "MATCH ()-[r]-() WHERE NOT isEmpty(r.associatedData) RETURN COUNT(DISTINCT(r)) AS total" ) ) {
+  // INTERSECTION nodes whose geom point lies in the box, by node id
+  public List<Node> getIntersectionsInBoundingBox(Transaction tx, BoundingBox boundingBox) {
+    long startNanos = System.nanoTime();
+    List<Node> intersections = new ArrayList<Node>();
+    try ( Result result = tx.execute( GraphQueries.INTERSECTIONS_IN_BOUNDING_BOX, boundingBoxParams(boundingBox) ) ) {
       while ( result.hasNext() ) {
-        Map<String, Object> row = result.next();
-        count = (Long) row.get("total");
+        intersections.add((Node) result.next().get("intersection"));
       }
-    } finally {
-      tx.close();
     }
+    metricsListener.recordTimer(MetricsListener.LOOKUP, System.nanoTime() - startNanos);
+    return intersections;
+  }
 
-    return count;
+  // CONNECTS relationships with at least one end point in the box, by relationship id
+  public List<Relationship> getWaysInBoundingBox(Transaction tx, BoundingBox boundingBox) {
+    return getWays(tx, GraphQueries.WAYS_IN_BOUNDING_BOX, boundingBoxParams(boundingBox));
   }
 
-  public Result getAssociatedDataRelationshipPage(Transaction tx, int pageNumber) {
-    return getAssociatedDataRelationshipPage(tx, pageNumber, RoutingConstants.GRAPH_RELATIONSHIP_PAGINATION_AMOUNT);
+  private static Map<String, Object> boundingBoxParams(BoundingBox boundingBox) {
+    return Map.of(
+        "lowerLeft", GeoUtils.point(boundingBox.getMinLatitude(), boundingBox.getMinLongitude()),
+        "upperRight", GeoUtils.point(boundingBox.getMaxLatitude(), boundingBox.getMaxLongitude()));
   }
 
-  public Result getAssociatedDataRelationshipPage(Transaction tx, int pageNumber, int pageSize) {
-    long startIndex = pageNumber * pageSize;
-    Result result = tx.execute( String.format("MATCH ()-[r]-() WHERE NOT isEmpty(r.associatedData) RETURN DISTINCT(r) as way ORDER BY r.osm_id DESC SKIP %s LIMIT %s", startIndex, pageSize ) );
-    return result;
+  private List<Relationship> getWays(Transaction tx, String query, Map<String, Object> params) {
+    long startNanos = System.nanoTime();
+    List<Relationship> ways = new ArrayList<Relationship>();
+    try ( Result result = tx.execute( query, params ) ) {
+      while ( result.hasNext() ) {
+        ways.add((Relationship) result.next().get("way"));
+      }
+    }
+    metricsListener.recordTimer(MetricsListener.LOOKUP, System.nanoTime() - startNanos);
+    return ways;
   }
 
-  public void setAssociatedData(Relationship relationship, String propertyName, JSONObject associatedData) {
-    // add property to associatedData list
-    addAssociatedDataProperty(relationship, propertyName);
+  public long getMaxRelationshipId() {
+
+    long maxId = -1;
+
+    try ( Transaction tx = this.db.beginTx(); Result result = tx.execute( GraphQueries.MAX_RELATIONSHIP_ID ) ) {
+      if ( result.hasNext() ) {
+        Object value = result.next().get("maxId");
+        if (value != null) {
+          maxId = (Long) value;
+        }
+      }
+    }
+
+    return maxId;
+  }
+
+  public <T> T scanRelationshipsParallel(int partitionCount, boolean associatedDataOnly, RelationshipPartitionScanner<T> scanner, BinaryOperator<T> merger) {
+    ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(partitionCount, Runtime.getRuntime().availableProcessors())));
+    try {
+      return scanRelationshipsParallel(executor, partitionCount, associatedDataOnly, scanner, merger);
+    } finally {
+      executor.shutdown();
+    }
+  }
 
+  public <T> T scanRelationshipsParallel(ExecutorService executor, int partitionCount, boolean associatedDataOnly, RelationshipPartitionScanner<T> scanner, BinaryOperator<T> merger) {
+    List<T> partitionResults = scanRelationshipPartitions(executor, partitionCount, associatedDataOnly, scanner);
+    T merged = null;
+    for (T partitionResult : partitionResults) {
+      merged = merged == null ? partitionResult : merger.apply(merged, partitionResult);
+    }
+    return merged;
+  }
+
+  public <T> List<T> scanRelationshipPartitions(ExecutorService executor, int partitionCount, boolean associatedDataOnly, RelationshipPartitionScanner<T> scanner) {
+    if (partitionCount < 1) {
+      throw new IllegalArgumentException("partitionCount must be at least 1");
+    }
+
+    // split the relationship id space into contiguous ranges - each range is scanned by direct id 
+    //  lookup in its own transaction, so partitions never share state
+    long idSpace = getMaxRelationshipId() + 1;
+    long partitionSize = Math.max(1, (idSpace + partitionCount - 1) / partitionCount);
+
+    List<Future<T>> futures = new ArrayList<Future<T>>(partitionCount);
+    for (long startId = 0; startId < idSpace; startId += partitionSize) {
+      final long partitionStartId = startId;
+      final long partitionEndId = Math.min(idSpace, startId + partitionSize);
+      futures.add(executor.submit(() -> {
+        try ( Transaction tx = beginTransaction() ) {
+          T partitionResult = scanner.scan(tx, new RelationshipIdRange(tx, partitionStartId, partitionEndId, associatedDataOnly));
+          tx.commit();
+          return partitionResult;
+        }
+      }));
+    }
+
+    List<T> partitionResults = new ArrayList<T>(futures.size());
+    try {
+      for (Future<T> future : futures) {
+        partitionResults.add(future.get());
+      }
+    } catch (InterruptedException e) {
+      futures.forEach(future -> future.cancel(true));
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("parallel relationship scan interrupted", e);
+    } catch (ExecutionException e) {
+      futures.forEach(future -> future.cancel(true));
+      throw new IllegalStateException("parallel relationship scan failed", e.getCause());
+    }
+
+    return partitionResults;
+  }
+
+  public void setAssociatedData(Relationship relationship, String propertyName, JSONObject associatedData) {
     JSONArray associatedDataArray = new JSONArray();
     associatedDataArray.put(associatedData);
 
-    // add JSON data to associated data property 
-    relationship.setProperty(propertyName, associatedDataArray.toString());
+    setAssociatedDataJson(relationship, propertyName, associatedDataArray.toString());
   }
 
   public void setAssociatedData(Relationship relationship, String propertyName, JSONArray associatedData) {
+    setAssociatedDataJson(relationship, propertyName, associatedData.toString());
+  }
+
+  // store associated data using the compact binary encoding instead of a JSON string - read back with getAssociatedData()
+  public void setAssociatedDataBinary(Relationship relationship, String propertyName, JSONArray associatedData) {
+    setAssociatedDataBinary(relationship, propertyName, AssociatedDataCodec.encode(associatedData));
+  }
+
+  public void setAssociatedDataBinary(Relationship relationship, String propertyName, byte[] encodedAssociatedData) {
+    checkWritable("set associated data");
+    long startNanos = System.nanoTime();
+    invalidateAssociatedDataCache(relationship, propertyName);
+
+    // add property to associatedData list
+    addAssociatedDataProperty(relationship, propertyName);
+
+    relationship.setProperty(propertyName, encodedAssociatedData);
+    metricsListener.recordTimer(MetricsListener.ASSOCIATED_DATA_WRITE, System.nanoTime() - startNanos);
+  }
+
+  // read associated data regardless of encoding (binary or legacy JSON) - null if the property is not set
+  public AssociatedDataRecords getAssociatedData(Relationship relationship, String propertyName) {
+    AssociatedDataCache cache = associatedDataCache;
+    // this transaction's own uncommitted write - read it from the store, never cache it
+    if (cache != null && isPendingAssociatedDataWrite(relationship.getId(), propertyName)) {
+      cache = null;
+    }
+    long generation = 0;
+    if (cache != null) {
+      AssociatedDataRecords cachedRecords = cache.get(relationship.getId(), propertyName);
+      if (cachedRecords != null) {
+        return cachedRecords;
+      }
+      generation = cache.getGeneration(relationship.getId(), propertyName);
+    }
+
+    Object propertyValue = relationship.getProperty(propertyName, null);
+    if (propertyValue == null) {
+      return null;
+    }
+    AssociatedDataRecords records = AssociatedDataCodec.decode(propertyValue);
+    if (cache != null) {
+      cache.put(relationship.getId(), propertyName, records, AssociatedDataCache.estimateWeight(propertyValue), generation);
+    }
+    return records;
+  }
+
+  // serve getAssociatedData() from a bounded LRU cache - entries are invalidated after any committed 
+  //  write to the property (setAssociatedData*, the batch writer or plain Cypher) and on truncates and 
+  //  resetStore. Reads of a property the same transaction wrote through GraphDb bypass the cache
+  public AssociatedDataCache enableAssociatedDataCache() {
+    return enableAssociatedDataCache(RoutingConstants.GRAPH_ASSOCIATED_DATA_CACHE_MAX_ENTRIES, RoutingConstants.GRAPH_ASSOCIATED_DATA_CACHE_MAX_BYTES);
+  }
+
+  public AssociatedDataCache enableAssociatedDataCache(int maxEntries, long maxWeightBytes) {
+    associatedDataCache = new AssociatedDataCache(maxEntries, maxWeightBytes);
+    return associatedDataCache;
+  }
+
+  public void disableAssociatedDataCache() {
+    associatedDataCache = null;
+  }
+
+  // null when the cache is disabled
+  public AssociatedDataCache getAssociatedDataCache() {
+    return associatedDataCache;
+  }
+
+  // record committed associatedData writes in a bounded in-memory log - query it with 
+  //  getAssociatedDataChangeLog().changesSince(version) to apply deltas instead of rescanning
+  public AssociatedDataChangeLog enableAssociatedDataChangeLog() {
+    return enableAssociatedDataChangeLog(RoutingConstants.GRAPH_ASSOCIATED_DATA_CHANGE_LOG_CAPACITY);
+  }
+
+  public synchronized AssociatedDataChangeLog enableAssociatedDataChangeLog(int capacity) {
+    disableAssociatedDataChangeLog();
+    AssociatedDataChangeLog changeLog = new AssociatedDataChangeLog(capacity);
+    managementService.registerTransactionEventListener( DEFAULT_DATABASE_NAME, changeLog.listener() );
+    associatedDataChangeLog = changeLog;
+    return changeLog;
+  }
+
+  public synchronized void disableAssociatedDataChangeLog() {
+    AssociatedDataChangeLog changeLog = associatedDataChangeLog;
+    if (changeLog != null) {
+      managementService.unregisterTransactionEventListener( DEFAULT_DATABASE_NAME, changeLog.listener() );
+      associatedDataChangeLog = null;
+    }
+  }
+
+  // null when the change log is disabled
+  public AssociatedDataChangeLog getAssociatedDataChangeLog() {
+    return associatedDataChangeLog;
+  }
+
+  private void invalidateAssociatedDataCache(Relationship relationship, String propertyName) {
+    AssociatedDataCache cache = associatedDataCache;
+    if (cache == null) {
+      return;
+    }
+    pendingAssociatedDataWrites.get().computeIfAbsent(relationship.getId(), id -> new HashSet<String>(4)).add(propertyName);
+    cache.invalidate(relationship.getId(), propertyName);
+  }
+
+  private boolean isPendingAssociatedDataWrite(long relationshipId, String propertyName) {
+    Map<Long, Set<String>> pendingWrites = pendingAssociatedDataWrites.get();
+    if (pendingWrites.isEmpty()) {
+      return false;
+    }
+    Set<String> propertyNames = pendingWrites.get(relationshipId);
+    return propertyNames != null && propertyNames.contains(propertyName);
+  }
+
+  private void clearPendingAssociatedDataWrites() {
+    Map<Long, Set<String>> pendingWrites = pendingAssociatedDataWrites.get();
+    if (!pendingWrites.isEmpty()) {
+      pendingWrites.clear();
+    }
+  }
+
+  private void clearAssociatedDataCache() {
+    AssociatedDataCache cache = associatedDataCache;
+    if (cache != null) {
+      cache.clear();
+    }
+  }
+
+  // create a reusable typed view - load() it with each relationship to read the schema's fields
+  public AssociatedDataView getAssociatedDataView(AssociatedDataSchema schema) {
+    return new AssociatedDataView(schema);
+  }
+
+  public AssociatedDataView getAssociatedDataView(Relationship relationship, AssociatedDataSchema schema) {
+    AssociatedDataView view = new AssociatedDataView(schema);
+    view.load(relationship);
+    return view;
+  }
+
+  // writes already serialized associated data (JSON array string) - shared by setAssociatedData and the batch writer
+  void setAssociatedDataJson(Relationship relationship, String propertyName, String associatedDataJson) {
+    checkWritable("set associated data");
+    long startNanos = System.nanoTime();
+    invalidateAssociatedDataCache(relationship, propertyName);
+
     // add property to associatedData list
     addAssociatedDataProperty(relationship, propertyName);
 
     // add JSON data to associated data property 
-    relationship.setProperty(propertyName, associatedData.toString());
+    relationship.setProperty(propertyName, associatedDataJson);
+    metricsListener.recordTimer(MetricsListener.ASSOCIATED_DATA_WRITE, System.nanoTime() - startNanos);
+  }
+
+  // write several associated data properties of one relationship, merging the associatedData array once
+  void setAssociatedDataJson(Relationship relationship, Map<String, String> associatedDataJsonByProperty) {
+    checkWritable("set associated data");
+    long startNanos = System.nanoTime();
+    for (String propertyName : associatedDataJsonByProperty.keySet()) {
+      invalidateAssociatedDataCache(relationship, propertyName);
+    }
+
+    addAssociatedDataProperties(relationship, associatedDataJsonByProperty.keySet());
+
+    for (Map.Entry<String, String> associatedDataJson : associatedDataJsonByProperty.entrySet()) {
+      relationship.setProperty(associatedDataJson.getKey(), associatedDataJson.getValue());
+    }
+    metricsListener.recordTimer(MetricsListener.ASSOCIATED_DATA_WRITE, System.nanoTime() - startNanos);
   }
 
-  private void addAssociatedDataProperty(Relationship relationship, String propertyName) {
-    // add referenced associated data property to associatedData array (or create one of doesn't exist yet)
-    String[] associatedDataArray;
+  void addAssociatedDataProperty(Relationship relationship, String propertyName) {
+    addAssociatedDataProperties(relationship, List.of(propertyName));
+  }
+
+  void addAssociatedDataProperties(Relationship relationship, Collection<String> propertyNames) {
+    // add referenced associated data properties to associatedData array (or create one of doesn't exist yet)
+    List<String> associatedDataList = new ArrayList<String>();
     if (relationship.hasProperty(RoutingConstants.GRAPH_PROPERTY_NAME_ASSOCIATED_DATA)) {
-      ArrayList<String> existingAssociatedDataList = new ArrayList<String>(Arrays.asList((String[]) relationship.getProperty(RoutingConstants.GRAPH_PROPERTY_NAME_ASSOCIATED_DATA)));
+      associatedDataList.addAll(Arrays.asList((String[]) relationship.getProperty(RoutingConstants.GRAPH_PROPERTY_NAME_ASSOCIATED_DATA)));
+    }
+    int existingCount = associatedDataList.size();
+    for (String propertyName : propertyNames) {
       // prevent duplicates - don't add property if already exists in the list
-      if (!existingAssociatedDataList.contains(propertyName)) {
-        existingAssociatedDataList.add(propertyName);
+      if (!associatedDataList.contains(propertyName)) {
+        associatedDataList.add(propertyName);
       }
-      associatedDataArray = existingAssociatedDataList.stream().toArray(String[]::new);
-    } else {
-      associatedDataArray = new String[1];
-      associatedDataArray[0] = propertyName ;
     }
-    relationship.setProperty(RoutingConstants.GRAPH_PROPERTY_NAME_ASSOCIATED_DATA, associatedDataArray);
+    // rewrite the array only when a name was added
+    if (associatedDataList.size() > existingCount) {
+      relationship.setProperty(RoutingConstants.GRAPH_PROPERTY_NAME_ASSOCIATED_DATA, associatedDataList.toArray(new String[0]));
+    }
+  }
+
+  // build an in-memory CSR snapshot of the routing graph - call refresh() on the snapshot after the store changes
+  public RoutingGraph buildRoutingGraph() {
+    return RoutingGraph.build(this);
+  }
+
+  public RoutingGraph buildRoutingGraph(AssociatedDataSchema schema) {
+    return RoutingGraph.build(this, schema);
+  }
+
+  // build a routing graph snapshot and persist it - open with RoutingGraphFile.open() for a query-ready, memory mapped graph
+  public RoutingGraph exportRoutingGraph(Path snapshotFile, AssociatedDataSchema schema) throws IOException {
+    RoutingGraph routingGraph = buildRoutingGraph(schema);
+    RoutingGraphFile.write(routingGraph, snapshotFile);
+    return routingGraph;
+  }
+
+  // routing graph of the INTERSECTION nodes inside the box and the CONNECTS relationships between them -
+  //  refresh() on the snapshot reloads the same region
+  public RoutingGraph buildRoutingGraph(AssociatedDataSchema schema, BoundingBox boundingBox) {
+    return RoutingGraph.build(this, schema, boundingBox);
+  }
+
+  public RoutingGraph exportRoutingGraph(Path snapshotFile, AssociatedDataSchema schema, BoundingBox boundingBox) throws IOException {
+    RoutingGraph routingGraph = buildRoutingGraph(schema, boundingBox);
+    RoutingGraphFile.write(routingGraph, snapshotFile);
+    return routingGraph;
+  }
+
+  // write one routing graph snapshot per geohash cell of the precision covering the region, to
+  //  <directory>/<geohash>.srg. Each tile is padded by marginMeters so ways crossing the cell edge keep
+  //  both end points and routes near the edge stay inside one tile. Tiles without intersections are
+  //  skipped - returns the files written
+  public List<Path> exportRoutingGraphTiles(Path directory, AssociatedDataSchema schema, BoundingBox region, int precision, 
+      double marginMeters) throws IOException {
+    long startMillis = System.currentTimeMillis();
+    List<Path> files = new ArrayList<Path>();
+    for (String tile : GeoHash.cover(region, precision)) {
+      RoutingGraph routingGraph = buildRoutingGraph(schema, GeoHash.bounds(tile).expand(marginMeters));
+      if (routingGraph.getNodeCount() == 0) {
+        continue;
+      }
+      Path file = RoutingGraphFile.getTileFile(directory, tile);
+      RoutingGraphFile.write(routingGraph, file);
+      files.add(file);
+    }
+    LOGGER.info("routing.tiles.exported", "region", region, "precision", precision, "tiles", files.size(),
+        "millis", System.currentTimeMillis() - startMillis);
+    return files;
+  }
+
+  // build the in-memory spatial indexes used by findNearestIntersection / findNearestWay - call again
+  //  after the graph changes; until built, lookups fall back to Cypher against the point index
+  public void buildSpatialIndexes() {
+    intersectionSpatialIndex = SpatialIndex.buildIntersectionIndex(this);
+    waySpatialIndex = SpatialIndex.buildWayIndex(this);
+  }
+
+  public void clearSpatialIndexes() {
+    intersectionSpatialIndex = null;
+    waySpatialIndex = null;
+  }
+
+  public boolean hasSpatialIndexes() {
+    return intersectionSpatialIndex != null && waySpatialIndex != null;
+  }
+
+  // k nearest INTERSECTION nodes to the point, closest first
+  public List<NearestMatch> findNearestIntersection(double latitude, double longitude, int k) {
+    SpatialIndex index = intersectionSpatialIndex;
+    if (index != null) {
+      return index.findNearest(latitude, longitude, k);
+    }
+    return findNearestWithQuery(GraphQueries.NEAREST_INTERSECTION, latitude, longitude, k);
+  }
+
+  // k nearest CONNECTS ways to the point, closest first
+  public List<NearestMatch> findNearestWay(double latitude, double longitude, int k) {
+    SpatialIndex index = waySpatialIndex;
+    if (index != null) {
+      return index.findNearest(latitude, longitude, k);
+    }
+    return findNearestWithQuery(GraphQueries.NEAREST_WAY, latitude, longitude, k);
+  }
+
+  // single query for the k closest matches within the maximum radius
+  private List<NearestMatch> findNearestWithQuery(String query, double latitude, double longitude, int k) {
+    List<NearestMatch> matches = new ArrayList<NearestMatch>();
+    if (k < 1) {
+      return matches;
+    }
+    Map<String, Object> params = new HashMap<String, Object>();
+    params.put("point", Values.pointValue(CoordinateReferenceSystem.get(4326), longitude, latitude));
+    params.put("radius", RoutingConstants.GRAPH_SPATIAL_FALLBACK_MAX_RADIUS_METERS);
+    params.put("limit", k);
+
+    try ( Transaction tx = this.getTransaction(); Result result = tx.execute(query, params) ) {
+      while (result.hasNext()) {
+        Map<String, Object> row = result.next();
+        Object osmId = row.get("osmId");
+        matches.add(new NearestMatch((Long) row.get("id"), osmId instanceof Number ? ((Number) osmId).longValue() : -1L,
+            ((Number) row.get("distance")).doubleValue()));
+      }
+    }
+    return matches;
   }
 
   public void truncateGraphNodes() {
-    
-    System.out.println("truncating graph nodes..");
-    
-    try ( Transaction tx = this.getTransaction() ) {
-      tx.execute( "MATCH (n) DETACH DELETE n" );
-      tx.commit();
-    } catch (Exception e) {
-      System.out.println("failed to truncateGraph nodes"); 
-      e.printStackTrace();
+    truncateGraphNodes(RoutingConstants.GRAPH_DELETE_CHUNK_SIZE, 1, DeleteProgressListener.LOGGING);
+  }
+
+  // delete all relationships, then all nodes, in chunks committed independently - returns the number of nodes deleted
+  public long truncateGraphNodes(int chunkSize, int parallelism, DeleteProgressListener listener) {
+
+    checkWritable("truncate nodes");
+
+    LOGGER.info("graphdb.truncate.start", "entities", "nodes", "chunkSize", chunkSize, "parallelism", parallelism);
+    long startNanos = System.nanoTime();
+
+    ChunkedDeleter deleter = new ChunkedDeleter(this, chunkSize, parallelism, RoutingConstants.GRAPH_DELETE_MAX_RETRIES, listener);
+    try {
+      long relationshipsDeleted = deleter.deleteRelationships();
+      long nodesDeleted = deleter.deleteNodes();
+      metricsListener.incrementCounter(MetricsListener.TRUNCATE_DELETED, relationshipsDeleted + nodesDeleted);
+      return nodesDeleted;
+    } finally {
+      // deleted relationship ids are reused by the store
+      clearAssociatedDataCache();
+      metricsListener.recordTimer(MetricsListener.TRUNCATE, System.nanoTime() - startNanos);
     }
-    
+
   }
   
   public void truncateGraphRelationships() {
-    
-    System.out.println("truncating graph relationships..");
-    
-    try ( Transaction tx = this.getTransaction() ) {
-      tx.execute( "MATCH (a)-[r]-(b) DETACH DELETE r" );
-      tx.commit();
-    } catch (Exception e) {
-      System.out.println("failed to truncateGraph relationships"); 
-      e.printStackTrace();
+    truncateGraphRelationships(RoutingConstants.GRAPH_DELETE_CHUNK_SIZE, 1, DeleteProgressListener.LOGGING);
+  }
+
+  // delete all relationships in chunks committed independently - returns the number deleted
+  public long truncateGraphRelationships(int chunkSize, int parallelism, DeleteProgressListener listener) {
+
+    checkWritable("truncate relationships");
+
+    LOGGER.info("graphdb.truncate.start", "entities", "relationships", "chunkSize", chunkSize, "parallelism", parallelism);
+    long startNanos = System.nanoTime();
+
+    try {
+      long relationshipsDeleted = new ChunkedDeleter(this, chunkSize, parallelism, RoutingConstants.GRAPH_DELETE_MAX_RETRIES, listener).deleteRelationships();
+      metricsListener.incrementCounter(MetricsListener.TRUNCATE_DELETED, relationshipsDeleted);
+      return relationshipsDeleted;
+    } finally {
+      clearAssociatedDataCache();
+      metricsListener.recordTimer(MetricsListener.TRUNCATE, System.nanoTime() - startNanos);
     }
 
   }
-  
+
+  // fastest way to empty the store before a re-import - shuts the database down, deletes its data 
+  //  directory (store files and transaction logs) and starts an empty database in its place. Open 
+  //  transactions are invalidated; indexes must be recreated
+  public void resetStore() throws IOException {
+
+    checkWritable("reset store");
+
+    LOGGER.info("graphdb.reset", "path", graphDbPath);
+
+    clearSpatialIndexes();
+    clearAssociatedDataCache();
+    AssociatedDataChangeLog changeLog = associatedDataChangeLog;
+    if (changeLog != null) {
+      changeLog.reset();
+    }
+    managementService.shutdown();
+
+    Path dataDirectory = Paths.get(graphDbPath, "data");
+    if (Files.exists(dataDirectory)) {
+      try ( Stream<Path> paths = Files.walk(dataDirectory) ) {
+        for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+          Files.delete(path);
+        }
+      }
+    }
+
+    start();
+  }
+
+  public long getMaxNodeId() {
+
+    long maxId = -1;
+
+    try ( Transaction tx = this.db.beginTx(); Result result = tx.execute( GraphQueries.MAX_NODE_ID ) ) {
+      if ( result.hasNext() ) {
+        Object value = result.next().get("maxId");
+        if (value != null) {
+          maxId = (Long) value;
+        }
+      }
+    }
+
+    return maxId;
+  }
+
   public void createNodeIndexes() {
 
-    System.out.println("creating node index for quick retrieval with osm_id and geom");
+    checkWritable("create node indexes");
+
+    LOGGER.info("graphdb.index.create", "entities", "nodes", "properties", "osm_id,geom");
+    long startNanos = System.nanoTime();
 
     //create node to create index off of
     try ( Transaction tx = this.getTransaction() ) {
@@ -171,8 +895,7 @@ public class GraphDb {
       indexNode.setProperty(RoutingConstants.GRAPH_PROPERTY_NAME_GEOM, Values.pointValue(CoordinateReferenceSystem.get(4326), 50d, 50d));
       tx.commit();
     } catch (Exception e) {
-      System.out.println("failed to create index node!"); 
-      e.printStackTrace();
+      LOGGER.error("graphdb.index.create.failed", e, "step", "create index node");
     }
 
     //create osm_id index
@@ -181,8 +904,7 @@ public class GraphDb {
       tx.execute(cypherString);
       tx.commit();
     } catch (Exception e) {
-      System.out.println("failed to create index!"); 
-      e.printStackTrace();
+      LOGGER.error("graphdb.index.create.failed", e, "index", RoutingConstants.GRAPH_INDEX_NAME_INTERSECTION_OSM_ID);
     }
 
     //create point index - https://neo4j.com/docs/cypher-manual/current/syntax/spatial/#spatial-values-point-index
@@ -194,8 +916,7 @@ public class GraphDb {
       tx.execute(cypherString);
       tx.commit();
     } catch (Exception e) {
-      System.out.println("failed to create index!");
-      e.printStackTrace();
+      LOGGER.error("graphdb.index.create.failed", e, "index", RoutingConstants.GRAPH_INDEX_NAME_INTERSECTION_GEOM_POINT);
     }
 
     //delete node that index was created with
@@ -204,15 +925,19 @@ public class GraphDb {
       indexNode.delete();
       tx.commit();
     } catch (Exception e) {
-      System.out.println("failed to delete index node!"); 
-      e.printStackTrace();
+      LOGGER.error("graphdb.index.create.failed", e, "step", "delete index node");
     }
 
+    metricsListener.recordTimer(MetricsListener.INDEX_CREATE, System.nanoTime() - startNanos);
+
   }
 
   public void createRelationshipIndexes() {
 
-    System.out.println("creating relationship index for quick retrieval with geom");
+    checkWritable("create relationship indexes");
+
+    LOGGER.info("graphdb.index.create", "entities", "relationships", "properties", "geom,osm_id");
+    long startNanos = System.nanoTime();
 
     // create relationship to create index off of
     try ( Transaction tx = this.getTransaction() ) {
@@ -233,8 +958,7 @@ public class GraphDb {
 
       tx.commit();
     } catch (Exception e) {
-      System.out.println("failed to create index relationship!");
-      e.printStackTrace();
+      LOGGER.error("graphdb.index.create.failed", e, "step", "create index relationship");
     }
 
     // create point index on geom - https://neo4j.com/docs/cypher-manual/current/syntax/spatial/#spatial-values-point-index
@@ -246,8 +970,19 @@ public class GraphDb {
       tx.execute(cypherString);
       tx.commit();
     } catch (Exception e) {
-      System.out.println("failed to create relationship index!");
-      e.printStackTrace();
+      LOGGER.error("graphdb.index.create.failed", e, "index", RoutingConstants.GRAPH_INDEX_NAME_WAY_GEOM_POINT);
+    }
+
+    // create osm_id index - backs keyset (cursor) pagination over relationships
+    try ( Transaction tx = this.getTransaction() ) {
+      String cypherString = String.format("CREATE INDEX %s FOR ()-[r:%s]-() ON (r.%s)" , 
+          RoutingConstants.GRAPH_INDEX_NAME_WAY_OSM_ID,
+          RoutingConstants.RelationshipTypes.CONNECTS,
+          RoutingConstants.GRAPH_PROPERTY_NAME_OSM_ID);
+      tx.execute(cypherString);
+      tx.commit();
+    } catch (Exception e) {
+      LOGGER.error("graphdb.index.create.failed", e, "index", RoutingConstants.GRAPH_INDEX_NAME_WAY_OSM_ID);
     }
 
     // delete relationship that index was created with
@@ -260,15 +995,19 @@ public class GraphDb {
       endNode.delete();
       tx.commit();
     } catch (Exception e) {
-      System.out.println("failed to delete relationship index nodes/rel!"); 
-      e.printStackTrace();
+      LOGGER.error("graphdb.index.create.failed", e, "step", "delete index nodes/relationship");
     }
 
+    metricsListener.recordTimer(MetricsListener.INDEX_CREATE, System.nanoTime() - startNanos);
+
   }
   
   public void dropNodeIndexes() {
+
+    checkWritable("drop node indexes");
     
-    System.out.println("dropping node index for quick retrieval with osm_Id and geom");
+    LOGGER.info("graphdb.index.drop", "entities", "nodes", "properties", "osm_id,geom");
+    long startNanos = System.nanoTime();
     
     //drop index if exists
     try ( Transaction tx = this.getTransaction() ) {
@@ -276,23 +1015,39 @@ public class GraphDb {
       tx.execute( String.format("DROP INDEX %s", RoutingConstants.GRAPH_INDEX_NAME_INTERSECTION_GEOM_POINT) );
       tx.commit();
     } catch (Exception e) {
-      System.out.println("warning - failed to drop osm_Id index; index may not exist (not necessarily an issue)");
+      // index may not exist - not necessarily an issue
+      LOGGER.warn("graphdb.index.drop.failed", "index", RoutingConstants.GRAPH_INDEX_NAME_INTERSECTION_OSM_ID, "reason", e.getMessage());
     }
 
+    metricsListener.recordTimer(MetricsListener.INDEX_DROP, System.nanoTime() - startNanos);
+
   }
 
   public void dropRelationshipIndexes() {
 
-    System.out.println("dropping relationship index for quick retrieval with geom");
+    checkWritable("drop relationship indexes");
+
+    LOGGER.info("graphdb.index.drop", "entities", "relationships", "properties", "geom,osm_id");
+    long startNanos = System.nanoTime();
 
     //drop index if exists
     try ( Transaction tx = this.getTransaction() ) {
       tx.execute( String.format("DROP INDEX %s", RoutingConstants.GRAPH_INDEX_NAME_WAY_GEOM_POINT) );
       tx.commit();
     } catch (Exception e) {
-      System.out.println("warning - failed to drop relationship geom index; index may not exist (not necessarily an issue)");
+      // index may not exist - not necessarily an issue
+      LOGGER.warn("graphdb.index.drop.failed", "index", RoutingConstants.GRAPH_INDEX_NAME_WAY_GEOM_POINT, "reason", e.getMessage());
     }
 
+    try ( Transaction tx = this.getTransaction() ) {
+      tx.execute( String.format("DROP INDEX %s", RoutingConstants.GRAPH_INDEX_NAME_WAY_OSM_ID) );
+      tx.commit();
+    } catch (Exception e) {
+      LOGGER.warn("graphdb.index.drop.failed", "index", RoutingConstants.GRAPH_INDEX_NAME_WAY_OSM_ID, "reason", e.getMessage());
+    }
+
+    metricsListener.recordTimer(MetricsListener.INDEX_DROP, System.nanoTime() - startNanos);
+
   }
 
 }
\ No newline at end of file
@@ -0,0 +1,151 @@
+package me.callsen.taylor.scenicrouting.javasdk.data;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.neo4j.configuration.GraphDatabaseSettings;
+
+/**
+ * Embedded Neo4j tuning applied when a GraphDb starts - page cache size, transaction memory limits,
+ *  read-only mode, query cache size, checkpoint cadence and page cache warmup. Settings left unset
+ *  keep the Neo4j defaults, so GraphDbConfig.defaults() opens the store exactly as new GraphDb(path).
+ *  Immutable - create with GraphDbConfig.builder():
+ *
+ *    GraphDbConfig config = GraphDbConfig.builder()
+ *        .pageCacheSize("24g")
+ *        .transactionMaxSize(512L * 1024 * 1024)
+ *        .checkpointInterval(Duration.ofMinutes(15))
+ *        .build();
+ *    GraphDb graphDb = new GraphDb(path, config);
+ */
+public class GraphDbConfig {
+
+  private static final GraphDbConfig DEFAULTS = new Builder().build();
+
+  private final Map<String, String> settings;
+  private final boolean readOnly;
+  private final boolean warmupOnStart;
+
+  private GraphDbConfig(Builder builder) {
+    this.settings = Collections.unmodifiableMap(new LinkedHashMap<String, String>(builder.settings));
+    this.readOnly = builder.readOnly;
+    this.warmupOnStart = builder.warmupOnStart;
+  }
+
+  public static GraphDbConfig defaults() {
+    return DEFAULTS;
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  // raw Neo4j settings (name to value) passed to DatabaseManagementServiceBuilder.setConfigRaw()
+  public Map<String, String> getSettings() {
+    return settings;
+  }
+
+  public boolean isReadOnly() {
+    return readOnly;
+  }
+
+  public boolean isWarmupOnStart() {
+    return warmupOnStart;
+  }
+
+  @Override
+  public String toString() {
+    return "GraphDbConfig" + settings;
+  }
+
+  public static class Builder {
+
+    private final Map<String, String> settings = new LinkedHashMap<String, String>();
+    private boolean readOnly = false;
+    private boolean warmupOnStart = false;
+
+    private Builder() {}
+
+    // Neo4j size notation, e.g. "512m" or "24g" - size to the store files for a fully cached graph
+    public Builder pageCacheSize(String size) {
+      return setting(GraphDatabaseSettings.pagecache_memory.name(), size);
+    }
+
+    // limit on the heap used by any single transaction
+    public Builder transactionMaxSize(long bytes) {
+      return setting(GraphDatabaseSettings.memory_transaction_max_size.name(), String.valueOf(checkBytes(bytes)));
+    }
+
+    // limit on the heap used by all transactions together
+    public Builder transactionGlobalMaxSize(long bytes) {
+      return setting(GraphDatabaseSettings.memory_transaction_global_max_size.name(), String.valueOf(checkBytes(bytes)));
+    }
+
+    // open the database read-only for serving - GraphDb write methods fail fast with an 
+    //  IllegalStateException and no commit listener is registered
+    public Builder readOnly(boolean readOnly) {
+      this.readOnly = readOnly;
+      return setting(GraphDatabaseSettings.read_only_database_default.name(), String.valueOf(readOnly));
+    }
+
+    // number of cached query plans
+    public Builder queryCacheSize(int size) {
+      if (size < 0) {
+        throw new IllegalArgumentException("query cache size must not be negative: " + size);
+      }
+      return setting(GraphDatabaseSettings.query_cache_size.name(), String.valueOf(size));
+    }
+
+    // checkpoint at least this often
+    public Builder checkpointInterval(Duration interval) {
+      if (interval == null || interval.isNegative() || interval.isZero()) {
+        throw new IllegalArgumentException("checkpoint interval must be positive: " + interval);
+      }
+      return setting(GraphDatabaseSettings.check_point_interval_time.name(), interval.toMillis() + "ms");
+    }
+
+    // checkpoint after this many committed transactions
+    public Builder checkpointIntervalTransactions(int transactions) {
+      if (transactions <= 0) {
+        throw new IllegalArgumentException("checkpoint transaction interval must be positive: " + transactions);
+      }
+      return setting(GraphDatabaseSettings.check_point_interval_tx.name(), String.valueOf(transactions));
+    }
+
+    // run GraphDb.warmup() once the database has started, and reload the page cache profile of the 
+    //  previous run (profile warmup is only honoured by Neo4j Enterprise, Community ignores it)
+    public Builder warmupOnStart(boolean warmupOnStart) {
+      this.warmupOnStart = warmupOnStart;
+      setting(GraphDatabaseSettings.pagecache_warmup_enabled.name(), String.valueOf(warmupOnStart));
+      return setting(GraphDatabaseSettings.pagecache_warmup_prefetch.name(), String.valueOf(warmupOnStart));
+    }
+
+    // any other Neo4j setting, by name - e.g. setting("dbms.memory.pagecache.direct_io", "true")
+    public Builder setting(String name, String value) {
+      if (name == null || name.isEmpty()) {
+        throw new IllegalArgumentException("setting name must not be empty");
+      }
+      if (value == null) {
+        settings.remove(name);
+      } else {
+        settings.put(name, value);
+      }
+      return this;
+    }
+
+    public GraphDbConfig build() {
+      return new GraphDbConfig(this);
+    }
+
+    private static long checkBytes(long bytes) {
+      if (bytes < 0) {
+        throw new IllegalArgumentException("memory size must not be negative: " + bytes);
+      }
+      return bytes;
+    }
+
+  }
+
+}
@@ -0,0 +1,338 @@
+package me.callsen.taylor.scenicrouting.javasdk.data;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.graphdb.Entity;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.ResourceIterator;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.values.storable.PointValue;
+
+import me.callsen.taylor.scenicrouting.javasdk.RoutingConstants;
+import me.callsen.taylor.scenicrouting.javasdk.RoutingConstants.NodeLabels;
+import me.callsen.taylor.scenicrouting.javasdk.RoutingConstants.RelationshipTypes;
+import me.callsen.taylor.scenicrouting.javasdk.metrics.MetricsListener;
+import me.callsen.taylor.scenicrouting.javasdk.util.GeoUtils;
+import me.callsen.taylor.scenicrouting.javasdk.util.LongLongHashMap;
+import me.callsen.taylor.scenicrouting.javasdk.util.StructuredLogger;
+
+/**
+ * Bulk import of OSM derived intersections and ways into an empty graph store. Records are written
+ *  through the core API in large batches (one transaction per batch) with no indexes in place -
+ *  endpoints of ways are resolved through an in-memory osm_id -> node id map rather than index
+ *  lookups, and the node / relationship indexes are built once in finish(). Import all intersections
+ *  before the ways that reference them. Not thread safe.
+ *
+ *  Callers must call finish() once every record has been added. close() without finish() - e.g. when
+ *  an exception leaves a try-with-resources block - treats the import as failed: the open batch is
+ *  rolled back and no indexes are built. Batches already committed stay in the store, so reset it
+ *  before importing again.
+ *
+ *  CSV input has a header row. Intersections require osm_id, lat and lon columns; ways require
+ *  osm_id, start_osm_id and end_osm_id, and take their geom from an optional geom_wkt LINESTRING
+ *  column. Columns prefixed ad_ are stored as associatedData (JSON object or array), every other
+ *  column is stored as a long, double or string property.
+ */
+public class GraphImporter implements AutoCloseable {
+
+  private static final StructuredLogger LOGGER = StructuredLogger.getLogger(GraphImporter.class);
+
+  private final GraphDb graphDb;
+  private final int batchSize;
+
+  // osm_id -> neo4j node id of imported intersections
+  private final LongLongHashMap nodeIdsByOsmId = new LongLongHashMap(1 << 16);
+
+  private Transaction tx;
+  private int pendingRecords = 0;
+  private boolean finished = false;
+  private boolean closed = false;
+
+  private long intersectionsImported = 0;
+  private long waysImported = 0;
+  private long waysSkipped = 0;
+  private long batchesCommitted = 0;
+  private final long startNanos = System.nanoTime();
+
+  public GraphImporter(GraphDb graphDb) {
+    this(graphDb, RoutingConstants.GRAPH_IMPORT_BATCH_SIZE);
+  }
+
+  public GraphImporter(GraphDb graphDb, int batchSize) {
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("batch size must be positive");
+    }
+    graphDb.checkWritable("bulk import");
+    try ( Transaction checkTx = graphDb.getTransaction() ) {
+      try ( ResourceIterator<Node> nodes = checkTx.getAllNodes().iterator() ) {
+        if (nodes.hasNext()) {
+          throw new IllegalStateException("bulk import requires an empty graph store - truncate or reset it first");
+        }
+      }
+    }
+    this.graphDb = graphDb;
+    this.batchSize = batchSize;
+  }
+
+  public void addIntersection(long osmId, double latitude, double longitude, Map<String, Object> properties) {
+    checkNotFinished();
+    Node node = currentTransaction().createNode(NodeLabels.INTERSECTION);
+    if (properties != null) {
+      setProperties(node, properties);
+    }
+    node.setProperty(RoutingConstants.GRAPH_PROPERTY_NAME_OSM_ID, osmId);
+    node.setProperty(RoutingConstants.GRAPH_PROPERTY_NAME_LATITUDE, latitude);
+    node.setProperty(RoutingConstants.GRAPH_PROPERTY_NAME_LONGITUDE, longitude);
+    node.setProperty(RoutingConstants.GRAPH_PROPERTY_NAME_GEOM, GeoUtils.point(latitude, longitude));
+    nodeIdsByOsmId.put(osmId, node.getId());
+    intersectionsImported++;
+    recordWritten();
+  }
+
+  // returns false (and counts the way as skipped) if either endpoint has not been imported
+  public boolean addWay(long osmId, long startOsmId, long endOsmId, PointValue[] geometry, Map<String, Object> properties) {
+    checkNotFinished();
+    long startNodeId = nodeIdsByOsmId.get(startOsmId);
+    long endNodeId = nodeIdsByOsmId.get(endOsmId);
+    if (startNodeId < 0 || endNodeId < 0) {
+      waysSkipped++;
+      return false;
+    }
+    Transaction currentTx = currentTransaction();
+    Node startNode = currentTx.getNodeById(startNodeId);
+    Node endNode = currentTx.getNodeById(endNodeId);
+    Relationship relationship = startNode.createRelationshipTo(endNode, RelationshipTypes.CONNECTS);
+    if (properties != null) {
+      setProperties(relationship, properties);
+    }
+    relationship.setProperty(RoutingConstants.GRAPH_PROPERTY_NAME_OSM_ID, osmId);
+    relationship.setProperty(RoutingConstants.GRAPH_PROPERTY_NAME_START_OSM_ID, startOsmId);
+    relationship.setProperty(RoutingConstants.GRAPH_PROPERTY_NAME_END_OSM_ID, endOsmId);
+    if (geometry != null && geometry.length > 0) {
+      relationship.setProperty(RoutingConstants.GRAPH_PROPERTY_NAME_GEOM, geometry);
+    }
+    waysImported++;
+    recordWritten();
+    return true;
+  }
+
+  public long importIntersectionsCsv(Path csvFile) throws IOException {
+    long imported = 0;
+    try ( CsvRecordReader reader = new CsvRecordReader(csvFile) ) {
+      int osmIdColumn = requireColumn(reader, csvFile, RoutingConstants.GRAPH_PROPERTY_NAME_OSM_ID);
+      int latitudeColumn = requireColumn(reader, csvFile, RoutingConstants.GRAPH_PROPERTY_NAME_LATITUDE);
+      int longitudeColumn = requireColumn(reader, csvFile, RoutingConstants.GRAPH_PROPERTY_NAME_LONGITUDE);
+      String[] record;
+      while ((record = reader.next()) != null) {
+        try {
+          addIntersection(Long.parseLong(record[osmIdColumn].trim()),
+              Double.parseDouble(record[latitudeColumn].trim()),
+              Double.parseDouble(record[longitudeColumn].trim()),
+              csvProperties(reader.getHeader(), record));
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+          throw new IOException("invalid intersection record " + reader.getRecordNumber() + " in " + csvFile, e);
+        }
+        imported++;
+      }
+    }
+    LOGGER.info("import.csv.finished", "type", "intersection", "file", csvFile, "records", imported);
+    return imported;
+  }
+
+  public long importWaysCsv(Path csvFile) throws IOException {
+    long imported = 0;
+    long skipped = 0;
+    try ( CsvRecordReader reader = new CsvRecordReader(csvFile) ) {
+      int osmIdColumn = requireColumn(reader, csvFile, RoutingConstants.GRAPH_PROPERTY_NAME_OSM_ID);
+      int startOsmIdColumn = requireColumn(reader, csvFile, RoutingConstants.GRAPH_PROPERTY_NAME_START_OSM_ID);
+      int endOsmIdColumn = requireColumn(reader, csvFile, RoutingConstants.GRAPH_PROPERTY_NAME_END_OSM_ID);
+      int geomWktColumn = reader.getColumnIndex(RoutingConstants.GRAPH_PROPERTY_NAME_GEOM_WKT);
+      String[] record;
+      while ((record = reader.next()) != null) {
+        boolean added;
+        try {
+          PointValue[] geometry = geomWktColumn >= 0 && !record[geomWktColumn].isEmpty() ? GeoUtils.parseWkt(record[geomWktColumn]) : null;
+          added = addWay(Long.parseLong(record[osmIdColumn].trim()),
+              Long.parseLong(record[startOsmIdColumn].trim()),
+              Long.parseLong(record[endOsmIdColumn].trim()),
+              geometry,
+              csvProperties(reader.getHeader(), record));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+          throw new IOException("invalid way record " + reader.getRecordNumber() + " in " + csvFile, e);
+        }
+        if (added) {
+          imported++;
+        } else {
+          skipped++;
+        }
+      }
+    }
+    LOGGER.info("import.csv.finished", "type", "way", "file", csvFile, "records", imported);
+    if (skipped > 0) {
+      LOGGER.warn("import.ways.skipped", "file", csvFile, "skipped", skipped, "reason", "intersection not imported");
+    }
+    return imported;
+  }
+
+  // commit outstanding records, then build node and relationship indexes and wait for them to come online
+  public void finish() {
+    if (finished) {
+      return;
+    }
+    checkNotFinished();
+    commitBatch();
+    finished = true;
+
+    long indexStartMillis = System.currentTimeMillis();
+    graphDb.createNodeIndexes();
+    graphDb.createRelationshipIndexes();
+    try ( Transaction indexTx = graphDb.getTransaction() ) {
+      indexTx.schema().awaitIndexesOnline(RoutingConstants.GRAPH_IMPORT_INDEX_ONLINE_TIMEOUT_MINUTES, TimeUnit.MINUTES);
+    }
+
+    double seconds = (System.nanoTime() - startNanos) / 1e9d;
+    LOGGER.info("import.finished", "intersections", intersectionsImported, "ways", waysImported, "batches", batchesCommitted,
+        "indexMillis", System.currentTimeMillis() - indexStartMillis, "seconds", String.format("%.1f", seconds));
+  }
+
+  // without a prior finish() the import failed part way - roll back the open batch and skip indexing
+  @Override
+  public void close() {
+    if (finished || closed) {
+      return;
+    }
+    closed = true;
+    if (tx != null) {
+      try {
+        tx.rollback();
+      } finally {
+        tx.close();
+        tx = null;
+      }
+    }
+    LOGGER.warn("import.abandoned", "intersections", intersectionsImported, "ways", waysImported, "batches", batchesCommitted,
+        "rolledBack", pendingRecords);
+    pendingRecords = 0;
+  }
+
+  public long getIntersectionsImported() {
+    return intersectionsImported;
+  }
+
+  public long getWaysImported() {
+    return waysImported;
+  }
+
+  public long getWaysSkipped() {
+    return waysSkipped;
+  }
+
+  public long getBatchesCommitted() {
+    return batchesCommitted;
+  }
+
+  private Transaction currentTransaction() {
+    if (tx == null) {
+      tx = graphDb.getTransaction();
+    }
+    return tx;
+  }
+
+  private void recordWritten() {
+    if (++pendingRecords >= batchSize) {
+      commitBatch();
+    }
+  }
+
+  private void commitBatch() {
+    if (tx == null) {
+      return;
+    }
+    long commitStartNanos = System.nanoTime();
+    try {
+      tx.commit();
+    } finally {
+      tx.close();
+      tx = null;
+    }
+    graphDb.getMetricsListener().recordTimer(MetricsListener.IMPORT_BATCH_COMMIT, System.nanoTime() - commitStartNanos);
+    graphDb.getMetricsListener().incrementCounter(MetricsListener.IMPORT_RECORDS, pendingRecords);
+    pendingRecords = 0;
+    batchesCommitted++;
+  }
+
+  private void checkNotFinished() {
+    if (finished || closed) {
+      throw new IllegalStateException("bulk import already finished");
+    }
+  }
+
+  // associatedData columns are recorded in the associatedData property, everything else is set as is
+  private static void setProperties(Entity entity, Map<String, Object> properties) {
+    List<String> associatedDataProperties = new ArrayList<String>();
+    for (Map.Entry<String, Object> property : properties.entrySet()) {
+      String propertyName = property.getKey();
+      Object value = property.getValue();
+      if (propertyName.startsWith(RoutingConstants.GRAPH_PROPERTY_PREFIX_ASSOCIATED_DATA)) {
+        // associatedData is always stored as a JSON array - wrap single objects, as setAssociatedData does
+        String json = value.toString().trim();
+        entity.setProperty(propertyName, json.startsWith("[") ? json : "[" + json + "]");
+        associatedDataProperties.add(propertyName);
+      } else {
+        entity.setProperty(propertyName, value);
+      }
+    }
+    if (!associatedDataProperties.isEmpty()) {
+      entity.setProperty(RoutingConstants.GRAPH_PROPERTY_NAME_ASSOCIATED_DATA, associatedDataProperties.toArray(new String[0]));
+    }
+  }
+
+  // remaining CSV columns as typed properties - id and coordinate columns are set explicitly, empty values are skipped
+  private static Map<String, Object> csvProperties(String[] header, String[] record) {
+    Map<String, Object> properties = new LinkedHashMap<String, Object>();
+    for (int i = 0; i < header.length && i < record.length; i++) {
+      String column = header[i];
+      String value = record[i];
+      if (value.isEmpty() || column.isEmpty()
+          || column.equals(RoutingConstants.GRAPH_PROPERTY_NAME_OSM_ID)
+          || column.equals(RoutingConstants.GRAPH_PROPERTY_NAME_LATITUDE)
+          || column.equals(RoutingConstants.GRAPH_PROPERTY_NAME_LONGITUDE)
+          || column.equals(RoutingConstants.GRAPH_PROPERTY_NAME_START_OSM_ID)
+          || column.equals(RoutingConstants.GRAPH_PROPERTY_NAME_END_OSM_ID)) {
+        continue;
+      }
+      properties.put(column, column.startsWith(RoutingConstants.GRAPH_PROPERTY_PREFIX_ASSOCIATED_DATA) ? value : parseValue(value));
+    }
+    return properties;
+  }
+
+  private static Object parseValue(String value) {
+    String trimmed = value.trim();
+    try {
+      return Long.parseLong(trimmed);
+    } catch (NumberFormatException e) {
+      // not an integer
+    }
+    try {
+      return Double.parseDouble(trimmed);
+    } catch (NumberFormatException e) {
+      return value;
+    }
+  }
+
+  private static int requireColumn(CsvRecordReader reader, Path csvFile, String column) throws IOException {
+    int index = reader.getColumnIndex(column);
+    if (index < 0) {
+      throw new IOException("missing required column '" + column + "' in " + csvFile);
+    }
+    return index;
+  }
+
+}
@@ -0,0 +1,80 @@
+package me.callsen.taylor.scenicrouting.javasdk.data;
+
+/**
+ * Catalogue of the Cypher queries GraphDb runs. Every query is a constant string with values passed
+ *  as $parameters (never formatted in), so each is planned once and then served from the query plan
+ *  cache - size the cache with GraphDbConfig.queryCacheSize() if other workloads share the database.
+ */
+final class GraphQueries {
+
+  private GraphQueries() {}
+
+  // counts - patterns are directed so each relationship matches exactly once (no DISTINCT). An unfiltered
+  //  count is answered from the counts store in constant time, the associatedData count scans each
+  //  relationship once
+  static final String RELATIONSHIP_COUNT =
+      "MATCH ()-[r]->() RETURN count(r) AS total";
+  static final String ASSOCIATED_DATA_RELATIONSHIP_COUNT =
+      "MATCH ()-[r]->() WHERE NOT isEmpty(r.associatedData) RETURN count(r) AS total";
+  static final String MAX_RELATIONSHIP_ID =
+      "MATCH ()-[r]->() RETURN max(id(r)) AS maxId";
+  static final String MAX_NODE_ID =
+      "MATCH (n) RETURN max(id(n)) AS maxId";
+
+  // offset (page number) pagination - $skip, $limit
+  static final String RELATIONSHIP_PAGE =
+      "MATCH ()-[r]->() RETURN r as way ORDER BY r.osm_id DESC SKIP $skip LIMIT $limit";
+  static final String ASSOCIATED_DATA_RELATIONSHIP_PAGE =
+      "MATCH ()-[r]->() WHERE NOT isEmpty(r.associatedData) RETURN r as way ORDER BY r.osm_id DESC SKIP $skip LIMIT $limit";
+
+  // keyset pagination - ordered by (osm_id, id) so pages can seek past the last returned relationship
+  //  using the CONNECTS osm_id index rather than skipping over all previous rows - $limit and
+  //  $lastOsmId, plus $lastRelationshipId after the first page. The range predicates only match numeric
+  //  osm_ids, so relationships with a missing or non-numeric osm_id are skipped
+  static final String RELATIONSHIP_KEYSET_FIRST_PAGE =
+      "MATCH ()-[r:CONNECTS]->() WHERE r.osm_id <= $lastOsmId " +
+      "RETURN r AS way ORDER BY r.osm_id DESC, id(r) DESC LIMIT $limit";
+  static final String RELATIONSHIP_KEYSET_NEXT_PAGE =
+      "MATCH ()-[r:CONNECTS]->() WHERE r.osm_id <= $lastOsmId AND (r.osm_id < $lastOsmId OR id(r) < $lastRelationshipId) " +
+      "RETURN r AS way ORDER BY r.osm_id DESC, id(r) DESC LIMIT $limit";
+  static final String ASSOCIATED_DATA_RELATIONSHIP_KEYSET_FIRST_PAGE =
+      "MATCH ()-[r:CONNECTS]->() WHERE r.osm_id <= $lastOsmId AND NOT isEmpty(r.associatedData) " +
+      "RETURN r AS way ORDER BY r.osm_id DESC, id(r) DESC LIMIT $limit";
+  static final String ASSOCIATED_DATA_RELATIONSHIP_KEYSET_NEXT_PAGE =
+      "MATCH ()-[r:CONNECTS]->() WHERE r.osm_id <= $lastOsmId AND (r.osm_id < $lastOsmId OR id(r) < $lastRelationshipId) AND NOT isEmpty(r.associatedData) " +
+      "RETURN r AS way ORDER BY r.osm_id DESC, id(r) DESC LIMIT $limit";
+
+  // lookups - $osmId, $startOsmId, $endOsmId. Way lookups by end point are anchored on the INTERSECTION
+  //  osm_id index and then filtered, so they never scan relationships
+  static final String INTERSECTION_BY_OSM_ID =
+      "MATCH (n:INTERSECTION) WHERE n.osm_id = $osmId RETURN n AS intersection";
+  static final String WAYS_BY_OSM_ID =
+      "MATCH ()-[r:CONNECTS]->() WHERE r.osm_id = $osmId RETURN r AS way ORDER BY id(r)";
+  static final String WAYS_BY_START_OSM_ID =
+      "MATCH (n:INTERSECTION)-[r:CONNECTS]-() WHERE n.osm_id = $osmId AND r.start_osm_id = $osmId RETURN DISTINCT r AS way ORDER BY id(r)";
+  static final String WAYS_BY_END_OSM_ID =
+      "MATCH (n:INTERSECTION)-[r:CONNECTS]-() WHERE n.osm_id = $osmId AND r.end_osm_id = $osmId RETURN DISTINCT r AS way ORDER BY id(r)";
+  static final String WAYS_BETWEEN =
+      "MATCH (n:INTERSECTION)-[r:CONNECTS]-() WHERE n.osm_id = $startOsmId AND r.start_osm_id = $startOsmId AND r.end_osm_id = $endOsmId " +
+      "RETURN DISTINCT r AS way ORDER BY id(r)";
+
+  // region lookups - $lowerLeft, $upperRight. Both are anchored on the INTERSECTION geom point index;
+  //  a way is in the region when either of its end points is
+  static final String INTERSECTIONS_IN_BOUNDING_BOX =
+      "MATCH (n:INTERSECTION) WHERE point.withinBBox(n.geom, $lowerLeft, $upperRight) RETURN n AS intersection ORDER BY id(n)";
+  static final String WAYS_IN_BOUNDING_BOX =
+      "MATCH (n:INTERSECTION)-[r:CONNECTS]-() WHERE point.withinBBox(n.geom, $lowerLeft, $upperRight) RETURN DISTINCT r AS way ORDER BY id(r)";
+
+  // nearest lookup fallbacks - $point, $radius, $limit. Each runs once, ordered by distance and cut off
+  //  at $limit - no widening radius re-runs. Intersections use the INTERSECTION geom point index, way geom
+  //  is a point array (not point indexable) so ways are scanned once and matched on their closest vertex,
+  //  each vertex distance computed once
+  static final String NEAREST_INTERSECTION =
+      "MATCH (n:INTERSECTION) WHERE point.distance(n.geom, $point) <= $radius " +
+      "RETURN id(n) AS id, n.osm_id AS osmId, point.distance(n.geom, $point) AS distance ORDER BY distance LIMIT $limit";
+  static final String NEAREST_WAY =
+      "MATCH ()-[r:CONNECTS]->() WITH r, [p IN r.geom | point.distance(p, $point)] AS distances " +
+      "WITH r, reduce(d = distances[0], x IN distances | CASE WHEN x < d THEN x ELSE d END) AS distance " +
+      "WHERE distance <= $radius RETURN id(r) AS id, r.osm_id AS osmId, distance ORDER BY distance LIMIT $limit";
+
+}
@@ -0,0 +1,146 @@
+package me.callsen.taylor.scenicrouting.javasdk.data;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Fallback for legacy associatedData properties stored as JSON array strings - parsed once into 
+ *  columns, with field types inferred from the values.
+ */
+class JsonAssociatedDataRecords extends AssociatedDataRecords {
+
+  private final String[] fieldNames;
+  private final AssociatedDataFieldType[] fieldTypes;
+  private final Object[][] values;
+  private final int recordCount;
+
+  JsonAssociatedDataRecords(String json) {
+    this(new JSONArray(json));
+  }
+
+  JsonAssociatedDataRecords(JSONArray associatedDataArray) {
+    // collect fields in order of first appearance
+    List<String> names = new ArrayList<String>();
+    for (int r = 0; r < associatedDataArray.length(); r++) {
+      JSONObject record = associatedDataArray.optJSONObject(r);
+      if (record == null) {
+        continue;
+      }
+      for (String key : record.keySet()) {
+        if (!names.contains(key)) {
+          names.add(key);
+        }
+      }
+    }
+
+    recordCount = associatedDataArray.length();
+    fieldNames = names.toArray(new String[0]);
+    fieldTypes = new AssociatedDataFieldType[fieldNames.length];
+    values = new Object[fieldNames.length][associatedDataArray.length()];
+    for (int f = 0; f < fieldNames.length; f++) {
+      for (int r = 0; r < associatedDataArray.length(); r++) {
+        JSONObject record = associatedDataArray.optJSONObject(r);
+        Object value = record == null ? null : record.opt(fieldNames[f]);
+        values[f][r] = value == JSONObject.NULL ? null : value;
+      }
+      fieldTypes[f] = inferFieldType(values[f]);
+    }
+  }
+
+  // LONG if every value is integral and fits a long, DOUBLE if every value is numeric, otherwise STRING
+  static AssociatedDataFieldType inferFieldType(Object[] columnValues) {
+    AssociatedDataFieldType type = null;
+    for (Object value : columnValues) {
+      if (value == null) {
+        continue;
+      }
+      AssociatedDataFieldType valueType;
+      if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte 
+          || (value instanceof BigInteger && ((BigInteger) value).bitLength() < Long.SIZE)) {
+        valueType = AssociatedDataFieldType.LONG;
+      } else if (value instanceof Number) {
+        valueType = AssociatedDataFieldType.DOUBLE;
+      } else {
+        return AssociatedDataFieldType.STRING;
+      }
+      if (type == null || type == AssociatedDataFieldType.LONG) {
+        type = valueType;
+      }
+    }
+    return type == null ? AssociatedDataFieldType.STRING : type;
+  }
+
+  Object getValue(int recordIndex, int fieldIndex) {
+    return values[fieldIndex][recordIndex];
+  }
+
+  @Override
+  public int size() {
+    return recordCount;
+  }
+
+  @Override
+  public int getFieldCount() {
+    return fieldNames.length;
+  }
+
+  @Override
+  public String getFieldName(int fieldIndex) {
+    return fieldNames[fieldIndex];
+  }
+
+  @Override
+  public AssociatedDataFieldType getFieldType(int fieldIndex) {
+    return fieldTypes[fieldIndex];
+  }
+
+  @Override
+  public double getDouble(int recordIndex, int fieldIndex) {
+    Object value = values[fieldIndex][recordIndex];
+    if (value == null) {
+      return Double.NaN;
+    }
+    return value instanceof Number ? ((Number) value).doubleValue() : Double.parseDouble(value.toString());
+  }
+
+  @Override
+  public long getLong(int recordIndex, int fieldIndex) {
+    Object value = values[fieldIndex][recordIndex];
+    if (value == null) {
+      return 0L;
+    }
+    return value instanceof Number ? ((Number) value).longValue() : Long.parseLong(value.toString());
+  }
+
+  // numeric columns format like the binary encoding does, whatever number type the JSON parser produced
+  @Override
+  public String getString(int recordIndex, int fieldIndex) {
+    Object value = values[fieldIndex][recordIndex];
+    if (value == null) {
+      return null;
+    }
+    switch (fieldTypes[fieldIndex]) {
+      case DOUBLE:
+        return String.valueOf(getDouble(recordIndex, fieldIndex));
+      case LONG:
+        return String.valueOf(getLong(recordIndex, fieldIndex));
+      default:
+        return value.toString();
+    }
+  }
+
+  @Override
+  public boolean isNull(int recordIndex, int fieldIndex) {
+    return values[fieldIndex][recordIndex] == null;
+  }
+
+  @Override
+  public boolean isBinary() {
+    return false;
+  }
+
+}
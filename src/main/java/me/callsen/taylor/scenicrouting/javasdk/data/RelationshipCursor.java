@@ -0,0 +1,68 @@
+package me.callsen.taylor.scenicrouting.javasdk.data;
+
+/**
+ * Continuation token for keyset (cursor) pagination over relationships. Carries the osm_id and 
+ *  relationship id of the last relationship returned so the next page can seek directly past it, 
+ *  instead of re-scanning and skipping all previous rows. Only CONNECTS relationships with a numeric
+ *  osm_id are returned by cursor pages - GraphDb.streamRelationships() visits every relationship.
+ */
+public class RelationshipCursor {
+
+  private static final RelationshipCursor START = new RelationshipCursor(true, 0, 0);
+
+  private final boolean start;
+  private final long lastOsmId;
+  private final long lastRelationshipId;
+
+  private RelationshipCursor(boolean start, long lastOsmId, long lastRelationshipId) {
+    this.start = start;
+    this.lastOsmId = lastOsmId;
+    this.lastRelationshipId = lastRelationshipId;
+  }
+
+  public static RelationshipCursor start() {
+    return START;
+  }
+
+  public static RelationshipCursor after(long lastOsmId, long lastRelationshipId) {
+    return new RelationshipCursor(false, lastOsmId, lastRelationshipId);
+  }
+
+  // parse a token previously produced by toToken() - null or empty tokens refer to the first page
+  public static RelationshipCursor fromToken(String token) {
+    if (token == null || token.isEmpty()) {
+      return START;
+    }
+    int separatorIndex = token.indexOf(':');
+    if (separatorIndex < 0) {
+      throw new IllegalArgumentException("invalid relationship cursor token: " + token);
+    }
+    try {
+      return after(Long.parseLong(token.substring(0, separatorIndex)), Long.parseLong(token.substring(separatorIndex + 1)));
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("invalid relationship cursor token: " + token, e);
+    }
+  }
+
+  public String toToken() {
+    return start ? "" : lastOsmId + ":" + lastRelationshipId;
+  }
+
+  public boolean isStart() {
+    return start;
+  }
+
+  public long getLastOsmId() {
+    return lastOsmId;
+  }
+
+  public long getLastRelationshipId() {
+    return lastRelationshipId;
+  }
+
+  @Override
+  public String toString() {
+    return start ? "RelationshipCursor[start]" : "RelationshipCursor[" + toToken() + "]";
+  }
+
+}
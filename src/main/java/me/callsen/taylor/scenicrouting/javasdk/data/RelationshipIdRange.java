@@ -0,0 +1,82 @@
+package me.callsen.taylor.scenicrouting.javasdk.data;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.neo4j.graphdb.NotFoundException;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.Transaction;
+
+import me.callsen.taylor.scenicrouting.javasdk.RoutingConstants;
+import me.callsen.taylor.scenicrouting.javasdk.RoutingConstants.RelationshipTypes;
+
+/**
+ * Iterates CONNECTS relationships with ids in [startId, endId) by direct id lookup, skipping ids
+ *  that are unused (deleted) in the store. Used to split relationship scans into partitions.
+ */
+class RelationshipIdRange implements Iterable<Relationship> {
+
+  private final Transaction tx;
+  private final long startId;
+  private final long endId;
+  private final boolean associatedDataOnly;
+
+  RelationshipIdRange(Transaction tx, long startId, long endId, boolean associatedDataOnly) {
+    this.tx = tx;
+    this.startId = startId;
+    this.endId = endId;
+    this.associatedDataOnly = associatedDataOnly;
+  }
+
+  @Override
+  public Iterator<Relationship> iterator() {
+    return new Iterator<Relationship>() {
+
+      private long nextId = startId;
+      private Relationship next = advance();
+
+      private Relationship advance() {
+        while (nextId < endId) {
+          long id = nextId++;
+          Relationship rel;
+          try {
+            rel = tx.getRelationshipById(id);
+          } catch (NotFoundException e) {
+            // id not in use
+            continue;
+          }
+          if (!rel.isType(RelationshipTypes.CONNECTS)) {
+            continue;
+          }
+          if (associatedDataOnly && !hasAssociatedData(rel)) {
+            continue;
+          }
+          return rel;
+        }
+        return null;
+      }
+
+      @Override
+      public boolean hasNext() {
+        return next != null;
+      }
+
+      @Override
+      public Relationship next() {
+        if (next == null) {
+          throw new NoSuchElementException();
+        }
+        Relationship current = next;
+        next = advance();
+        return current;
+      }
+
+    };
+  }
+
+  static boolean hasAssociatedData(Relationship rel) {
+    Object associatedData = rel.getProperty(RoutingConstants.GRAPH_PROPERTY_NAME_ASSOCIATED_DATA, null);
+    return associatedData instanceof String[] && ((String[]) associatedData).length > 0;
+  }
+
+}
@@ -0,0 +1,38 @@
+package me.callsen.taylor.scenicrouting.javasdk.data;
+
+import java.util.List;
+
+import org.neo4j.graphdb.Relationship;
+
+/**
+ * Single page of relationships returned by cursor based pagination. Relationships are bound to the
+ *  transaction the page was fetched with.
+ */
+public class RelationshipPage {
+
+  private final List<Relationship> relationships;
+  private final RelationshipCursor nextCursor;
+
+  public RelationshipPage(List<Relationship> relationships, RelationshipCursor nextCursor) {
+    this.relationships = relationships;
+    this.nextCursor = nextCursor;
+  }
+
+  public List<Relationship> getRelationships() {
+    return relationships;
+  }
+
+  // cursor to fetch the following page with - null when this is the last page
+  public RelationshipCursor getNextCursor() {
+    return nextCursor;
+  }
+
+  public boolean hasNextPage() {
+    return nextCursor != null;
+  }
+
+  public int size() {
+    return relationships.size();
+  }
+
+}
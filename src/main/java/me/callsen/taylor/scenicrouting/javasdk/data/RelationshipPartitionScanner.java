@@ -0,0 +1,16 @@
+package me.callsen.taylor.scenicrouting.javasdk.data;
+
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.Transaction;
+
+/**
+ * Work performed against a single partition of relationships during a parallel scan. Each partition 
+ *  is handed its own transaction, which is committed once scan() returns - so writes (e.g. 
+ *  setAssociatedData) made within a partition are persisted per partition.
+ */
+@FunctionalInterface
+public interface RelationshipPartitionScanner<T> {
+
+  T scan(Transaction tx, Iterable<Relationship> relationships);
+
+}
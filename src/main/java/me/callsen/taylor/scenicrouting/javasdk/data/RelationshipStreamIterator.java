@@ -0,0 +1,91 @@
+package me.callsen.taylor.scenicrouting.javasdk.data;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.neo4j.graphdb.NotFoundException;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.Transaction;
+
+import me.callsen.taylor.scenicrouting.javasdk.metrics.MetricsListener;
+
+/**
+ * Lazily walks every relationship in id order, by direct id lookup, copying each page into
+ *  RelationshipViews. Keyed on the relationship id rather than osm_id, so relationships of any type
+ *  and with a missing or non-numeric osm_id are visited too, and no index is needed. Every page is
+ *  read in its own short transaction, so no transaction stays open between pages however slowly the
+ *  consumer pulls, and at most one page is held in memory. Relationships committed ahead of the cursor
+ *  while streaming are visited, ones committed behind it (reusing a freed id) are not.
+ */
+class RelationshipStreamIterator implements Iterator<RelationshipView> {
+
+  private final GraphDb graphDb;
+  private final boolean associatedDataOnly;
+  private final int pageSize;
+
+  private final ArrayDeque<RelationshipView> buffer;
+  private long nextId = 0;
+  private long maxId = -1;
+  private boolean exhausted = false;
+
+  RelationshipStreamIterator(GraphDb graphDb, boolean associatedDataOnly, int pageSize) {
+    if (pageSize < 1) {
+      throw new IllegalArgumentException("page size must be positive");
+    }
+    this.graphDb = graphDb;
+    this.associatedDataOnly = associatedDataOnly;
+    this.pageSize = pageSize;
+    this.buffer = new ArrayDeque<RelationshipView>(pageSize);
+  }
+
+  @Override
+  public boolean hasNext() {
+    while (buffer.isEmpty() && !exhausted) {
+      fetchPage();
+    }
+    return !buffer.isEmpty();
+  }
+
+  @Override
+  public RelationshipView next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    return buffer.poll();
+  }
+
+  private void fetchPage() {
+    if (nextId > maxId) {
+      // re-read the upper bound once the known id space is used up - picks up relationships created
+      //  past it while streaming
+      long currentMaxId = graphDb.getMaxRelationshipId();
+      if (currentMaxId < nextId) {
+        exhausted = true;
+        return;
+      }
+      maxId = currentMaxId;
+    }
+
+    long startNanos = System.nanoTime();
+    try ( Transaction tx = graphDb.getTransaction() ) {
+      while (buffer.size() < pageSize && nextId <= maxId) {
+        long id = nextId++;
+        Relationship relationship;
+        try {
+          relationship = tx.getRelationshipById(id);
+        } catch (NotFoundException e) {
+          // id not in use
+          continue;
+        }
+        if (associatedDataOnly && !RelationshipIdRange.hasAssociatedData(relationship)) {
+          continue;
+        }
+        buffer.add(RelationshipView.of(relationship));
+      }
+    }
+    graphDb.getMetricsListener().recordTimer(MetricsListener.PAGE_FETCH, System.nanoTime() - startNanos);
+    graphDb.getMetricsListener().incrementCounter(MetricsListener.PAGE_RELATIONSHIPS, buffer.size());
+  }
+
+}
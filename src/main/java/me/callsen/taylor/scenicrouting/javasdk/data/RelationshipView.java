@@ -0,0 +1,93 @@
+package me.callsen.taylor.scenicrouting.javasdk.data;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.neo4j.graphdb.Relationship;
+
+import me.callsen.taylor.scenicrouting.javasdk.RoutingConstants;
+
+/**
+ * Detached copy of a relationship - id, type, end node ids and all properties - read while its
+ *  transaction was open and safe to use after it has closed. Returned by GraphDb.streamRelationships().
+ */
+public class RelationshipView {
+
+  private static final String[] NO_ASSOCIATED_DATA = new String[0];
+
+  private final long id;
+  private final String type;
+  private final long startNodeId;
+  private final long endNodeId;
+  private final Map<String, Object> properties;
+
+  public RelationshipView(long id, String type, long startNodeId, long endNodeId, Map<String, Object> properties) {
+    this.id = id;
+    this.type = type;
+    this.startNodeId = startNodeId;
+    this.endNodeId = endNodeId;
+    this.properties = Collections.unmodifiableMap(properties);
+  }
+
+  // copy the relationship - must be called inside the transaction it is bound to
+  public static RelationshipView of(Relationship relationship) {
+    return new RelationshipView(relationship.getId(), relationship.getType().name(), 
+        relationship.getStartNodeId(), relationship.getEndNodeId(), relationship.getAllProperties());
+  }
+
+  public long getId() {
+    return id;
+  }
+
+  public String getType() {
+    return type;
+  }
+
+  public long getStartNodeId() {
+    return startNodeId;
+  }
+
+  public long getEndNodeId() {
+    return endNodeId;
+  }
+
+  // -1 if the relationship has no osm_id
+  public long getOsmId() {
+    Object osmId = properties.get(RoutingConstants.GRAPH_PROPERTY_NAME_OSM_ID);
+    return osmId instanceof Number ? ((Number) osmId).longValue() : -1L;
+  }
+
+  public Map<String, Object> getProperties() {
+    return properties;
+  }
+
+  public Object getProperty(String propertyName) {
+    return properties.get(propertyName);
+  }
+
+  public Object getProperty(String propertyName, Object defaultValue) {
+    return properties.getOrDefault(propertyName, defaultValue);
+  }
+
+  // names of the associated data properties set on the relationship
+  public String[] getAssociatedDataProperties() {
+    Object associatedData = properties.get(RoutingConstants.GRAPH_PROPERTY_NAME_ASSOCIATED_DATA);
+    return associatedData instanceof String[] ? (String[]) associatedData : NO_ASSOCIATED_DATA;
+  }
+
+  public boolean hasAssociatedData() {
+    return getAssociatedDataProperties().length > 0;
+  }
+
+  // decode associated data regardless of encoding (binary or legacy JSON) - null if the property is not set
+  public AssociatedDataRecords getAssociatedData(String propertyName) {
+    Object propertyValue = properties.get(propertyName);
+    return propertyValue == null ? null : AssociatedDataCodec.decode(propertyValue);
+  }
+
+  @Override
+  public String toString() {
+    return "RelationshipView[id=" + id + ", type=" + type + ", osm_id=" + getOsmId() + "]";
+  }
+
+}
@@ -0,0 +1,152 @@
+package me.callsen.taylor.scenicrouting.javasdk.data;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.ResourceIterator;
+import org.neo4j.graphdb.Result;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.values.storable.CoordinateReferenceSystem;
+import org.neo4j.values.storable.Values;
+
+import me.callsen.taylor.scenicrouting.javasdk.RoutingConstants;
+import me.callsen.taylor.scenicrouting.javasdk.spatial.BoundingBox;
+import me.callsen.taylor.scenicrouting.javasdk.util.StructuredLogger;
+
+/**
+ * Pulls the store into the page cache by reading every node and relationship with all of their 
+ *  properties (node, relationship, property and dynamic array/string store pages), then scanning 
+ *  the osm_id and geom point indexes. Read only - safe to run against a read-only GraphDb while it 
+ *  serves queries. warmup(BoundingBox) reads only one region, for processes serving a single area.
+ */
+class StoreWarmer {
+
+  static final StructuredLogger LOGGER = StructuredLogger.getLogger(StoreWarmer.class);
+
+  static final String PHASE_NODES = "nodes";
+  static final String PHASE_RELATIONSHIPS = "relationships";
+  static final String PHASE_INDEXES = "indexes";
+
+  // index scans, by index name - hints force the index to be read instead of the counts store / label scan
+  private static final Map<String, String> INDEX_QUERIES = new LinkedHashMap<String, String>();
+  static {
+    INDEX_QUERIES.put(RoutingConstants.GRAPH_INDEX_NAME_INTERSECTION_OSM_ID, 
+        "MATCH (n:INTERSECTION) USING INDEX n:INTERSECTION(osm_id) WHERE n.osm_id IS NOT NULL RETURN count(n) AS total");
+    INDEX_QUERIES.put(RoutingConstants.GRAPH_INDEX_NAME_INTERSECTION_GEOM_POINT, 
+        "MATCH (n:INTERSECTION) USING INDEX n:INTERSECTION(geom) WHERE point.withinBBox(n.geom, $lowerLeft, $upperRight) RETURN count(n) AS total");
+    INDEX_QUERIES.put(RoutingConstants.GRAPH_INDEX_NAME_WAY_OSM_ID, 
+        "MATCH ()-[r:CONNECTS]->() USING INDEX r:CONNECTS(osm_id) WHERE r.osm_id IS NOT NULL RETURN count(r) AS total");
+    INDEX_QUERIES.put(RoutingConstants.GRAPH_INDEX_NAME_WAY_GEOM_POINT, 
+        "MATCH ()-[r:CONNECTS]->() USING INDEX r:CONNECTS(geom) WHERE point.withinBBox(r.geom, $lowerLeft, $upperRight) RETURN count(r) AS total");
+  }
+
+  private final GraphDb graphDb;
+  private final int progressInterval;
+  private final WarmupProgressListener listener;
+
+  StoreWarmer(GraphDb graphDb, int progressInterval, WarmupProgressListener listener) {
+    if (progressInterval < 1) {
+      throw new IllegalArgumentException("progress interval must be positive");
+    }
+    this.graphDb = graphDb;
+    this.progressInterval = progressInterval;
+    this.listener = listener == null ? WarmupProgressListener.LOGGING : listener;
+  }
+
+  // returns the number of nodes and relationships touched
+  long warmup() {
+    long touched = 0;
+
+    try ( Transaction tx = graphDb.getTransaction() ) {
+      long nodeTotal = count(tx, "MATCH (n) RETURN count(n) AS total");
+      long nodesTouched = 0;
+      try ( ResourceIterator<Node> nodes = tx.getAllNodes().iterator() ) {
+        while (nodes.hasNext()) {
+          nodes.next().getAllProperties();
+          if (++nodesTouched % progressInterval == 0) {
+            listener.onProgress(PHASE_NODES, nodesTouched, nodeTotal);
+          }
+        }
+      }
+      listener.onProgress(PHASE_NODES, nodesTouched, nodesTouched);
+      touched += nodesTouched;
+
+      long relationshipTotal = count(tx, "MATCH ()-[r]->() RETURN count(r) AS total");
+      long relationshipsTouched = 0;
+      try ( ResourceIterator<Relationship> relationships = tx.getAllRelationships().iterator() ) {
+        while (relationships.hasNext()) {
+          relationships.next().getAllProperties();
+          if (++relationshipsTouched % progressInterval == 0) {
+            listener.onProgress(PHASE_RELATIONSHIPS, relationshipsTouched, relationshipTotal);
+          }
+        }
+      }
+      listener.onProgress(PHASE_RELATIONSHIPS, relationshipsTouched, relationshipsTouched);
+      touched += relationshipsTouched;
+    }
+
+    warmupIndexes();
+    return touched;
+  }
+
+  // region only - the INTERSECTION nodes in the box and every CONNECTS relationship touching them, read
+  //  through the geom point index (which is warmed as a side effect)
+  long warmup(BoundingBox boundingBox) {
+    long touched = 0;
+
+    try ( Transaction tx = graphDb.getTransaction() ) {
+      List<Node> nodes = graphDb.getIntersectionsInBoundingBox(tx, boundingBox);
+      long nodesTouched = 0;
+      for (Node node : nodes) {
+        node.getAllProperties();
+        if (++nodesTouched % progressInterval == 0) {
+          listener.onProgress(PHASE_NODES, nodesTouched, nodes.size());
+        }
+      }
+      listener.onProgress(PHASE_NODES, nodesTouched, nodesTouched);
+      touched += nodesTouched;
+
+      List<Relationship> relationships = graphDb.getWaysInBoundingBox(tx, boundingBox);
+      long relationshipsTouched = 0;
+      for (Relationship relationship : relationships) {
+        relationship.getAllProperties();
+        if (++relationshipsTouched % progressInterval == 0) {
+          listener.onProgress(PHASE_RELATIONSHIPS, relationshipsTouched, relationships.size());
+        }
+      }
+      listener.onProgress(PHASE_RELATIONSHIPS, relationshipsTouched, relationshipsTouched);
+      touched += relationshipsTouched;
+    }
+
+    return touched;
+  }
+
+  private void warmupIndexes() {
+    Map<String, Object> params = new HashMap<String, Object>();
+    params.put("lowerLeft", Values.pointValue(CoordinateReferenceSystem.WGS84, -180d, -90d));
+    params.put("upperRight", Values.pointValue(CoordinateReferenceSystem.WGS84, 180d, 90d));
+
+    long indexesTouched = 0;
+    for (Map.Entry<String, String> indexQuery : INDEX_QUERIES.entrySet()) {
+      // each index in its own transaction - a missing index fails the hinted query
+      try ( Transaction tx = graphDb.getTransaction(); Result result = tx.execute(indexQuery.getValue(), params) ) {
+        long entries = result.hasNext() ? ((Number) result.next().get("total")).longValue() : 0;
+        LOGGER.debug("graphdb.warmup.index", "index", indexQuery.getKey(), "entries", entries);
+      } catch (Exception e) {
+        LOGGER.warn("graphdb.warmup.index.skipped", "index", indexQuery.getKey(), "reason", e.getMessage());
+      }
+      listener.onProgress(PHASE_INDEXES, ++indexesTouched, INDEX_QUERIES.size());
+    }
+  }
+
+  private static long count(Transaction tx, String query) {
+    try ( Result result = tx.execute(query) ) {
+      return result.hasNext() ? ((Number) result.next().get("total")).longValue() : 0;
+    }
+  }
+
+}
@@ -0,0 +1,17 @@
+package me.callsen.taylor.scenicrouting.javasdk.data;
+
+/**
+ * Progress of a store warmup - called periodically during each phase and once when a phase
+ *  completes (touched == total).
+ */
+@FunctionalInterface
+public interface WarmupProgressListener {
+
+  // phase is "nodes", "relationships" or "indexes"; total is read from the counts store (index count for "indexes")
+  void onProgress(String phase, long touched, long total);
+
+  // logs progress at info level
+  WarmupProgressListener LOGGING = (phase, touched, total) -> 
+      StoreWarmer.LOGGER.info("graphdb.warmup.progress", "phase", phase, "touched", touched, "total", total);
+
+}
@@ -0,0 +1,51 @@
+package me.callsen.taylor.scenicrouting.javasdk.metrics;
+
+/**
+ * Receives timers and counters for GraphDb operations. Implementations are called synchronously on
+ *  the thread performing the operation (possibly several threads at once) and must be cheap and
+ *  thread safe. Adapting to a metrics registry is a one liner, e.g. for Micrometer:
+ *
+ *    graphDb.setMetricsListener(new MetricsListener() {
+ *      public void recordTimer(String name, long nanos) { registry.timer(name).record(nanos, TimeUnit.NANOSECONDS); }
+ *      public void incrementCounter(String name, long amount) { registry.counter(name).increment(amount); }
+ *    });
+ */
+public interface MetricsListener {
+
+  String TRANSACTION_OPEN = "graphdb.transaction.open";
+  String TRANSACTION_COMMIT = "graphdb.transaction.commit";
+  String TRANSACTION_ROLLBACK = "graphdb.transaction.rollback";
+  String PAGE_FETCH = "graphdb.page.fetch";
+  String PAGE_RELATIONSHIPS = "graphdb.page.relationships";
+  String LOOKUP = "graphdb.lookup";
+  String ASSOCIATED_DATA_WRITE = "graphdb.associated_data.write";
+  String ASSOCIATED_DATA_BATCH_COMMIT = "graphdb.associated_data.batch.commit";
+  String ASSOCIATED_DATA_BATCH_EDGES = "graphdb.associated_data.batch.edges";
+  String ASSOCIATED_DATA_BATCH_RETRY = "graphdb.associated_data.batch.retry";
+  String INDEX_CREATE = "graphdb.index.create";
+  String INDEX_DROP = "graphdb.index.drop";
+  String TRUNCATE = "graphdb.truncate";
+  String TRUNCATE_DELETED = "graphdb.truncate.deleted";
+  String WARMUP = "graphdb.warmup";
+  String IMPORT_BATCH_COMMIT = "graphdb.import.batch.commit";
+  String IMPORT_RECORDS = "graphdb.import.records";
+
+  MetricsListener NOOP = new MetricsListener() {
+
+    @Override
+    public void recordTimer(String name, long nanos) {
+      // no-op
+    }
+
+    @Override
+    public void incrementCounter(String name, long amount) {
+      // no-op
+    }
+
+  };
+
+  void recordTimer(String name, long nanos);
+
+  void incrementCounter(String name, long amount);
+
+}
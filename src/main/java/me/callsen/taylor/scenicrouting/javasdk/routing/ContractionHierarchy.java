@@ -0,0 +1,474 @@
+package me.callsen.taylor.scenicrouting.javasdk.routing;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+import me.callsen.taylor.scenicrouting.javasdk.data.GraphDb;
+import me.callsen.taylor.scenicrouting.javasdk.util.IntArrayList;
+import me.callsen.taylor.scenicrouting.javasdk.util.IntDoubleMinHeap;
+import me.callsen.taylor.scenicrouting.javasdk.util.StructuredLogger;
+
+/**
+ * Contraction hierarchy preprocessed from a RoutingGraph for one static cost profile. Nodes are
+ *  contracted in order of importance (edge difference + contracted neighbours, lazily updated),
+ *  adding shortcut edges wherever a local witness search finds no alternative path. Queries
+ *  (see ContractionHierarchyQuery) then run a bidirectional search over upward edges only, which
+ *  settles a tiny fraction of the nodes a plain Dijkstra would.
+ *
+ *  A hierarchy refers to RoutingGraph edges by index, so it is only valid for the snapshot it was
+ *  built from - persist it next to the snapshot file (see getDefaultFile) and load both together.
+ */
+public class ContractionHierarchy {
+
+  private static final StructuredLogger LOGGER = StructuredLogger.getLogger(ContractionHierarchy.class);
+
+  // "SRCH0001"
+  public static final long MAGIC = 0x5352434830303031L;
+  public static final int VERSION = 1;
+
+  // bounds the local witness searches - higher values add fewer shortcuts but preprocess slower
+  private static final int WITNESS_SETTLED_LIMIT = 64;
+
+  private final String profileName;
+  private final int nodeCount;
+  private final int graphEdgeCount;
+  private final long graphCreatedAtMillis;
+  private final int[] ranks;
+
+  // hierarchy edges - original graph edges and shortcuts; original is the RoutingGraph edge index,
+  //  or -1 for shortcuts which instead reference the two hierarchy edges they bypass
+  private final int[] edgeSources;
+  private final int[] edgeTargets;
+  private final double[] edgeWeights;
+  private final int[] edgeOriginals;
+  private final int[] edgeFirstChildren;
+  private final int[] edgeSecondChildren;
+
+  // upward search graphs (CSR) - forward: edges u -> x with rank(x) > rank(u), grouped by u;
+  //  backward: edges x -> u with rank(x) > rank(u), grouped by u
+  private final int[] upForwardFirst;
+  private final int[] upForwardEdges;
+  private final int[] upBackwardFirst;
+  private final int[] upBackwardEdges;
+
+  ContractionHierarchy(String profileName, int nodeCount, int graphEdgeCount, long graphCreatedAtMillis, int[] ranks,
+      int[] edgeSources, int[] edgeTargets, double[] edgeWeights, int[] edgeOriginals, int[] edgeFirstChildren, int[] edgeSecondChildren) {
+    this.profileName = profileName;
+    this.nodeCount = nodeCount;
+    this.graphEdgeCount = graphEdgeCount;
+    this.graphCreatedAtMillis = graphCreatedAtMillis;
+    this.ranks = ranks;
+    this.edgeSources = edgeSources;
+    this.edgeTargets = edgeTargets;
+    this.edgeWeights = edgeWeights;
+    this.edgeOriginals = edgeOriginals;
+    this.edgeFirstChildren = edgeFirstChildren;
+    this.edgeSecondChildren = edgeSecondChildren;
+
+    // split edges into the two upward graphs
+    upForwardFirst = new int[nodeCount + 1];
+    upBackwardFirst = new int[nodeCount + 1];
+    for (int edge = 0; edge < edgeSources.length; edge++) {
+      if (ranks[edgeTargets[edge]] > ranks[edgeSources[edge]]) {
+        upForwardFirst[edgeSources[edge] + 1]++;
+      } else {
+        upBackwardFirst[edgeTargets[edge] + 1]++;
+      }
+    }
+    for (int node = 0; node < nodeCount; node++) {
+      upForwardFirst[node + 1] += upForwardFirst[node];
+      upBackwardFirst[node + 1] += upBackwardFirst[node];
+    }
+    upForwardEdges = new int[upForwardFirst[nodeCount]];
+    upBackwardEdges = new int[upBackwardFirst[nodeCount]];
+    int[] forwardPosition = Arrays.copyOf(upForwardFirst, nodeCount);
+    int[] backwardPosition = Arrays.copyOf(upBackwardFirst, nodeCount);
+    for (int edge = 0; edge < edgeSources.length; edge++) {
+      if (ranks[edgeTargets[edge]] > ranks[edgeSources[edge]]) {
+        upForwardEdges[forwardPosition[edgeSources[edge]]++] = edge;
+      } else {
+        upBackwardEdges[backwardPosition[edgeTargets[edge]]++] = edge;
+      }
+    }
+  }
+
+  public static ContractionHierarchy build(RoutingGraph graph, EdgeCostFunction costFunction, String profileName) {
+    long startMillis = System.currentTimeMillis();
+    ContractionHierarchy hierarchy = new Builder(graph, costFunction).build(profileName);
+    LOGGER.info("routing.ch.built", "profile", profileName, "nodes", hierarchy.nodeCount, "edges", hierarchy.getEdgeCount(),
+        "shortcuts", hierarchy.getShortcutCount(), "millis", System.currentTimeMillis() - startMillis);
+    return hierarchy;
+  }
+
+  // conventional location next to the graph database - <graph.db>/routing/ch-<profile>.bin
+  public static Path getDefaultFile(GraphDb graphDb, String profileName) {
+    return Paths.get(graphDb.getGraphDbPath(), "routing", "ch-" + profileName + ".bin");
+  }
+
+  public ContractionHierarchyQuery createQuery(RoutingGraph graph) {
+    if (!isBuiltFrom(graph)) {
+      throw new IllegalArgumentException("contraction hierarchy '" + profileName + "' was not built from this routing graph snapshot");
+    }
+    return new ContractionHierarchyQuery(this, graph);
+  }
+
+  // true if the hierarchy was built from this snapshot (or a snapshot file written from it)
+  public boolean isBuiltFrom(RoutingGraph graph) {
+    return graph.getNodeCount() == nodeCount && graph.getEdgeCount() == graphEdgeCount && graph.getCreatedAtMillis() == graphCreatedAtMillis;
+  }
+
+  public String getProfileName() {
+    return profileName;
+  }
+
+  public int getNodeCount() {
+    return nodeCount;
+  }
+
+  public int getEdgeCount() {
+    return edgeSources.length;
+  }
+
+  public int getShortcutCount() {
+    int shortcuts = 0;
+    for (int original : edgeOriginals) {
+      if (original < 0) {
+        shortcuts++;
+      }
+    }
+    return shortcuts;
+  }
+
+  public int getRank(int node) {
+    return ranks[node];
+  }
+
+  // package-private access for queries
+  int[] upForwardFirst() { return upForwardFirst; }
+  int[] upForwardEdges() { return upForwardEdges; }
+  int[] upBackwardFirst() { return upBackwardFirst; }
+  int[] upBackwardEdges() { return upBackwardEdges; }
+  int edgeSource(int edge) { return edgeSources[edge]; }
+  int edgeTarget(int edge) { return edgeTargets[edge]; }
+  double edgeWeight(int edge) { return edgeWeights[edge]; }
+
+  // expand a hierarchy edge into the RoutingGraph edges it represents, in travel order
+  void unpack(int edge, IntArrayList graphEdges, IntArrayList stack) {
+    stack.clear();
+    stack.add(edge);
+    while (!stack.isEmpty()) {
+      int current = stack.get(stack.size() - 1);
+      stack.removeAtUnordered(stack.size() - 1);
+      if (edgeOriginals[current] >= 0) {
+        graphEdges.add(edgeOriginals[current]);
+      } else {
+        stack.add(edgeSecondChildren[current]);
+        stack.add(edgeFirstChildren[current]);
+      }
+    }
+  }
+
+  // write atomically - to a temporary sibling file, then moved into place
+  public void write(Path file) throws IOException {
+    if (file.getParent() != null) {
+      Files.createDirectories(file.getParent());
+    }
+    Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+    try ( DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile), 1 << 16)) ) {
+      out.writeLong(MAGIC);
+      out.writeInt(VERSION);
+      out.writeUTF(profileName);
+      out.writeInt(nodeCount);
+      out.writeInt(graphEdgeCount);
+      out.writeLong(graphCreatedAtMillis);
+      for (int node = 0; node < nodeCount; node++) {
+        out.writeInt(ranks[node]);
+      }
+      out.writeInt(edgeSources.length);
+      for (int edge = 0; edge < edgeSources.length; edge++) {
+        out.writeInt(edgeSources[edge]);
+        out.writeInt(edgeTargets[edge]);
+        out.writeDouble(edgeWeights[edge]);
+        out.writeInt(edgeOriginals[edge]);
+        out.writeInt(edgeFirstChildren[edge]);
+        out.writeInt(edgeSecondChildren[edge]);
+      }
+    }
+    Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    LOGGER.info("routing.ch.written", "profile", profileName, "file", file);
+  }
+
+  public static ContractionHierarchy read(Path file) throws IOException {
+    try ( DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16)) ) {
+      if (in.readLong() != MAGIC) {
+        throw new IOException("not a contraction hierarchy file: " + file);
+      }
+      int version = in.readInt();
+      if (version != VERSION) {
+        throw new IOException("unsupported contraction hierarchy version " + version + " (expected " + VERSION + "): " + file);
+      }
+      String profileName = in.readUTF();
+      int nodeCount = in.readInt();
+      int graphEdgeCount = in.readInt();
+      long graphCreatedAtMillis = in.readLong();
+      int[] ranks = new int[nodeCount];
+      for (int node = 0; node < nodeCount; node++) {
+        ranks[node] = in.readInt();
+      }
+      int edgeCount = in.readInt();
+      int[] edgeSources = new int[edgeCount];
+      int[] edgeTargets = new int[edgeCount];
+      double[] edgeWeights = new double[edgeCount];
+      int[] edgeOriginals = new int[edgeCount];
+      int[] edgeFirstChildren = new int[edgeCount];
+      int[] edgeSecondChildren = new int[edgeCount];
+      for (int edge = 0; edge < edgeCount; edge++) {
+        edgeSources[edge] = in.readInt();
+        edgeTargets[edge] = in.readInt();
+        edgeWeights[edge] = in.readDouble();
+        edgeOriginals[edge] = in.readInt();
+        edgeFirstChildren[edge] = in.readInt();
+        edgeSecondChildren[edge] = in.readInt();
+      }
+      return new ContractionHierarchy(profileName, nodeCount, graphEdgeCount, graphCreatedAtMillis, ranks,
+          edgeSources, edgeTargets, edgeWeights, edgeOriginals, edgeFirstChildren, edgeSecondChildren);
+    }
+  }
+
+  /**
+   * Performs the node contraction. Adjacency is kept as per node lists of hierarchy edge ids; edges
+   *  touching contracted nodes stay in the lists but are skipped.
+   */
+  private static class Builder {
+
+    private final RoutingGraph graph;
+    private final int nodeCount;
+
+    private int edgeCount = 0;
+    private int[] edgeSources = new int[1024];
+    private int[] edgeTargets = new int[1024];
+    private double[] edgeWeights = new double[1024];
+    private int[] edgeOriginals = new int[1024];
+    private int[] edgeFirstChildren = new int[1024];
+    private int[] edgeSecondChildren = new int[1024];
+
+    private final IntArrayList[] outEdges;
+    private final IntArrayList[] inEdges;
+    private final boolean[] contracted;
+    private final int[] contractedNeighbors;
+
+    // witness search state
+    private final IntDoubleMinHeap witnessHeap;
+    private final double[] witnessCosts;
+    private final int[] witnessStamps;
+    private int witnessStamp = 0;
+
+    Builder(RoutingGraph graph, EdgeCostFunction costFunction) {
+      this.graph = graph;
+      this.nodeCount = graph.getNodeCount();
+      this.outEdges = new IntArrayList[nodeCount];
+      this.inEdges = new IntArrayList[nodeCount];
+      for (int node = 0; node < nodeCount; node++) {
+        outEdges[node] = new IntArrayList(4);
+        inEdges[node] = new IntArrayList(4);
+      }
+      this.contracted = new boolean[nodeCount];
+      this.contractedNeighbors = new int[nodeCount];
+      this.witnessHeap = new IntDoubleMinHeap(nodeCount);
+      this.witnessCosts = new double[nodeCount];
+      this.witnessStamps = new int[nodeCount];
+
+      for (int edge = 0; edge < graph.getEdgeCount(); edge++) {
+        double weight = costFunction.cost(graph, edge);
+        int source = graph.getEdgeSource(edge);
+        int target = graph.getEdgeTarget(edge);
+        if (weight < Double.POSITIVE_INFINITY && source != target) {
+          addOrImproveEdge(source, target, weight, edge, -1, -1);
+        }
+      }
+    }
+
+    ContractionHierarchy build(String profileName) {
+      int[] ranks = new int[nodeCount];
+      IntDoubleMinHeap queue = new IntDoubleMinHeap(nodeCount);
+      for (int node = 0; node < nodeCount; node++) {
+        queue.insertOrDecrease(node, priority(node));
+      }
+
+      int rank = 0;
+      while (!queue.isEmpty()) {
+        int node = queue.poll();
+
+        // lazy update - contracting neighbours may have raised or lowered this priority, so recompute it
+        //  and requeue the node if it is no longer the smallest
+        double priority = priority(node);
+        if (!queue.isEmpty() && priority > queue.peekKey()) {
+          queue.insertOrDecrease(node, priority);
+          continue;
+        }
+
+        contract(node, false);
+        contracted[node] = true;
+        ranks[node] = rank++;
+
+        IntArrayList nodeOutEdges = outEdges[node];
+        for (int i = 0; i < nodeOutEdges.size(); i++) {
+          contractedNeighbors[edgeTargets[nodeOutEdges.get(i)]]++;
+        }
+        IntArrayList nodeInEdges = inEdges[node];
+        for (int i = 0; i < nodeInEdges.size(); i++) {
+          contractedNeighbors[edgeSources[nodeInEdges.get(i)]]++;
+        }
+      }
+
+      return new ContractionHierarchy(profileName, nodeCount, graph.getEdgeCount(), graph.getCreatedAtMillis(), ranks,
+          Arrays.copyOf(edgeSources, edgeCount), Arrays.copyOf(edgeTargets, edgeCount), Arrays.copyOf(edgeWeights, edgeCount),
+          Arrays.copyOf(edgeOriginals, edgeCount), Arrays.copyOf(edgeFirstChildren, edgeCount), Arrays.copyOf(edgeSecondChildren, edgeCount));
+    }
+
+    private double priority(int node) {
+      int shortcuts = contract(node, true);
+      int degree = 0;
+      IntArrayList nodeOutEdges = outEdges[node];
+      for (int i = 0; i < nodeOutEdges.size(); i++) {
+        if (!contracted[edgeTargets[nodeOutEdges.get(i)]]) {
+          degree++;
+        }
+      }
+      IntArrayList nodeInEdges = inEdges[node];
+      for (int i = 0; i < nodeInEdges.size(); i++) {
+        if (!contracted[edgeSources[nodeInEdges.get(i)]]) {
+          degree++;
+        }
+      }
+      return (shortcuts - degree) + contractedNeighbors[node];
+    }
+
+    // returns the number of shortcuts needed to contract the node - adds them unless simulating
+    private int contract(int node, boolean simulate) {
+      int shortcuts = 0;
+      IntArrayList nodeInEdges = inEdges[node];
+      IntArrayList nodeOutEdges = outEdges[node];
+      for (int i = 0; i < nodeInEdges.size(); i++) {
+        int inEdge = nodeInEdges.get(i);
+        int source = edgeSources[inEdge];
+        if (contracted[source] || source == node) {
+          continue;
+        }
+
+        double maxCost = -1d;
+        for (int j = 0; j < nodeOutEdges.size(); j++) {
+          int outEdge = nodeOutEdges.get(j);
+          int target = edgeTargets[outEdge];
+          if (!contracted[target] && target != source && target != node) {
+            maxCost = Math.max(maxCost, edgeWeights[inEdge] + edgeWeights[outEdge]);
+          }
+        }
+        if (maxCost < 0d) {
+          continue;
+        }
+
+        witnessSearch(source, node, maxCost);
+
+        for (int j = 0; j < nodeOutEdges.size(); j++) {
+          int outEdge = nodeOutEdges.get(j);
+          int target = edgeTargets[outEdge];
+          if (contracted[target] || target == source || target == node) {
+            continue;
+          }
+          double viaCost = edgeWeights[inEdge] + edgeWeights[outEdge];
+          if (witnessStamps[target] == witnessStamp && witnessCosts[target] <= viaCost) {
+            // found a path at least as short that avoids the node
+            continue;
+          }
+          shortcuts++;
+          if (!simulate) {
+            addOrImproveEdge(source, target, viaCost, -1, inEdge, outEdge);
+          }
+        }
+      }
+      return shortcuts;
+    }
+
+    // bounded Dijkstra from source over non-contracted nodes, skipping the node being contracted
+    private void witnessSearch(int source, int excludedNode, double maxCost) {
+      if (++witnessStamp == Integer.MAX_VALUE) {
+        Arrays.fill(witnessStamps, 0);
+        witnessStamp = 1;
+      }
+      witnessHeap.clear();
+      witnessStamps[source] = witnessStamp;
+      witnessCosts[source] = 0d;
+      witnessHeap.insertOrDecrease(source, 0d);
+
+      int settled = 0;
+      while (!witnessHeap.isEmpty()) {
+        if (witnessHeap.peekKey() > maxCost || ++settled > WITNESS_SETTLED_LIMIT) {
+          break;
+        }
+        int current = witnessHeap.poll();
+        double currentCost = witnessCosts[current];
+        IntArrayList currentOutEdges = outEdges[current];
+        for (int i = 0; i < currentOutEdges.size(); i++) {
+          int edge = currentOutEdges.get(i);
+          int next = edgeTargets[edge];
+          if (contracted[next] || next == excludedNode) {
+            continue;
+          }
+          double nextCost = currentCost + edgeWeights[edge];
+          if (witnessStamps[next] != witnessStamp || nextCost < witnessCosts[next]) {
+            witnessStamps[next] = witnessStamp;
+            witnessCosts[next] = nextCost;
+            witnessHeap.insertOrDecrease(next, nextCost);
+          }
+        }
+      }
+    }
+
+    // parallel edges are collapsed - only the cheapest edge between two live nodes is kept
+    private void addOrImproveEdge(int source, int target, double weight, int original, int firstChild, int secondChild) {
+      IntArrayList sourceOutEdges = outEdges[source];
+      for (int i = 0; i < sourceOutEdges.size(); i++) {
+        int edge = sourceOutEdges.get(i);
+        if (edgeTargets[edge] == target) {
+          if (weight < edgeWeights[edge]) {
+            edgeWeights[edge] = weight;
+            edgeOriginals[edge] = original;
+            edgeFirstChildren[edge] = firstChild;
+            edgeSecondChildren[edge] = secondChild;
+          }
+          return;
+        }
+      }
+
+      if (edgeCount == edgeSources.length) {
+        int capacity = edgeCount << 1;
+        edgeSources = Arrays.copyOf(edgeSources, capacity);
+        edgeTargets = Arrays.copyOf(edgeTargets, capacity);
+        edgeWeights = Arrays.copyOf(edgeWeights, capacity);
+        edgeOriginals = Arrays.copyOf(edgeOriginals, capacity);
+        edgeFirstChildren = Arrays.copyOf(edgeFirstChildren, capacity);
+        edgeSecondChildren = Arrays.copyOf(edgeSecondChildren, capacity);
+      }
+      int edge = edgeCount++;
+      edgeSources[edge] = source;
+      edgeTargets[edge] = target;
+      edgeWeights[edge] = weight;
+      edgeOriginals[edge] = original;
+      edgeFirstChildren[edge] = firstChild;
+      edgeSecondChildren[edge] = secondChild;
+      sourceOutEdges.add(edge);
+      inEdges[target].add(edge);
+    }
+
+  }
+
+}
@@ -0,0 +1,171 @@
+package me.callsen.taylor.scenicrouting.javasdk.routing;
+
+import java.util.Arrays;
+
+import me.callsen.taylor.scenicrouting.javasdk.util.IntArrayList;
+import me.callsen.taylor.scenicrouting.javasdk.util.IntDoubleMinHeap;
+
+/**
+ * Bidirectional upward search over a ContractionHierarchy. Holds reusable search state, so queries
+ *  allocate only their result - not thread safe, create one query per thread (the hierarchy itself
+ *  can be shared).
+ */
+public class ContractionHierarchyQuery {
+
+  private final ContractionHierarchy hierarchy;
+  private final RoutingGraph graph;
+
+  private final IntDoubleMinHeap forwardHeap;
+  private final IntDoubleMinHeap backwardHeap;
+  private final double[] forwardCosts;
+  private final double[] backwardCosts;
+  private final int[] forwardParentEdges;
+  private final int[] backwardParentEdges;
+  private final int[] forwardStamps;
+  private final int[] backwardStamps;
+  private int stamp = 0;
+
+  private final IntArrayList hierarchyEdges = new IntArrayList();
+  private final IntArrayList graphEdges = new IntArrayList();
+  private final IntArrayList unpackStack = new IntArrayList();
+
+  ContractionHierarchyQuery(ContractionHierarchy hierarchy, RoutingGraph graph) {
+    this.hierarchy = hierarchy;
+    this.graph = graph;
+    int nodeCount = hierarchy.getNodeCount();
+    forwardHeap = new IntDoubleMinHeap(nodeCount);
+    backwardHeap = new IntDoubleMinHeap(nodeCount);
+    forwardCosts = new double[nodeCount];
+    backwardCosts = new double[nodeCount];
+    forwardParentEdges = new int[nodeCount];
+    backwardParentEdges = new int[nodeCount];
+    forwardStamps = new int[nodeCount];
+    backwardStamps = new int[nodeCount];
+  }
+
+  public ContractionHierarchy getHierarchy() {
+    return hierarchy;
+  }
+
+  // returns null if the target is not reachable from the source
+  public Route route(int sourceNode, int targetNode) {
+    if (sourceNode < 0 || sourceNode >= graph.getNodeCount() || targetNode < 0 || targetNode >= graph.getNodeCount()) {
+      throw new IllegalArgumentException("node index out of range: " + sourceNode + " -> " + targetNode);
+    }
+    if (++stamp == Integer.MAX_VALUE) {
+      Arrays.fill(forwardStamps, 0);
+      Arrays.fill(backwardStamps, 0);
+      stamp = 1;
+    }
+    forwardHeap.clear();
+    backwardHeap.clear();
+
+    forwardStamps[sourceNode] = stamp;
+    forwardCosts[sourceNode] = 0d;
+    forwardParentEdges[sourceNode] = -1;
+    forwardHeap.insertOrDecrease(sourceNode, 0d);
+    backwardStamps[targetNode] = stamp;
+    backwardCosts[targetNode] = 0d;
+    backwardParentEdges[targetNode] = -1;
+    backwardHeap.insertOrDecrease(targetNode, 0d);
+
+    double bestCost = sourceNode == targetNode ? 0d : Double.POSITIVE_INFINITY;
+    int meetingNode = sourceNode == targetNode ? sourceNode : -1;
+    int settledCount = 0;
+
+    int[] upForwardFirst = hierarchy.upForwardFirst();
+    int[] upForwardEdges = hierarchy.upForwardEdges();
+    int[] upBackwardFirst = hierarchy.upBackwardFirst();
+    int[] upBackwardEdges = hierarchy.upBackwardEdges();
+
+    while (!forwardHeap.isEmpty() || !backwardHeap.isEmpty()) {
+      double forwardMin = forwardHeap.isEmpty() ? Double.POSITIVE_INFINITY : forwardHeap.peekKey();
+      double backwardMin = backwardHeap.isEmpty() ? Double.POSITIVE_INFINITY : backwardHeap.peekKey();
+      if (Math.min(forwardMin, backwardMin) >= bestCost) {
+        break;
+      }
+
+      if (forwardMin <= backwardMin) {
+        int node = forwardHeap.poll();
+        settledCount++;
+        double nodeCost = forwardCosts[node];
+        for (int i = upForwardFirst[node]; i < upForwardFirst[node + 1]; i++) {
+          int edge = upForwardEdges[i];
+          int next = hierarchy.edgeTarget(edge);
+          double nextCost = nodeCost + hierarchy.edgeWeight(edge);
+          if (forwardStamps[next] != stamp || nextCost < forwardCosts[next]) {
+            forwardStamps[next] = stamp;
+            forwardCosts[next] = nextCost;
+            forwardParentEdges[next] = edge;
+            forwardHeap.insertOrDecrease(next, nextCost);
+            if (backwardStamps[next] == stamp && nextCost + backwardCosts[next] < bestCost) {
+              bestCost = nextCost + backwardCosts[next];
+              meetingNode = next;
+            }
+          }
+        }
+      } else {
+        int node = backwardHeap.poll();
+        settledCount++;
+        double nodeCost = backwardCosts[node];
+        for (int i = upBackwardFirst[node]; i < upBackwardFirst[node + 1]; i++) {
+          int edge = upBackwardEdges[i];
+          int next = hierarchy.edgeSource(edge);
+          double nextCost = nodeCost + hierarchy.edgeWeight(edge);
+          if (backwardStamps[next] != stamp || nextCost < backwardCosts[next]) {
+            backwardStamps[next] = stamp;
+            backwardCosts[next] = nextCost;
+            backwardParentEdges[next] = edge;
+            backwardHeap.insertOrDecrease(next, nextCost);
+            if (forwardStamps[next] == stamp && nextCost + forwardCosts[next] < bestCost) {
+              bestCost = nextCost + forwardCosts[next];
+              meetingNode = next;
+            }
+          }
+        }
+      }
+    }
+
+    if (meetingNode < 0) {
+      return null;
+    }
+    return buildRoute(sourceNode, targetNode, meetingNode, bestCost, settledCount);
+  }
+
+  private Route buildRoute(int sourceNode, int targetNode, int meetingNode, double cost, int settledCount) {
+    // hierarchy edges source -> meeting node (collected backwards, then reversed), then meeting node -> target
+    hierarchyEdges.clear();
+    for (int node = meetingNode; node != sourceNode; ) {
+      int edge = forwardParentEdges[node];
+      hierarchyEdges.add(edge);
+      node = hierarchy.edgeSource(edge);
+    }
+    int forwardCount = hierarchyEdges.size();
+    for (int i = 0, j = forwardCount - 1; i < j; i++, j--) {
+      int swap = hierarchyEdges.get(i);
+      hierarchyEdges.set(i, hierarchyEdges.get(j));
+      hierarchyEdges.set(j, swap);
+    }
+    for (int node = meetingNode; node != targetNode; ) {
+      int edge = backwardParentEdges[node];
+      hierarchyEdges.add(edge);
+      node = hierarchy.edgeTarget(edge);
+    }
+
+    graphEdges.clear();
+    for (int i = 0; i < hierarchyEdges.size(); i++) {
+      hierarchy.unpack(hierarchyEdges.get(i), graphEdges, unpackStack);
+    }
+
+    int[] edges = graphEdges.toArray();
+    int[] nodes = new int[edges.length + 1];
+    nodes[0] = sourceNode;
+    double length = 0d;
+    for (int i = 0; i < edges.length; i++) {
+      nodes[i + 1] = graph.getEdgeTarget(edges[i]);
+      length += graph.getEdgeLength(edges[i]);
+    }
+    return new Route(graph, nodes, edges, cost, length, settledCount);
+  }
+
+}
@@ -0,0 +1,43 @@
+package me.callsen.taylor.scenicrouting.javasdk.routing;
+
+/**
+ * Cost of traversing an edge of a RoutingGraph - typically combines the edge length with 
+ *  associatedData attributes (read with RoutingGraph.getEdgeAttribute and a schema slot). Return
+ *  Double.POSITIVE_INFINITY to forbid an edge. Costs must be non-negative.
+ */
+@FunctionalInterface
+public interface EdgeCostFunction {
+
+  // plain distance in meters
+  EdgeCostFunction LENGTH = new EdgeCostFunction() {
+    @Override
+    public double cost(RoutingGraph graph, int edge) {
+      return graph.getEdgeLength(edge);
+    }
+
+    @Override
+    public double getMinCostPerMeter() {
+      return 1d;
+    }
+
+    @Override
+    public boolean isStatic() {
+      return true;
+    }
+  };
+
+  double cost(RoutingGraph graph, int edge);
+
+  // lower bound of cost per meter of edge length - scales the A* haversine heuristic, together with
+  //  RoutingGraph.getMinLengthRatio(). The default of 0 keeps A* correct for any cost function (it then
+  //  behaves like Dijkstra)
+  default double getMinCostPerMeter() {
+    return 0d;
+  }
+
+  // true if costs never change for a given graph - allows preprocessing (e.g. contraction hierarchies)
+  default boolean isStatic() {
+    return false;
+  }
+
+}
@@ -0,0 +1,168 @@
+package me.callsen.taylor.scenicrouting.javasdk.routing;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Result of a bounded search (ShortestPathEngine.isochrone) - every node reachable from the source
+ *  within a cost budget, in order of increasing cost, and an outline polygon around them. With a cost
+ *  function returning seconds the budget is a travel time, with a scenic cost function it is a scenic
+ *  budget. The outline is the convex hull of the reachable node coordinates (at ~1cm precision),
+ *  suited to map overlays rather than exact coverage.
+ */
+public class Isochrone {
+
+  // fixed point scale of outline coordinates - 1e-7 degrees
+  private static final double COORDINATE_SCALE = 1e7d;
+
+  private final RoutingGraph graph;
+  private final int sourceNode;
+  private final double maxCost;
+  private final int[] nodes;
+  private final double[] costs;
+  private final BitSet reachable;
+  private final double[] outlineLatitudes;
+  private final double[] outlineLongitudes;
+
+  Isochrone(RoutingGraph graph, int sourceNode, double maxCost, int[] nodes, double[] costs) {
+    this.graph = graph;
+    this.sourceNode = sourceNode;
+    this.maxCost = maxCost;
+    this.nodes = nodes;
+    this.costs = costs;
+    this.reachable = new BitSet(graph.getNodeCount());
+    for (int node : nodes) {
+      reachable.set(node);
+    }
+
+    long[] hull = convexHull(graph, nodes);
+    this.outlineLatitudes = new double[hull.length];
+    this.outlineLongitudes = new double[hull.length];
+    for (int i = 0; i < hull.length; i++) {
+      outlineLongitudes[i] = (hull[i] >>> 31) / COORDINATE_SCALE - 180d;
+      outlineLatitudes[i] = (hull[i] & 0x7fffffffL) / COORDINATE_SCALE - 90d;
+    }
+  }
+
+  public RoutingGraph getGraph() {
+    return graph;
+  }
+
+  public int getSourceNode() {
+    return sourceNode;
+  }
+
+  public double getMaxCost() {
+    return maxCost;
+  }
+
+  // number of reachable nodes, the source included
+  public int getNodeCount() {
+    return nodes.length;
+  }
+
+  // reachable node indexes in order of increasing cost
+  public int[] getNodes() {
+    return nodes;
+  }
+
+  // cost to getNodes()[i]
+  public double getCost(int i) {
+    return costs[i];
+  }
+
+  public boolean isReachable(int node) {
+    return node >= 0 && reachable.get(node);
+  }
+
+  public long[] getNodeOsmIds() {
+    long[] osmIds = new long[nodes.length];
+    for (int i = 0; i < nodes.length; i++) {
+      osmIds[i] = graph.getNodeOsmId(nodes[i]);
+    }
+    return osmIds;
+  }
+
+  // outline vertices counter-clockwise, not closed - fewer than 3 when the reachable nodes do not span an area
+  public double[] getOutlineLatitudes() {
+    return outlineLatitudes;
+  }
+
+  public double[] getOutlineLongitudes() {
+    return outlineLongitudes;
+  }
+
+  // outline as a closed WKT polygon - "POLYGON((lon lat, ..))", or "POLYGON EMPTY" without an area
+  public String getOutlineWkt() {
+    if (outlineLatitudes.length < 3) {
+      return "POLYGON EMPTY";
+    }
+    StringBuilder wkt = new StringBuilder("POLYGON((");
+    for (int i = 0; i <= outlineLatitudes.length; i++) {
+      int vertex = i % outlineLatitudes.length;
+      if (i > 0) {
+        wkt.append(", ");
+      }
+      wkt.append(outlineLongitudes[vertex]).append(' ').append(outlineLatitudes[vertex]);
+    }
+    return wkt.append("))").toString();
+  }
+
+  // Andrew's monotone chain over node coordinates packed into sortable longs - longitude (32 bits)
+  //  above latitude (31 bits), both as fixed point offsets from -180 / -90
+  private static long[] convexHull(RoutingGraph graph, int[] nodes) {
+    long[] points = new long[nodes.length];
+    int pointCount = 0;
+    for (int node : nodes) {
+      double latitude = graph.getNodeLatitude(node);
+      double longitude = graph.getNodeLongitude(node);
+      if (Double.isNaN(latitude) || Double.isNaN(longitude)) {
+        continue;
+      }
+      long x = Math.round((longitude + 180d) * COORDINATE_SCALE);
+      long y = Math.round((latitude + 90d) * COORDINATE_SCALE);
+      points[pointCount++] = (x << 31) | y;
+    }
+    Arrays.sort(points, 0, pointCount);
+
+    // drop duplicates
+    int unique = 0;
+    for (int i = 0; i < pointCount; i++) {
+      if (unique == 0 || points[i] != points[unique - 1]) {
+        points[unique++] = points[i];
+      }
+    }
+    if (unique < 3) {
+      return Arrays.copyOf(points, unique);
+    }
+
+    long[] hull = new long[2 * unique];
+    int size = 0;
+    // lower hull
+    for (int i = 0; i < unique; i++) {
+      while (size >= 2 && cross(hull[size - 2], hull[size - 1], points[i]) <= 0) {
+        size--;
+      }
+      hull[size++] = points[i];
+    }
+    // upper hull
+    int lowerSize = size + 1;
+    for (int i = unique - 2; i >= 0; i--) {
+      while (size >= lowerSize && cross(hull[size - 2], hull[size - 1], points[i]) <= 0) {
+        size--;
+      }
+      hull[size++] = points[i];
+    }
+    // the last point repeats the first
+    return Arrays.copyOf(hull, size - 1);
+  }
+
+  // z of (a - o) x (b - o) - positive for a counter-clockwise turn
+  private static double cross(long o, long a, long b) {
+    double ox = o >>> 31, oy = o & 0x7fffffffL;
+    double ax = a >>> 31, ay = a & 0x7fffffffL;
+    double bx = b >>> 31, by = b & 0x7fffffffL;
+    return (ax - ox) * (by - oy) - (ay - oy) * (bx - ox);
+  }
+
+}
@@ -0,0 +1,64 @@
+package me.callsen.taylor.scenicrouting.javasdk.routing;
+
+/**
+ * Result of a route search - the visited node and edge indexes of a RoutingGraph in travel order, 
+ *  plus the total cost and length.
+ */
+public class Route {
+
+  private final RoutingGraph graph;
+  private final int[] nodes;
+  private final int[] edges;
+  private final double cost;
+  private final double length;
+  private final int settledNodes;
+
+  Route(RoutingGraph graph, int[] nodes, int[] edges, double cost, double length, int settledNodes) {
+    this.graph = graph;
+    this.nodes = nodes;
+    this.edges = edges;
+    this.cost = cost;
+    this.length = length;
+    this.settledNodes = settledNodes;
+  }
+
+  public int[] getNodes() {
+    return nodes;
+  }
+
+  public int[] getEdges() {
+    return edges;
+  }
+
+  public double getCost() {
+    return cost;
+  }
+
+  // total length in meters
+  public double getLength() {
+    return length;
+  }
+
+  // number of nodes the search settled - a measure of search effort
+  public int getSettledNodes() {
+    return settledNodes;
+  }
+
+  public long[] getNodeOsmIds() {
+    long[] osmIds = new long[nodes.length];
+    for (int i = 0; i < nodes.length; i++) {
+      osmIds[i] = graph.getNodeOsmId(nodes[i]);
+    }
+    return osmIds;
+  }
+
+  // CONNECTS relationship ids, usable with Transaction.getRelationshipById
+  public long[] getRelationshipIds() {
+    long[] relationshipIds = new long[edges.length];
+    for (int i = 0; i < edges.length; i++) {
+      relationshipIds[i] = graph.getEdgeRelationshipId(edges[i]);
+    }
+    return relationshipIds;
+  }
+
+}
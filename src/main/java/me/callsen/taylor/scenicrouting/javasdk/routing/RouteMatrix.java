@@ -0,0 +1,181 @@
+package me.callsen.taylor.scenicrouting.javasdk.routing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import me.callsen.taylor.scenicrouting.javasdk.util.StructuredLogger;
+
+/**
+ * Origin / destination cost matrix over a RoutingGraph. Each source runs one Dijkstra search that
+ *  stops once every target is settled (ShortestPathEngine.oneToMany), so an N x M matrix costs N
+ *  searches rather than N x M. Sources are spread over a fixed thread pool, one engine per thread,
+ *  all sharing the read-only graph. Costs and lengths are held row major in primitive arrays -
+ *  Double.POSITIVE_INFINITY where a target is unreachable.
+ */
+public class RouteMatrix {
+
+  private static final StructuredLogger LOGGER = StructuredLogger.getLogger(RouteMatrix.class);
+
+  private final RoutingGraph graph;
+  private final int[] sources;
+  private final int[] targets;
+  private final double[] costs;
+  private final double[] lengths;
+  private final long settledNodes;
+
+  private RouteMatrix(RoutingGraph graph, int[] sources, int[] targets, double[] costs, double[] lengths, long settledNodes) {
+    this.graph = graph;
+    this.sources = sources;
+    this.targets = targets;
+    this.costs = costs;
+    this.lengths = lengths;
+    this.settledNodes = settledNodes;
+  }
+
+  public static RouteMatrix compute(RoutingGraph graph, int[] sources, int[] targets, EdgeCostFunction costFunction) {
+    return compute(graph, sources, targets, costFunction, Runtime.getRuntime().availableProcessors());
+  }
+
+  public static RouteMatrix compute(RoutingGraph graph, int[] sources, int[] targets, EdgeCostFunction costFunction, int parallelism) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("parallelism must be positive");
+    }
+    for (int node : sources) {
+      checkNode(graph, node);
+    }
+    for (int node : targets) {
+      checkNode(graph, node);
+    }
+    if ((long) sources.length * targets.length > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("route matrix too large: " + sources.length + " x " + targets.length);
+    }
+    long startMillis = System.currentTimeMillis();
+
+    int[] sourceNodes = sources.clone();
+    int[] targetNodes = targets.clone();
+    double[] costs = new double[sourceNodes.length * targetNodes.length];
+    double[] lengths = new double[costs.length];
+    AtomicInteger nextSource = new AtomicInteger();
+    AtomicLong settledNodes = new AtomicLong();
+
+    // workers pull the next source row until all rows are done, so uneven searches balance out
+    Runnable worker = () -> {
+      ShortestPathEngine engine = new ShortestPathEngine(graph);
+      int row;
+      while ((row = nextSource.getAndIncrement()) < sourceNodes.length) {
+        settledNodes.addAndGet(engine.oneToMany(sourceNodes[row], targetNodes, costFunction, costs, lengths, row * targetNodes.length));
+      }
+    };
+
+    int threads = Math.min(parallelism, sourceNodes.length);
+    if (threads <= 1) {
+      worker.run();
+    } else {
+      ExecutorService executor = Executors.newFixedThreadPool(threads);
+      try {
+        List<Future<?>> futures = new ArrayList<Future<?>>(threads);
+        for (int thread = 0; thread < threads; thread++) {
+          futures.add(executor.submit(worker));
+        }
+        try {
+          for (Future<?> future : futures) {
+            future.get();
+          }
+        } catch (InterruptedException e) {
+          futures.forEach(future -> future.cancel(true));
+          Thread.currentThread().interrupt();
+          throw new IllegalStateException("route matrix interrupted", e);
+        } catch (ExecutionException e) {
+          futures.forEach(future -> future.cancel(true));
+          throw new IllegalStateException("route matrix failed", e.getCause());
+        }
+      } finally {
+        executor.shutdown();
+      }
+    }
+
+    LOGGER.info("routing.matrix.computed", "sources", sourceNodes.length, "targets", targetNodes.length, "threads", Math.max(1, threads),
+        "settled", settledNodes.get(), "millis", System.currentTimeMillis() - startMillis);
+    return new RouteMatrix(graph, sourceNodes, targetNodes, costs, lengths, settledNodes.get());
+  }
+
+  public static RouteMatrix computeByOsmId(RoutingGraph graph, long[] sourceOsmIds, long[] targetOsmIds, EdgeCostFunction costFunction) {
+    return computeByOsmId(graph, sourceOsmIds, targetOsmIds, costFunction, Runtime.getRuntime().availableProcessors());
+  }
+
+  public static RouteMatrix computeByOsmId(RoutingGraph graph, long[] sourceOsmIds, long[] targetOsmIds, EdgeCostFunction costFunction, int parallelism) {
+    return compute(graph, requireNodes(graph, sourceOsmIds), requireNodes(graph, targetOsmIds), costFunction, parallelism);
+  }
+
+  public RoutingGraph getGraph() {
+    return graph;
+  }
+
+  public int getSourceCount() {
+    return sources.length;
+  }
+
+  public int getTargetCount() {
+    return targets.length;
+  }
+
+  // node index of a matrix row
+  public int getSource(int row) {
+    return sources[row];
+  }
+
+  // node index of a matrix column
+  public int getTarget(int column) {
+    return targets[column];
+  }
+
+  // Double.POSITIVE_INFINITY if the target is not reachable from the source
+  public double getCost(int row, int column) {
+    return costs[index(row, column)];
+  }
+
+  // length in meters of the cheapest route - Double.POSITIVE_INFINITY if unreachable
+  public double getLength(int row, int column) {
+    return lengths[index(row, column)];
+  }
+
+  public boolean isReachable(int row, int column) {
+    return costs[index(row, column)] < Double.POSITIVE_INFINITY;
+  }
+
+  // total nodes settled by all searches - a measure of search effort
+  public long getSettledNodes() {
+    return settledNodes;
+  }
+
+  private int index(int row, int column) {
+    if (row < 0 || row >= sources.length || column < 0 || column >= targets.length) {
+      throw new IndexOutOfBoundsException("route matrix cell out of range: " + row + "," + column);
+    }
+    return row * targets.length + column;
+  }
+
+  private static void checkNode(RoutingGraph graph, int node) {
+    if (node < 0 || node >= graph.getNodeCount()) {
+      throw new IllegalArgumentException("node index out of range: " + node);
+    }
+  }
+
+  private static int[] requireNodes(RoutingGraph graph, long[] osmIds) {
+    int[] nodes = new int[osmIds.length];
+    for (int i = 0; i < osmIds.length; i++) {
+      nodes[i] = graph.getNodeIndex(osmIds[i]);
+      if (nodes[i] < 0) {
+        throw new IllegalArgumentException("no intersection with osm_id " + osmIds[i] + " in routing graph");
+      }
+    }
+    return nodes;
+  }
+
+}
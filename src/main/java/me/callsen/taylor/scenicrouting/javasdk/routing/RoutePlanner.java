@@ -0,0 +1,53 @@
+package me.callsen.taylor.scenicrouting.javasdk.routing;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Routes over a RoutingGraph, answering from a contraction hierarchy when one has been registered 
+ *  for the (static) cost function and falling back to A* otherwise - e.g. for dynamic profiles 
+ *  whose costs change between queries. Not thread safe - create one planner per thread.
+ */
+public class RoutePlanner {
+
+  private final RoutingGraph graph;
+  private final ShortestPathEngine engine;
+  private final Map<EdgeCostFunction, ContractionHierarchyQuery> hierarchyQueries = new IdentityHashMap<EdgeCostFunction, ContractionHierarchyQuery>();
+
+  public RoutePlanner(RoutingGraph graph) {
+    this.graph = graph;
+    this.engine = new ShortestPathEngine(graph);
+  }
+
+  // register a hierarchy preprocessed with the given cost function - only used while costFunction.isStatic()
+  public void addContractionHierarchy(EdgeCostFunction costFunction, ContractionHierarchy hierarchy) {
+    hierarchyQueries.put(costFunction, hierarchy.createQuery(graph));
+  }
+
+  public boolean hasContractionHierarchy(EdgeCostFunction costFunction) {
+    return costFunction.isStatic() && hierarchyQueries.containsKey(costFunction);
+  }
+
+  // returns null if the target is not reachable from the source
+  public Route route(int sourceNode, int targetNode, EdgeCostFunction costFunction) {
+    ContractionHierarchyQuery hierarchyQuery = costFunction.isStatic() ? hierarchyQueries.get(costFunction) : null;
+    if (hierarchyQuery != null) {
+      return hierarchyQuery.route(sourceNode, targetNode);
+    }
+    return engine.aStar(sourceNode, targetNode, costFunction);
+  }
+
+  public Route routeByOsmId(long sourceOsmId, long targetOsmId, EdgeCostFunction costFunction) {
+    int sourceNode = graph.getNodeIndex(sourceOsmId);
+    int targetNode = graph.getNodeIndex(targetOsmId);
+    if (sourceNode < 0 || targetNode < 0) {
+      throw new IllegalArgumentException("no intersection with osm_id " + (sourceNode < 0 ? sourceOsmId : targetOsmId) + " in routing graph");
+    }
+    return route(sourceNode, targetNode, costFunction);
+  }
+
+  public RoutingGraph getGraph() {
+    return graph;
+  }
+
+}
@@ -0,0 +1,489 @@
+package me.callsen.taylor.scenicrouting.javasdk.routing;
+
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.ResourceIterator;
+import org.neo4j.graphdb.Transaction;
+
+import me.callsen.taylor.scenicrouting.javasdk.RoutingConstants;
+import me.callsen.taylor.scenicrouting.javasdk.RoutingConstants.NodeLabels;
+import me.callsen.taylor.scenicrouting.javasdk.RoutingConstants.RelationshipTypes;
+import me.callsen.taylor.scenicrouting.javasdk.data.AssociatedDataSchema;
+import me.callsen.taylor.scenicrouting.javasdk.data.AssociatedDataView;
+import me.callsen.taylor.scenicrouting.javasdk.data.GraphDb;
+import me.callsen.taylor.scenicrouting.javasdk.spatial.BoundingBox;
+import me.callsen.taylor.scenicrouting.javasdk.util.GeoUtils;
+import me.callsen.taylor.scenicrouting.javasdk.util.LongIntHashMap;
+import me.callsen.taylor.scenicrouting.javasdk.util.StructuredLogger;
+
+/**
+ * Read-only, compressed sparse row (CSR) snapshot of the INTERSECTION / CONNECTS routing graph, held 
+ *  entirely in primitive buffers so it can be queried without transactions or object churn. Buffers
+ *  are heap backed when built from a GraphDb, or memory mapped when opened from a snapshot file (see
+ *  RoutingGraphFile).
+ *
+ *  Nodes are addressed by dense index [0, nodeCount), edges by dense index [0, edgeCount). The 
+ *  outgoing edges of node n are [getFirstEdge(n), getFirstEdge(n + 1)). Each CONNECTS relationship
+ *  produces a forward edge (start -> end) and a reverse edge (end -> start), unless its oneway 
+ *  property restricts travel to a single direction (OSM semantics - yes/true/1 forward only, -1 
+ *  reverse only). Selected associatedData fields (registered in an AssociatedDataSchema) are copied
+ *  into double columns indexed by schema slot.
+ *
+ *  A snapshot may be limited to a bounding box - it then holds the INTERSECTION nodes inside the box
+ *  and only the CONNECTS relationships with both end points inside, so a process serving one region
+ *  keeps a correspondingly small graph in memory.
+ */
+public class RoutingGraph {
+
+  private static final StructuredLogger LOGGER = StructuredLogger.getLogger(RoutingGraph.class);
+
+  private final AssociatedDataSchema schema;
+  private final long createdAtMillis;
+  // null when the snapshot covers the whole graph
+  private final BoundingBox boundingBox;
+
+  // nodes
+  private final int nodeCount;
+  private final LongBuffer nodeIds;
+  private final LongBuffer nodeOsmIds;
+  private final DoubleBuffer nodeLatitudes;
+  private final DoubleBuffer nodeLongitudes;
+  // node indexes sorted by osm_id - binary searched for osm_id lookups
+  private final IntBuffer nodesByOsmId;
+
+  // edges (CSR, grouped by source node)
+  private final int edgeCount;
+  private final IntBuffer firstEdge;
+  private final IntBuffer edgeSources;
+  private final IntBuffer edgeTargets;
+  private final DoubleBuffer edgeLengths;
+  private final LongBuffer edgeRelationshipIds;
+  private final LongBuffer edgeOsmIds;
+  private final ByteBuffer edgeReversed;
+  private final DoubleBuffer[] edgeAttributes;
+  // NaN until getMinLengthRatio() first runs
+  private volatile double minLengthRatio = Double.NaN;
+
+  RoutingGraph(AssociatedDataSchema schema, long createdAtMillis, BoundingBox boundingBox, LongBuffer nodeIds, LongBuffer nodeOsmIds, DoubleBuffer nodeLatitudes, 
+      DoubleBuffer nodeLongitudes, IntBuffer nodesByOsmId, IntBuffer firstEdge, IntBuffer edgeSources, IntBuffer edgeTargets, 
+      DoubleBuffer edgeLengths, LongBuffer edgeRelationshipIds, LongBuffer edgeOsmIds, ByteBuffer edgeReversed, DoubleBuffer[] edgeAttributes) {
+    this.schema = schema;
+    this.createdAtMillis = createdAtMillis;
+    this.boundingBox = boundingBox;
+    this.nodeCount = nodeIds.limit();
+    this.nodeIds = nodeIds;
+    this.nodeOsmIds = nodeOsmIds;
+    this.nodeLatitudes = nodeLatitudes;
+    this.nodeLongitudes = nodeLongitudes;
+    this.nodesByOsmId = nodesByOsmId;
+    this.edgeCount = edgeTargets.limit();
+    this.firstEdge = firstEdge;
+    this.edgeSources = edgeSources;
+    this.edgeTargets = edgeTargets;
+    this.edgeLengths = edgeLengths;
+    this.edgeRelationshipIds = edgeRelationshipIds;
+    this.edgeOsmIds = edgeOsmIds;
+    this.edgeReversed = edgeReversed;
+    this.edgeAttributes = edgeAttributes;
+  }
+
+  public static RoutingGraph build(GraphDb graphDb) {
+    return build(graphDb, new AssociatedDataSchema());
+  }
+
+  public static RoutingGraph build(GraphDb graphDb, AssociatedDataSchema schema) {
+    long startMillis = System.currentTimeMillis();
+    Builder builder = new Builder(schema, null);
+
+    try ( Transaction tx = graphDb.getTransaction() ) {
+      ResourceIterator<Node> nodes = tx.findNodes(NodeLabels.INTERSECTION);
+      try {
+        while (nodes.hasNext()) {
+          builder.addNode(nodes.next());
+        }
+      } finally {
+        nodes.close();
+      }
+
+      AssociatedDataView view = new AssociatedDataView(schema);
+      ResourceIterator<Relationship> relationships = tx.getAllRelationships().iterator();
+      try {
+        while (relationships.hasNext()) {
+          Relationship relationship = relationships.next();
+          if (relationship.isType(RelationshipTypes.CONNECTS)) {
+            builder.addRelationship(relationship, view);
+          }
+        }
+      } finally {
+        relationships.close();
+      }
+    }
+
+    RoutingGraph routingGraph = builder.toRoutingGraph(startMillis);
+    LOGGER.info("routing.snapshot.built", "nodes", routingGraph.getNodeCount(), "edges", routingGraph.getEdgeCount(),
+        "millis", System.currentTimeMillis() - startMillis);
+    return routingGraph;
+  }
+
+  // region snapshot - nodes are found through the INTERSECTION geom point index and relationships by
+  //  expanding them, so the cost is proportional to the region rather than the store
+  public static RoutingGraph build(GraphDb graphDb, AssociatedDataSchema schema, BoundingBox boundingBox) {
+    if (boundingBox == null) {
+      return build(graphDb, schema);
+    }
+    long startMillis = System.currentTimeMillis();
+    Builder builder = new Builder(schema, boundingBox);
+
+    try ( Transaction tx = graphDb.getTransaction() ) {
+      List<Node> nodes = graphDb.getIntersectionsInBoundingBox(tx, boundingBox);
+      for (Node node : nodes) {
+        builder.addNode(node);
+      }
+
+      // outgoing only, so each relationship is added once - those leaving the box are skipped by the builder
+      AssociatedDataView view = new AssociatedDataView(schema);
+      for (Node node : nodes) {
+        for (Relationship relationship : node.getRelationships(Direction.OUTGOING, RelationshipTypes.CONNECTS)) {
+          builder.addRelationship(relationship, view);
+        }
+      }
+    }
+
+    RoutingGraph routingGraph = builder.toRoutingGraph(startMillis);
+    LOGGER.info("routing.snapshot.built", "nodes", routingGraph.getNodeCount(), "edges", routingGraph.getEdgeCount(),
+        "boundingBox", boundingBox, "millis", System.currentTimeMillis() - startMillis);
+    return routingGraph;
+  }
+
+  // rebuild the snapshot from the current store contents, keeping the same associatedData schema and region
+  public RoutingGraph refresh(GraphDb graphDb) {
+    return build(graphDb, schema, boundingBox);
+  }
+
+  public AssociatedDataSchema getSchema() {
+    return schema;
+  }
+
+  public long getCreatedAtMillis() {
+    return createdAtMillis;
+  }
+
+  // region the snapshot was limited to - null for a whole graph snapshot
+  public BoundingBox getBoundingBox() {
+    return boundingBox;
+  }
+
+  public int getNodeCount() {
+    return nodeCount;
+  }
+
+  public int getEdgeCount() {
+    return edgeCount;
+  }
+
+  // node index for an INTERSECTION osm_id - -1 if not in the snapshot
+  public int getNodeIndex(long osmId) {
+    int low = 0;
+    int high = nodeCount - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      int node = nodesByOsmId.get(mid);
+      long midOsmId = nodeOsmIds.get(node);
+      if (midOsmId < osmId) {
+        low = mid + 1;
+      } else if (midOsmId > osmId) {
+        high = mid - 1;
+      } else {
+        return node;
+      }
+    }
+    return -1;
+  }
+
+  public long getNodeId(int node) {
+    return nodeIds.get(node);
+  }
+
+  public long getNodeOsmId(int node) {
+    return nodeOsmIds.get(node);
+  }
+
+  public double getNodeLatitude(int node) {
+    return nodeLatitudes.get(node);
+  }
+
+  public double getNodeLongitude(int node) {
+    return nodeLongitudes.get(node);
+  }
+
+  // first outgoing edge of a node - getFirstEdge(node + 1) is the exclusive end
+  public int getFirstEdge(int node) {
+    return firstEdge.get(node);
+  }
+
+  public int getOutDegree(int node) {
+    return firstEdge.get(node + 1) - firstEdge.get(node);
+  }
+
+  public int getEdgeSource(int edge) {
+    return edgeSources.get(edge);
+  }
+
+  public int getEdgeTarget(int edge) {
+    return edgeTargets.get(edge);
+  }
+
+  // edge length in meters
+  public double getEdgeLength(int edge) {
+    return edgeLengths.get(edge);
+  }
+
+  // smallest edge length per meter of straight line between the edge endpoints, at most 1. Stored
+  //  lengths can be rounded or measured below the great circle distance, so A* scales its haversine
+  //  heuristic by this to stay admissible. Edges without coordinates are ignored; computed on first use
+  public double getMinLengthRatio() {
+    double ratio = minLengthRatio;
+    if (Double.isNaN(ratio)) {
+      ratio = 1d;
+      for (int edge = 0; edge < edgeCount; edge++) {
+        int source = edgeSources.get(edge);
+        int target = edgeTargets.get(edge);
+        double straightLine = GeoUtils.haversine(nodeLatitudes.get(source), nodeLongitudes.get(source), 
+            nodeLatitudes.get(target), nodeLongitudes.get(target));
+        double length = edgeLengths.get(edge);
+        if (straightLine > 0d && length < straightLine * ratio) {
+          ratio = Math.max(0d, length / straightLine);
+        }
+      }
+      minLengthRatio = ratio;
+    }
+    return ratio;
+  }
+
+  public long getEdgeRelationshipId(int edge) {
+    return edgeRelationshipIds.get(edge);
+  }
+
+  public long getEdgeOsmId(int edge) {
+    return edgeOsmIds.get(edge);
+  }
+
+  // true if the edge travels against the direction of its CONNECTS relationship
+  public boolean isEdgeReversed(int edge) {
+    return edgeReversed.get(edge) != 0;
+  }
+
+  // associatedData value copied from the relationship for the given schema slot - NaN if not present
+  public double getEdgeAttribute(int slot, int edge) {
+    return edgeAttributes[slot].get(edge);
+  }
+
+  // package-private raw access for the snapshot file writer
+  LongBuffer nodeIdBuffer() { return nodeIds.duplicate(); }
+  LongBuffer nodeOsmIdBuffer() { return nodeOsmIds.duplicate(); }
+  DoubleBuffer nodeLatitudeBuffer() { return nodeLatitudes.duplicate(); }
+  DoubleBuffer nodeLongitudeBuffer() { return nodeLongitudes.duplicate(); }
+  IntBuffer nodesByOsmIdBuffer() { return nodesByOsmId.duplicate(); }
+  IntBuffer firstEdgeBuffer() { return firstEdge.duplicate(); }
+  IntBuffer edgeSourceBuffer() { return edgeSources.duplicate(); }
+  IntBuffer edgeTargetBuffer() { return edgeTargets.duplicate(); }
+  DoubleBuffer edgeLengthBuffer() { return edgeLengths.duplicate(); }
+  LongBuffer edgeRelationshipIdBuffer() { return edgeRelationshipIds.duplicate(); }
+  LongBuffer edgeOsmIdBuffer() { return edgeOsmIds.duplicate(); }
+  ByteBuffer edgeReversedBuffer() { return edgeReversed.duplicate(); }
+  DoubleBuffer edgeAttributeBuffer(int slot) { return edgeAttributes[slot].duplicate(); }
+
+  static long toLong(Object value, long defaultValue) {
+    if (value instanceof Number) {
+      return ((Number) value).longValue();
+    }
+    if (value instanceof String) {
+      try {
+        return Long.parseLong((String) value);
+      } catch (NumberFormatException e) {
+        return defaultValue;
+      }
+    }
+    return defaultValue;
+  }
+
+  /**
+   * Accumulates nodes and edges in growable primitive arrays, then sorts edges into CSR order.
+   */
+  private static class Builder {
+
+    private final AssociatedDataSchema schema;
+    private final BoundingBox boundingBox;
+    private final int slotCount;
+    private final LongIntHashMap nodeIndexById = new LongIntHashMap(1 << 16);
+
+    private int nodeCount = 0;
+    private long[] nodeIds = new long[1024];
+    private long[] nodeOsmIds = new long[1024];
+    private double[] nodeLatitudes = new double[1024];
+    private double[] nodeLongitudes = new double[1024];
+
+    private int edgeCount = 0;
+    private int[] edgeSources = new int[1024];
+    private int[] edgeTargets = new int[1024];
+    private double[] edgeLengths = new double[1024];
+    private long[] edgeRelationshipIds = new long[1024];
+    private long[] edgeOsmIds = new long[1024];
+    private boolean[] edgeReversed = new boolean[1024];
+    private double[][] edgeAttributes;
+
+    Builder(AssociatedDataSchema schema, BoundingBox boundingBox) {
+      this.schema = schema;
+      this.boundingBox = boundingBox;
+      this.slotCount = schema.getSlotCount();
+      this.edgeAttributes = new double[slotCount][1024];
+    }
+
+    void addNode(Node node) {
+      if (nodeCount == nodeIds.length) {
+        int capacity = nodeCount << 1;
+        nodeIds = Arrays.copyOf(nodeIds, capacity);
+        nodeOsmIds = Arrays.copyOf(nodeOsmIds, capacity);
+        nodeLatitudes = Arrays.copyOf(nodeLatitudes, capacity);
+        nodeLongitudes = Arrays.copyOf(nodeLongitudes, capacity);
+      }
+      Object geom = node.getProperty(RoutingConstants.GRAPH_PROPERTY_NAME_GEOM, null);
+      nodeIds[nodeCount] = node.getId();
+      nodeOsmIds[nodeCount] = toLong(node.getProperty(RoutingConstants.GRAPH_PROPERTY_NAME_OSM_ID, null), -1);
+      nodeLatitudes[nodeCount] = GeoUtils.latitude(geom);
+      nodeLongitudes[nodeCount] = GeoUtils.longitude(geom);
+      nodeIndexById.put(node.getId(), nodeCount);
+      nodeCount++;
+    }
+
+    void addRelationship(Relationship relationship, AssociatedDataView view) {
+      int start = nodeIndexById.get(relationship.getStartNode().getId());
+      int end = nodeIndexById.get(relationship.getEndNode().getId());
+      if (start < 0 || end < 0) {
+        // endpoint is not an INTERSECTION node
+        return;
+      }
+
+      Object lengthValue = relationship.getProperty(RoutingConstants.GRAPH_PROPERTY_NAME_LENGTH, null);
+      double length = lengthValue instanceof Number ? ((Number) lengthValue).doubleValue() 
+          : GeoUtils.haversine(nodeLatitudes[start], nodeLongitudes[start], nodeLatitudes[end], nodeLongitudes[end]);
+      long osmId = toLong(relationship.getProperty(RoutingConstants.GRAPH_PROPERTY_NAME_OSM_ID, null), -1);
+
+      if (slotCount > 0) {
+        view.load(relationship);
+      }
+
+      String oneway = String.valueOf(relationship.getProperty(RoutingConstants.GRAPH_PROPERTY_NAME_ONEWAY, "no")).toLowerCase();
+      boolean forward = !oneway.equals("-1") && !oneway.equals("reverse");
+      boolean reverse = !oneway.equals("yes") && !oneway.equals("true") && !oneway.equals("1");
+
+      if (forward) {
+        addEdge(start, end, length, relationship.getId(), osmId, false, view);
+      }
+      if (reverse) {
+        addEdge(end, start, length, relationship.getId(), osmId, true, view);
+      }
+    }
+
+    private void addEdge(int source, int target, double length, long relationshipId, long osmId, boolean reversed, AssociatedDataView view) {
+      if (edgeCount == edgeTargets.length) {
+        int capacity = edgeCount << 1;
+        edgeSources = Arrays.copyOf(edgeSources, capacity);
+        edgeTargets = Arrays.copyOf(edgeTargets, capacity);
+        edgeLengths = Arrays.copyOf(edgeLengths, capacity);
+        edgeRelationshipIds = Arrays.copyOf(edgeRelationshipIds, capacity);
+        edgeOsmIds = Arrays.copyOf(edgeOsmIds, capacity);
+        edgeReversed = Arrays.copyOf(edgeReversed, capacity);
+        for (int slot = 0; slot < slotCount; slot++) {
+          edgeAttributes[slot] = Arrays.copyOf(edgeAttributes[slot], capacity);
+        }
+      }
+      edgeSources[edgeCount] = source;
+      edgeTargets[edgeCount] = target;
+      edgeLengths[edgeCount] = length;
+      edgeRelationshipIds[edgeCount] = relationshipId;
+      edgeOsmIds[edgeCount] = osmId;
+      edgeReversed[edgeCount] = reversed;
+      for (int slot = 0; slot < slotCount; slot++) {
+        edgeAttributes[slot][edgeCount] = view.getDouble(slot);
+      }
+      edgeCount++;
+    }
+
+    RoutingGraph toRoutingGraph(long createdAtMillis) {
+      // counting sort of edges by source node
+      int[] firstEdge = new int[nodeCount + 1];
+      for (int e = 0; e < edgeCount; e++) {
+        firstEdge[edgeSources[e] + 1]++;
+      }
+      for (int n = 0; n < nodeCount; n++) {
+        firstEdge[n + 1] += firstEdge[n];
+      }
+
+      int[] insertPosition = Arrays.copyOf(firstEdge, nodeCount);
+      int[] sortedSources = new int[edgeCount];
+      int[] sortedTargets = new int[edgeCount];
+      double[] sortedLengths = new double[edgeCount];
+      long[] sortedRelationshipIds = new long[edgeCount];
+      long[] sortedOsmIds = new long[edgeCount];
+      boolean[] sortedReversed = new boolean[edgeCount];
+      double[][] sortedAttributes = new double[slotCount][edgeCount];
+      for (int e = 0; e < edgeCount; e++) {
+        int position = insertPosition[edgeSources[e]]++;
+        sortedSources[position] = edgeSources[e];
+        sortedTargets[position] = edgeTargets[e];
+        sortedLengths[position] = edgeLengths[e];
+        sortedRelationshipIds[position] = edgeRelationshipIds[e];
+        sortedOsmIds[position] = edgeOsmIds[e];
+        sortedReversed[position] = edgeReversed[e];
+        for (int slot = 0; slot < slotCount; slot++) {
+          sortedAttributes[slot][position] = edgeAttributes[slot][e];
+        }
+      }
+
+      // node indexes ordered by osm_id, for binary search lookups
+      long[] finalNodeOsmIds = Arrays.copyOf(nodeOsmIds, nodeCount);
+      int[] nodesByOsmId = sortIndexesByKey(finalNodeOsmIds);
+
+      DoubleBuffer[] attributeBuffers = new DoubleBuffer[slotCount];
+      for (int slot = 0; slot < slotCount; slot++) {
+        attributeBuffers[slot] = DoubleBuffer.wrap(sortedAttributes[slot]);
+      }
+      byte[] reversedBytes = new byte[edgeCount];
+      for (int e = 0; e < edgeCount; e++) {
+        reversedBytes[e] = (byte) (sortedReversed[e] ? 1 : 0);
+      }
+
+      return new RoutingGraph(schema, createdAtMillis, boundingBox, 
+          LongBuffer.wrap(Arrays.copyOf(nodeIds, nodeCount)), LongBuffer.wrap(finalNodeOsmIds), 
+          DoubleBuffer.wrap(Arrays.copyOf(nodeLatitudes, nodeCount)), DoubleBuffer.wrap(Arrays.copyOf(nodeLongitudes, nodeCount)), 
+          IntBuffer.wrap(nodesByOsmId), IntBuffer.wrap(firstEdge), IntBuffer.wrap(sortedSources), IntBuffer.wrap(sortedTargets), 
+          DoubleBuffer.wrap(sortedLengths), LongBuffer.wrap(sortedRelationshipIds), LongBuffer.wrap(sortedOsmIds), 
+          ByteBuffer.wrap(reversedBytes), attributeBuffers);
+    }
+
+    // indexes [0, keys.length) ordered by key - boxed sort, only run once at build time
+    private static int[] sortIndexesByKey(long[] keys) {
+      Integer[] indexes = new Integer[keys.length];
+      for (int i = 0; i < keys.length; i++) {
+        indexes[i] = i;
+      }
+      Arrays.sort(indexes, (a, b) -> Long.compare(keys[a], keys[b]));
+      int[] sorted = new int[keys.length];
+      for (int i = 0; i < keys.length; i++) {
+        sorted[i] = indexes[i];
+      }
+      return sorted;
+    }
+
+  }
+
+}
@@ -0,0 +1,332 @@
+package me.callsen.taylor.scenicrouting.javasdk.routing;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import me.callsen.taylor.scenicrouting.javasdk.data.AssociatedDataSchema;
+import me.callsen.taylor.scenicrouting.javasdk.data.GraphDb;
+import me.callsen.taylor.scenicrouting.javasdk.spatial.BoundingBox;
+import me.callsen.taylor.scenicrouting.javasdk.util.StructuredLogger;
+
+/**
+ * Persistent, versioned on-disk format for RoutingGraph snapshots. Files are opened with
+ *  FileChannel.map, so the graph is query-ready without deserialisation and the mapped pages are
+ *  shared through the OS page cache by every JVM on the host that opens the same file.
+ *
+ *  Layout (little endian): magic (long), version (int), node count (int), edge count (int),
+ *  attribute slot count (int), created at millis (long), bounding box (4 doubles - min latitude, min
+ *  longitude, max latitude, max longitude, all NaN for a whole graph snapshot), then per slot 
+ *  [property name, field name] as (int length, UTF-8 bytes). The header is followed by 8 byte
+ *  aligned sections: node ids, node osm_ids, node latitudes, node longitudes, nodes sorted by
+ *  osm_id, first edge offsets (node count + 1), edge sources, edge targets, edge lengths, edge
+ *  relationship ids, edge osm_ids, edge reversed flags (bytes) and one double column per attribute
+ *  slot. Version 1 files, written before the bounding box was added, are still opened as whole
+ *  graph snapshots.
+ */
+public class RoutingGraphFile {
+
+  private static final StructuredLogger LOGGER = StructuredLogger.getLogger(RoutingGraphFile.class);
+
+  // "SRGRAPH1"
+  public static final long MAGIC = 0x5352475241504831L;
+  public static final int VERSION = 2;
+  private static final int VERSION_WITHOUT_BOUNDING_BOX = 1;
+
+  private static final int ALIGNMENT = 8;
+  private static final int CHUNK_BYTES = 1 << 20;
+  private static final int MAX_HEADER_BYTES = 1 << 20;
+  // fixed part of the header, before the slot names - magic and version are read first
+  private static final int MAGIC_AND_VERSION_BYTES = 12;
+  private static final int FIXED_HEADER_BYTES_WITHOUT_BOUNDING_BOX = 32;
+  private static final int FIXED_HEADER_BYTES = 64;
+
+  private RoutingGraphFile() {}
+
+  // conventional location next to the graph database - <graph.db>/routing/graph.srg
+  public static Path getDefaultFile(GraphDb graphDb) {
+    return Paths.get(graphDb.getGraphDbPath(), "routing", "graph.srg");
+  }
+
+  // file of a geohash tile snapshot in a tile directory - <directory>/<geohash>.srg
+  public static Path getTileFile(Path directory, String geohash) {
+    return directory.resolve(geohash + ".srg");
+  }
+
+  // write atomically - the snapshot is written to a temporary sibling file, then moved into place
+  public static void write(RoutingGraph graph, Path file) throws IOException {
+    long startMillis = System.currentTimeMillis();
+    if (file.getParent() != null) {
+      Files.createDirectories(file.getParent());
+    }
+    Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+
+    try ( FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING) ) {
+      AssociatedDataSchema schema = graph.getSchema();
+      int slotCount = schema.getSlotCount();
+
+      ByteBuffer chunk = ByteBuffer.allocateDirect(CHUNK_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+      chunk.putLong(MAGIC);
+      chunk.putInt(VERSION);
+      chunk.putInt(graph.getNodeCount());
+      chunk.putInt(graph.getEdgeCount());
+      chunk.putInt(slotCount);
+      chunk.putLong(graph.getCreatedAtMillis());
+      BoundingBox boundingBox = graph.getBoundingBox();
+      chunk.putDouble(boundingBox == null ? Double.NaN : boundingBox.getMinLatitude());
+      chunk.putDouble(boundingBox == null ? Double.NaN : boundingBox.getMinLongitude());
+      chunk.putDouble(boundingBox == null ? Double.NaN : boundingBox.getMaxLatitude());
+      chunk.putDouble(boundingBox == null ? Double.NaN : boundingBox.getMaxLongitude());
+      for (int slot = 0; slot < slotCount; slot++) {
+        putString(chunk, schema.getPropertyName(slot));
+        putString(chunk, schema.getFieldName(slot));
+      }
+      while (chunk.position() % ALIGNMENT != 0) {
+        chunk.put((byte) 0);
+      }
+      chunk.flip();
+      writeFully(channel, chunk);
+
+      writeLongs(channel, chunk, graph.nodeIdBuffer());
+      writeLongs(channel, chunk, graph.nodeOsmIdBuffer());
+      writeDoubles(channel, chunk, graph.nodeLatitudeBuffer());
+      writeDoubles(channel, chunk, graph.nodeLongitudeBuffer());
+      writeInts(channel, chunk, graph.nodesByOsmIdBuffer());
+      writeInts(channel, chunk, graph.firstEdgeBuffer());
+      writeInts(channel, chunk, graph.edgeSourceBuffer());
+      writeInts(channel, chunk, graph.edgeTargetBuffer());
+      writeDoubles(channel, chunk, graph.edgeLengthBuffer());
+      writeLongs(channel, chunk, graph.edgeRelationshipIdBuffer());
+      writeLongs(channel, chunk, graph.edgeOsmIdBuffer());
+      writeBytes(channel, chunk, graph.edgeReversedBuffer());
+      for (int slot = 0; slot < slotCount; slot++) {
+        writeDoubles(channel, chunk, graph.edgeAttributeBuffer(slot));
+      }
+
+      channel.force(true);
+    }
+
+    Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    LOGGER.info("routing.snapshot.written", "file", file, "millis", System.currentTimeMillis() - startMillis);
+  }
+
+  public static RoutingGraph open(Path file) throws IOException {
+    try ( FileChannel channel = FileChannel.open(file, StandardOpenOption.READ) ) {
+      long fileSize = channel.size();
+
+      // header is small - read it onto the heap, sections are mapped
+      ByteBuffer header = ByteBuffer.allocate((int) Math.min(fileSize, MAX_HEADER_BYTES)).order(ByteOrder.LITTLE_ENDIAN);
+      while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+        // keep reading until the header buffer is full or the file ends
+      }
+      header.flip();
+
+      if (header.remaining() < MAGIC_AND_VERSION_BYTES || header.getLong() != MAGIC) {
+        throw new IOException("not a routing graph snapshot file: " + file);
+      }
+      int version = header.getInt();
+      if (version != VERSION && version != VERSION_WITHOUT_BOUNDING_BOX) {
+        throw new IOException("unsupported routing graph snapshot version " + version + " (expected " + VERSION + "): " + file);
+      }
+      int fixedHeaderBytes = version == VERSION_WITHOUT_BOUNDING_BOX ? FIXED_HEADER_BYTES_WITHOUT_BOUNDING_BOX : FIXED_HEADER_BYTES;
+      if (header.limit() < fixedHeaderBytes) {
+        throw new IOException("truncated routing graph snapshot file: " + file);
+      }
+      int nodeCount = header.getInt();
+      int edgeCount = header.getInt();
+      int slotCount = header.getInt();
+      long createdAtMillis = header.getLong();
+      BoundingBox boundingBox = null;
+      if (version != VERSION_WITHOUT_BOUNDING_BOX) {
+        double minLatitude = header.getDouble();
+        double minLongitude = header.getDouble();
+        double maxLatitude = header.getDouble();
+        double maxLongitude = header.getDouble();
+        if (!Double.isNaN(minLatitude)) {
+          boundingBox = new BoundingBox(minLatitude, minLongitude, maxLatitude, maxLongitude);
+        }
+      }
+
+      AssociatedDataSchema schema = new AssociatedDataSchema();
+      try {
+        for (int slot = 0; slot < slotCount; slot++) {
+          String propertyName = getString(header);
+          String fieldName = getString(header);
+          schema.register(propertyName, fieldName);
+        }
+      } catch (BufferUnderflowException e) {
+        throw new IOException("truncated routing graph snapshot file: " + file, e);
+      }
+
+      Sections sections = new Sections(channel, align(header.position()));
+      LongBuffer nodeIds = sections.mapLongs(nodeCount);
+      LongBuffer nodeOsmIds = sections.mapLongs(nodeCount);
+      DoubleBuffer nodeLatitudes = sections.mapDoubles(nodeCount);
+      DoubleBuffer nodeLongitudes = sections.mapDoubles(nodeCount);
+      IntBuffer nodesByOsmId = sections.mapInts(nodeCount);
+      IntBuffer firstEdge = sections.mapInts(nodeCount + 1);
+      IntBuffer edgeSources = sections.mapInts(edgeCount);
+      IntBuffer edgeTargets = sections.mapInts(edgeCount);
+      DoubleBuffer edgeLengths = sections.mapDoubles(edgeCount);
+      LongBuffer edgeRelationshipIds = sections.mapLongs(edgeCount);
+      LongBuffer edgeOsmIds = sections.mapLongs(edgeCount);
+      ByteBuffer edgeReversed = sections.mapBytes(edgeCount);
+      DoubleBuffer[] edgeAttributes = new DoubleBuffer[slotCount];
+      for (int slot = 0; slot < slotCount; slot++) {
+        edgeAttributes[slot] = sections.mapDoubles(edgeCount);
+      }
+
+      if (sections.position > fileSize) {
+        throw new IOException("truncated routing graph snapshot file: " + file);
+      }
+
+      LOGGER.info("routing.snapshot.opened", "file", file, "nodes", nodeCount, "edges", edgeCount);
+      return new RoutingGraph(schema, createdAtMillis, boundingBox, nodeIds, nodeOsmIds, nodeLatitudes, nodeLongitudes, nodesByOsmId,
+          firstEdge, edgeSources, edgeTargets, edgeLengths, edgeRelationshipIds, edgeOsmIds, edgeReversed, edgeAttributes);
+    }
+  }
+
+  /**
+   * Maps consecutive, aligned sections of the snapshot file.
+   */
+  private static class Sections {
+
+    private final FileChannel channel;
+    private long position;
+
+    Sections(FileChannel channel, long position) {
+      this.channel = channel;
+      this.position = position;
+    }
+
+    private ByteBuffer map(long bytes) throws IOException {
+      if (bytes > Integer.MAX_VALUE) {
+        throw new IOException("routing graph snapshot section too large to map: " + bytes + " bytes");
+      }
+      ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, bytes).order(ByteOrder.LITTLE_ENDIAN);
+      position = align(position + bytes);
+      return buffer;
+    }
+
+    LongBuffer mapLongs(int count) throws IOException {
+      return map(8L * count).asLongBuffer();
+    }
+
+    DoubleBuffer mapDoubles(int count) throws IOException {
+      return map(8L * count).asDoubleBuffer();
+    }
+
+    IntBuffer mapInts(int count) throws IOException {
+      return map(4L * count).asIntBuffer();
+    }
+
+    ByteBuffer mapBytes(int count) throws IOException {
+      return map(count);
+    }
+
+  }
+
+  private static long align(long position) {
+    return (position + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+  }
+
+  private static void putString(ByteBuffer buffer, String value) {
+    byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+    buffer.putInt(encoded.length);
+    buffer.put(encoded);
+  }
+
+  // a length past the end of the buffer (or negative) underflows like a short read
+  private static String getString(ByteBuffer buffer) {
+    int length = buffer.getInt();
+    if (length < 0 || length > buffer.remaining()) {
+      throw new BufferUnderflowException();
+    }
+    byte[] encoded = new byte[length];
+    buffer.get(encoded);
+    return new String(encoded, StandardCharsets.UTF_8);
+  }
+
+  private static void writeLongs(FileChannel channel, ByteBuffer chunk, LongBuffer source) throws IOException {
+    source.rewind();
+    chunk.clear();
+    while (source.hasRemaining()) {
+      if (chunk.remaining() < 8) {
+        flushChunk(channel, chunk);
+      }
+      chunk.putLong(source.get());
+    }
+    padAndFlushChunk(channel, chunk);
+  }
+
+  private static void writeDoubles(FileChannel channel, ByteBuffer chunk, DoubleBuffer source) throws IOException {
+    source.rewind();
+    chunk.clear();
+    while (source.hasRemaining()) {
+      if (chunk.remaining() < 8) {
+        flushChunk(channel, chunk);
+      }
+      chunk.putDouble(source.get());
+    }
+    padAndFlushChunk(channel, chunk);
+  }
+
+  private static void writeInts(FileChannel channel, ByteBuffer chunk, IntBuffer source) throws IOException {
+    source.rewind();
+    chunk.clear();
+    while (source.hasRemaining()) {
+      if (chunk.remaining() < 4) {
+        flushChunk(channel, chunk);
+      }
+      chunk.putInt(source.get());
+    }
+    padAndFlushChunk(channel, chunk);
+  }
+
+  private static void writeBytes(FileChannel channel, ByteBuffer chunk, ByteBuffer source) throws IOException {
+    source.rewind();
+    chunk.clear();
+    while (source.hasRemaining()) {
+      if (!chunk.hasRemaining()) {
+        flushChunk(channel, chunk);
+      }
+      chunk.put(source.get());
+    }
+    padAndFlushChunk(channel, chunk);
+  }
+
+  private static void flushChunk(FileChannel channel, ByteBuffer chunk) throws IOException {
+    chunk.flip();
+    writeFully(channel, chunk);
+    chunk.clear();
+  }
+
+  // sections end on an 8 byte boundary - chunk writes always start aligned, so pad the chunk itself
+  private static void padAndFlushChunk(FileChannel channel, ByteBuffer chunk) throws IOException {
+    while (chunk.position() % ALIGNMENT != 0) {
+      if (!chunk.hasRemaining()) {
+        flushChunk(channel, chunk);
+      }
+      chunk.put((byte) 0);
+    }
+    flushChunk(channel, chunk);
+  }
+
+  private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+  }
+
+}
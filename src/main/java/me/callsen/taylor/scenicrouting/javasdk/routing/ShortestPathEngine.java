@@ -0,0 +1,293 @@
+package me.callsen.taylor.scenicrouting.javasdk.routing;
+
+import java.util.Arrays;
+
+import me.callsen.taylor.scenicrouting.javasdk.util.GeoUtils;
+import me.callsen.taylor.scenicrouting.javasdk.util.IntArrayList;
+import me.callsen.taylor.scenicrouting.javasdk.util.IntDoubleMinHeap;
+
+/**
+ * Point to point route searches (Dijkstra and A*), one-to-many cost searches and bounded isochrone
+ *  searches over a RoutingGraph snapshot with a pluggable EdgeCostFunction. Search state is held in
+ *  primitive arrays sized to the graph and reused across queries (reset by generation stamps rather
+ *  than clearing), so a query allocates only its result.
+ *  Not thread safe - create one engine per thread, they can share the same RoutingGraph.
+ */
+public class ShortestPathEngine {
+
+  private final RoutingGraph graph;
+
+  private final IntDoubleMinHeap heap;
+  private final double[] costs;
+  // length in meters of the cheapest path found so far - only maintained by one-to-many searches
+  private final double[] lengths;
+  private final int[] parentEdges;
+  private final int[] reachedStamps;
+  private final int[] settledStamps;
+  private final int[] targetStamps;
+  private int stamp = 0;
+
+  public ShortestPathEngine(RoutingGraph graph) {
+    this.graph = graph;
+    int nodeCount = graph.getNodeCount();
+    this.heap = new IntDoubleMinHeap(nodeCount);
+    this.costs = new double[nodeCount];
+    this.lengths = new double[nodeCount];
+    this.parentEdges = new int[nodeCount];
+    this.reachedStamps = new int[nodeCount];
+    this.settledStamps = new int[nodeCount];
+    this.targetStamps = new int[nodeCount];
+  }
+
+  public RoutingGraph getGraph() {
+    return graph;
+  }
+
+  public Route dijkstra(int sourceNode, int targetNode, EdgeCostFunction costFunction) {
+    return search(sourceNode, targetNode, costFunction, false);
+  }
+
+  // A* with a haversine heuristic scaled by costFunction.getMinCostPerMeter() and graph.getMinLengthRatio()
+  public Route aStar(int sourceNode, int targetNode, EdgeCostFunction costFunction) {
+    return search(sourceNode, targetNode, costFunction, true);
+  }
+
+  public Route dijkstraByOsmId(long sourceOsmId, long targetOsmId, EdgeCostFunction costFunction) {
+    return dijkstra(requireNode(sourceOsmId), requireNode(targetOsmId), costFunction);
+  }
+
+  public Route aStarByOsmId(long sourceOsmId, long targetOsmId, EdgeCostFunction costFunction) {
+    return aStar(requireNode(sourceOsmId), requireNode(targetOsmId), costFunction);
+  }
+
+  // one Dijkstra search from the source that stops once every target is settled, writing the cost and 
+  //  length (meters) to targetNodes[t] into targetCosts[offset + t] / targetLengths[offset + t] - 
+  //  Double.POSITIVE_INFINITY when unreachable. Returns the number of nodes settled
+  public int oneToMany(int sourceNode, int[] targetNodes, EdgeCostFunction costFunction, double[] targetCosts, double[] targetLengths, int offset) {
+    checkNode(sourceNode);
+    nextStamp();
+    heap.clear();
+
+    // targets may repeat - count each node once
+    int remainingTargets = 0;
+    for (int targetNode : targetNodes) {
+      checkNode(targetNode);
+      if (targetStamps[targetNode] != stamp) {
+        targetStamps[targetNode] = stamp;
+        remainingTargets++;
+      }
+    }
+
+    reachedStamps[sourceNode] = stamp;
+    costs[sourceNode] = 0d;
+    lengths[sourceNode] = 0d;
+    heap.insertOrDecrease(sourceNode, 0d);
+
+    int settledCount = 0;
+    while (remainingTargets > 0 && !heap.isEmpty()) {
+      int node = heap.poll();
+      settledStamps[node] = stamp;
+      settledCount++;
+      if (targetStamps[node] == stamp) {
+        remainingTargets--;
+      }
+
+      double nodeCost = costs[node];
+      double nodeLength = lengths[node];
+      int lastEdge = graph.getFirstEdge(node + 1);
+      for (int edge = graph.getFirstEdge(node); edge < lastEdge; edge++) {
+        int next = graph.getEdgeTarget(edge);
+        if (settledStamps[next] == stamp) {
+          continue;
+        }
+        double edgeCost = costFunction.cost(graph, edge);
+        if (!(edgeCost < Double.POSITIVE_INFINITY)) {
+          continue;
+        }
+        double nextCost = nodeCost + edgeCost;
+        if (reachedStamps[next] != stamp || nextCost < costs[next]) {
+          reachedStamps[next] = stamp;
+          costs[next] = nextCost;
+          lengths[next] = nodeLength + graph.getEdgeLength(edge);
+          heap.insertOrDecrease(next, nextCost);
+        }
+      }
+    }
+
+    for (int t = 0; t < targetNodes.length; t++) {
+      int targetNode = targetNodes[t];
+      boolean settled = settledStamps[targetNode] == stamp;
+      targetCosts[offset + t] = settled ? costs[targetNode] : Double.POSITIVE_INFINITY;
+      targetLengths[offset + t] = settled ? lengths[targetNode] : Double.POSITIVE_INFINITY;
+    }
+    return settledCount;
+  }
+
+  // every node reachable from the source at a cost of at most maxCost - nodes beyond the budget are
+  //  never queued, so the search ends as soon as the budget is exhausted
+  public Isochrone isochrone(int sourceNode, double maxCost, EdgeCostFunction costFunction) {
+    checkNode(sourceNode);
+    if (!(maxCost >= 0d)) {
+      throw new IllegalArgumentException("isochrone cost budget must not be negative: " + maxCost);
+    }
+    nextStamp();
+    heap.clear();
+
+    reachedStamps[sourceNode] = stamp;
+    costs[sourceNode] = 0d;
+    heap.insertOrDecrease(sourceNode, 0d);
+
+    IntArrayList settledNodes = new IntArrayList(1024);
+    while (!heap.isEmpty()) {
+      int node = heap.poll();
+      settledStamps[node] = stamp;
+      settledNodes.add(node);
+
+      double nodeCost = costs[node];
+      int lastEdge = graph.getFirstEdge(node + 1);
+      for (int edge = graph.getFirstEdge(node); edge < lastEdge; edge++) {
+        int next = graph.getEdgeTarget(edge);
+        if (settledStamps[next] == stamp) {
+          continue;
+        }
+        double nextCost = nodeCost + costFunction.cost(graph, edge);
+        if (!(nextCost <= maxCost)) {
+          // over budget, forbidden or NaN
+          continue;
+        }
+        if (reachedStamps[next] != stamp || nextCost < costs[next]) {
+          reachedStamps[next] = stamp;
+          costs[next] = nextCost;
+          heap.insertOrDecrease(next, nextCost);
+        }
+      }
+    }
+
+    int[] nodes = settledNodes.toArray();
+    double[] nodeCosts = new double[nodes.length];
+    for (int i = 0; i < nodes.length; i++) {
+      nodeCosts[i] = costs[nodes[i]];
+    }
+    return new Isochrone(graph, sourceNode, maxCost, nodes, nodeCosts);
+  }
+
+  public Isochrone isochroneByOsmId(long sourceOsmId, double maxCost, EdgeCostFunction costFunction) {
+    return isochrone(requireNode(sourceOsmId), maxCost, costFunction);
+  }
+
+  // returns null if the target is not reachable from the source
+  private Route search(int sourceNode, int targetNode, EdgeCostFunction costFunction, boolean useHeuristic) {
+    checkNode(sourceNode);
+    checkNode(targetNode);
+    nextStamp();
+    heap.clear();
+
+    double heuristicFactor = useHeuristic ? costFunction.getMinCostPerMeter() : 0d;
+    if (heuristicFactor > 0d) {
+      heuristicFactor *= graph.getMinLengthRatio();
+    }
+    double targetLatitude = graph.getNodeLatitude(targetNode);
+    double targetLongitude = graph.getNodeLongitude(targetNode);
+    if (Double.isNaN(targetLatitude) || Double.isNaN(targetLongitude)) {
+      heuristicFactor = 0d;
+    }
+
+    reachedStamps[sourceNode] = stamp;
+    costs[sourceNode] = 0d;
+    parentEdges[sourceNode] = -1;
+    heap.insertOrDecrease(sourceNode, 0d);
+
+    int settledCount = 0;
+    while (!heap.isEmpty()) {
+      int node = heap.poll();
+      settledStamps[node] = stamp;
+      settledCount++;
+
+      if (node == targetNode) {
+        return buildRoute(sourceNode, targetNode, settledCount);
+      }
+
+      double nodeCost = costs[node];
+      int lastEdge = graph.getFirstEdge(node + 1);
+      for (int edge = graph.getFirstEdge(node); edge < lastEdge; edge++) {
+        int next = graph.getEdgeTarget(edge);
+        if (settledStamps[next] == stamp) {
+          continue;
+        }
+        double edgeCost = costFunction.cost(graph, edge);
+        if (!(edgeCost < Double.POSITIVE_INFINITY)) {
+          // forbidden (or NaN) edge
+          continue;
+        }
+        double nextCost = nodeCost + edgeCost;
+        if (reachedStamps[next] != stamp || nextCost < costs[next]) {
+          reachedStamps[next] = stamp;
+          costs[next] = nextCost;
+          parentEdges[next] = edge;
+          double priority = nextCost;
+          if (heuristicFactor > 0d) {
+            priority += heuristicFactor * heuristic(next, targetLatitude, targetLongitude);
+          }
+          heap.insertOrDecrease(next, priority);
+        }
+      }
+    }
+
+    return null;
+  }
+
+  private double heuristic(int node, double targetLatitude, double targetLongitude) {
+    double latitude = graph.getNodeLatitude(node);
+    double longitude = graph.getNodeLongitude(node);
+    if (Double.isNaN(latitude) || Double.isNaN(longitude)) {
+      return 0d;
+    }
+    return GeoUtils.haversine(latitude, longitude, targetLatitude, targetLongitude);
+  }
+
+  private Route buildRoute(int sourceNode, int targetNode, int settledCount) {
+    int edgeCount = 0;
+    for (int node = targetNode; node != sourceNode; node = graph.getEdgeSource(parentEdges[node])) {
+      edgeCount++;
+    }
+
+    int[] nodes = new int[edgeCount + 1];
+    int[] edges = new int[edgeCount];
+    double length = 0d;
+    int node = targetNode;
+    nodes[edgeCount] = targetNode;
+    for (int i = edgeCount - 1; i >= 0; i--) {
+      int edge = parentEdges[node];
+      edges[i] = edge;
+      length += graph.getEdgeLength(edge);
+      node = graph.getEdgeSource(edge);
+      nodes[i] = node;
+    }
+
+    return new Route(graph, nodes, edges, costs[targetNode], length, settledCount);
+  }
+
+  private void nextStamp() {
+    if (++stamp == Integer.MAX_VALUE) {
+      Arrays.fill(reachedStamps, 0);
+      Arrays.fill(settledStamps, 0);
+      Arrays.fill(targetStamps, 0);
+      stamp = 1;
+    }
+  }
+
+  private void checkNode(int node) {
+    if (node < 0 || node >= graph.getNodeCount()) {
+      throw new IllegalArgumentException("node index out of range: " + node);
+    }
+  }
+
+  private int requireNode(long osmId) {
+    int node = graph.getNodeIndex(osmId);
+    if (node < 0) {
+      throw new IllegalArgumentException("no intersection with osm_id " + osmId + " in routing graph");
+    }
+    return node;
+  }
+
+}
@@ -0,0 +1,100 @@
+package me.callsen.taylor.scenicrouting.javasdk.spatial;
+
+import me.callsen.taylor.scenicrouting.javasdk.util.GeoUtils;
+
+/**
+ * Latitude / longitude rectangle (WGS-84 degrees, edges inclusive) selecting a region of the graph -
+ *  see GraphDb.getIntersectionsInBoundingBox(), GraphDb.buildRoutingGraph(schema, boundingBox) and
+ *  GeoHash for tile aligned boxes. Boxes crossing the antimeridian are not supported. Immutable.
+ */
+public final class BoundingBox {
+
+  // the whole WGS-84 coordinate space
+  public static final BoundingBox WORLD = new BoundingBox(-90d, -180d, 90d, 180d);
+
+  private final double minLatitude;
+  private final double minLongitude;
+  private final double maxLatitude;
+  private final double maxLongitude;
+
+  public BoundingBox(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude) {
+    if (!(minLatitude >= -90d && maxLatitude <= 90d && minLatitude <= maxLatitude)) {
+      throw new IllegalArgumentException("invalid bounding box latitudes: " + minLatitude + " to " + maxLatitude);
+    }
+    if (!(minLongitude >= -180d && maxLongitude <= 180d && minLongitude <= maxLongitude)) {
+      throw new IllegalArgumentException("invalid bounding box longitudes: " + minLongitude + " to " + maxLongitude);
+    }
+    this.minLatitude = minLatitude;
+    this.minLongitude = minLongitude;
+    this.maxLatitude = maxLatitude;
+    this.maxLongitude = maxLongitude;
+  }
+
+  // box enclosing a circle of radiusMeters around the point, clamped to the coordinate space
+  public static BoundingBox around(double latitude, double longitude, double radiusMeters) {
+    return new BoundingBox(latitude, longitude, latitude, longitude).expand(radiusMeters);
+  }
+
+  public double getMinLatitude() {
+    return minLatitude;
+  }
+
+  public double getMinLongitude() {
+    return minLongitude;
+  }
+
+  public double getMaxLatitude() {
+    return maxLatitude;
+  }
+
+  public double getMaxLongitude() {
+    return maxLongitude;
+  }
+
+  public boolean contains(double latitude, double longitude) {
+    return latitude >= minLatitude && latitude <= maxLatitude && longitude >= minLongitude && longitude <= maxLongitude;
+  }
+
+  public boolean intersects(BoundingBox other) {
+    return other.minLatitude <= maxLatitude && other.maxLatitude >= minLatitude
+        && other.minLongitude <= maxLongitude && other.maxLongitude >= minLongitude;
+  }
+
+  // grow every edge by at least meters (clamped to the coordinate space) - pads a region so ways leaving
+  //  it near the edge keep both end points
+  public BoundingBox expand(double meters) {
+    if (meters < 0) {
+      throw new IllegalArgumentException("expansion must not be negative: " + meters);
+    }
+    double latitudeDelta = meters / GeoUtils.METERS_PER_DEGREE;
+    // longitude degrees shrink towards the poles - use the edge furthest from the equator
+    double cosLatitude = Math.cos(Math.toRadians(Math.min(90d, Math.max(Math.abs(minLatitude), Math.abs(maxLatitude)) + latitudeDelta)));
+    double longitudeDelta = cosLatitude > 1e-9 ? latitudeDelta / cosLatitude : 360d;
+    return new BoundingBox(Math.max(-90d, minLatitude - latitudeDelta), Math.max(-180d, minLongitude - longitudeDelta),
+        Math.min(90d, maxLatitude + latitudeDelta), Math.min(180d, maxLongitude + longitudeDelta));
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (!(other instanceof BoundingBox)) {
+      return false;
+    }
+    BoundingBox box = (BoundingBox) other;
+    return Double.compare(minLatitude, box.minLatitude) == 0 && Double.compare(minLongitude, box.minLongitude) == 0
+        && Double.compare(maxLatitude, box.maxLatitude) == 0 && Double.compare(maxLongitude, box.maxLongitude) == 0;
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = Double.hashCode(minLatitude);
+    hash = 31 * hash + Double.hashCode(minLongitude);
+    hash = 31 * hash + Double.hashCode(maxLatitude);
+    return 31 * hash + Double.hashCode(maxLongitude);
+  }
+
+  @Override
+  public String toString() {
+    return "BoundingBox[" + minLatitude + "," + minLongitude + " to " + maxLatitude + "," + maxLongitude + "]";
+  }
+
+}
@@ -0,0 +1,148 @@
+package me.callsen.taylor.scenicrouting.javasdk.spatial;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Geohash tiles - base32 cell names computed from latitude / longitude, where each extra character
+ *  splits a cell into 32 (precision 5 is roughly 4.9 x 4.9 km, 6 roughly 1.2 x 0.6 km). Cells of one
+ *  precision tile the coordinate space without overlap, so they name per-region routing snapshots
+ *  and scans (see GraphDb.exportRoutingGraphTiles).
+ */
+public final class GeoHash {
+
+  public static final int MAX_PRECISION = 12;
+
+  // refuse covers that would produce more cells than this - choose a coarser precision
+  public static final int MAX_COVER_CELLS = 1 << 20;
+
+  private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+  private static final int[] BASE32_INDEX = new int[128];
+  static {
+    Arrays.fill(BASE32_INDEX, -1);
+    for (int i = 0; i < BASE32.length; i++) {
+      BASE32_INDEX[BASE32[i]] = i;
+    }
+  }
+
+  private GeoHash() {}
+
+  // name of the cell containing the point
+  public static String encode(double latitude, double longitude, int precision) {
+    checkPrecision(precision);
+    double minLatitude = -90d, maxLatitude = 90d;
+    double minLongitude = -180d, maxLongitude = 180d;
+    char[] hash = new char[precision];
+    boolean evenBit = true;
+    for (int c = 0; c < precision; c++) {
+      int index = 0;
+      for (int bit = 0; bit < 5; bit++) {
+        // bits alternate longitude, latitude, starting with longitude
+        if (evenBit) {
+          double mid = (minLongitude + maxLongitude) / 2d;
+          if (longitude >= mid) {
+            index = (index << 1) | 1;
+            minLongitude = mid;
+          } else {
+            index <<= 1;
+            maxLongitude = mid;
+          }
+        } else {
+          double mid = (minLatitude + maxLatitude) / 2d;
+          if (latitude >= mid) {
+            index = (index << 1) | 1;
+            minLatitude = mid;
+          } else {
+            index <<= 1;
+            maxLatitude = mid;
+          }
+        }
+        evenBit = !evenBit;
+      }
+      hash[c] = BASE32[index];
+    }
+    return new String(hash);
+  }
+
+  // extent of a cell
+  public static BoundingBox bounds(String hash) {
+    if (hash == null || hash.isEmpty() || hash.length() > MAX_PRECISION) {
+      throw new IllegalArgumentException("invalid geohash: " + hash);
+    }
+    double minLatitude = -90d, maxLatitude = 90d;
+    double minLongitude = -180d, maxLongitude = 180d;
+    boolean evenBit = true;
+    for (int c = 0; c < hash.length(); c++) {
+      char character = Character.toLowerCase(hash.charAt(c));
+      int index = character < 128 ? BASE32_INDEX[character] : -1;
+      if (index < 0) {
+        throw new IllegalArgumentException("invalid geohash: " + hash);
+      }
+      for (int bit = 4; bit >= 0; bit--) {
+        boolean set = ((index >> bit) & 1) == 1;
+        if (evenBit) {
+          double mid = (minLongitude + maxLongitude) / 2d;
+          if (set) {
+            minLongitude = mid;
+          } else {
+            maxLongitude = mid;
+          }
+        } else {
+          double mid = (minLatitude + maxLatitude) / 2d;
+          if (set) {
+            minLatitude = mid;
+          } else {
+            maxLatitude = mid;
+          }
+        }
+        evenBit = !evenBit;
+      }
+    }
+    return new BoundingBox(minLatitude, minLongitude, maxLatitude, maxLongitude);
+  }
+
+  // cell height in degrees of latitude at a precision
+  public static double getCellHeight(int precision) {
+    checkPrecision(precision);
+    return 180d / (1L << ((5 * precision) / 2));
+  }
+
+  // cell width in degrees of longitude at a precision
+  public static double getCellWidth(int precision) {
+    checkPrecision(precision);
+    return 360d / (1L << ((5 * precision + 1) / 2));
+  }
+
+  // cells of a precision that together cover the box, row by row from the south west corner
+  public static List<String> cover(BoundingBox box, int precision) {
+    double cellHeight = getCellHeight(precision);
+    double cellWidth = getCellWidth(precision);
+    // snap the corners to the grid so every cell is sampled at its centre
+    long firstRow = (long) Math.floor((box.getMinLatitude() + 90d) / cellHeight);
+    long lastRow = Math.min((long) Math.floor((box.getMaxLatitude() + 90d) / cellHeight), Math.round(180d / cellHeight) - 1);
+    long firstColumn = (long) Math.floor((box.getMinLongitude() + 180d) / cellWidth);
+    long lastColumn = Math.min((long) Math.floor((box.getMaxLongitude() + 180d) / cellWidth), Math.round(360d / cellWidth) - 1);
+
+    long cellCount = (lastRow - firstRow + 1) * (lastColumn - firstColumn + 1);
+    if (cellCount > MAX_COVER_CELLS) {
+      throw new IllegalArgumentException("geohash cover of " + box + " at precision " + precision + " needs " + cellCount + " cells");
+    }
+
+    List<String> cells = new ArrayList<String>((int) cellCount);
+    for (long row = firstRow; row <= lastRow; row++) {
+      double latitude = -90d + (row + 0.5d) * cellHeight;
+      for (long column = firstColumn; column <= lastColumn; column++) {
+        cells.add(encode(latitude, -180d + (column + 0.5d) * cellWidth, precision));
+      }
+    }
+    return cells;
+  }
+
+  private static void checkPrecision(int precision) {
+    if (precision < 1 || precision > MAX_PRECISION) {
+      throw new IllegalArgumentException("geohash precision must be between 1 and " + MAX_PRECISION + ": " + precision);
+    }
+  }
+
+}
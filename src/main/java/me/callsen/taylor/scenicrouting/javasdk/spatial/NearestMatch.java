@@ -0,0 +1,36 @@
+package me.callsen.taylor.scenicrouting.javasdk.spatial;
+
+/**
+ * Result of a nearest intersection / way lookup - the Neo4j id of the matched node or relationship,
+ *  its osm_id and the distance in meters from the query point.
+ */
+public class NearestMatch {
+
+  private final long id;
+  private final long osmId;
+  private final double distanceMeters;
+
+  public NearestMatch(long id, long osmId, double distanceMeters) {
+    this.id = id;
+    this.osmId = osmId;
+    this.distanceMeters = distanceMeters;
+  }
+
+  public long getId() {
+    return id;
+  }
+
+  public long getOsmId() {
+    return osmId;
+  }
+
+  public double getDistanceMeters() {
+    return distanceMeters;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("NearestMatch[id=%s, osm_id=%s, distance=%.1fm]", id, osmId, distanceMeters);
+  }
+
+}
@@ -0,0 +1,181 @@
+package me.callsen.taylor.scenicrouting.javasdk.spatial;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+import me.callsen.taylor.scenicrouting.javasdk.util.DoubleIntHeap;
+import me.callsen.taylor.scenicrouting.javasdk.util.GeoUtils;
+
+/**
+ * Static R-tree over item bounding boxes in degrees (x = longitude, y = latitude), bulk loaded with
+ *  Sort-Tile-Recursive packing so every node is full and the tree is built in a single pass. Boxes
+ *  for all levels are held in one flat double array - leaf entries (one per item) first, then each
+ *  parent level in turn, with the root level last.
+ *
+ *  Nearest neighbour queries are best-first: entries are visited in order of their minimum
+ *  equirectangular distance to the query point, so ItemDistance implementations must never return
+ *  less than that lower bound (GeoUtils.pointToSegmentDistance satisfies this). Immutable once built
+ *  - safe for concurrent queries.
+ */
+public class PackedRTree {
+
+  public static final int DEFAULT_NODE_CAPACITY = 16;
+
+  /**
+   * Exact distance in meters from the query point to an item.
+   */
+  public interface ItemDistance {
+    double distance(int item, double latitude, double longitude);
+  }
+
+  private final int itemCount;
+  private final int nodeCapacity;
+  // minX, minY, maxX, maxY per entry
+  private final double[] boxes;
+  // entry offset of each level, plus the total entry count
+  private final int[] levelStarts;
+  // leaf entry -> item index
+  private final int[] leafItems;
+
+  public PackedRTree(double[] minX, double[] minY, double[] maxX, double[] maxY) {
+    this(minX, minY, maxX, maxY, DEFAULT_NODE_CAPACITY);
+  }
+
+  public PackedRTree(double[] minX, double[] minY, double[] maxX, double[] maxY, int nodeCapacity) {
+    if (nodeCapacity < 2) {
+      throw new IllegalArgumentException("node capacity must be at least 2");
+    }
+    this.itemCount = minX.length;
+    this.nodeCapacity = nodeCapacity;
+    this.leafItems = sortTileRecursive(minX, minY, maxX, maxY, nodeCapacity);
+
+    // level sizes - leaves, then parents until a single level fits in one node
+    int levelCount = 1;
+    int totalEntries = itemCount;
+    for (int levelSize = itemCount; levelSize > nodeCapacity; levelCount++) {
+      levelSize = (levelSize + nodeCapacity - 1) / nodeCapacity;
+      totalEntries += levelSize;
+    }
+    this.levelStarts = new int[levelCount + 1];
+    this.boxes = new double[4 * totalEntries];
+
+    for (int entry = 0; entry < itemCount; entry++) {
+      int item = leafItems[entry];
+      boxes[4 * entry] = minX[item];
+      boxes[4 * entry + 1] = minY[item];
+      boxes[4 * entry + 2] = maxX[item];
+      boxes[4 * entry + 3] = maxY[item];
+    }
+
+    // each parent entry covers nodeCapacity consecutive entries of the level below
+    levelStarts[0] = 0;
+    levelStarts[1] = itemCount;
+    for (int level = 1; level < levelCount; level++) {
+      int childStart = levelStarts[level - 1];
+      int childEnd = levelStarts[level];
+      int entry = childEnd;
+      for (int child = childStart; child < childEnd; child += nodeCapacity, entry++) {
+        double entryMinX = Double.POSITIVE_INFINITY;
+        double entryMinY = Double.POSITIVE_INFINITY;
+        double entryMaxX = Double.NEGATIVE_INFINITY;
+        double entryMaxY = Double.NEGATIVE_INFINITY;
+        for (int i = child; i < Math.min(child + nodeCapacity, childEnd); i++) {
+          entryMinX = Math.min(entryMinX, boxes[4 * i]);
+          entryMinY = Math.min(entryMinY, boxes[4 * i + 1]);
+          entryMaxX = Math.max(entryMaxX, boxes[4 * i + 2]);
+          entryMaxY = Math.max(entryMaxY, boxes[4 * i + 3]);
+        }
+        boxes[4 * entry] = entryMinX;
+        boxes[4 * entry + 1] = entryMinY;
+        boxes[4 * entry + 2] = entryMaxX;
+        boxes[4 * entry + 3] = entryMaxY;
+      }
+      levelStarts[level + 1] = entry;
+    }
+  }
+
+  public int size() {
+    return itemCount;
+  }
+
+  // k nearest items ordered by distance - distances are written to outDistances (length >= k) if given
+  public int[] nearest(double latitude, double longitude, int k, ItemDistance itemDistance, double[] outDistances) {
+    if (k < 1 || itemCount == 0) {
+      return new int[0];
+    }
+    double longitudeScale = Math.cos(Math.toRadians(latitude));
+    int[] results = new int[Math.min(k, itemCount)];
+    int resultCount = 0;
+
+    // values >= 0 are tree entries, values < 0 are items with an exact distance (-item - 1)
+    DoubleIntHeap heap = new DoubleIntHeap(nodeCapacity * 4);
+    int rootLevel = levelStarts.length - 2;
+    for (int entry = levelStarts[rootLevel]; entry < levelStarts[rootLevel + 1]; entry++) {
+      heap.push(boxDistance(entry, latitude, longitude, longitudeScale), entry);
+    }
+
+    while (!heap.isEmpty() && resultCount < results.length) {
+      double distance = heap.peekKey();
+      int value = heap.peekValue();
+      heap.pop();
+
+      if (value < 0) {
+        if (outDistances != null) {
+          outDistances[resultCount] = distance;
+        }
+        results[resultCount++] = -value - 1;
+      } else if (value < itemCount) {
+        int item = leafItems[value];
+        heap.push(itemDistance.distance(item, latitude, longitude), -item - 1);
+      } else {
+        int level = levelOf(value);
+        int firstChild = levelStarts[level - 1] + (value - levelStarts[level]) * nodeCapacity;
+        int lastChild = Math.min(firstChild + nodeCapacity, levelStarts[level]);
+        for (int child = firstChild; child < lastChild; child++) {
+          heap.push(boxDistance(child, latitude, longitude, longitudeScale), child);
+        }
+      }
+    }
+
+    return resultCount == results.length ? results : Arrays.copyOf(results, resultCount);
+  }
+
+  // minimum equirectangular distance in meters from the point to an entry box
+  private double boxDistance(int entry, double latitude, double longitude, double longitudeScale) {
+    double dx = Math.max(0d, Math.max(boxes[4 * entry] - longitude, longitude - boxes[4 * entry + 2])) * longitudeScale;
+    double dy = Math.max(0d, Math.max(boxes[4 * entry + 1] - latitude, latitude - boxes[4 * entry + 3]));
+    return Math.sqrt(dx * dx + dy * dy) * GeoUtils.METERS_PER_DEGREE;
+  }
+
+  private int levelOf(int entry) {
+    int level = 1;
+    while (entry >= levelStarts[level + 1]) {
+      level++;
+    }
+    return level;
+  }
+
+  // leaf order - items sorted into vertical slices by box center x, then by center y within a slice
+  private static int[] sortTileRecursive(double[] minX, double[] minY, double[] maxX, double[] maxY, int nodeCapacity) {
+    int count = minX.length;
+    Integer[] order = new Integer[count];
+    for (int i = 0; i < count; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, Comparator.comparingDouble(i -> minX[i] + maxX[i]));
+
+    int leafNodeCount = (count + nodeCapacity - 1) / nodeCapacity;
+    int sliceCount = (int) Math.ceil(Math.sqrt(leafNodeCount));
+    int sliceSize = sliceCount > 0 ? nodeCapacity * ((leafNodeCount + sliceCount - 1) / sliceCount) : count;
+    for (int sliceStart = 0; sliceStart < count; sliceStart += sliceSize) {
+      Arrays.sort(order, sliceStart, Math.min(sliceStart + sliceSize, count), Comparator.comparingDouble(i -> minY[i] + maxY[i]));
+    }
+
+    int[] leafItems = new int[count];
+    for (int i = 0; i < count; i++) {
+      leafItems[i] = order[i];
+    }
+    return leafItems;
+  }
+
+}
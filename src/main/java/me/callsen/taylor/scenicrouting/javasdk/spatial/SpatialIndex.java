@@ -0,0 +1,184 @@
+package me.callsen.taylor.scenicrouting.javasdk.spatial;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.ResourceIterator;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.values.storable.PointValue;
+
+import me.callsen.taylor.scenicrouting.javasdk.RoutingConstants;
+import me.callsen.taylor.scenicrouting.javasdk.RoutingConstants.NodeLabels;
+import me.callsen.taylor.scenicrouting.javasdk.RoutingConstants.RelationshipTypes;
+import me.callsen.taylor.scenicrouting.javasdk.data.GraphDb;
+import me.callsen.taylor.scenicrouting.javasdk.util.GeoUtils;
+import me.callsen.taylor.scenicrouting.javasdk.util.StructuredLogger;
+
+/**
+ * In-memory nearest neighbour index over the geom properties of the graph - INTERSECTION points or
+ *  CONNECTS polylines - backed by a PackedRTree. Coordinates are copied into flat primitive arrays
+ *  when the index is built, so queries never touch the store; rebuild after the graph changes.
+ *  Immutable once built - safe for concurrent queries.
+ */
+public class SpatialIndex {
+
+  private static final StructuredLogger LOGGER = StructuredLogger.getLogger(SpatialIndex.class);
+
+  private final long[] ids;
+  private final long[] osmIds;
+  // item i owns coordinates [coordinateOffsets[i], coordinateOffsets[i + 1])
+  private final int[] coordinateOffsets;
+  private final double[] latitudes;
+  private final double[] longitudes;
+  private final PackedRTree tree;
+
+  private SpatialIndex(Builder builder) {
+    this.ids = Arrays.copyOf(builder.ids, builder.itemCount);
+    this.osmIds = Arrays.copyOf(builder.osmIds, builder.itemCount);
+    this.coordinateOffsets = Arrays.copyOf(builder.coordinateOffsets, builder.itemCount + 1);
+    this.latitudes = Arrays.copyOf(builder.latitudes, builder.coordinateCount);
+    this.longitudes = Arrays.copyOf(builder.longitudes, builder.coordinateCount);
+
+    int itemCount = builder.itemCount;
+    double[] minX = new double[itemCount];
+    double[] minY = new double[itemCount];
+    double[] maxX = new double[itemCount];
+    double[] maxY = new double[itemCount];
+    for (int item = 0; item < itemCount; item++) {
+      minX[item] = Double.POSITIVE_INFINITY;
+      minY[item] = Double.POSITIVE_INFINITY;
+      maxX[item] = Double.NEGATIVE_INFINITY;
+      maxY[item] = Double.NEGATIVE_INFINITY;
+      for (int i = coordinateOffsets[item]; i < coordinateOffsets[item + 1]; i++) {
+        minX[item] = Math.min(minX[item], longitudes[i]);
+        minY[item] = Math.min(minY[item], latitudes[i]);
+        maxX[item] = Math.max(maxX[item], longitudes[i]);
+        maxY[item] = Math.max(maxY[item], latitudes[i]);
+      }
+    }
+    this.tree = new PackedRTree(minX, minY, maxX, maxY);
+  }
+
+  // index of INTERSECTION node geom points
+  public static SpatialIndex buildIntersectionIndex(GraphDb graphDb) {
+    long startMillis = System.currentTimeMillis();
+    Builder builder = new Builder();
+    try ( Transaction tx = graphDb.getTransaction() ) {
+      try ( ResourceIterator<Node> nodes = tx.findNodes(NodeLabels.INTERSECTION) ) {
+        while (nodes.hasNext()) {
+          Node node = nodes.next();
+          Object osmId = node.getProperty(RoutingConstants.GRAPH_PROPERTY_NAME_OSM_ID, null);
+          builder.add(node.getId(), osmId instanceof Number ? ((Number) osmId).longValue() : -1L,
+              GeoUtils.points(node.getProperty(RoutingConstants.GRAPH_PROPERTY_NAME_GEOM, null)));
+        }
+      }
+    }
+    SpatialIndex index = new SpatialIndex(builder);
+    LOGGER.info("spatial.index.built", "type", "intersection", "items", index.size(), "millis", System.currentTimeMillis() - startMillis);
+    return index;
+  }
+
+  // index of CONNECTS polylines - ways without a geom line fall back to the segment between their end nodes
+  public static SpatialIndex buildWayIndex(GraphDb graphDb) {
+    long startMillis = System.currentTimeMillis();
+    Builder builder = new Builder();
+    try ( Transaction tx = graphDb.getTransaction() ) {
+      try ( ResourceIterator<Relationship> relationships = tx.getAllRelationships().iterator() ) {
+        while (relationships.hasNext()) {
+          Relationship relationship = relationships.next();
+          if (!relationship.isType(RelationshipTypes.CONNECTS)) {
+            continue;
+          }
+          PointValue[] points = GeoUtils.points(relationship.getProperty(RoutingConstants.GRAPH_PROPERTY_NAME_GEOM, null));
+          if (points.length == 0) {
+            PointValue[] startPoints = GeoUtils.points(relationship.getStartNode().getProperty(RoutingConstants.GRAPH_PROPERTY_NAME_GEOM, null));
+            PointValue[] endPoints = GeoUtils.points(relationship.getEndNode().getProperty(RoutingConstants.GRAPH_PROPERTY_NAME_GEOM, null));
+            if (startPoints.length == 1 && endPoints.length == 1) {
+              points = new PointValue[] { startPoints[0], endPoints[0] };
+            }
+          }
+          Object osmId = relationship.getProperty(RoutingConstants.GRAPH_PROPERTY_NAME_OSM_ID, null);
+          builder.add(relationship.getId(), osmId instanceof Number ? ((Number) osmId).longValue() : -1L, points);
+        }
+      }
+    }
+    SpatialIndex index = new SpatialIndex(builder);
+    LOGGER.info("spatial.index.built", "type", "way", "items", index.size(), "millis", System.currentTimeMillis() - startMillis);
+    return index;
+  }
+
+  public int size() {
+    return ids.length;
+  }
+
+  // k nearest items ordered by distance
+  public List<NearestMatch> findNearest(double latitude, double longitude, int k) {
+    double[] distances = new double[Math.max(0, k)];
+    int[] items = tree.nearest(latitude, longitude, k, this::distance, distances);
+    List<NearestMatch> matches = new ArrayList<NearestMatch>(items.length);
+    for (int i = 0; i < items.length; i++) {
+      matches.add(new NearestMatch(ids[items[i]], osmIds[items[i]], distances[i]));
+    }
+    return matches;
+  }
+
+  // distance to the closest point of the item - a single coordinate is treated as a zero length segment
+  private double distance(int item, double latitude, double longitude) {
+    int first = coordinateOffsets[item];
+    int last = coordinateOffsets[item + 1] - 1;
+    if (first == last) {
+      return GeoUtils.pointToSegmentDistance(latitude, longitude, latitudes[first], longitudes[first], latitudes[first], longitudes[first]);
+    }
+    double minDistance = Double.POSITIVE_INFINITY;
+    for (int i = first; i < last; i++) {
+      minDistance = Math.min(minDistance, 
+          GeoUtils.pointToSegmentDistance(latitude, longitude, latitudes[i], longitudes[i], latitudes[i + 1], longitudes[i + 1]));
+    }
+    return minDistance;
+  }
+
+  /**
+   * Growable primitive buffers collected while scanning the store.
+   */
+  private static class Builder {
+
+    private long[] ids = new long[1024];
+    private long[] osmIds = new long[1024];
+    private int[] coordinateOffsets = new int[1025];
+    private double[] latitudes = new double[4096];
+    private double[] longitudes = new double[4096];
+    private int itemCount = 0;
+    private int coordinateCount = 0;
+
+    // items without any coordinates are not indexed
+    void add(long id, long osmId, PointValue[] points) {
+      if (points.length == 0) {
+        return;
+      }
+      if (itemCount == ids.length) {
+        ids = Arrays.copyOf(ids, itemCount << 1);
+        osmIds = Arrays.copyOf(osmIds, itemCount << 1);
+        coordinateOffsets = Arrays.copyOf(coordinateOffsets, (itemCount << 1) + 1);
+      }
+      if (coordinateCount + points.length > latitudes.length) {
+        int capacity = Math.max(latitudes.length << 1, coordinateCount + points.length);
+        latitudes = Arrays.copyOf(latitudes, capacity);
+        longitudes = Arrays.copyOf(longitudes, capacity);
+      }
+      for (PointValue point : points) {
+        latitudes[coordinateCount] = GeoUtils.latitude(point);
+        longitudes[coordinateCount] = GeoUtils.longitude(point);
+        coordinateCount++;
+      }
+      ids[itemCount] = id;
+      osmIds[itemCount] = osmId;
+      itemCount++;
+      coordinateOffsets[itemCount] = coordinateCount;
+    }
+
+  }
+
+}
@@ -0,0 +1,85 @@
+package me.callsen.taylor.scenicrouting.javasdk.util;
+
+import java.util.Arrays;
+
+/**
+ * Growable binary min-heap of (double key, int value) pairs. Unlike IntDoubleMinHeap values are not
+ *  indexed, so the same value may be contained more than once.
+ */
+public class DoubleIntHeap {
+
+  private double[] keys;
+  private int[] values;
+  private int size = 0;
+
+  public DoubleIntHeap(int initialCapacity) {
+    keys = new double[Math.max(1, initialCapacity)];
+    values = new int[Math.max(1, initialCapacity)];
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public void clear() {
+    size = 0;
+  }
+
+  public void push(double key, int value) {
+    if (size == keys.length) {
+      keys = Arrays.copyOf(keys, size << 1);
+      values = Arrays.copyOf(values, size << 1);
+    }
+    int position = size++;
+    while (position > 0) {
+      int parent = (position - 1) >>> 1;
+      if (keys[parent] <= key) {
+        break;
+      }
+      keys[position] = keys[parent];
+      values[position] = values[parent];
+      position = parent;
+    }
+    keys[position] = key;
+    values[position] = value;
+  }
+
+  public double peekKey() {
+    return keys[0];
+  }
+
+  public int peekValue() {
+    return values[0];
+  }
+
+  // remove the minimum entry - read it with peekKey / peekValue first
+  public void pop() {
+    size--;
+    if (size == 0) {
+      return;
+    }
+    double key = keys[size];
+    int value = values[size];
+    int position = 0;
+    int half = size >>> 1;
+    while (position < half) {
+      int child = 2 * position + 1;
+      if (child + 1 < size && keys[child + 1] < keys[child]) {
+        child++;
+      }
+      if (key <= keys[child]) {
+        break;
+      }
+      keys[position] = keys[child];
+      values[position] = values[child];
+      position = child;
+    }
+    keys[position] = key;
+    values[position] = value;
+  }
+
+}
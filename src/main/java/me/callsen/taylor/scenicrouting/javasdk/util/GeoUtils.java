@@ -0,0 +1,99 @@
+package me.callsen.taylor.scenicrouting.javasdk.util;
+
+import java.util.Arrays;
+
+import org.neo4j.values.storable.CoordinateReferenceSystem;
+import org.neo4j.values.storable.PointValue;
+import org.neo4j.values.storable.Values;
+
+/**
+ * Geographic helpers for WGS-84 (EPSG:4326) coordinates as stored in geom point properties, where 
+ *  x is longitude and y is latitude.
+ */
+public class GeoUtils {
+
+  public static final double EARTH_RADIUS_METERS = 6371008.8d;
+  public static final double METERS_PER_DEGREE = Math.PI * EARTH_RADIUS_METERS / 180d;
+
+  private GeoUtils() {}
+
+  // great circle distance in meters
+  public static double haversine(double lat1, double lon1, double lat2, double lon2) {
+    double dLat = Math.toRadians(lat2 - lat1);
+    double dLon = Math.toRadians(lon2 - lon1);
+    double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) 
+        + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+    return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1d, Math.sqrt(a)));
+  }
+
+  // equirectangular approximation of the distance in meters from a point to the segment a-b - accurate
+  //  to well under a meter at city scale, and much cheaper than haversine
+  public static double pointToSegmentDistance(double lat, double lon, double latA, double lonA, double latB, double lonB) {
+    double longitudeScale = Math.cos(Math.toRadians(lat));
+    double ax = (lonA - lon) * longitudeScale;
+    double ay = latA - lat;
+    double bx = (lonB - lon) * longitudeScale;
+    double by = latB - lat;
+    double dx = bx - ax;
+    double dy = by - ay;
+    double lengthSquared = dx * dx + dy * dy;
+    double t = lengthSquared > 0 ? Math.max(0d, Math.min(1d, -(ax * dx + ay * dy) / lengthSquared)) : 0d;
+    double px = ax + t * dx;
+    double py = ay + t * dy;
+    return Math.sqrt(px * px + py * py) * METERS_PER_DEGREE;
+  }
+
+  // points of a geom property value - a single point or a point array (ways); empty if neither
+  public static PointValue[] points(Object geom) {
+    if (geom instanceof PointValue) {
+      return new PointValue[] { (PointValue) geom };
+    }
+    if (geom instanceof Object[]) {
+      Object[] values = (Object[]) geom;
+      PointValue[] points = new PointValue[values.length];
+      int count = 0;
+      for (Object value : values) {
+        if (value instanceof PointValue) {
+          points[count++] = (PointValue) value;
+        }
+      }
+      return count == points.length ? points : Arrays.copyOf(points, count);
+    }
+    return new PointValue[0];
+  }
+
+  // WGS-84 geom point value
+  public static PointValue point(double lat, double lon) {
+    return Values.pointValue(CoordinateReferenceSystem.WGS84, lon, lat);
+  }
+
+  // points of a WKT LINESTRING (or POINT) - "LINESTRING(lon lat, lon lat, ..)"
+  public static PointValue[] parseWkt(String wkt) {
+    int open = wkt.indexOf('(');
+    int close = wkt.lastIndexOf(')');
+    if (open < 0 || close < open) {
+      throw new IllegalArgumentException("unsupported WKT geometry: " + wkt);
+    }
+    String[] coordinates = wkt.substring(open + 1, close).split(",");
+    PointValue[] points = new PointValue[coordinates.length];
+    for (int i = 0; i < coordinates.length; i++) {
+      String[] lonLat = coordinates[i].trim().split("\\s+");
+      if (lonLat.length < 2) {
+        throw new IllegalArgumentException("unsupported WKT coordinate '" + coordinates[i] + "' in: " + wkt);
+      }
+      points[i] = point(Double.parseDouble(lonLat[1]), Double.parseDouble(lonLat[0]));
+    }
+    return points;
+  }
+
+  // longitude of a geom point property value - NaN if not a point
+  public static double longitude(Object geom) {
+    return geom instanceof PointValue ? ((PointValue) geom).coordinate()[0] : Double.NaN;
+  }
+
+  // latitude of a geom point property value - NaN if not a point
+  public static double latitude(Object geom) {
+    return geom instanceof PointValue ? ((PointValue) geom).coordinate()[1] : Double.NaN;
+  }
+
+}
@@ -0,0 +1,66 @@
+package me.callsen.taylor.scenicrouting.javasdk.util;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of primitive ints.
+ */
+public class IntArrayList {
+
+  private int[] values;
+  private int size = 0;
+
+  public IntArrayList() {
+    this(8);
+  }
+
+  public IntArrayList(int initialCapacity) {
+    values = new int[Math.max(1, initialCapacity)];
+  }
+
+  public void add(int value) {
+    if (size == values.length) {
+      values = Arrays.copyOf(values, size << 1);
+    }
+    values[size++] = value;
+  }
+
+  public int get(int index) {
+    if (index >= size) {
+      throw new IndexOutOfBoundsException("index " + index + " of " + size);
+    }
+    return values[index];
+  }
+
+  public void set(int index, int value) {
+    if (index >= size) {
+      throw new IndexOutOfBoundsException("index " + index + " of " + size);
+    }
+    values[index] = value;
+  }
+
+  // remove by swapping in the last element - does not preserve order
+  public void removeAtUnordered(int index) {
+    if (index >= size) {
+      throw new IndexOutOfBoundsException("index " + index + " of " + size);
+    }
+    values[index] = values[--size];
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public void clear() {
+    size = 0;
+  }
+
+  public int[] toArray() {
+    return Arrays.copyOf(values, size);
+  }
+
+}
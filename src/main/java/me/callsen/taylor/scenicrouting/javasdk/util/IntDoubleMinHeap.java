@@ -0,0 +1,122 @@
+package me.callsen.taylor.scenicrouting.javasdk.util;
+
+import java.util.Arrays;
+
+/**
+ * Indexed binary min-heap of int elements in [0, capacity) keyed by primitive doubles, with 
+ *  decrease-key support. Used as the priority queue of the routing searches - no boxing and no
+ *  per-operation allocation.
+ */
+public class IntDoubleMinHeap {
+
+  private final int[] heap;
+  private final double[] keys;
+  // position of each element in the heap - -1 when not contained
+  private final int[] positions;
+  private int size = 0;
+
+  public IntDoubleMinHeap(int capacity) {
+    heap = new int[Math.max(1, capacity)];
+    keys = new double[Math.max(1, capacity)];
+    positions = new int[Math.max(1, capacity)];
+    Arrays.fill(positions, -1);
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public boolean contains(int element) {
+    return positions[element] >= 0;
+  }
+
+  // remove all elements - cost is proportional to the current size, not the capacity
+  public void clear() {
+    for (int i = 0; i < size; i++) {
+      positions[heap[i]] = -1;
+    }
+    size = 0;
+  }
+
+  // insert the element, or lower its key if already contained with a higher key
+  public void insertOrDecrease(int element, double key) {
+    int position = positions[element];
+    if (position < 0) {
+      position = size++;
+      heap[position] = element;
+      keys[position] = key;
+      positions[element] = position;
+      siftUp(position);
+    } else if (key < keys[position]) {
+      keys[position] = key;
+      siftUp(position);
+    }
+  }
+
+  public int peek() {
+    return heap[0];
+  }
+
+  public double peekKey() {
+    return keys[0];
+  }
+
+  public int poll() {
+    int element = heap[0];
+    positions[element] = -1;
+    size--;
+    if (size > 0) {
+      heap[0] = heap[size];
+      keys[0] = keys[size];
+      positions[heap[0]] = 0;
+      siftDown(0);
+    }
+    return element;
+  }
+
+  private void siftUp(int position) {
+    int element = heap[position];
+    double key = keys[position];
+    while (position > 0) {
+      int parent = (position - 1) >>> 1;
+      if (keys[parent] <= key) {
+        break;
+      }
+      heap[position] = heap[parent];
+      keys[position] = keys[parent];
+      positions[heap[position]] = position;
+      position = parent;
+    }
+    heap[position] = element;
+    keys[position] = key;
+    positions[element] = position;
+  }
+
+  private void siftDown(int position) {
+    int element = heap[position];
+    double key = keys[position];
+    int half = size >>> 1;
+    while (position < half) {
+      int child = 2 * position + 1;
+      int right = child + 1;
+      if (right < size && keys[right] < keys[child]) {
+        child = right;
+      }
+      if (key <= keys[child]) {
+        break;
+      }
+      heap[position] = heap[child];
+      keys[position] = keys[child];
+      positions[heap[position]] = position;
+      position = child;
+    }
+    heap[position] = element;
+    keys[position] = key;
+    positions[element] = position;
+  }
+
+}
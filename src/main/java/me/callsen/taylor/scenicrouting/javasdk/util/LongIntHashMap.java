@@ -0,0 +1,103 @@
+package me.callsen.taylor.scenicrouting.javasdk.util;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash map from primitive long keys to primitive int values - avoids boxing when
+ *  mapping osm / neo4j ids to dense array indexes.
+ */
+public class LongIntHashMap {
+
+  private static final float LOAD_FACTOR = 0.6f;
+
+  private long[] keys;
+  private int[] values;
+  private boolean[] used;
+  private int size = 0;
+  private final int missingValue;
+
+  public LongIntHashMap(int expectedSize, int missingValue) {
+    int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+    this.keys = new long[capacity];
+    this.values = new int[capacity];
+    this.used = new boolean[capacity];
+    this.missingValue = missingValue;
+  }
+
+  public LongIntHashMap(int expectedSize) {
+    this(expectedSize, -1);
+  }
+
+  public int get(long key) {
+    int mask = keys.length - 1;
+    int slot = mix(key) & mask;
+    while (used[slot]) {
+      if (keys[slot] == key) {
+        return values[slot];
+      }
+      slot = (slot + 1) & mask;
+    }
+    return missingValue;
+  }
+
+  public boolean containsKey(long key) {
+    int mask = keys.length - 1;
+    int slot = mix(key) & mask;
+    while (used[slot]) {
+      if (keys[slot] == key) {
+        return true;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return false;
+  }
+
+  public void put(long key, int value) {
+    if (size + 1 > keys.length * LOAD_FACTOR) {
+      resize(keys.length << 1);
+    }
+    int mask = keys.length - 1;
+    int slot = mix(key) & mask;
+    while (used[slot]) {
+      if (keys[slot] == key) {
+        values[slot] = value;
+        return;
+      }
+      slot = (slot + 1) & mask;
+    }
+    used[slot] = true;
+    keys[slot] = key;
+    values[slot] = value;
+    size++;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public void clear() {
+    Arrays.fill(used, false);
+    size = 0;
+  }
+
+  private void resize(int capacity) {
+    long[] oldKeys = keys;
+    int[] oldValues = values;
+    boolean[] oldUsed = used;
+    keys = new long[capacity];
+    values = new int[capacity];
+    used = new boolean[capacity];
+    size = 0;
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldUsed[i]) {
+        put(oldKeys[i], oldValues[i]);
+      }
+    }
+  }
+
+  private static int mix(long key) {
+    long h = key * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32));
+  }
+
+}
@@ -0,0 +1,74 @@
+package me.callsen.taylor.scenicrouting.javasdk.util;
+
+import java.lang.System.Logger.Level;
+
+/**
+ * Thin wrapper around java.lang.System.Logger that writes events as "event key=value key=value" 
+ *  lines, so log output can be parsed without a logging dependency - System.Logger routes to 
+ *  java.util.logging by default, or to whichever backend provides a System.LoggerFinder (e.g. the 
+ *  log4j / slf4j bridges). Messages are only formatted when the level is enabled.
+ */
+public final class StructuredLogger {
+
+  private final System.Logger logger;
+
+  private StructuredLogger(System.Logger logger) {
+    this.logger = logger;
+  }
+
+  public static StructuredLogger getLogger(Class<?> type) {
+    return new StructuredLogger(System.getLogger(type.getName()));
+  }
+
+  public boolean isDebugEnabled() {
+    return logger.isLoggable(Level.DEBUG);
+  }
+
+  public void debug(String event, Object... keyValues) {
+    log(Level.DEBUG, null, event, keyValues);
+  }
+
+  public void info(String event, Object... keyValues) {
+    log(Level.INFO, null, event, keyValues);
+  }
+
+  public void warn(String event, Object... keyValues) {
+    log(Level.WARNING, null, event, keyValues);
+  }
+
+  public void warn(String event, Throwable thrown, Object... keyValues) {
+    log(Level.WARNING, thrown, event, keyValues);
+  }
+
+  public void error(String event, Throwable thrown, Object... keyValues) {
+    log(Level.ERROR, thrown, event, keyValues);
+  }
+
+  private void log(Level level, Throwable thrown, String event, Object[] keyValues) {
+    if (!logger.isLoggable(level)) {
+      return;
+    }
+    String message = format(event, keyValues);
+    if (thrown != null) {
+      logger.log(level, message, thrown);
+    } else {
+      logger.log(level, message);
+    }
+  }
+
+  // keyValues alternate key, value - values containing whitespace, quotes or '=' are quoted
+  static String format(String event, Object... keyValues) {
+    StringBuilder message = new StringBuilder(event);
+    for (int i = 0; i + 1 < keyValues.length; i += 2) {
+      message.append(' ').append(keyValues[i]).append('=');
+      String value = String.valueOf(keyValues[i + 1]);
+      if (value.isEmpty() || value.chars().anyMatch(c -> Character.isWhitespace(c) || c == '"' || c == '=')) {
+        message.append('"').append(value.replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+      } else {
+        message.append(value);
+      }
+    }
+    return message.toString();
+  }
+
+}
@@ -86,15 +86,13 @@ public class TestUtils {
 
     URI uri = classLoader.getResource(resPath).toURI();
 
-    BiPredicate<Path, BasicFileAttributes> foreach = (p, a) -> copy(p, a, Path.of(target.toString(), p.toString()))
-        && false;
-
     try (var fs = FileSystems.newFileSystem(uri, Map.of())) {
       final Path subdir = fs.getPath(resPath);
-      for (Path root : fs.getRootDirectories()) {
-        try (Stream<Path> stream = Files.find(subdir, Integer.MAX_VALUE, foreach)) {
-          stream.count();
-        }
+      // copy relative to resPath, so the db files land directly in target (as with the standard copy)
+      BiPredicate<Path, BasicFileAttributes> foreach = (p, a) -> copy(p, a, target.resolve(subdir.relativize(p).toString()))
+          && false;
+      try (Stream<Path> stream = Files.find(subdir, Integer.MAX_VALUE, foreach)) {
+        stream.count();
       }
     }
   }
@@ -0,0 +1,122 @@
+package me.callsen.taylor.scenicrouting.javasdk.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.Result;
+import org.neo4j.graphdb.Transaction;
+
+import me.callsen.taylor.scenicrouting.javasdk.RoutingConstants;
+import me.callsen.taylor.scenicrouting.javasdk.TestUtils;
+
+@TestInstance(Lifecycle.PER_CLASS)
+public class AssociatedDataBatchWriterTest {
+
+  private GraphDb db;
+
+  @BeforeAll
+  public void initResources() throws Exception {
+    db = TestUtils.getLoadedGraphDb();
+  }
+
+  @AfterAll
+  public void shutdownResources() {
+    db.shutdown();
+  }
+
+  @Test
+  public void testBatchWriterCommitsInBatches() throws Exception {
+    List<Long> relationshipIds = new ArrayList<Long>();
+    try ( Transaction tx = db.getTransaction() ) {
+      Result result = tx.execute("MATCH ()-[r]->() RETURN r ORDER BY id(r) LIMIT 5");
+      while (result.hasNext()) {
+        relationshipIds.add(((Relationship) result.next().get("r")).getId());
+      }
+    }
+
+    AssociatedDataBatchWriter writer = new AssociatedDataBatchWriter(db, 2, Long.MAX_VALUE);
+    for (long relationshipId : relationshipIds) {
+      writer.setAssociatedData(relationshipId, "ad_batch", new JSONObject("{\"start\":" + relationshipId + "}"));
+    }
+
+    // 5 edges with a batch size of 2 - two full batches committed, one edge pending
+    assertEquals(2, writer.getBatchesCommitted());
+    assertEquals(1, writer.getPendingEdges());
+
+    writer.close();
+    assertEquals(3, writer.getBatchesCommitted());
+    assertEquals(5, writer.getEdgesWritten());
+
+    try ( Transaction tx = db.getTransaction() ) {
+      for (long relationshipId : relationshipIds) {
+        Relationship rel = tx.getRelationshipById(relationshipId);
+        String[] associatedDataProps = (String[]) rel.getProperty(RoutingConstants.GRAPH_PROPERTY_NAME_ASSOCIATED_DATA);
+        assertEquals("ad_batch", associatedDataProps[associatedDataProps.length - 1]);
+        JSONObject associatedData = new JSONArray((String) rel.getProperty("ad_batch")).getJSONObject(0);
+        assertEquals(relationshipId, associatedData.getLong("start"));
+      }
+    }
+  }
+
+  @Test
+  public void testBatchWriterKeepsEdgePropertiesInOneBatch() throws Exception {
+    long relationshipId;
+    try ( Transaction tx = db.getTransaction() ) {
+      relationshipId = ((Relationship) tx.execute("MATCH ()-[r]->() RETURN r ORDER BY id(r) DESC SKIP 1 LIMIT 1").next().get("r")).getId();
+    }
+
+    // a batch of one edge - both properties must still go into the same batch
+    AssociatedDataBatchWriter writer = new AssociatedDataBatchWriter(db, 1, Long.MAX_VALUE);
+    Map<String, String> scores = new LinkedHashMap<String, String>();
+    scores.put("ad_edge_first", "[{\"value\":1}]");
+    scores.put("ad_edge_second", "[{\"value\":2}]");
+    writer.buffer(relationshipId, scores);
+    writer.close();
+
+    assertEquals(1, writer.getBatchesCommitted());
+    assertEquals(1, writer.getEdgesWritten());
+    assertEquals(2, writer.getPropertiesWritten());
+    try ( Transaction tx = db.getTransaction() ) {
+      List<String> associatedDataProps = Arrays.asList((String[]) tx.getRelationshipById(relationshipId).getProperty(RoutingConstants.GRAPH_PROPERTY_NAME_ASSOCIATED_DATA));
+      assertTrue(associatedDataProps.containsAll(scores.keySet()));
+    }
+  }
+
+  @Test
+  public void testBatchWriterMergesUpdatesPerEdge() throws Exception {
+    long relationshipId;
+    try ( Transaction tx = db.getTransaction() ) {
+      relationshipId = ((Relationship) tx.execute("MATCH ()-[r]->() RETURN r ORDER BY id(r) DESC LIMIT 1").next().get("r")).getId();
+    }
+
+    try ( AssociatedDataBatchWriter writer = new AssociatedDataBatchWriter(db) ) {
+      writer.setAssociatedData(relationshipId, "ad_merge", new JSONObject("{\"value\":1}"));
+      writer.setAssociatedData(relationshipId, "ad_merge", new JSONObject("{\"value\":2}"));
+      writer.setAssociatedData(relationshipId, "ad_merge2", new JSONObject("{\"value\":3}"));
+
+      // all updates are buffered against a single edge
+      assertEquals(1, writer.getPendingEdges());
+    }
+
+    try ( Transaction tx = db.getTransaction() ) {
+      Relationship rel = tx.getRelationshipById(relationshipId);
+      assertEquals(2, new JSONArray((String) rel.getProperty("ad_merge")).getJSONObject(0).getInt("value"));
+      assertEquals(3, new JSONArray((String) rel.getProperty("ad_merge2")).getJSONObject(0).getInt("value"));
+    }
+  }
+
+}
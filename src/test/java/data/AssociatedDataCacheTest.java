@@ -0,0 +1,218 @@
+package me.callsen.taylor.scenicrouting.javasdk.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.Transaction;
+
+import me.callsen.taylor.scenicrouting.javasdk.TestUtils;
+
+@TestInstance(Lifecycle.PER_CLASS)
+public class AssociatedDataCacheTest {
+
+  private GraphDb db;
+
+  @BeforeAll
+  public void initResources() throws Exception {
+    db = TestUtils.getLoadedGraphDb();
+  }
+
+  @AfterAll
+  public void shutdownResources() {
+    db.shutdown();
+  }
+
+  @Test
+  public void testEvictsLeastRecentlyUsedByEntries() throws Exception {
+    AssociatedDataCache cache = new AssociatedDataCache(2, Long.MAX_VALUE);
+    AssociatedDataRecords records = AssociatedDataCodec.decode("[{\"start\":1}]");
+    cache.put(1, "ad_test", records, 10);
+    cache.put(2, "ad_test", records, 10);
+    // touch 1 so 2 is the least recently used
+    assertNotNull(cache.get(1, "ad_test"));
+    cache.put(3, "ad_test", records, 10);
+
+    assertEquals(2, cache.size());
+    assertEquals(1, cache.getEvictions());
+    assertNull(cache.get(2, "ad_test"));
+    assertNotNull(cache.get(3, "ad_test"));
+    assertEquals(2, cache.getHits());
+    assertEquals(1, cache.getMisses());
+  }
+
+  @Test
+  public void testEvictsByWeight() throws Exception {
+    AssociatedDataCache cache = new AssociatedDataCache(100, 25);
+    AssociatedDataRecords records = AssociatedDataCodec.decode("[{\"start\":1}]");
+    cache.put(1, "ad_test", records, 10);
+    cache.put(2, "ad_test", records, 10);
+    cache.put(3, "ad_test", records, 10);
+    assertEquals(2, cache.size());
+    assertEquals(20, cache.getWeight());
+
+    // heavier than the whole cache - not cached
+    cache.put(4, "ad_test", records, 30);
+    assertNull(cache.get(4, "ad_test"));
+  }
+
+  @Test
+  public void testGraphDbReadThroughAndInvalidation() throws Exception {
+    AssociatedDataCache cache = db.enableAssociatedDataCache(1000, 1024 * 1024);
+    try {
+      long relationshipId = firstRelationshipId();
+      try ( Transaction tx = db.getTransaction() ) {
+        db.setAssociatedData(tx.getRelationshipById(relationshipId), "ad_cached", new JSONObject("{\"start\":1.5}"));
+        tx.commit();
+      }
+
+      try ( Transaction tx = db.getTransaction() ) {
+        Relationship rel = tx.getRelationshipById(relationshipId);
+        assertEquals(1.5d, db.getAssociatedData(rel, "ad_cached").getDouble(0, "start"));
+        assertEquals(1.5d, db.getAssociatedData(rel, "ad_cached").getDouble(0, "start"));
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getHits());
+      }
+
+      try ( Transaction tx = db.getTransaction() ) {
+        Relationship rel = tx.getRelationshipById(relationshipId);
+        // writing through GraphDb invalidates the cached entry, and the uncommitted value is read from the store only
+        db.setAssociatedData(rel, "ad_cached", new JSONArray("[{\"start\":2.5}]"));
+        assertEquals(1, cache.getInvalidations());
+        assertEquals(2.5d, db.getAssociatedData(rel, "ad_cached").getDouble(0, "start"));
+        assertEquals(0, cache.size());
+        tx.commit();
+      }
+
+      try ( Transaction tx = db.getTransaction() ) {
+        assertEquals(2.5d, db.getAssociatedData(tx.getRelationshipById(relationshipId), "ad_cached").getDouble(0, "start"));
+        assertTrue(cache.getWeight() > 0);
+      }
+    } finally {
+      db.disableAssociatedDataCache();
+    }
+  }
+
+  @Test
+  public void testRolledBackWriteIsNotCached() throws Exception {
+    db.enableAssociatedDataCache(1000, 1024 * 1024);
+    try {
+      long relationshipId = firstRelationshipId();
+      try ( Transaction tx = db.getTransaction() ) {
+        db.setAssociatedData(tx.getRelationshipById(relationshipId), "ad_rollback", new JSONObject("{\"start\":1}"));
+        tx.commit();
+      }
+
+      try ( Transaction tx = db.getTransaction() ) {
+        Relationship rel = tx.getRelationshipById(relationshipId);
+        db.setAssociatedData(rel, "ad_rollback", new JSONObject("{\"start\":2}"));
+        assertEquals(2d, db.getAssociatedData(rel, "ad_rollback").getDouble(0, "start"));
+        // closed without commit - rolled back
+      }
+
+      try ( Transaction tx = db.getTransaction() ) {
+        assertEquals(1d, db.getAssociatedData(tx.getRelationshipById(relationshipId), "ad_rollback").getDouble(0, "start"));
+      }
+    } finally {
+      db.disableAssociatedDataCache();
+    }
+  }
+
+  @Test
+  public void testWriteClosedWithoutCommitIsCachedAgainAfterClose() throws Exception {
+    AssociatedDataCache cache = db.enableAssociatedDataCache(1000, 1024 * 1024);
+    try {
+      long relationshipId = firstRelationshipId();
+      try ( Transaction tx = db.getTransaction() ) {
+        db.setAssociatedData(tx.getRelationshipById(relationshipId), "ad_closed", new JSONObject("{\"start\":1}"));
+        tx.commit();
+      }
+
+      try ( Transaction tx = db.getTransaction() ) {
+        db.setAssociatedData(tx.getRelationshipById(relationshipId), "ad_closed", new JSONObject("{\"start\":2}"));
+        // closed without commit
+      }
+
+      // the closed transaction's pending write no longer bypasses the cache on this thread
+      try ( Transaction tx = db.getTransaction() ) {
+        Relationship rel = tx.getRelationshipById(relationshipId);
+        assertEquals(1d, db.getAssociatedData(rel, "ad_closed").getDouble(0, "start"));
+        assertEquals(1d, db.getAssociatedData(rel, "ad_closed").getDouble(0, "start"));
+        assertEquals(1, cache.getHits());
+      }
+    } finally {
+      db.disableAssociatedDataCache();
+    }
+  }
+
+  @Test
+  public void testConcurrentReadDuringCommitIsNotCachedStale() throws Exception {
+    db.enableAssociatedDataCache(1000, 1024 * 1024);
+    ExecutorService reader = Executors.newSingleThreadExecutor();
+    try {
+      long relationshipId = firstRelationshipId();
+      try ( Transaction tx = db.getTransaction() ) {
+        db.setAssociatedData(tx.getRelationshipById(relationshipId), "ad_race", new JSONObject("{\"start\":1}"));
+        tx.commit();
+      }
+
+      try ( Transaction tx = db.getTransaction() ) {
+        db.setAssociatedData(tx.getRelationshipById(relationshipId), "ad_race", new JSONObject("{\"start\":2}"));
+
+        // another thread reads between the write and the commit - it sees (and caches) the committed value
+        Future<Double> concurrentRead = reader.submit(() -> {
+          try ( Transaction readTx = db.getTransaction() ) {
+            return db.getAssociatedData(readTx.getRelationshipById(relationshipId), "ad_race").getDouble(0, "start");
+          }
+        });
+        assertEquals(1d, concurrentRead.get(30, TimeUnit.SECONDS).doubleValue());
+        tx.commit();
+      }
+
+      // the commit invalidated the value the reader put back
+      Future<Double> readAfterCommit = reader.submit(() -> {
+        try ( Transaction readTx = db.getTransaction() ) {
+          return db.getAssociatedData(readTx.getRelationshipById(relationshipId), "ad_race").getDouble(0, "start");
+        }
+      });
+      assertEquals(2d, readAfterCommit.get(30, TimeUnit.SECONDS).doubleValue());
+    } finally {
+      reader.shutdownNow();
+      db.disableAssociatedDataCache();
+    }
+  }
+
+  @Test
+  public void testPutAfterInvalidationIsDropped() throws Exception {
+    AssociatedDataCache cache = new AssociatedDataCache(10, Long.MAX_VALUE);
+    AssociatedDataRecords records = AssociatedDataCodec.decode("[{\"start\":1}]");
+    long generation = cache.getGeneration(1, "ad_test");
+    cache.invalidate(1, "ad_test");
+    cache.put(1, "ad_test", records, 10, generation);
+    assertNull(cache.get(1, "ad_test"));
+
+    cache.put(1, "ad_test", records, 10, cache.getGeneration(1, "ad_test"));
+    assertNotNull(cache.get(1, "ad_test"));
+  }
+
+  private long firstRelationshipId() {
+    try ( Transaction tx = db.getTransaction() ) {
+      return ((Relationship) tx.execute("MATCH ()-[r]->() RETURN r ORDER BY id(r) LIMIT 1").next().get("r")).getId();
+    }
+  }
+
+}
@@ -0,0 +1,131 @@
+package me.callsen.taylor.scenicrouting.javasdk.data;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.Transaction;
+
+import me.callsen.taylor.scenicrouting.javasdk.TestUtils;
+
+@TestInstance(Lifecycle.PER_CLASS)
+public class AssociatedDataChangeLogTest {
+
+  private GraphDb db;
+  private long[] relationshipIds;
+
+  @BeforeAll
+  public void initResources() throws Exception {
+    db = TestUtils.getLoadedGraphDb();
+    try ( Transaction tx = db.getTransaction() ) {
+      List<Object> ids = tx.execute("MATCH ()-[r:CONNECTS]->() RETURN id(r) AS id ORDER BY id LIMIT 3").columnAs("id").stream().collect(Collectors.toList());
+      relationshipIds = ids.stream().mapToLong(id -> (Long) id).toArray();
+    }
+  }
+
+  @AfterAll
+  public void shutdownResources() {
+    db.shutdown();
+  }
+
+  @Test
+  public void testRecordsAssociatedDataWrites() throws Exception {
+    AssociatedDataChangeLog changeLog = db.enableAssociatedDataChangeLog();
+    try {
+      long startVersion = changeLog.getCurrentVersion();
+
+      // one transaction, two relationships - one version
+      try ( Transaction tx = db.getTransaction() ) {
+        db.setAssociatedData(tx.getRelationshipById(relationshipIds[0]), "ad_log", new JSONObject("{\"start\":1}"));
+        db.setAssociatedData(tx.getRelationshipById(relationshipIds[1]), "ad_log", new JSONObject("{\"start\":2}"));
+        // not associatedData - ignored
+        tx.getRelationshipById(relationshipIds[2]).setProperty("note", "not logged");
+        tx.commit();
+      }
+      long firstVersion = changeLog.getCurrentVersion();
+      assertEquals(startVersion + 1, firstVersion);
+
+      AssociatedDataChangeSet changeSet = changeLog.changesSince(startVersion);
+      assertTrue(changeSet.isComplete());
+      assertEquals(firstVersion, changeSet.getToVersion());
+      assertEquals(2, changeSet.getChanges().size());
+      assertArrayEquals(new long[] { relationshipIds[0], relationshipIds[1] }, changeSet.getChangedRelationshipIds());
+      for (AssociatedDataChange change : changeSet.getChanges()) {
+        assertEquals("ad_log", change.getPropertyName());
+        assertEquals(AssociatedDataChange.Type.SET, change.getType());
+        assertEquals(firstVersion, change.getVersion());
+      }
+
+      // plain Cypher writes to listed properties are captured too
+      try ( Transaction tx = db.getTransaction() ) {
+        tx.execute("MATCH ()-[r]->() WHERE id(r) = $id REMOVE r.ad_log", Map.of("id", relationshipIds[0]));
+        tx.commit();
+      }
+
+      AssociatedDataChangeSet delta = changeLog.changesSince(firstVersion);
+      assertEquals(1, delta.getChanges().size());
+      assertEquals(relationshipIds[0], delta.getChanges().get(0).getRelationshipId());
+      assertEquals(AssociatedDataChange.Type.REMOVED, delta.getChanges().get(0).getType());
+
+      assertTrue(changeLog.changesSince(changeLog.getCurrentVersion()).isEmpty());
+    } finally {
+      db.disableAssociatedDataChangeLog();
+    }
+  }
+
+  @Test
+  public void testRolledBackWritesAreNotRecorded() throws Exception {
+    AssociatedDataChangeLog changeLog = db.enableAssociatedDataChangeLog();
+    try {
+      try ( Transaction tx = db.getTransaction() ) {
+        db.setAssociatedData(tx.getRelationshipById(relationshipIds[2]), "ad_rollback", new JSONObject("{\"start\":1}"));
+        tx.rollback();
+      }
+      assertEquals(0, changeLog.getCurrentVersion());
+      assertTrue(changeLog.changesSince(0).isEmpty());
+    } finally {
+      db.disableAssociatedDataChangeLog();
+    }
+  }
+
+  @Test
+  public void testCapacityExceededIsIncomplete() throws Exception {
+    AssociatedDataChangeLog changeLog = db.enableAssociatedDataChangeLog(2);
+    try {
+      for (int i = 0; i < 3; i++) {
+        try ( Transaction tx = db.getTransaction() ) {
+          db.setAssociatedData(tx.getRelationshipById(relationshipIds[i]), "ad_capacity", new JSONObject("{\"start\":1}"));
+          tx.commit();
+        }
+      }
+      assertEquals(3, changeLog.getCurrentVersion());
+      assertEquals(1, changeLog.getOldestVersion());
+      assertFalse(changeLog.changesSince(0).isComplete());
+      assertTrue(changeLog.changesSince(1).isComplete());
+      assertEquals(2, changeLog.changesSince(1).getChanges().size());
+
+      // incomplete change sets clear caches
+      AssociatedDataCache cache = new AssociatedDataCache(10, 1024);
+      cache.put(relationshipIds[0], "ad_capacity", null, 1);
+      changeLog.changesSince(0).invalidate(cache);
+      assertEquals(0, cache.size());
+    } finally {
+      db.disableAssociatedDataChangeLog();
+    }
+    assertNull(db.getAssociatedDataChangeLog());
+  }
+
+}
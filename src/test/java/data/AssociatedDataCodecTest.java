@@ -0,0 +1,176 @@
+package me.callsen.taylor.scenicrouting.javasdk.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigInteger;
+import java.util.Map;
+
+import org.json.JSONArray;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.Result;
+import org.neo4j.graphdb.Transaction;
+
+import me.callsen.taylor.scenicrouting.javasdk.RoutingConstants;
+import me.callsen.taylor.scenicrouting.javasdk.TestUtils;
+
+@TestInstance(Lifecycle.PER_CLASS)
+public class AssociatedDataCodecTest {
+
+  private static final String SAMPLE_JSON = "[{\"start\":49.2573,\"end\":51.5,\"count\":3,\"source\":\"usgs\"},{\"start\":51.5,\"end\":50,\"count\":4}]";
+
+  private GraphDb db;
+
+  @BeforeAll
+  public void initResources() throws Exception {
+    db = TestUtils.getLoadedGraphDb();
+  }
+
+  @AfterAll
+  public void shutdownResources() {
+    db.shutdown();
+  }
+
+  @Test
+  public void testBinaryRoundTrip() throws Exception {
+    AssociatedDataRecords records = AssociatedDataCodec.decode(AssociatedDataCodec.encode(new JSONArray(SAMPLE_JSON)));
+
+    assertTrue(records.isBinary());
+    assertEquals(2, records.size());
+    assertEquals(AssociatedDataFieldType.DOUBLE, records.getFieldType(records.getFieldIndex("start")));
+    assertEquals(AssociatedDataFieldType.LONG, records.getFieldType(records.getFieldIndex("count")));
+    assertEquals(AssociatedDataFieldType.STRING, records.getFieldType(records.getFieldIndex("source")));
+
+    assertEquals(49.2573d, records.getDouble(0, "start"));
+    assertEquals(50d, records.getDouble(1, "end"));
+    assertEquals(4L, records.getLong(1, "count"));
+    assertEquals("usgs", records.getString(0, "source"));
+    assertNull(records.getString(1, "source"));
+    assertEquals(-1, records.getFieldIndex("missing"));
+  }
+
+  @Test
+  public void testIntegersOutsideLongRangeAreNotTruncated() throws Exception {
+    JSONArray json = new JSONArray("[{\"big\":123456789012345678901234,\"max\":9223372036854775807}]");
+    AssociatedDataRecords records = AssociatedDataCodec.decode(AssociatedDataCodec.encode(json));
+
+    assertEquals(AssociatedDataFieldType.DOUBLE, records.getFieldType(records.getFieldIndex("big")));
+    assertEquals(1.23456789012345678901234e23d, records.getDouble(0, "big"));
+    assertEquals(AssociatedDataFieldType.LONG, records.getFieldType(records.getFieldIndex("max")));
+    assertEquals(Long.MAX_VALUE, records.getLong(0, "max"));
+
+    AssociatedDataEncoder encoder = new AssociatedDataEncoder().addField("big", AssociatedDataFieldType.LONG);
+    assertThrows(IllegalArgumentException.class, () -> encoder.addRecord(BigInteger.ONE.shiftLeft(Long.SIZE)));
+  }
+
+  @Test
+  public void testNullsMatchLegacyJson() throws Exception {
+    // missing and null values in every column type, and a column mixing longs and doubles
+    String json = "[{\"start\":1.5,\"count\":3,\"mixed\":1,\"source\":\"usgs\"},"
+        + "{\"start\":null,\"mixed\":2.5,\"source\":null},"
+        + "{\"count\":null,\"extra\":7},{}]";
+    AssociatedDataRecords legacy = AssociatedDataCodec.decode(json);
+    AssociatedDataRecords binary = AssociatedDataCodec.decode(AssociatedDataCodec.encode(new JSONArray(json)));
+
+    assertEquals(legacy.size(), binary.size());
+    assertEquals(legacy.getFieldCount(), binary.getFieldCount());
+    for (int f = 0; f < legacy.getFieldCount(); f++) {
+      assertEquals(legacy.getFieldName(f), binary.getFieldName(f));
+      assertEquals(legacy.getFieldType(f), binary.getFieldType(f));
+      for (int r = 0; r < legacy.size(); r++) {
+        assertEquals(legacy.isNull(r, f), binary.isNull(r, f));
+        assertEquals(legacy.getString(r, f), binary.getString(r, f));
+        if (legacy.getFieldType(f) != AssociatedDataFieldType.STRING) {
+          assertEquals(legacy.getDouble(r, f), binary.getDouble(r, f));
+          assertEquals(legacy.getLong(r, f), binary.getLong(r, f));
+        }
+      }
+    }
+
+    assertTrue(binary.isNull(1, "count"));
+    assertEquals(0L, binary.getLong(1, "count"));
+    assertNull(binary.getString(1, "count"));
+    assertTrue(Double.isNaN(binary.getDouble(2, "count")));
+    assertFalse(binary.isNull(0, "count"));
+    assertEquals("1.0", binary.getString(0, "mixed"));
+  }
+
+  @Test
+  public void testLegacyJsonFallback() throws Exception {
+    AssociatedDataRecords records = AssociatedDataCodec.decode(SAMPLE_JSON);
+
+    assertFalse(records.isBinary());
+    assertEquals(2, records.size());
+    assertEquals(49.2573d, records.getDouble(0, "start"));
+    assertEquals(3L, records.getLong(0, "count"));
+    assertEquals("usgs", records.getString(0, "source"));
+  }
+
+  @Test
+  public void testSetAssociatedDataBinary() throws Exception {
+    Transaction tx = db.getTransaction();
+    Result result = tx
+        .execute("MATCH ()-[r]-() WHERE r.start_osm_id=65312481 AND r.end_osm_id=65312480 return DISTINCT(r)");
+    while (result.hasNext()) {
+      Map<String, Object> row = result.next();
+      Relationship rel = (Relationship) row.get("r");
+
+      db.setAssociatedDataBinary(rel, "ad_binary", new JSONArray(SAMPLE_JSON));
+      db.setAssociatedData(rel, "ad_json", new JSONArray(SAMPLE_JSON));
+
+      String[] associatedDataProps = (String[]) rel.getProperty(RoutingConstants.GRAPH_PROPERTY_NAME_ASSOCIATED_DATA);
+      assertEquals(2, associatedDataProps.length);
+
+      // both encodings are readable through the same API
+      assertTrue(db.getAssociatedData(rel, "ad_binary").isBinary());
+      assertEquals(49.2573d, db.getAssociatedData(rel, "ad_binary").getDouble(0, "start"));
+      assertFalse(db.getAssociatedData(rel, "ad_json").isBinary());
+      assertEquals(49.2573d, db.getAssociatedData(rel, "ad_json").getDouble(0, "start"));
+      assertNull(db.getAssociatedData(rel, "ad_missing"));
+    }
+    tx.rollback();
+    tx.close();
+  }
+
+  @Test
+  public void testAssociatedDataView() throws Exception {
+    AssociatedDataSchema schema = new AssociatedDataSchema();
+    int binaryStart = schema.register("ad_binary", "start");
+    int binaryCount = schema.register("ad_binary", "count");
+    int jsonEnd = schema.register("ad_json", "end");
+    int missing = schema.register("ad_binary", "missing");
+    assertEquals(binaryStart, schema.register("ad_binary", "start"));
+
+    Transaction tx = db.getTransaction();
+    Result result = tx
+        .execute("MATCH ()-[r]-() WHERE r.start_osm_id=65312481 AND r.end_osm_id=65312480 return DISTINCT(r)");
+    while (result.hasNext()) {
+      Map<String, Object> row = result.next();
+      Relationship rel = (Relationship) row.get("r");
+
+      db.setAssociatedDataBinary(rel, "ad_binary", new JSONArray(SAMPLE_JSON));
+      db.setAssociatedData(rel, "ad_json", new JSONArray(SAMPLE_JSON));
+
+      AssociatedDataView view = db.getAssociatedDataView(schema);
+      assertTrue(view.load(rel));
+      assertEquals(49.2573d, view.getDouble(binaryStart));
+      assertEquals(51.5d, view.getDouble(binaryStart, 1));
+      assertEquals(4L, view.getLong(binaryCount, 1));
+      assertEquals(50d, view.getDouble(jsonEnd, 1));
+      assertEquals(2, view.getRecordCount(binaryStart));
+      assertFalse(view.has(missing));
+      assertTrue(Double.isNaN(view.getDouble(missing)));
+    }
+    tx.rollback();
+    tx.close();
+  }
+
+}
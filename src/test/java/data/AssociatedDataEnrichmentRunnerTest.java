@@ -0,0 +1,120 @@
+package me.callsen.taylor.scenicrouting.javasdk.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.Transaction;
+
+import me.callsen.taylor.scenicrouting.javasdk.TestUtils;
+
+@TestInstance(Lifecycle.PER_CLASS)
+public class AssociatedDataEnrichmentRunnerTest {
+
+  private GraphDb db;
+
+  @BeforeAll
+  public void initResources() throws Exception {
+    db = TestUtils.getLoadedGraphDb();
+  }
+
+  @AfterAll
+  public void shutdownResources() {
+    db.shutdown();
+  }
+
+  @Test
+  public void testRunsAllScorersInOnePass() throws Exception {
+    AssociatedDataScorer idScorer = scorer("ad_enrich_id", relationship -> 
+        new JSONArray().put(new JSONObject().put("id", relationship.getId())));
+    // only even ids are scored
+    AssociatedDataScorer evenScorer = scorer("ad_enrich_even", relationship -> relationship.getId() % 2 == 0 
+        ? new JSONArray().put(new JSONObject().put("even", 1)) : null);
+    AssociatedDataScorer failingScorer = scorer("ad_enrich_failing", relationship -> {
+      throw new IllegalStateException("scorer failure");
+    });
+
+    AssociatedDataEnrichmentRunner runner = new AssociatedDataEnrichmentRunner(db, List.of(idScorer, evenScorer, failingScorer), 4, 50);
+    long written = runner.run();
+
+    long relationshipCount = db.getRelationshipCount();
+    assertEquals(relationshipCount, runner.getEdgesScanned());
+    assertEquals(relationshipCount, runner.getEdgesScored());
+    assertEquals(relationshipCount, written);
+    assertEquals(relationshipCount, (long) runner.getScorerFailures().get("ad_enrich_failing"));
+
+    long evenCount = 0;
+    try ( Transaction tx = db.getTransaction() ) {
+      for (Relationship relationship : tx.getAllRelationships()) {
+        assertEquals(relationship.getId(), db.getAssociatedData(relationship, "ad_enrich_id").getLong(0, "id"));
+
+        List<String> associatedData = Arrays.asList((String[]) relationship.getProperty("associatedData"));
+        assertEquals(1, associatedData.stream().filter("ad_enrich_id"::equals).count());
+        assertTrue(!associatedData.contains("ad_enrich_failing"));
+        if (relationship.getId() % 2 == 0) {
+          assertTrue(associatedData.contains("ad_enrich_even"));
+          evenCount++;
+        } else {
+          assertTrue(!relationship.hasProperty("ad_enrich_even"));
+        }
+      }
+    }
+    assertEquals(relationshipCount + evenCount, runner.getPropertiesWritten());
+  }
+
+  @Test
+  public void testRejectsDuplicateProperties() throws Exception {
+    AssociatedDataScorer scorer = scorer("ad_enrich_duplicate", relationship -> null);
+    assertThrows(IllegalArgumentException.class, () -> new AssociatedDataEnrichmentRunner(db, List.of(scorer, scorer)));
+    assertThrows(IllegalArgumentException.class, () -> new AssociatedDataEnrichmentRunner(db, List.of()));
+  }
+
+  @Test
+  public void testFailedRunStopsWorkers() throws Exception {
+    // an Error escapes the per scorer catch and kills its worker, while the others wait on their stripes
+    AssociatedDataScorer fatalScorer = scorer("ad_enrich_fatal", relationship -> {
+      throw new AssertionError("fatal scorer failure");
+    });
+    AssociatedDataEnrichmentRunner runner = new AssociatedDataEnrichmentRunner(db, List.of(fatalScorer), 4, 50, 1);
+    assertThrows(IllegalStateException.class, runner::run);
+
+    long deadline = System.currentTimeMillis() + 10000;
+    while (workerThreadsAlive() && System.currentTimeMillis() < deadline) {
+      Thread.sleep(50);
+    }
+    assertFalse(workerThreadsAlive());
+  }
+
+  private static boolean workerThreadsAlive() {
+    return Thread.getAllStackTraces().keySet().stream()
+        .anyMatch(thread -> thread.isAlive() && thread.getName().startsWith(AssociatedDataEnrichmentRunner.WORKER_THREAD_PREFIX));
+  }
+
+  private static AssociatedDataScorer scorer(String propertyName, Function<RelationshipView, JSONArray> score) {
+    return new AssociatedDataScorer() {
+      @Override
+      public String getPropertyName() {
+        return propertyName;
+      }
+
+      @Override
+      public JSONArray score(RelationshipView relationship) {
+        return score.apply(relationship);
+      }
+    };
+  }
+
+}
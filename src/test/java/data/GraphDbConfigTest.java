@@ -0,0 +1,74 @@
+package me.callsen.taylor.scenicrouting.javasdk.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+public class GraphDbConfigTest {
+
+  @Test
+  public void testDefaultsHaveNoSettings() {
+    GraphDbConfig config = GraphDbConfig.defaults();
+    assertTrue(config.getSettings().isEmpty());
+    assertFalse(config.isReadOnly());
+    assertFalse(config.isWarmupOnStart());
+  }
+
+  @Test
+  public void testBuilderSettings() {
+    GraphDbConfig config = GraphDbConfig.builder()
+        .pageCacheSize("64m")
+        .transactionMaxSize(1024L * 1024)
+        .transactionGlobalMaxSize(8L * 1024 * 1024)
+        .queryCacheSize(500)
+        .checkpointInterval(Duration.ofMinutes(5))
+        .checkpointIntervalTransactions(10000)
+        .setting("dbms.memory.pagecache.direct_io", "false")
+        .build();
+
+    Map<String, String> settings = config.getSettings();
+    assertEquals("64m", settings.get("dbms.memory.pagecache.size"));
+    assertEquals("1048576", settings.get("dbms.memory.transaction.max_size"));
+    assertEquals("8388608", settings.get("dbms.memory.transaction.global_max_size"));
+    assertEquals("500", settings.get("dbms.query_cache_size"));
+    assertEquals("300000ms", settings.get("dbms.checkpoint.interval.time"));
+    assertEquals("10000", settings.get("dbms.checkpoint.interval.tx"));
+    assertEquals("false", settings.get("dbms.memory.pagecache.direct_io"));
+    assertThrows(UnsupportedOperationException.class, () -> settings.put("dbms.query_cache_size", "1"));
+  }
+
+  @Test
+  public void testBuilderValidation() {
+    assertThrows(IllegalArgumentException.class, () -> GraphDbConfig.builder().transactionMaxSize(-1));
+    assertThrows(IllegalArgumentException.class, () -> GraphDbConfig.builder().queryCacheSize(-1));
+    assertThrows(IllegalArgumentException.class, () -> GraphDbConfig.builder().checkpointInterval(Duration.ZERO));
+    assertThrows(IllegalArgumentException.class, () -> GraphDbConfig.builder().checkpointIntervalTransactions(0));
+    assertThrows(IllegalArgumentException.class, () -> GraphDbConfig.builder().setting("", "1"));
+  }
+
+  @Test
+  public void testOpenWithConfig() throws Exception {
+    GraphDbConfig config = GraphDbConfig.builder()
+        .pageCacheSize("16m")
+        .queryCacheSize(100)
+        .checkpointInterval(Duration.ofMinutes(1))
+        .build();
+
+    GraphDb db = new GraphDb(Files.createTempDirectory("scenicrouting-testdb").toFile().getAbsolutePath(), config);
+    try {
+      assertSame(config, db.getConfig());
+      assertEquals(0, db.getRelationshipCount());
+    } finally {
+      db.shutdown();
+    }
+  }
+
+}
@@ -104,6 +104,7 @@ public class GraphDbIndexTest {
 
     try ( Transaction tx = db.getTransaction() ) {
       boolean foundRelationShipWayGeomPoint = false;
+      boolean foundRelationShipWayOsmId = false;
 
       Result result = tx.execute("CALL db.indexes();");
       while ( result.hasNext() ) {
@@ -115,9 +116,15 @@ public class GraphDbIndexTest {
         if (checkRowForRelationShipWayGeomPoint(row, labelsOrTypes, properties)) {
           foundRelationShipWayGeomPoint = true;
         }
+
+        // relationship connects osm_id
+        if (checkRowForRelationShipWayOsmId(row, labelsOrTypes, properties)) {
+          foundRelationShipWayOsmId = true;
+        }
       }
 
       assertTrue(foundRelationShipWayGeomPoint);
+      assertTrue(foundRelationShipWayOsmId);
       tx.close();
     }
 
@@ -126,6 +133,7 @@ public class GraphDbIndexTest {
 
     try ( Transaction tx = db.getTransaction() ) {
       boolean foundRelationShipWayGeomPoint = false;
+      boolean foundRelationShipWayOsmId = false;
 
       Result result = tx.execute("CALL db.indexes();");
       while ( result.hasNext() ) {
@@ -137,9 +145,15 @@ public class GraphDbIndexTest {
         if (checkRowForRelationShipWayGeomPoint(row, labelsOrTypes, properties)) {
           foundRelationShipWayGeomPoint = true;
         }
+
+        // relationship connects osm_id
+        if (checkRowForRelationShipWayOsmId(row, labelsOrTypes, properties)) {
+          foundRelationShipWayOsmId = true;
+        }
       }
 
       assertFalse(foundRelationShipWayGeomPoint);
+      assertFalse(foundRelationShipWayOsmId);
       tx.close();
     }
 
@@ -167,4 +181,11 @@ public class GraphDbIndexTest {
         properties.contains(RoutingConstants.GRAPH_PROPERTY_NAME_GEOM);
   }
 
+  private static boolean checkRowForRelationShipWayOsmId(Map<String, Object> row, ArrayList<String> labelsOrTypes, ArrayList<String> properties) {
+    return row.get("name").equals(RoutingConstants.GRAPH_INDEX_NAME_WAY_OSM_ID) &&
+        row.get("entityType").equals("RELATIONSHIP") && 
+        labelsOrTypes.contains(RoutingConstants.RelationshipTypes.CONNECTS.toString()) &&
+        properties.contains(RoutingConstants.GRAPH_PROPERTY_NAME_OSM_ID);
+  }
+
 }
@@ -0,0 +1,103 @@
+package me.callsen.taylor.scenicrouting.javasdk.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.Transaction;
+
+import me.callsen.taylor.scenicrouting.javasdk.TestUtils;
+import me.callsen.taylor.scenicrouting.javasdk.metrics.MetricsListener;
+
+@TestInstance(Lifecycle.PER_CLASS)
+public class GraphDbMetricsTest {
+
+  private GraphDb db;
+  private RecordingMetricsListener metrics = new RecordingMetricsListener();
+
+  @BeforeAll
+  public void initResources() throws Exception {
+    db = TestUtils.getLoadedGraphDb();
+    db.setMetricsListener(metrics);
+  }
+
+  @AfterAll
+  public void shutdownResources() {
+    db.shutdown();
+  }
+
+  @Test
+  public void testTransactionAndWriteMetrics() throws Exception {
+    long opened = metrics.count(MetricsListener.TRANSACTION_OPEN);
+    long commits = metrics.timerCount(MetricsListener.TRANSACTION_COMMIT);
+
+    try ( Transaction tx = db.getTransaction() ) {
+      Relationship rel = (Relationship) tx.execute("MATCH ()-[r]->() RETURN r LIMIT 1").next().get("r");
+      db.setAssociatedData(rel, "ad_metrics", new JSONObject("{\"start\":1}"));
+      tx.commit();
+    }
+
+    assertEquals(opened + 1, metrics.count(MetricsListener.TRANSACTION_OPEN));
+    assertEquals(commits + 1, metrics.timerCount(MetricsListener.TRANSACTION_COMMIT));
+    assertTrue(metrics.timerCount(MetricsListener.ASSOCIATED_DATA_WRITE) >= 1);
+  }
+
+  @Test
+  public void testPageFetchMetrics() throws Exception {
+    long pageFetches = metrics.timerCount(MetricsListener.PAGE_FETCH);
+    try ( Transaction tx = db.getTransaction() ) {
+      RelationshipPage page = db.getRelationshipPage(tx, RelationshipCursor.start(), 10);
+      assertEquals(pageFetches + 1, metrics.timerCount(MetricsListener.PAGE_FETCH));
+      assertTrue(metrics.count(MetricsListener.PAGE_RELATIONSHIPS) >= page.size());
+    }
+  }
+
+  @Test
+  public void testNoopByDefault() throws Exception {
+    GraphDb other = TestUtils.getEmptyGraphDb();
+    try {
+      assertEquals(MetricsListener.NOOP, other.getMetricsListener());
+      other.setMetricsListener(null);
+      assertEquals(MetricsListener.NOOP, other.getMetricsListener());
+    } finally {
+      other.shutdown();
+    }
+  }
+
+  private static class RecordingMetricsListener implements MetricsListener {
+
+    private final Map<String, AtomicLong> counters = new ConcurrentHashMap<String, AtomicLong>();
+    private final Map<String, AtomicLong> timers = new ConcurrentHashMap<String, AtomicLong>();
+
+    @Override
+    public void recordTimer(String name, long nanos) {
+      assertTrue(nanos >= 0);
+      timers.computeIfAbsent(name, key -> new AtomicLong()).incrementAndGet();
+    }
+
+    @Override
+    public void incrementCounter(String name, long amount) {
+      counters.computeIfAbsent(name, key -> new AtomicLong()).addAndGet(amount);
+    }
+
+    long count(String name) {
+      return counters.getOrDefault(name, new AtomicLong()).get();
+    }
+
+    long timerCount(String name) {
+      return timers.getOrDefault(name, new AtomicLong()).get();
+    }
+
+  }
+
+}
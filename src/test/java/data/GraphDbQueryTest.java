@@ -0,0 +1,120 @@
+package me.callsen.taylor.scenicrouting.javasdk.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.Result;
+import org.neo4j.graphdb.Transaction;
+
+import me.callsen.taylor.scenicrouting.javasdk.TestUtils;
+
+@TestInstance(Lifecycle.PER_CLASS)
+public class GraphDbQueryTest {
+
+  private static final long START_OSM_ID = 65312481L;
+  private static final long END_OSM_ID = 65312480L;
+
+  private GraphDb db;
+
+  @BeforeAll
+  public void initResources() throws Exception {
+    db = TestUtils.getLoadedGraphDb();
+  }
+
+  @AfterAll
+  public void shutdownResources() {
+    db.shutdown();
+  }
+
+  @Test
+  public void testIntersectionByOsmId() throws Exception {
+    try ( Transaction tx = db.getTransaction() ) {
+      Node intersection = db.getIntersectionByOsmId(tx, START_OSM_ID);
+      assertNotNull(intersection);
+      assertEquals(START_OSM_ID, ((Number) intersection.getProperty("osm_id")).longValue());
+
+      assertNull(db.getIntersectionByOsmId(tx, -1L));
+    }
+  }
+
+  @Test
+  public void testWaysByEndPoints() throws Exception {
+    try ( Transaction tx = db.getTransaction() ) {
+      List<Relationship> between = db.getWaysBetween(tx, START_OSM_ID, END_OSM_ID);
+      assertFalse(between.isEmpty());
+      for (Relationship way : between) {
+        assertEquals(START_OSM_ID, ((Number) way.getProperty("start_osm_id")).longValue());
+        assertEquals(END_OSM_ID, ((Number) way.getProperty("end_osm_id")).longValue());
+      }
+
+      List<Relationship> fromStart = db.getWaysByStartOsmId(tx, START_OSM_ID);
+      List<Relationship> toEnd = db.getWaysByEndOsmId(tx, END_OSM_ID);
+      for (Relationship way : between) {
+        assertTrue(fromStart.contains(way));
+        assertTrue(toEnd.contains(way));
+      }
+      for (Relationship way : fromStart) {
+        assertEquals(START_OSM_ID, ((Number) way.getProperty("start_osm_id")).longValue());
+      }
+
+      long wayOsmId = ((Number) between.get(0).getProperty("osm_id")).longValue();
+      assertTrue(db.getWaysByOsmId(tx, wayOsmId).contains(between.get(0)));
+
+      assertTrue(db.getWaysBetween(tx, END_OSM_ID, -1L).isEmpty());
+    }
+  }
+
+  @Test
+  public void testParameterisedPages() throws Exception {
+    long relationshipCount = db.getRelationshipCount();
+
+    try ( Transaction tx = db.getTransaction() ) {
+      assertEquals(100, count(db.getRelationshipPage(tx, 0, 100)));
+      assertEquals(relationshipCount % 100, count(db.getRelationshipPage(tx, (int) (relationshipCount / 100), 100)));
+      assertEquals(0, count(db.getRelationshipPage(tx, (int) (relationshipCount / 100) + 1, 100)));
+    }
+  }
+
+  @Test
+  public void testCountsMatchCoreApi() throws Exception {
+    long relationships = 0;
+    long associatedDataRelationships = 0;
+    try ( Transaction tx = db.getTransaction() ) {
+      for (Relationship relationship : tx.getAllRelationships()) {
+        relationships++;
+        String[] associatedData = (String[]) relationship.getProperty("associatedData", new String[0]);
+        if (associatedData.length > 0) {
+          associatedDataRelationships++;
+        }
+      }
+    }
+
+    assertEquals(676, relationships);
+    assertEquals(relationships, db.getRelationshipCount());
+    assertEquals(associatedDataRelationships, db.getAssociatedDataRelationshipCount());
+  }
+
+  private static long count(Result page) {
+    long count = 0;
+    try ( page ) {
+      while (page.hasNext()) {
+        page.next();
+        count++;
+      }
+    }
+    return count;
+  }
+
+}
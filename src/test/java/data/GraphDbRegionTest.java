@@ -0,0 +1,158 @@
+package me.callsen.taylor.scenicrouting.javasdk.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.Transaction;
+
+import me.callsen.taylor.scenicrouting.javasdk.TestUtils;
+import me.callsen.taylor.scenicrouting.javasdk.routing.RoutingGraph;
+import me.callsen.taylor.scenicrouting.javasdk.routing.RoutingGraphFile;
+import me.callsen.taylor.scenicrouting.javasdk.spatial.BoundingBox;
+
+@TestInstance(Lifecycle.PER_CLASS)
+public class GraphDbRegionTest {
+
+  private GraphDb db;
+  private RoutingGraph fullGraph;
+  // central quarter of the fixture extent
+  private BoundingBox region;
+
+  @BeforeAll
+  public void initResources() throws Exception {
+    db = TestUtils.getLoadedGraphDb();
+    fullGraph = db.buildRoutingGraph();
+
+    double minLatitude = Double.POSITIVE_INFINITY, maxLatitude = Double.NEGATIVE_INFINITY;
+    double minLongitude = Double.POSITIVE_INFINITY, maxLongitude = Double.NEGATIVE_INFINITY;
+    for (int node = 0; node < fullGraph.getNodeCount(); node++) {
+      minLatitude = Math.min(minLatitude, fullGraph.getNodeLatitude(node));
+      maxLatitude = Math.max(maxLatitude, fullGraph.getNodeLatitude(node));
+      minLongitude = Math.min(minLongitude, fullGraph.getNodeLongitude(node));
+      maxLongitude = Math.max(maxLongitude, fullGraph.getNodeLongitude(node));
+    }
+    double latitudeQuarter = (maxLatitude - minLatitude) / 4d;
+    double longitudeQuarter = (maxLongitude - minLongitude) / 4d;
+    region = new BoundingBox(minLatitude + latitudeQuarter, minLongitude + longitudeQuarter,
+        maxLatitude - latitudeQuarter, maxLongitude - longitudeQuarter);
+  }
+
+  @AfterAll
+  public void shutdownResources() {
+    db.shutdown();
+  }
+
+  @Test
+  public void testIntersectionsInBoundingBox() {
+    Set<Long> expected = new HashSet<Long>();
+    for (int node = 0; node < fullGraph.getNodeCount(); node++) {
+      if (region.contains(fullGraph.getNodeLatitude(node), fullGraph.getNodeLongitude(node))) {
+        expected.add(fullGraph.getNodeId(node));
+      }
+    }
+    assertFalse(expected.isEmpty());
+    assertTrue(expected.size() < fullGraph.getNodeCount());
+
+    try ( Transaction tx = db.getTransaction() ) {
+      Set<Long> found = new HashSet<Long>();
+      for (Node node : db.getIntersectionsInBoundingBox(tx, region)) {
+        found.add(node.getId());
+      }
+      assertEquals(expected, found);
+    }
+  }
+
+  @Test
+  public void testWaysInBoundingBox() {
+    try ( Transaction tx = db.getTransaction() ) {
+      Set<Long> inside = new HashSet<Long>();
+      for (Node node : db.getIntersectionsInBoundingBox(tx, region)) {
+        inside.add(node.getId());
+      }
+      List<Relationship> ways = db.getWaysInBoundingBox(tx, region);
+      assertFalse(ways.isEmpty());
+      Set<Long> wayIds = new HashSet<Long>();
+      for (Relationship way : ways) {
+        assertTrue(wayIds.add(way.getId()));
+        assertTrue(inside.contains(way.getStartNode().getId()) || inside.contains(way.getEndNode().getId()));
+      }
+    }
+  }
+
+  @Test
+  public void testRegionRoutingGraph() {
+    RoutingGraph regionGraph = db.buildRoutingGraph(new AssociatedDataSchema(), region);
+    assertEquals(region, regionGraph.getBoundingBox());
+    assertNull(fullGraph.getBoundingBox());
+    assertTrue(regionGraph.getNodeCount() > 0);
+    assertTrue(regionGraph.getNodeCount() < fullGraph.getNodeCount());
+    assertTrue(regionGraph.getEdgeCount() < fullGraph.getEdgeCount());
+
+    for (int node = 0; node < regionGraph.getNodeCount(); node++) {
+      assertTrue(region.contains(regionGraph.getNodeLatitude(node), regionGraph.getNodeLongitude(node)));
+      assertTrue(fullGraph.getNodeIndex(regionGraph.getNodeOsmId(node)) >= 0);
+    }
+
+    // every full graph edge with both end points in the region is kept
+    int expectedEdges = 0;
+    for (int edge = 0; edge < fullGraph.getEdgeCount(); edge++) {
+      int source = fullGraph.getEdgeSource(edge);
+      int target = fullGraph.getEdgeTarget(edge);
+      if (region.contains(fullGraph.getNodeLatitude(source), fullGraph.getNodeLongitude(source))
+          && region.contains(fullGraph.getNodeLatitude(target), fullGraph.getNodeLongitude(target))) {
+        expectedEdges++;
+      }
+    }
+    assertEquals(expectedEdges, regionGraph.getEdgeCount());
+
+    RoutingGraph refreshed = regionGraph.refresh(db);
+    assertEquals(region, refreshed.getBoundingBox());
+    assertEquals(regionGraph.getNodeCount(), refreshed.getNodeCount());
+  }
+
+  @Test
+  public void testExportRoutingGraphTiles() throws Exception {
+    Path directory = Files.createTempDirectory("scenicrouting-tiles");
+    List<Path> files = db.exportRoutingGraphTiles(directory, new AssociatedDataSchema(), region, 6, 100d);
+    assertFalse(files.isEmpty());
+
+    Set<Long> covered = new HashSet<Long>();
+    for (Path file : files) {
+      RoutingGraph tile = RoutingGraphFile.open(file);
+      assertTrue(tile.getBoundingBox() != null);
+      assertTrue(tile.getNodeCount() > 0);
+      for (int node = 0; node < tile.getNodeCount(); node++) {
+        covered.add(tile.getNodeOsmId(node));
+      }
+    }
+    // every intersection in the region lands in at least one tile
+    for (int node = 0; node < fullGraph.getNodeCount(); node++) {
+      if (region.contains(fullGraph.getNodeLatitude(node), fullGraph.getNodeLongitude(node))) {
+        assertTrue(covered.contains(fullGraph.getNodeOsmId(node)));
+      }
+    }
+  }
+
+  @Test
+  public void testRegionWarmup() {
+    long touched = db.warmup(region, 10, null);
+    assertTrue(touched > 0);
+    assertTrue(touched < db.warmup(1000, null));
+  }
+
+}
@@ -0,0 +1,125 @@
+package me.callsen.taylor.scenicrouting.javasdk.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.graphdb.Transaction;
+
+import me.callsen.taylor.scenicrouting.javasdk.RoutingConstants;
+import me.callsen.taylor.scenicrouting.javasdk.RoutingConstants.RelationshipTypes;
+import me.callsen.taylor.scenicrouting.javasdk.TestUtils;
+import me.callsen.taylor.scenicrouting.javasdk.metrics.MetricsListener;
+
+@TestInstance(Lifecycle.PER_CLASS)
+public class GraphDbStreamTest {
+
+  private GraphDb db;
+
+  @BeforeAll
+  public void initResources() throws Exception {
+    db = TestUtils.getLoadedGraphDb();
+  }
+
+  @AfterAll
+  public void shutdownResources() {
+    db.shutdown();
+  }
+
+  @Test
+  public void testStreamVisitsEveryRelationshipOnce() throws Exception {
+    try ( Stream<RelationshipView> relationships = db.streamRelationships(false, 50) ) {
+      List<Long> ids = relationships.map(RelationshipView::getId).collect(Collectors.toList());
+      assertEquals(db.getRelationshipCount(), ids.size());
+      assertEquals(db.getRelationshipCount(), ids.stream().distinct().count());
+    }
+  }
+
+  @Test
+  public void testStreamVisitsRelationshipsWithoutOsmId() throws Exception {
+    long textOsmIdId;
+    long otherTypeId;
+    try ( Transaction tx = db.getTransaction() ) {
+      Relationship existing = (Relationship) tx.execute("MATCH ()-[r:CONNECTS]->() RETURN r LIMIT 1").next().get("r");
+      Relationship textOsmId = existing.getStartNode().createRelationshipTo(existing.getEndNode(), RelationshipTypes.CONNECTS);
+      textOsmId.setProperty(RoutingConstants.GRAPH_PROPERTY_NAME_OSM_ID, "way/1");
+      Relationship otherType = existing.getStartNode().createRelationshipTo(existing.getEndNode(), RelationshipType.withName("STREAM_OTHER"));
+      textOsmIdId = textOsmId.getId();
+      otherTypeId = otherType.getId();
+      tx.commit();
+    }
+
+    try ( Stream<RelationshipView> relationships = db.streamRelationships(false, 50) ) {
+      List<Long> ids = relationships.map(RelationshipView::getId).collect(Collectors.toList());
+      assertEquals(db.getRelationshipCount(), ids.size());
+      assertTrue(ids.contains(textOsmIdId));
+      assertTrue(ids.contains(otherTypeId));
+    } finally {
+      try ( Transaction tx = db.getTransaction() ) {
+        tx.getRelationshipById(textOsmIdId).delete();
+        tx.getRelationshipById(otherTypeId).delete();
+        tx.commit();
+      }
+    }
+  }
+
+  @Test
+  public void testStreamAssociatedDataRelationships() throws Exception {
+    try ( Transaction tx = db.getTransaction() ) {
+      for (Object rel : tx.execute("MATCH ()-[r:CONNECTS]->() RETURN r ORDER BY id(r) LIMIT 3").columnAs("r").stream().collect(Collectors.toList())) {
+        db.setAssociatedData((Relationship) rel, "ad_stream", new JSONObject("{\"start\":12.5}"));
+      }
+      tx.commit();
+    }
+
+    // views are detached - read them after every page transaction has closed
+    List<RelationshipView> views = db.streamAssociatedDataRelationships().collect(Collectors.toList());
+    assertEquals(db.getAssociatedDataRelationshipCount(), views.size());
+    long streamed = views.stream().filter(view -> view.getProperty("ad_stream") != null).count();
+    assertEquals(3, streamed);
+    for (RelationshipView view : views) {
+      assertTrue(view.hasAssociatedData());
+      if (view.getProperty("ad_stream") != null) {
+        assertEquals(12.5d, view.getAssociatedData("ad_stream").getDouble(0, "start"), 0.000001d);
+      }
+    }
+  }
+
+  @Test
+  public void testStreamFetchesPagesOnDemand() throws Exception {
+    AtomicLong pageFetches = new AtomicLong();
+    db.setMetricsListener(new MetricsListener() {
+      @Override
+      public void recordTimer(String name, long nanos) {
+        if (MetricsListener.PAGE_FETCH.equals(name)) {
+          pageFetches.incrementAndGet();
+        }
+      }
+
+      @Override
+      public void incrementCounter(String name, long amount) {
+        // not needed
+      }
+    });
+
+    try {
+      assertEquals(3, db.streamRelationships(false, 2).limit(3).count());
+      assertEquals(2, pageFetches.get());
+    } finally {
+      db.setMetricsListener(null);
+    }
+  }
+
+}
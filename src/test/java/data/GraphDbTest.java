@@ -1,8 +1,12 @@
 package me.callsen.taylor.scenicrouting.javasdk.data;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
@@ -38,6 +42,77 @@ public class GraphDbTest {
     assertEquals(676, db.getRelationshipCount());
   }
 
+  @Test
+  public void testRelationshipCursorPagination() throws Exception {
+    try ( Transaction tx = db.getTransaction() ) {
+      long expectedCount = (Long) tx.execute("MATCH ()-[r]->() WHERE r.osm_id IS NOT NULL RETURN count(r) AS total").next().get("total");
+
+      // walk all pages with a small page size - each relationship should be returned exactly once
+      Set<Long> seenIds = new HashSet<Long>();
+      RelationshipCursor cursor = RelationshipCursor.start();
+      while (cursor != null) {
+        RelationshipPage page = db.getRelationshipPage(tx, cursor, 50);
+        for (Relationship rel : page.getRelationships()) {
+          assertTrue(seenIds.add(rel.getId()));
+        }
+        cursor = page.getNextCursor();
+      }
+
+      assertEquals(expectedCount, seenIds.size());
+    }
+  }
+
+  @Test
+  public void testRelationshipCursorSkipsNonNumericOsmIds() throws Exception {
+    try ( Transaction tx = db.getTransaction() ) {
+      long expectedCount = (Long) tx.execute("MATCH ()-[r:CONNECTS]->() RETURN count(r) AS total").next().get("total");
+
+      // uncommitted - rolled back when the transaction closes
+      Relationship existing = (Relationship) tx.execute("MATCH ()-[r:CONNECTS]->() RETURN r LIMIT 1").next().get("r");
+      Relationship textOsmId = existing.getStartNode().createRelationshipTo(existing.getEndNode(), RoutingConstants.RelationshipTypes.CONNECTS);
+      textOsmId.setProperty(RoutingConstants.GRAPH_PROPERTY_NAME_OSM_ID, "way/1");
+
+      Set<Long> seenIds = new HashSet<Long>();
+      RelationshipCursor cursor = RelationshipCursor.start();
+      while (cursor != null) {
+        RelationshipPage page = db.getRelationshipPage(tx, cursor, 50);
+        for (Relationship rel : page.getRelationships()) {
+          assertTrue(seenIds.add(rel.getId()));
+        }
+        cursor = page.getNextCursor();
+      }
+
+      assertFalse(seenIds.contains(textOsmId.getId()));
+      assertEquals(expectedCount, seenIds.size());
+    }
+  }
+
+  @Test
+  public void testRelationshipCursorToken() throws Exception {
+    RelationshipCursor cursor = RelationshipCursor.after(65312481L, 42L);
+    RelationshipCursor parsed = RelationshipCursor.fromToken(cursor.toToken());
+    assertFalse(parsed.isStart());
+    assertEquals(65312481L, parsed.getLastOsmId());
+    assertEquals(42L, parsed.getLastRelationshipId());
+
+    assertTrue(RelationshipCursor.fromToken(RelationshipCursor.start().toToken()).isStart());
+  }
+
+  @Test
+  public void testScanRelationshipsParallel() throws Exception {
+    RelationshipPartitionScanner<Long> counter = (tx, relationships) -> {
+      long partitionCount = 0;
+      for (Relationship rel : relationships) {
+        partitionCount++;
+      }
+      return partitionCount;
+    };
+
+    // each relationship should be visited by exactly one partition
+    Long count = db.scanRelationshipsParallel(4, false, counter, Long::sum);
+    assertEquals(db.getRelationshipCount(), count.longValue());
+  }
+
   @Test
   public void testSetAssociatedDataSingleProp() throws Exception {
     Transaction tx = db.getTransaction();
@@ -0,0 +1,79 @@
+package me.callsen.taylor.scenicrouting.javasdk.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.neo4j.graphdb.Transaction;
+
+import me.callsen.taylor.scenicrouting.javasdk.TestUtils;
+
+public class GraphDbTruncateTest {
+
+  @Test
+  public void testTruncateRelationshipsInChunks() throws Exception {
+    GraphDb db = TestUtils.getLoadedGraphDb();
+    try {
+      long relationshipCount = countRelationships(db);
+      AtomicLong chunks = new AtomicLong();
+      AtomicLong reportedTotal = new AtomicLong();
+
+      long deleted = db.truncateGraphRelationships(100, 1, (entityType, chunkDeleted, totalDeleted) -> {
+        assertTrue(chunkDeleted <= 100);
+        chunks.incrementAndGet();
+        reportedTotal.set(totalDeleted);
+      });
+
+      assertEquals(relationshipCount, deleted);
+      assertEquals(relationshipCount, reportedTotal.get());
+      assertTrue(chunks.get() >= relationshipCount / 100);
+      assertEquals(0, countRelationships(db));
+      assertTrue(countNodes(db) > 0);
+    } finally {
+      db.shutdown();
+    }
+  }
+
+  @Test
+  public void testTruncateNodesInParallel() throws Exception {
+    GraphDb db = TestUtils.getLoadedGraphDb();
+    try {
+      long nodeCount = countNodes(db);
+      long deleted = db.truncateGraphNodes(50, 4, null);
+
+      assertEquals(nodeCount, deleted);
+      assertEquals(0, countNodes(db));
+      assertEquals(0, countRelationships(db));
+    } finally {
+      db.shutdown();
+    }
+  }
+
+  @Test
+  public void testResetStore() throws Exception {
+    GraphDb db = TestUtils.getLoadedGraphDb();
+    try {
+      assertTrue(countNodes(db) > 0);
+      db.resetStore();
+      assertEquals(0, countNodes(db));
+      assertEquals(0, countRelationships(db));
+    } finally {
+      db.shutdown();
+    }
+  }
+
+  private static long countNodes(GraphDb db) {
+    try ( Transaction tx = db.getTransaction() ) {
+      return (Long) tx.execute("MATCH (n) RETURN count(n) AS total").next().get("total");
+    }
+  }
+
+  private static long countRelationships(GraphDb db) {
+    try ( Transaction tx = db.getTransaction() ) {
+      return (Long) tx.execute("MATCH ()-[r]->() RETURN count(r) AS total").next().get("total");
+    }
+  }
+
+}
@@ -0,0 +1,75 @@
+package me.callsen.taylor.scenicrouting.javasdk.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.Transaction;
+
+import me.callsen.taylor.scenicrouting.javasdk.TestUtils;
+
+@TestInstance(Lifecycle.PER_CLASS)
+public class GraphDbWarmupTest {
+
+  private GraphDb db;
+  private long nodeCount;
+  private long relationshipCount;
+
+  @BeforeAll
+  public void initResources() throws Exception {
+    // reopen a copy of the fixture read-only
+    GraphDb writableDb = TestUtils.getLoadedGraphDb();
+    String graphDbPath = writableDb.getGraphDbPath();
+    writableDb.shutdown();
+
+    db = new GraphDb(graphDbPath, GraphDbConfig.builder().readOnly(true).build());
+    relationshipCount = db.getRelationshipCount();
+    try ( Transaction tx = db.getTransaction() ) {
+      nodeCount = (Long) tx.execute("MATCH (n) RETURN count(n) AS total").next().get("total");
+    }
+  }
+
+  @AfterAll
+  public void shutdownResources() {
+    db.shutdown();
+  }
+
+  @Test
+  public void testWarmupTouchesEveryEntity() throws Exception {
+    Map<String, long[]> progress = new ConcurrentHashMap<String, long[]>();
+    long touched = db.warmup(100, (phase, phaseTouched, total) -> progress.put(phase, new long[] { phaseTouched, total }));
+
+    assertEquals(nodeCount + relationshipCount, touched);
+    assertEquals(nodeCount, progress.get("nodes")[0]);
+    assertEquals(relationshipCount, progress.get("relationships")[0]);
+    assertTrue(progress.containsKey("indexes"));
+    assertEquals(progress.get("indexes")[1], progress.get("indexes")[0]);
+  }
+
+  @Test
+  public void testReadOnlyRejectsWrites() throws Exception {
+    assertTrue(db.isReadOnly());
+
+    try ( Transaction tx = db.getTransaction() ) {
+      Relationship rel = (Relationship) tx.execute("MATCH ()-[r]->() RETURN r LIMIT 1").next().get("r");
+      assertThrows(IllegalStateException.class, () -> db.setAssociatedData(rel, "ad_readonly", new JSONObject("{\"start\":1}")));
+    }
+    assertThrows(IllegalStateException.class, () -> db.truncateGraphRelationships());
+    assertThrows(IllegalStateException.class, () -> db.createNodeIndexes());
+    assertThrows(IllegalStateException.class, () -> new AssociatedDataBatchWriter(db));
+
+    // reads are unaffected
+    assertEquals(relationshipCount, db.getRelationshipCount());
+  }
+
+}
@@ -0,0 +1,131 @@
+package me.callsen.taylor.scenicrouting.javasdk.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.json.JSONArray;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.Transaction;
+
+import me.callsen.taylor.scenicrouting.javasdk.RoutingConstants;
+import me.callsen.taylor.scenicrouting.javasdk.RoutingConstants.NodeLabels;
+import me.callsen.taylor.scenicrouting.javasdk.TestUtils;
+import me.callsen.taylor.scenicrouting.javasdk.util.GeoUtils;
+
+@TestInstance(Lifecycle.PER_CLASS)
+public class GraphImporterTest {
+
+  private GraphDb db;
+  private GraphImporter importer;
+
+  @BeforeAll
+  public void initResources() throws Exception {
+    db = TestUtils.getEmptyGraphDb();
+
+    Path csvDirectory = Files.createTempDirectory("scenicrouting-import");
+    Path intersectionsCsv = csvDirectory.resolve("intersections.csv");
+    Files.write(intersectionsCsv, String.join("\n",
+        "osm_id,lat,lon,highway",
+        "1,37.7740,-122.4190,traffic_signals",
+        "2,37.7750,-122.4180,",
+        "3,37.7760,-122.4170,stop").getBytes(StandardCharsets.UTF_8));
+
+    Path waysCsv = csvDirectory.resolve("ways.csv");
+    Files.write(waysCsv, String.join("\n",
+        "osm_id,start_osm_id,end_osm_id,geom_wkt,length,oneway,ad_elevation",
+        "100,1,2,\"LINESTRING(-122.4190 37.7740, -122.4185 37.7745, -122.4180 37.7750)\",140.5,no,\"{\"\"start\"\":10.5,\"\"end\"\":12}\"",
+        "101,2,3,\"LINESTRING(-122.4180 37.7750, -122.4170 37.7760)\",139.9,yes,",
+        "102,3,99,,50,no,").getBytes(StandardCharsets.UTF_8));
+
+    // small batch size so the import spans several transactions
+    importer = new GraphImporter(db, 2);
+    importer.importIntersectionsCsv(intersectionsCsv);
+    importer.importWaysCsv(waysCsv);
+    importer.finish();
+  }
+
+  @AfterAll
+  public void shutdownResources() {
+    db.shutdown();
+  }
+
+  @Test
+  public void testImportCounts() throws Exception {
+    assertEquals(3, importer.getIntersectionsImported());
+    assertEquals(2, importer.getWaysImported());
+    // way 102 references an intersection that was not imported
+    assertEquals(1, importer.getWaysSkipped());
+    assertTrue(importer.getBatchesCommitted() >= 3);
+    assertEquals(2, db.getRelationshipCount());
+  }
+
+  @Test
+  public void testIntersectionProperties() throws Exception {
+    try ( Transaction tx = db.getTransaction() ) {
+      Node node = tx.findNode(NodeLabels.INTERSECTION, RoutingConstants.GRAPH_PROPERTY_NAME_OSM_ID, 1L);
+      assertEquals(37.7740d, GeoUtils.latitude(node.getProperty(RoutingConstants.GRAPH_PROPERTY_NAME_GEOM)), 1e-9);
+      assertEquals(-122.4190d, GeoUtils.longitude(node.getProperty(RoutingConstants.GRAPH_PROPERTY_NAME_GEOM)), 1e-9);
+      assertEquals("traffic_signals", node.getProperty("highway"));
+
+      Node noHighwayNode = tx.findNode(NodeLabels.INTERSECTION, RoutingConstants.GRAPH_PROPERTY_NAME_OSM_ID, 2L);
+      assertFalse(noHighwayNode.hasProperty("highway"));
+    }
+  }
+
+  @Test
+  public void testWayProperties() throws Exception {
+    try ( Transaction tx = db.getTransaction() ) {
+      Relationship rel = (Relationship) tx.execute("MATCH (:INTERSECTION {osm_id: 1})-[r:CONNECTS]->(:INTERSECTION {osm_id: 2}) RETURN r").next().get("r");
+      assertEquals(100L, rel.getProperty(RoutingConstants.GRAPH_PROPERTY_NAME_OSM_ID));
+      assertEquals(140.5d, (Double) rel.getProperty(RoutingConstants.GRAPH_PROPERTY_NAME_LENGTH), 1e-9);
+      assertEquals("no", rel.getProperty(RoutingConstants.GRAPH_PROPERTY_NAME_ONEWAY));
+      assertEquals(3, GeoUtils.points(rel.getProperty(RoutingConstants.GRAPH_PROPERTY_NAME_GEOM)).length);
+
+      String[] associatedData = (String[]) rel.getProperty(RoutingConstants.GRAPH_PROPERTY_NAME_ASSOCIATED_DATA);
+      assertEquals("ad_elevation", associatedData[0]);
+      assertEquals(10.5d, new JSONArray((String) rel.getProperty("ad_elevation")).getJSONObject(0).getDouble("start"), 1e-9);
+    }
+  }
+
+  @Test
+  public void testFailedImportCommitsNothing() throws Exception {
+    GraphDb failedDb = TestUtils.getEmptyGraphDb();
+    try {
+      GraphImporter failedImporter = new GraphImporter(failedDb);
+      assertThrows(IllegalStateException.class, () -> {
+        try ( GraphImporter closingImporter = failedImporter ) {
+          closingImporter.addIntersection(1L, 37.7740d, -122.4190d, null);
+          closingImporter.addIntersection(2L, 37.7750d, -122.4180d, null);
+          throw new IllegalStateException("import failure");
+        }
+      });
+      assertThrows(IllegalStateException.class, () -> failedImporter.addIntersection(3L, 37.7760d, -122.4170d, null));
+      assertThrows(IllegalStateException.class, failedImporter::finish);
+
+      try ( Transaction tx = failedDb.getTransaction() ) {
+        assertFalse(tx.getAllNodes().iterator().hasNext());
+        assertFalse(tx.schema().getIndexes(NodeLabels.INTERSECTION).iterator().hasNext());
+      }
+    } finally {
+      failedDb.shutdown();
+    }
+  }
+
+  @Test
+  public void testImportRequiresEmptyStore() throws Exception {
+    assertThrows(IllegalStateException.class, () -> new GraphImporter(db));
+  }
+
+}
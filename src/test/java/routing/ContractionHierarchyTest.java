@@ -0,0 +1,105 @@
+package me.callsen.taylor.scenicrouting.javasdk.routing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+
+import me.callsen.taylor.scenicrouting.javasdk.TestUtils;
+import me.callsen.taylor.scenicrouting.javasdk.data.GraphDb;
+
+@TestInstance(Lifecycle.PER_CLASS)
+public class ContractionHierarchyTest {
+
+  private GraphDb db;
+  private RoutingGraph routingGraph;
+  private ContractionHierarchy hierarchy;
+
+  @BeforeAll
+  public void initResources() throws Exception {
+    db = TestUtils.getLoadedGraphDb();
+    routingGraph = db.buildRoutingGraph();
+    hierarchy = ContractionHierarchy.build(routingGraph, EdgeCostFunction.LENGTH, "length");
+  }
+
+  @AfterAll
+  public void shutdownResources() {
+    db.shutdown();
+  }
+
+  @Test
+  public void testMatchesDijkstra() throws Exception {
+    ShortestPathEngine engine = new ShortestPathEngine(routingGraph);
+    ContractionHierarchyQuery query = hierarchy.createQuery(routingGraph);
+    assertMatchesDijkstra(engine, query);
+  }
+
+  @Test
+  public void testPersistAndReload() throws Exception {
+    Path hierarchyFile = ContractionHierarchy.getDefaultFile(db, "length");
+    hierarchy.write(hierarchyFile);
+    ContractionHierarchy reloaded = ContractionHierarchy.read(hierarchyFile);
+
+    assertEquals("length", reloaded.getProfileName());
+    assertEquals(hierarchy.getEdgeCount(), reloaded.getEdgeCount());
+    assertTrue(reloaded.isBuiltFrom(routingGraph));
+    assertMatchesDijkstra(new ShortestPathEngine(routingGraph), reloaded.createQuery(routingGraph));
+  }
+
+  @Test
+  public void testRoutePlannerFallback() throws Exception {
+    RoutePlanner planner = new RoutePlanner(routingGraph);
+    planner.addContractionHierarchy(EdgeCostFunction.LENGTH, hierarchy);
+    assertTrue(planner.hasContractionHierarchy(EdgeCostFunction.LENGTH));
+
+    // dynamic profile - no hierarchy, answered by A*
+    EdgeCostFunction dynamic = (graph, edge) -> graph.getEdgeLength(edge) * 2;
+    assertFalse(planner.hasContractionHierarchy(dynamic));
+
+    ShortestPathEngine engine = new ShortestPathEngine(routingGraph);
+    for (int target = 0; target < routingGraph.getNodeCount(); target += 11) {
+      Route expected = engine.dijkstra(0, target, dynamic);
+      Route actual = planner.route(0, target, dynamic);
+      if (expected == null) {
+        assertNull(actual);
+      } else {
+        assertEquals(expected.getCost(), actual.getCost(), 1e-6);
+      }
+    }
+  }
+
+  private void assertMatchesDijkstra(ShortestPathEngine engine, ContractionHierarchyQuery query) {
+    for (int source = 0; source < routingGraph.getNodeCount(); source += 17) {
+      for (int target = 0; target < routingGraph.getNodeCount(); target += 13) {
+        Route expected = engine.dijkstra(source, target, EdgeCostFunction.LENGTH);
+        Route actual = query.route(source, target);
+        if (expected == null) {
+          assertNull(actual);
+          continue;
+        }
+        assertEquals(expected.getCost(), actual.getCost(), 1e-6);
+
+        // unpacked route is a connected path over original graph edges with the same cost
+        int[] nodes = actual.getNodes();
+        int[] edges = actual.getEdges();
+        assertEquals(source, nodes[0]);
+        assertEquals(target, nodes[nodes.length - 1]);
+        double edgeCostSum = 0d;
+        for (int i = 0; i < edges.length; i++) {
+          assertEquals(nodes[i], routingGraph.getEdgeSource(edges[i]));
+          edgeCostSum += routingGraph.getEdgeLength(edges[i]);
+        }
+        assertEquals(actual.getCost(), edgeCostSum, 1e-6);
+      }
+    }
+  }
+
+}
@@ -0,0 +1,101 @@
+package me.callsen.taylor.scenicrouting.javasdk.routing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+
+import me.callsen.taylor.scenicrouting.javasdk.TestUtils;
+import me.callsen.taylor.scenicrouting.javasdk.data.GraphDb;
+
+@TestInstance(Lifecycle.PER_CLASS)
+public class IsochroneTest {
+
+  // start intersection of a known CONNECTS relationship in the fixture
+  private static final long SOURCE_OSM_ID = 65312481L;
+  private static final double MAX_METERS = 750d;
+
+  private GraphDb db;
+  private RoutingGraph routingGraph;
+
+  @BeforeAll
+  public void initResources() throws Exception {
+    db = TestUtils.getLoadedGraphDb();
+    routingGraph = db.buildRoutingGraph();
+  }
+
+  @AfterAll
+  public void shutdownResources() {
+    db.shutdown();
+  }
+
+  @Test
+  public void testReachableNodesMatchPointToPointSearches() throws Exception {
+    ShortestPathEngine engine = new ShortestPathEngine(routingGraph);
+    Isochrone isochrone = engine.isochroneByOsmId(SOURCE_OSM_ID, MAX_METERS, EdgeCostFunction.LENGTH);
+    int source = routingGraph.getNodeIndex(SOURCE_OSM_ID);
+    assertEquals(source, isochrone.getSourceNode());
+    assertEquals(source, isochrone.getNodes()[0]);
+    assertEquals(0d, isochrone.getCost(0));
+    assertTrue(isochrone.getNodeCount() > 1);
+
+    // costs never decrease and stay within the budget
+    for (int i = 1; i < isochrone.getNodeCount(); i++) {
+      assertTrue(isochrone.getCost(i) >= isochrone.getCost(i - 1));
+      assertTrue(isochrone.getCost(i) <= MAX_METERS);
+    }
+
+    ShortestPathEngine checkEngine = new ShortestPathEngine(routingGraph);
+    int expectedCount = 0;
+    for (int node = 0; node < routingGraph.getNodeCount(); node++) {
+      Route route = checkEngine.dijkstra(source, node, EdgeCostFunction.LENGTH);
+      boolean withinBudget = route != null && route.getCost() <= MAX_METERS;
+      assertEquals(withinBudget, isochrone.isReachable(node));
+      if (withinBudget) {
+        expectedCount++;
+      }
+    }
+    assertEquals(expectedCount, isochrone.getNodeCount());
+  }
+
+  @Test
+  public void testOutlineEnclosesReachableNodes() throws Exception {
+    Isochrone isochrone = new ShortestPathEngine(routingGraph).isochroneByOsmId(SOURCE_OSM_ID, MAX_METERS, EdgeCostFunction.LENGTH);
+    double[] latitudes = isochrone.getOutlineLatitudes();
+    double[] longitudes = isochrone.getOutlineLongitudes();
+    assertTrue(latitudes.length >= 3);
+    assertTrue(isochrone.getOutlineWkt().startsWith("POLYGON(("));
+
+    // counter-clockwise hull - every node is left of (or on) every outline edge
+    for (int node : isochrone.getNodes()) {
+      double latitude = routingGraph.getNodeLatitude(node);
+      double longitude = routingGraph.getNodeLongitude(node);
+      for (int i = 0; i < latitudes.length; i++) {
+        int j = (i + 1) % latitudes.length;
+        double cross = (longitudes[j] - longitudes[i]) * (latitude - latitudes[i]) - (latitudes[j] - latitudes[i]) * (longitude - longitudes[i]);
+        // outline vertices are rounded to 1e-7 degrees
+        assertTrue(cross >= -1e-8);
+      }
+    }
+  }
+
+  @Test
+  public void testZeroBudget() throws Exception {
+    Isochrone isochrone = new ShortestPathEngine(routingGraph).isochroneByOsmId(SOURCE_OSM_ID, 0d, EdgeCostFunction.LENGTH);
+    assertTrue(isochrone.isReachable(routingGraph.getNodeIndex(SOURCE_OSM_ID)));
+    for (int i = 0; i < isochrone.getNodeCount(); i++) {
+      assertEquals(0d, isochrone.getCost(i));
+    }
+    assertFalse(isochrone.isReachable(-1));
+
+    assertThrows(IllegalArgumentException.class,
+        () -> new ShortestPathEngine(routingGraph).isochroneByOsmId(SOURCE_OSM_ID, -1d, EdgeCostFunction.LENGTH));
+  }
+
+}
@@ -0,0 +1,92 @@
+package me.callsen.taylor.scenicrouting.javasdk.routing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+
+import me.callsen.taylor.scenicrouting.javasdk.TestUtils;
+import me.callsen.taylor.scenicrouting.javasdk.data.GraphDb;
+
+@TestInstance(Lifecycle.PER_CLASS)
+public class RouteMatrixTest {
+
+  private GraphDb db;
+  private RoutingGraph routingGraph;
+  private int[] sources;
+  private int[] targets;
+
+  @BeforeAll
+  public void initResources() throws Exception {
+    db = TestUtils.getLoadedGraphDb();
+    routingGraph = db.buildRoutingGraph();
+
+    // spread over the graph, with a repeated target
+    int nodeCount = routingGraph.getNodeCount();
+    sources = new int[] { 0, nodeCount / 5, nodeCount / 3, nodeCount / 2, nodeCount - 1 };
+    targets = new int[] { 1, nodeCount / 4, nodeCount / 2, (2 * nodeCount) / 3, nodeCount / 4, nodeCount - 2 };
+  }
+
+  @AfterAll
+  public void shutdownResources() {
+    db.shutdown();
+  }
+
+  @Test
+  public void testMatchesPointToPointSearches() throws Exception {
+    RouteMatrix matrix = RouteMatrix.compute(routingGraph, sources, targets, EdgeCostFunction.LENGTH, 3);
+    assertEquals(sources.length, matrix.getSourceCount());
+    assertEquals(targets.length, matrix.getTargetCount());
+
+    ShortestPathEngine engine = new ShortestPathEngine(routingGraph);
+    boolean anyReachable = false;
+    for (int row = 0; row < sources.length; row++) {
+      for (int column = 0; column < targets.length; column++) {
+        Route route = engine.dijkstra(sources[row], targets[column], EdgeCostFunction.LENGTH);
+        if (route == null) {
+          assertFalse(matrix.isReachable(row, column));
+          assertEquals(Double.POSITIVE_INFINITY, matrix.getCost(row, column));
+        } else {
+          anyReachable = true;
+          assertTrue(matrix.isReachable(row, column));
+          assertEquals(route.getCost(), matrix.getCost(row, column), 1e-6);
+          assertEquals(route.getCost(), matrix.getLength(row, column), 1e-6);
+        }
+      }
+    }
+    assertTrue(anyReachable);
+  }
+
+  @Test
+  public void testParallelMatchesSequential() throws Exception {
+    RouteMatrix sequential = RouteMatrix.compute(routingGraph, sources, targets, EdgeCostFunction.LENGTH, 1);
+    RouteMatrix parallel = RouteMatrix.compute(routingGraph, sources, targets, EdgeCostFunction.LENGTH, 4);
+    for (int row = 0; row < sources.length; row++) {
+      for (int column = 0; column < targets.length; column++) {
+        assertEquals(sequential.getCost(row, column), parallel.getCost(row, column));
+      }
+    }
+    assertEquals(sequential.getSettledNodes(), parallel.getSettledNodes());
+    // one search per source, never more nodes than every source settling the whole graph
+    assertTrue(sequential.getSettledNodes() <= (long) sources.length * routingGraph.getNodeCount());
+  }
+
+  @Test
+  public void testByOsmId() throws Exception {
+    long[] sourceOsmIds = new long[] { routingGraph.getNodeOsmId(sources[0]) };
+    long[] targetOsmIds = new long[] { routingGraph.getNodeOsmId(sources[0]), routingGraph.getNodeOsmId(targets[1]) };
+    RouteMatrix matrix = RouteMatrix.computeByOsmId(routingGraph, sourceOsmIds, targetOsmIds, EdgeCostFunction.LENGTH);
+    assertEquals(0d, matrix.getCost(0, 0));
+    assertEquals(0d, matrix.getLength(0, 0));
+
+    assertThrows(IllegalArgumentException.class,
+        () -> RouteMatrix.computeByOsmId(routingGraph, new long[] { -42L }, targetOsmIds, EdgeCostFunction.LENGTH));
+  }
+
+}
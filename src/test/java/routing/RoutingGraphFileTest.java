@@ -0,0 +1,89 @@
+package me.callsen.taylor.scenicrouting.javasdk.routing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+
+import me.callsen.taylor.scenicrouting.javasdk.TestUtils;
+import me.callsen.taylor.scenicrouting.javasdk.data.AssociatedDataSchema;
+import me.callsen.taylor.scenicrouting.javasdk.data.GraphDb;
+
+@TestInstance(Lifecycle.PER_CLASS)
+public class RoutingGraphFileTest {
+
+  private GraphDb db;
+
+  @BeforeAll
+  public void initResources() throws Exception {
+    db = TestUtils.getLoadedGraphDb();
+  }
+
+  @AfterAll
+  public void shutdownResources() {
+    db.shutdown();
+  }
+
+  @Test
+  public void testWriteAndOpen() throws Exception {
+    AssociatedDataSchema schema = new AssociatedDataSchema();
+    schema.register("ad_elevation", "start");
+
+    Path snapshotFile = Files.createTempDirectory("scenicrouting-snapshot").resolve("graph.srg");
+    RoutingGraph built = db.exportRoutingGraph(snapshotFile, schema);
+    RoutingGraph mapped = RoutingGraphFile.open(snapshotFile);
+
+    assertEquals(built.getNodeCount(), mapped.getNodeCount());
+    assertEquals(built.getEdgeCount(), mapped.getEdgeCount());
+    assertEquals(built.getCreatedAtMillis(), mapped.getCreatedAtMillis());
+    assertEquals(1, mapped.getSchema().getSlotCount());
+    assertEquals("ad_elevation", mapped.getSchema().getPropertyName(0));
+
+    for (int node = 0; node < built.getNodeCount(); node++) {
+      assertEquals(built.getNodeOsmId(node), mapped.getNodeOsmId(node));
+      assertEquals(built.getNodeLatitude(node), mapped.getNodeLatitude(node));
+      assertEquals(built.getFirstEdge(node + 1), mapped.getFirstEdge(node + 1));
+      assertEquals(built.getNodeIndex(built.getNodeOsmId(node)), mapped.getNodeIndex(mapped.getNodeOsmId(node)));
+    }
+    for (int edge = 0; edge < built.getEdgeCount(); edge++) {
+      assertEquals(built.getEdgeTarget(edge), mapped.getEdgeTarget(edge));
+      assertEquals(built.getEdgeLength(edge), mapped.getEdgeLength(edge));
+      assertEquals(built.getEdgeRelationshipId(edge), mapped.getEdgeRelationshipId(edge));
+      assertEquals(built.isEdgeReversed(edge), mapped.isEdgeReversed(edge));
+      assertEquals(built.getEdgeAttribute(0, edge), mapped.getEdgeAttribute(0, edge));
+    }
+  }
+
+  @Test
+  public void testOpenRejectsOtherFiles() throws Exception {
+    Path otherFile = Files.createTempFile("scenicrouting-snapshot", ".srg");
+    Files.write(otherFile, new byte[64]);
+    assertThrows(IOException.class, () -> RoutingGraphFile.open(otherFile));
+  }
+
+  @Test
+  public void testOpenRejectsTruncatedHeader() throws Exception {
+    AssociatedDataSchema schema = new AssociatedDataSchema();
+    schema.register("ad_elevation", "start");
+    Path snapshotFile = Files.createTempDirectory("scenicrouting-snapshot").resolve("graph.srg");
+    db.exportRoutingGraph(snapshotFile, schema);
+    byte[] bytes = Files.readAllBytes(snapshotFile);
+
+    // cut inside the bounding box, inside the slot names, and right after the header
+    for (int length : new int[] { 40, 70, 90 }) {
+      Path truncatedFile = snapshotFile.resolveSibling("truncated-" + length + ".srg");
+      Files.write(truncatedFile, Arrays.copyOf(bytes, length));
+      assertThrows(IOException.class, () -> RoutingGraphFile.open(truncatedFile));
+    }
+  }
+
+}
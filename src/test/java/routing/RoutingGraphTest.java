@@ -0,0 +1,71 @@
+package me.callsen.taylor.scenicrouting.javasdk.routing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.neo4j.graphdb.Transaction;
+
+import me.callsen.taylor.scenicrouting.javasdk.TestUtils;
+import me.callsen.taylor.scenicrouting.javasdk.data.GraphDb;
+
+@TestInstance(Lifecycle.PER_CLASS)
+public class RoutingGraphTest {
+
+  private GraphDb db;
+  private RoutingGraph routingGraph;
+
+  @BeforeAll
+  public void initResources() throws Exception {
+    db = TestUtils.getLoadedGraphDb();
+    routingGraph = db.buildRoutingGraph();
+  }
+
+  @AfterAll
+  public void shutdownResources() {
+    db.shutdown();
+  }
+
+  @Test
+  public void testNodeCount() throws Exception {
+    try ( Transaction tx = db.getTransaction() ) {
+      long intersectionCount = (Long) tx.execute("MATCH (n:INTERSECTION) RETURN count(n) AS total").next().get("total");
+      assertEquals(intersectionCount, routingGraph.getNodeCount());
+    }
+  }
+
+  @Test
+  public void testEdgesInCsrOrder() throws Exception {
+    // every relationship produces one or two edges
+    long relationshipCount = db.getRelationshipCount();
+    assertTrue(routingGraph.getEdgeCount() >= relationshipCount);
+    assertTrue(routingGraph.getEdgeCount() <= 2 * relationshipCount);
+
+    for (int node = 0; node < routingGraph.getNodeCount(); node++) {
+      for (int edge = routingGraph.getFirstEdge(node); edge < routingGraph.getFirstEdge(node + 1); edge++) {
+        assertEquals(node, routingGraph.getEdgeSource(edge));
+        assertTrue(routingGraph.getEdgeTarget(edge) >= 0 && routingGraph.getEdgeTarget(edge) < routingGraph.getNodeCount());
+        assertTrue(routingGraph.getEdgeLength(edge) >= 0);
+      }
+    }
+  }
+
+  @Test
+  public void testOsmIdLookup() throws Exception {
+    for (int node = 0; node < routingGraph.getNodeCount(); node++) {
+      assertEquals(routingGraph.getNodeOsmId(node), routingGraph.getNodeOsmId(routingGraph.getNodeIndex(routingGraph.getNodeOsmId(node))));
+    }
+  }
+
+  @Test
+  public void testRefresh() throws Exception {
+    RoutingGraph refreshed = routingGraph.refresh(db);
+    assertEquals(routingGraph.getNodeCount(), refreshed.getNodeCount());
+    assertEquals(routingGraph.getEdgeCount(), refreshed.getEdgeCount());
+  }
+
+}
@@ -0,0 +1,129 @@
+package me.callsen.taylor.scenicrouting.javasdk.routing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+
+import me.callsen.taylor.scenicrouting.javasdk.TestUtils;
+import me.callsen.taylor.scenicrouting.javasdk.data.GraphDb;
+import me.callsen.taylor.scenicrouting.javasdk.util.GeoUtils;
+
+@TestInstance(Lifecycle.PER_CLASS)
+public class ShortestPathEngineTest {
+
+  // straight line distance between edge endpoints - guarantees an admissible A* heuristic with any fixture data
+  private static final EdgeCostFunction STRAIGHT_LINE = new EdgeCostFunction() {
+    @Override
+    public double cost(RoutingGraph graph, int edge) {
+      int source = graph.getEdgeSource(edge);
+      int target = graph.getEdgeTarget(edge);
+      return GeoUtils.haversine(graph.getNodeLatitude(source), graph.getNodeLongitude(source), 
+          graph.getNodeLatitude(target), graph.getNodeLongitude(target));
+    }
+
+    @Override
+    public double getMinCostPerMeter() {
+      return 1d;
+    }
+  };
+
+  private GraphDb db;
+  private RoutingGraph routingGraph;
+
+  @BeforeAll
+  public void initResources() throws Exception {
+    db = TestUtils.getLoadedGraphDb();
+    routingGraph = db.buildRoutingGraph();
+  }
+
+  @AfterAll
+  public void shutdownResources() {
+    db.shutdown();
+  }
+
+  @Test
+  public void testSameSourceAndTarget() throws Exception {
+    ShortestPathEngine engine = new ShortestPathEngine(routingGraph);
+    Route route = engine.dijkstra(0, 0, EdgeCostFunction.LENGTH);
+    assertNotNull(route);
+    assertEquals(0d, route.getCost());
+    assertEquals(1, route.getNodes().length);
+    assertEquals(0, route.getEdges().length);
+  }
+
+  @Test
+  public void testDijkstraAndAStarAgree() throws Exception {
+    ShortestPathEngine engine = new ShortestPathEngine(routingGraph);
+    int routesFound = 0;
+    for (int target = 0; target < routingGraph.getNodeCount(); target += 7) {
+      Route dijkstraRoute = engine.dijkstra(0, target, STRAIGHT_LINE);
+      Route aStarRoute = engine.aStar(0, target, STRAIGHT_LINE);
+      if (dijkstraRoute == null) {
+        assertNull(aStarRoute);
+        continue;
+      }
+      routesFound++;
+      assertEquals(dijkstraRoute.getCost(), aStarRoute.getCost(), 1e-6);
+
+      // route edges are connected and lead from source to target
+      int[] nodes = dijkstraRoute.getNodes();
+      int[] edges = dijkstraRoute.getEdges();
+      assertEquals(0, nodes[0]);
+      assertEquals(target, nodes[nodes.length - 1]);
+      for (int i = 0; i < edges.length; i++) {
+        assertEquals(nodes[i], routingGraph.getEdgeSource(edges[i]));
+        assertEquals(nodes[i + 1], routingGraph.getEdgeTarget(edges[i]));
+      }
+    }
+    assertTrue(routesFound > 0);
+  }
+
+  @Test
+  public void testDijkstraAndAStarAgreeOnLength() throws Exception {
+    // stored lengths are kept as is - the heuristic is scaled down by the smallest length / straight line ratio
+    double minLengthRatio = routingGraph.getMinLengthRatio();
+    assertTrue(minLengthRatio > 0d && minLengthRatio <= 1d);
+    for (int edge = 0; edge < routingGraph.getEdgeCount(); edge++) {
+      double straightLine = STRAIGHT_LINE.cost(routingGraph, edge);
+      if (straightLine > 0d) {
+        assertTrue(routingGraph.getEdgeLength(edge) >= minLengthRatio * straightLine - 1e-9);
+      }
+    }
+
+    ShortestPathEngine engine = new ShortestPathEngine(routingGraph);
+    int routesFound = 0;
+    for (int source = 0; source < routingGraph.getNodeCount(); source += 31) {
+      for (int target = 0; target < routingGraph.getNodeCount(); target += 7) {
+        Route dijkstraRoute = engine.dijkstra(source, target, EdgeCostFunction.LENGTH);
+        Route aStarRoute = engine.aStar(source, target, EdgeCostFunction.LENGTH);
+        if (dijkstraRoute == null) {
+          assertNull(aStarRoute);
+          continue;
+        }
+        routesFound++;
+        assertEquals(dijkstraRoute.getCost(), aStarRoute.getCost(), 1e-6);
+      }
+    }
+    assertTrue(routesFound > 0);
+  }
+
+  @Test
+  public void testForbiddenEdges() throws Exception {
+    ShortestPathEngine engine = new ShortestPathEngine(routingGraph);
+    EdgeCostFunction forbidAll = (graph, edge) -> Double.POSITIVE_INFINITY;
+    if (routingGraph.getOutDegree(0) > 0) {
+      int target = routingGraph.getEdgeTarget(routingGraph.getFirstEdge(0));
+      if (target != 0) {
+        assertNull(engine.dijkstra(0, target, forbidAll));
+      }
+    }
+  }
+
+}
@@ -0,0 +1,64 @@
+package me.callsen.taylor.scenicrouting.javasdk.spatial;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+public class GeoHashTest {
+
+  @Test
+  public void testEncode() {
+    assertEquals("u4pruydqqvj", GeoHash.encode(57.64911d, 10.40744d, 11));
+    assertEquals("u4pru", GeoHash.encode(57.64911d, 10.40744d, 5));
+  }
+
+  @Test
+  public void testBoundsContainEncodedPoint() {
+    for (int precision = 1; precision <= GeoHash.MAX_PRECISION; precision++) {
+      String hash = GeoHash.encode(37.7749d, -122.4194d, precision);
+      BoundingBox bounds = GeoHash.bounds(hash);
+      assertTrue(bounds.contains(37.7749d, -122.4194d));
+      assertEquals(GeoHash.getCellHeight(precision), bounds.getMaxLatitude() - bounds.getMinLatitude(), 1e-9);
+      assertEquals(GeoHash.getCellWidth(precision), bounds.getMaxLongitude() - bounds.getMinLongitude(), 1e-9);
+    }
+  }
+
+  @Test
+  public void testCoverContainsBoxCorners() {
+    BoundingBox box = new BoundingBox(37.70d, -122.52d, 37.83d, -122.35d);
+    List<String> cells = GeoHash.cover(box, 5);
+
+    Set<String> unique = new HashSet<String>(cells);
+    assertEquals(cells.size(), unique.size());
+    assertTrue(unique.contains(GeoHash.encode(box.getMinLatitude(), box.getMinLongitude(), 5)));
+    assertTrue(unique.contains(GeoHash.encode(box.getMinLatitude(), box.getMaxLongitude(), 5)));
+    assertTrue(unique.contains(GeoHash.encode(box.getMaxLatitude(), box.getMinLongitude(), 5)));
+    assertTrue(unique.contains(GeoHash.encode(box.getMaxLatitude(), box.getMaxLongitude(), 5)));
+    for (String cell : cells) {
+      assertTrue(GeoHash.bounds(cell).intersects(box));
+    }
+  }
+
+  @Test
+  public void testInvalidInput() {
+    assertThrows(IllegalArgumentException.class, () -> GeoHash.encode(0d, 0d, 0));
+    assertThrows(IllegalArgumentException.class, () -> GeoHash.bounds("u4pa"));
+    assertThrows(IllegalArgumentException.class, () -> GeoHash.cover(BoundingBox.WORLD, 8));
+    assertThrows(IllegalArgumentException.class, () -> new BoundingBox(10d, 0d, 5d, 1d));
+  }
+
+  @Test
+  public void testBoundingBoxExpand() {
+    BoundingBox box = BoundingBox.around(37.7749d, -122.4194d, 1000d);
+    assertTrue(box.contains(37.7749d + 0.0089d, -122.4194d));
+    assertTrue(box.contains(37.7749d, -122.4194d - 0.0113d));
+    assertTrue(!box.contains(37.7749d + 0.0091d, -122.4194d));
+  }
+
+}
@@ -0,0 +1,119 @@
+package me.callsen.taylor.scenicrouting.javasdk.spatial;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.ResourceIterator;
+import org.neo4j.graphdb.Transaction;
+
+import me.callsen.taylor.scenicrouting.javasdk.RoutingConstants;
+import me.callsen.taylor.scenicrouting.javasdk.RoutingConstants.NodeLabels;
+import me.callsen.taylor.scenicrouting.javasdk.TestUtils;
+import me.callsen.taylor.scenicrouting.javasdk.data.GraphDb;
+import me.callsen.taylor.scenicrouting.javasdk.util.GeoUtils;
+
+@TestInstance(Lifecycle.PER_CLASS)
+public class SpatialIndexTest {
+
+  private GraphDb db;
+  private List<double[]> intersections = new ArrayList<double[]>();
+
+  @BeforeAll
+  public void initResources() throws Exception {
+    db = TestUtils.getLoadedGraphDb();
+    // node id, latitude, longitude of every intersection for brute force comparison
+    try ( Transaction tx = db.getTransaction() ) {
+      try ( ResourceIterator<Node> nodes = tx.findNodes(NodeLabels.INTERSECTION) ) {
+        while (nodes.hasNext()) {
+          Node node = nodes.next();
+          Object geom = node.getProperty(RoutingConstants.GRAPH_PROPERTY_NAME_GEOM, null);
+          if (geom != null) {
+            intersections.add(new double[] { node.getId(), GeoUtils.latitude(geom), GeoUtils.longitude(geom) });
+          }
+        }
+      }
+    }
+  }
+
+  @AfterAll
+  public void shutdownResources() {
+    db.shutdown();
+  }
+
+  @Test
+  public void testNearestIntersectionMatchesBruteForce() throws Exception {
+    SpatialIndex index = SpatialIndex.buildIntersectionIndex(db);
+    assertEquals(intersections.size(), index.size());
+
+    double[] query = intersections.get(intersections.size() / 2);
+    double latitude = query[1] + 0.0003d;
+    double longitude = query[2] - 0.0002d;
+
+    List<NearestMatch> matches = index.findNearest(latitude, longitude, 5);
+    assertEquals(5, matches.size());
+
+    double[] bruteForce = intersections.stream()
+        .mapToDouble(point -> GeoUtils.pointToSegmentDistance(latitude, longitude, point[1], point[2], point[1], point[2]))
+        .sorted().limit(5).toArray();
+    for (int i = 0; i < matches.size(); i++) {
+      assertEquals(bruteForce[i], matches.get(i).getDistanceMeters(), 1e-6);
+    }
+  }
+
+  @Test
+  public void testNearestIntersectionExactPoint() throws Exception {
+    SpatialIndex index = SpatialIndex.buildIntersectionIndex(db);
+    double[] query = intersections.get(0);
+    NearestMatch match = index.findNearest(query[1], query[2], 1).get(0);
+    assertEquals(0d, match.getDistanceMeters(), 1e-6);
+  }
+
+  @Test
+  public void testNearestWay() throws Exception {
+    SpatialIndex index = SpatialIndex.buildWayIndex(db);
+    assertTrue(index.size() > 0);
+
+    // an intersection lies on the ways it connects
+    double[] query = intersections.get(0);
+    List<NearestMatch> matches = index.findNearest(query[1], query[2], 3);
+    assertEquals(3, matches.size());
+    assertEquals(0d, matches.get(0).getDistanceMeters(), 0.5d);
+    for (int i = 1; i < matches.size(); i++) {
+      assertTrue(matches.get(i - 1).getDistanceMeters() <= matches.get(i).getDistanceMeters());
+    }
+  }
+
+  @Test
+  public void testGraphDbLookupWithAndWithoutIndex() throws Exception {
+    double[] query = intersections.get(intersections.size() - 1);
+
+    // falls back to the point index until the in-memory indexes are built
+    db.clearSpatialIndexes();
+    List<NearestMatch> fallbackMatches = db.findNearestIntersection(query[1], query[2], 1);
+    assertEquals((long) query[0], fallbackMatches.get(0).getId());
+    List<NearestMatch> fallbackWays = db.findNearestWay(query[1], query[2], 3);
+    assertEquals(3, fallbackWays.size());
+    for (int i = 1; i < fallbackWays.size(); i++) {
+      assertTrue(fallbackWays.get(i - 1).getDistanceMeters() <= fallbackWays.get(i).getDistanceMeters());
+    }
+
+    db.buildSpatialIndexes();
+    assertTrue(db.hasSpatialIndexes());
+    List<NearestMatch> indexMatches = db.findNearestIntersection(query[1], query[2], 1);
+    assertEquals((long) query[0], indexMatches.get(0).getId());
+    List<NearestMatch> indexWays = db.findNearestWay(query[1], query[2], 1);
+    assertEquals(1, indexWays.size());
+    // the fallback measures to the closest vertex, never nearer than the closest segment
+    assertTrue(fallbackWays.get(0).getDistanceMeters() >= indexWays.get(0).getDistanceMeters() - 1e-6);
+  }
+
+}